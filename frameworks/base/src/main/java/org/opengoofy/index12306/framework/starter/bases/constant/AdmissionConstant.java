@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.bases.constant;
+
+/**
+ * 网关购票准入控制常量
+ */
+public final class AdmissionConstant {
+
+    /**
+     * 排队凭证请求头，等待中的用户携带该凭证轮询购票接口
+     */
+    public static final String QUEUE_TICKET_KEY = "queueTicket";
+
+    /**
+     * 余票售罄响应头，购票服务令牌桶无余票时返回，网关据此短时间内提前拒绝同一车次区间的购票请求
+     */
+    public static final String TICKET_SOLD_OUT_KEY = "ticketSoldOut";
+}
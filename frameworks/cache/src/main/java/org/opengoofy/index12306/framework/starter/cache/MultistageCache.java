@@ -17,8 +17,16 @@
 
 package org.opengoofy.index12306.framework.starter.cache;
 
+import jakarta.validation.constraints.NotBlank;
+
 /**
  * 多级缓存
+ * 一级缓存为进程内本地缓存，保存反序列化后的对象；二级缓存为 {@link DistributedCache}
  */
-public interface MultistageCache extends Cache {
+public interface MultistageCache extends DistributedCache {
+
+    /**
+     * 失效所有节点一级缓存中的 key，不删除二级缓存
+     */
+    void evict(@NotBlank String key);
 }
@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.opengoofy.index12306.framework.starter.cache.config.MultistageCacheProperties;
+import org.opengoofy.index12306.framework.starter.cache.core.CacheGetFilter;
+import org.opengoofy.index12306.framework.starter.cache.core.CacheGetIfAbsent;
+import org.opengoofy.index12306.framework.starter.cache.core.CacheLoader;
+import org.opengoofy.index12306.framework.starter.cache.toolkit.CacheUtil;
+import org.redisson.api.RBloomFilter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多级缓存代理
+ * 一级缓存通过 Caffeine 按 Key 前缀策略缓存反序列化后的对象，未命中策略的 Key 直接访问二级缓存；
+ * 通过本代理写入或删除缓存时，借助 Redis 发布订阅通知所有节点失效一级缓存
+ * 一级缓存中的对象为多个调用方共享，调用方不应修改获取到的对象
+ */
+public class MultistageCacheProxy implements MultistageCache {
+
+    private final DistributedCache distributedCache;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String channel;
+    private final List<LocalCache> localCaches;
+
+    public MultistageCacheProxy(DistributedCache distributedCache, StringRedisTemplate stringRedisTemplate, MultistageCacheProperties multistageCacheProperties) {
+        this.distributedCache = distributedCache;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.channel = multistageCacheProperties.getChannel();
+        // 前缀越长越优先匹配
+        this.localCaches = multistageCacheProperties.getPolicies().stream()
+                .sorted(Comparator.comparingInt((MultistageCacheProperties.Policy each) -> each.getKeyPrefix().length()).reversed())
+                .map(LocalCache::new)
+                .toList();
+    }
+
+    @Override
+    public <T> T get(String key, Class<T> clazz) {
+        LocalCache localCache = matchLocalCache(key);
+        if (localCache == null) {
+            return distributedCache.get(key, clazz);
+        }
+        T result = localCache.get(key, clazz);
+        if (result != null) {
+            return result;
+        }
+        result = distributedCache.get(key, clazz);
+        localCache.put(key, result);
+        return result;
+    }
+
+    @Override
+    public void put(String key, Object value) {
+        distributedCache.put(key, value);
+        evict(key);
+    }
+
+    @Override
+    public Boolean putIfAllAbsent(@NotNull Collection<String> keys) {
+        return distributedCache.putIfAllAbsent(keys);
+    }
+
+    @Override
+    public Boolean delete(String key) {
+        Boolean result = distributedCache.delete(key);
+        evict(key);
+        return result;
+    }
+
+    @Override
+    public Long delete(Collection<String> keys) {
+        Long result = distributedCache.delete(keys);
+        keys.forEach(this::evict);
+        return result;
+    }
+
+    @Override
+    public <T> T get(@NotBlank String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout) {
+        return getWithLocalCache(key, clazz, () -> distributedCache.get(key, clazz, cacheLoader, timeout));
+    }
+
+    @Override
+    public <T> T get(@NotBlank String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit) {
+        return getWithLocalCache(key, clazz, () -> distributedCache.get(key, clazz, cacheLoader, timeout, timeUnit));
+    }
+
+    @Override
+    public <T> T safeGet(@NotBlank String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout) {
+        return getWithLocalCache(key, clazz, () -> distributedCache.safeGet(key, clazz, cacheLoader, timeout));
+    }
+
+    @Override
+    public <T> T safeGet(@NotBlank String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit) {
+        return getWithLocalCache(key, clazz, () -> distributedCache.safeGet(key, clazz, cacheLoader, timeout, timeUnit));
+    }
+
+    @Override
+    public <T> T safeGet(@NotBlank String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout, RBloomFilter<String> bloomFilter) {
+        return getWithLocalCache(key, clazz, () -> distributedCache.safeGet(key, clazz, cacheLoader, timeout, bloomFilter));
+    }
+
+    @Override
+    public <T> T safeGet(@NotBlank String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit, RBloomFilter<String> bloomFilter) {
+        return getWithLocalCache(key, clazz, () -> distributedCache.safeGet(key, clazz, cacheLoader, timeout, timeUnit, bloomFilter));
+    }
+
+    @Override
+    public <T> T safeGet(String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout, RBloomFilter<String> bloomFilter, CacheGetFilter<String> cacheCheckFilter) {
+        return getWithLocalCache(key, clazz, () -> distributedCache.safeGet(key, clazz, cacheLoader, timeout, bloomFilter, cacheCheckFilter));
+    }
+
+    @Override
+    public <T> T safeGet(String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit, RBloomFilter<String> bloomFilter, CacheGetFilter<String> cacheCheckFilter) {
+        return getWithLocalCache(key, clazz, () -> distributedCache.safeGet(key, clazz, cacheLoader, timeout, timeUnit, bloomFilter, cacheCheckFilter));
+    }
+
+    @Override
+    public <T> T safeGet(String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout,
+                         RBloomFilter<String> bloomFilter, CacheGetFilter<String> cacheGetFilter, CacheGetIfAbsent<String> cacheGetIfAbsent) {
+        return getWithLocalCache(key, clazz, () -> distributedCache.safeGet(key, clazz, cacheLoader, timeout, bloomFilter, cacheGetFilter, cacheGetIfAbsent));
+    }
+
+    @Override
+    public <T> T safeGet(String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit,
+                         RBloomFilter<String> bloomFilter, CacheGetFilter<String> cacheGetFilter, CacheGetIfAbsent<String> cacheGetIfAbsent) {
+        return getWithLocalCache(key, clazz, () -> distributedCache.safeGet(key, clazz, cacheLoader, timeout, timeUnit, bloomFilter, cacheGetFilter, cacheGetIfAbsent));
+    }
+
+    @Override
+    public void put(String key, Object value, long timeout) {
+        distributedCache.put(key, value, timeout);
+        evict(key);
+    }
+
+    @Override
+    public void put(String key, Object value, long timeout, TimeUnit timeUnit) {
+        distributedCache.put(key, value, timeout, timeUnit);
+        evict(key);
+    }
+
+    @Override
+    public void safePut(String key, Object value, long timeout, RBloomFilter<String> bloomFilter) {
+        distributedCache.safePut(key, value, timeout, bloomFilter);
+        evict(key);
+    }
+
+    @Override
+    public void safePut(String key, Object value, long timeout, TimeUnit timeUnit, RBloomFilter<String> bloomFilter) {
+        distributedCache.safePut(key, value, timeout, timeUnit, bloomFilter);
+        evict(key);
+    }
+
+    @Override
+    public Boolean hasKey(String key) {
+        LocalCache localCache = matchLocalCache(key);
+        if (localCache != null && localCache.contains(key)) {
+            return Boolean.TRUE;
+        }
+        return distributedCache.hasKey(key);
+    }
+
+    @Override
+    public Object getInstance() {
+        return distributedCache.getInstance();
+    }
+
+    @Override
+    public Long countExistingKeys(String... keys) {
+        return distributedCache.countExistingKeys(keys);
+    }
+
+    @Override
+    public void evict(String key) {
+        if (matchLocalCache(key) == null) {
+            return;
+        }
+        evictLocal(key);
+        stringRedisTemplate.convertAndSend(channel, key);
+    }
+
+    /**
+     * 仅失效当前节点一级缓存，由失效广播监听器调用
+     */
+    public void evictLocal(String key) {
+        LocalCache localCache = matchLocalCache(key);
+        if (localCache != null) {
+            localCache.evict(key);
+        }
+    }
+
+    private <T> T getWithLocalCache(String key, Class<T> clazz, CacheLoader<T> distributedCacheLoader) {
+        LocalCache localCache = matchLocalCache(key);
+        if (localCache == null) {
+            return distributedCacheLoader.load();
+        }
+        T result = localCache.get(key, clazz);
+        if (result != null) {
+            return result;
+        }
+        result = distributedCacheLoader.load();
+        localCache.put(key, result);
+        return result;
+    }
+
+    private LocalCache matchLocalCache(String key) {
+        for (LocalCache each : localCaches) {
+            if (key.startsWith(each.keyPrefix)) {
+                return each;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按 Key 前缀划分的一级缓存
+     */
+    private static final class LocalCache {
+
+        private final String keyPrefix;
+        private final com.github.benmanes.caffeine.cache.Cache<String, Object> cache;
+
+        private LocalCache(MultistageCacheProperties.Policy policy) {
+            this.keyPrefix = policy.getKeyPrefix();
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(policy.getMaximumSize())
+                    .expireAfterWrite(policy.getExpireAfterWrite(), policy.getTimeUnit())
+                    .build();
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T get(String key, Class<T> clazz) {
+            Object value = cache.getIfPresent(key);
+            return clazz.isInstance(value) ? (T) value : null;
+        }
+
+        private void put(String key, Object value) {
+            if (!CacheUtil.isNullOrBlank(value)) {
+                cache.put(key, value);
+            }
+        }
+
+        private boolean contains(String key) {
+            return cache.getIfPresent(key) != null;
+        }
+
+        private void evict(String key) {
+            cache.invalidate(key);
+        }
+    }
+}
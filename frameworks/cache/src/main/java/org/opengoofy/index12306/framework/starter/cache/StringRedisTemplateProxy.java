@@ -38,7 +38,11 @@ import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.scripting.support.ResourceScriptSource;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -55,6 +59,11 @@ public class StringRedisTemplateProxy implements DistributedCache {
     private static final String LUA_PUT_IF_ALL_ABSENT_SCRIPT_PATH = "lua/putIfAllAbsent.lua";
     private static final String SAFE_GET_DISTRIBUTED_LOCK_KEY_PREFIX = "safe_get_distributed_lock_get:";
 
+    /**
+     * 正在加载中的缓存 key -> 加载结果
+     */
+    private final Map<String, CompletableFuture<Object>> safeGetInFlightMap = new ConcurrentHashMap<>();
+
     @Override
     public <T> T get(String key, Class<T> clazz) {
         String value = stringRedisTemplate.opsForValue().get(key);
@@ -151,18 +160,33 @@ public class StringRedisTemplateProxy implements DistributedCache {
                 || Optional.ofNullable(bloomFilter).map(each -> !each.contains(key)).orElse(false)) {
             return result;
         }
-        RLock lock = redissonClient.getLock(SAFE_GET_DISTRIBUTED_LOCK_KEY_PREFIX + key);
-        lock.lock();
+        // 同一节点内相同 key 的并发请求合并为一次加载，仅由首个请求参与分布式锁竞争
+        CompletableFuture<Object> loadFuture = new CompletableFuture<>();
+        CompletableFuture<Object> inFlightFuture = safeGetInFlightMap.putIfAbsent(key, loadFuture);
+        if (inFlightFuture != null) {
+            Object inFlightResult = awaitInFlight(inFlightFuture);
+            return clazz.isInstance(inFlightResult) ? (T) inFlightResult : get(key, clazz);
+        }
         try {
-            // 双重判定锁，减轻获得分布式锁后线程访问数据库压力
-            if (CacheUtil.isNullOrBlank(result = get(key, clazz))) {
-                // 如果访问 cacheLoader 加载数据为空，执行后置函数操作
-                if (CacheUtil.isNullOrBlank(result = loadAndSet(key, cacheLoader, timeout, timeUnit, true, bloomFilter))) {
-                    Optional.ofNullable(cacheGetIfAbsent).ifPresent(each -> each.execute(key));
+            RLock lock = redissonClient.getLock(SAFE_GET_DISTRIBUTED_LOCK_KEY_PREFIX + key);
+            lock.lock();
+            try {
+                // 双重判定锁，减轻获得分布式锁后线程访问数据库压力
+                if (CacheUtil.isNullOrBlank(result = get(key, clazz))) {
+                    // 如果访问 cacheLoader 加载数据为空，执行后置函数操作
+                    if (CacheUtil.isNullOrBlank(result = loadAndSet(key, cacheLoader, timeout, timeUnit, true, bloomFilter))) {
+                        Optional.ofNullable(cacheGetIfAbsent).ifPresent(each -> each.execute(key));
+                    }
                 }
+            } finally {
+                lock.unlock();
             }
+            loadFuture.complete(result);
+        } catch (Throwable ex) {
+            loadFuture.completeExceptionally(ex);
+            throw ex;
         } finally {
-            lock.unlock();
+            safeGetInFlightMap.remove(key, loadFuture);
         }
         return result;
     }
@@ -206,6 +230,20 @@ public class StringRedisTemplateProxy implements DistributedCache {
         return stringRedisTemplate.countExistingKeys(Lists.newArrayList(keys));
     }
 
+    private Object awaitInFlight(CompletableFuture<Object> inFlightFuture) {
+        try {
+            return inFlightFuture.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
     private <T> T loadAndSet(String key, CacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit, boolean safeFlag, RBloomFilter<String> bloomFilter) {
         T result = cacheLoader.load();
         if (CacheUtil.isNullOrBlank(result)) {
@@ -18,6 +18,7 @@
 package org.opengoofy.index12306.framework.starter.cache.config;
 
 import lombok.AllArgsConstructor;
+import org.opengoofy.index12306.framework.starter.cache.MultistageCacheProxy;
 import org.opengoofy.index12306.framework.starter.cache.RedisKeySerializer;
 import org.opengoofy.index12306.framework.starter.cache.StringRedisTemplateProxy;
 import org.redisson.api.RBloomFilter;
@@ -25,13 +26,19 @@ import org.redisson.api.RedissonClient;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
 
 /**
  * 缓存配置自动装配
  */
 @AllArgsConstructor
-@EnableConfigurationProperties({RedisDistributedProperties.class, BloomFilterPenetrateProperties.class})
+@EnableConfigurationProperties({RedisDistributedProperties.class, BloomFilterPenetrateProperties.class, MultistageCacheProperties.class})
 public class CacheAutoConfiguration {
 
     private final RedisDistributedProperties redisDistributedProperties;
@@ -65,4 +72,32 @@ public class CacheAutoConfiguration {
         stringRedisTemplate.setKeySerializer(redisKeySerializer);
         return new StringRedisTemplateProxy(stringRedisTemplate, redisDistributedProperties, redissonClient);
     }
+
+    /**
+     * 多级缓存，开启后作为首选 {@link org.opengoofy.index12306.framework.starter.cache.DistributedCache} 注入
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = MultistageCacheProperties.PREFIX, name = "enabled", havingValue = "true")
+    public MultistageCacheProxy multistageCacheProxy(StringRedisTemplateProxy stringRedisTemplateProxy,
+                                                     StringRedisTemplate stringRedisTemplate,
+                                                     MultistageCacheProperties multistageCacheProperties) {
+        return new MultistageCacheProxy(stringRedisTemplateProxy, stringRedisTemplate, multistageCacheProperties);
+    }
+
+    /**
+     * 监听其它节点发出的一级缓存失效广播
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = MultistageCacheProperties.PREFIX, name = "enabled", havingValue = "true")
+    public RedisMessageListenerContainer multistageCacheInvalidateListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                                    MultistageCacheProxy multistageCacheProxy,
+                                                                                    MultistageCacheProperties multistageCacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> multistageCacheProxy.evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(multistageCacheProperties.getChannel()));
+        return container;
+    }
 }
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.cache.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多级缓存配置
+ */
+@Data
+@ConfigurationProperties(prefix = MultistageCacheProperties.PREFIX)
+public class MultistageCacheProperties {
+
+    public static final String PREFIX = "framework.cache.multistage";
+
+    /**
+     * 一级缓存失效广播 Redis Channel
+     */
+    private String channel = "framework_cache_multistage_invalidate";
+
+    /**
+     * 一级缓存策略，仅匹配 Key 前缀的缓存会进入一级缓存
+     */
+    private List<Policy> policies = new ArrayList<>();
+
+    /**
+     * 一级缓存策略
+     */
+    @Data
+    public static class Policy {
+
+        /**
+         * Key 前缀
+         */
+        private String keyPrefix;
+
+        /**
+         * 最大缓存数量
+         */
+        private Long maximumSize = 10000L;
+
+        /**
+         * 写入后过期时间
+         */
+        private Long expireAfterWrite = 60000L;
+
+        /**
+         * 时间单位
+         */
+        private TimeUnit timeUnit = TimeUnit.MILLISECONDS;
+    }
+}
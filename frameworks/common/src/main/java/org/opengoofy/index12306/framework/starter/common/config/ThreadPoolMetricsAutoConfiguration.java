@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.common.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.opengoofy.index12306.framework.starter.common.threadpool.metrics.ThreadPoolMetricsBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * 线程池指标自动装配，引入 Micrometer 时将线程池指标注册中心绑定到 MeterRegistry
+ */
+@ConditionalOnClass(MeterBinder.class)
+public class ThreadPoolMetricsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ThreadPoolMetricsBinder threadPoolMetricsBinder() {
+        return new ThreadPoolMetricsBinder();
+    }
+}
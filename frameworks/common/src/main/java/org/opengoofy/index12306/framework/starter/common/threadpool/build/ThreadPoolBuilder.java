@@ -17,22 +17,32 @@
 
 package org.opengoofy.index12306.framework.starter.common.threadpool.build;
 
+import org.opengoofy.index12306.framework.starter.common.threadpool.support.instrumented.InstrumentedThreadPoolExecutor;
+import org.opengoofy.index12306.framework.starter.common.threadpool.support.virtual.VirtualThreadPerTaskExecutor;
 import org.opengoofy.index12306.framework.starter.common.toolkit.Assert;
 import org.opengoofy.index12306.framework.starter.designpattern.builder.Builder;
 
 import java.math.BigDecimal;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 线程池 {@link ThreadPoolExecutor} 构建器, 构建者模式
+ * 构建的线程池为 {@link InstrumentedThreadPoolExecutor}，运行指标注册到线程池指标注册中心
  */
 public final class ThreadPoolBuilder implements Builder<ThreadPoolExecutor> {
 
+    /**
+     * 未指定线程名称前缀时生成指标名称的序号
+     */
+    private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
+
     private int corePoolSize = calculateCoreNum();
 
     private int maximumPoolSize = corePoolSize + (corePoolSize >> 1);
@@ -113,7 +123,9 @@ public final class ThreadPoolBuilder implements Builder<ThreadPoolExecutor> {
         }
         ThreadPoolExecutor executorService;
         try {
-            executorService = new ThreadPoolExecutor(corePoolSize,
+            executorService = new InstrumentedThreadPoolExecutor(
+                    threadNamePrefix != null ? threadNamePrefix : "thread-pool-" + POOL_SEQUENCE.incrementAndGet(),
+                    corePoolSize,
                     maximumPoolSize,
                     keepAliveTime,
                     timeUnit,
@@ -125,4 +137,20 @@ public final class ThreadPoolBuilder implements Builder<ThreadPoolExecutor> {
         }
         return executorService;
     }
+
+    /**
+     * 构建虚拟线程执行器，每个任务一个虚拟线程，适用于阻塞 IO 为主的扇出任务
+     * 运行时不支持虚拟线程时降级为按默认参数构建的可观测平台线程池
+     *
+     * @param threadNamePrefix 线程名称前缀，同时作为指标名称
+     * @return 执行器
+     */
+    public static ExecutorService virtualThreadPerTaskExecutor(String threadNamePrefix) {
+        if (VirtualThreadPerTaskExecutor.isSupported()) {
+            return new VirtualThreadPerTaskExecutor(threadNamePrefix);
+        }
+        return ThreadPoolBuilder.builder()
+                .threadFactory(threadNamePrefix, true)
+                .build();
+    }
 }
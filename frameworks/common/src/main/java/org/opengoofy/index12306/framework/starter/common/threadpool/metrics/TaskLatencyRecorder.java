@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.common.threadpool.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 任务耗时统计
+ */
+public final class TaskLatencyRecorder {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * 记录一次任务耗时
+     *
+     * @param nanos 耗时，单位纳秒
+     */
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * 已记录的任务数
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * 任务平均耗时，单位毫秒
+     */
+    public double getAverageMillis() {
+        long actualCount = count.sum();
+        return actualCount == 0 ? 0D : toMillis(totalNanos.sum()) / actualCount;
+    }
+
+    /**
+     * 任务最大耗时，单位毫秒
+     */
+    public double getMaxMillis() {
+        return toMillis(maxNanos.get());
+    }
+
+    private static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.common.threadpool.metrics;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 线程池运行指标快照
+ */
+@Data
+@Builder
+public class ThreadPoolMetrics {
+
+    /**
+     * 线程池名称
+     */
+    private String name;
+
+    /**
+     * 当前线程数
+     */
+    private Integer poolSize;
+
+    /**
+     * 正在执行任务的线程数
+     */
+    private Integer activeCount;
+
+    /**
+     * 队列中等待执行的任务数
+     */
+    private Integer queueSize;
+
+    /**
+     * 队列剩余容量
+     */
+    private Integer queueRemainingCapacity;
+
+    /**
+     * 已完成任务数
+     */
+    private Long completedTaskCount;
+
+    /**
+     * 拒绝任务数
+     */
+    private Long rejectCount;
+
+    /**
+     * 任务平均耗时，单位毫秒
+     */
+    private Double averageTaskMillis;
+
+    /**
+     * 任务最大耗时，单位毫秒
+     */
+    private Double maxTaskMillis;
+
+    /**
+     * 采集线程池运行指标快照
+     *
+     * @param name            线程池名称
+     * @param executor        线程池
+     * @param rejectCount     拒绝任务数
+     * @param latencyRecorder 任务耗时统计
+     */
+    public static ThreadPoolMetrics of(String name, ThreadPoolExecutor executor, long rejectCount, TaskLatencyRecorder latencyRecorder) {
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        return ThreadPoolMetrics.builder()
+                .name(name)
+                .poolSize(executor.getPoolSize())
+                .activeCount(executor.getActiveCount())
+                .queueSize(queue.size())
+                .queueRemainingCapacity(queue.remainingCapacity())
+                .completedTaskCount(executor.getCompletedTaskCount())
+                .rejectCount(rejectCount)
+                .averageTaskMillis(latencyRecorder.getAverageMillis())
+                .maxTaskMillis(latencyRecorder.getMaxMillis())
+                .build();
+    }
+}
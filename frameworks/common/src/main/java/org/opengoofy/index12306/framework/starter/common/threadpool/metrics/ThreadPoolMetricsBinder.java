@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.common.threadpool.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 将线程池指标注册中心中的线程池绑定到 Micrometer，通过 actuator 的 metrics 与 prometheus 端点导出
+ * 绑定后新注册的线程池同步创建指标，注销的线程池同步移除指标
+ */
+public class ThreadPoolMetricsBinder implements MeterBinder, ThreadPoolMetricsListener {
+
+    private static final String METRIC_PREFIX = "thread.pool.";
+
+    private static final String TAG_NAME = "name";
+
+    private final Map<String, List<Meter>> boundMeters = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry meterRegistry;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        ThreadPoolMetricsRegistry.addListener(this);
+        ThreadPoolMetricsRegistry.names().forEach(this::onRegister);
+    }
+
+    @Override
+    public void onRegister(String name) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            return;
+        }
+        boundMeters.computeIfAbsent(name, each -> List.of(
+                gauge(registry, name, "pool.size", "当前线程数", ThreadPoolMetrics::getPoolSize),
+                gauge(registry, name, "active", "正在执行任务的线程数", ThreadPoolMetrics::getActiveCount),
+                gauge(registry, name, "queue.size", "队列中等待执行的任务数", ThreadPoolMetrics::getQueueSize),
+                gauge(registry, name, "queue.remaining", "队列剩余容量", ThreadPoolMetrics::getQueueRemainingCapacity),
+                gauge(registry, name, "task.avg", "任务平均耗时，单位毫秒", ThreadPoolMetrics::getAverageTaskMillis),
+                gauge(registry, name, "task.max", "任务最大耗时，单位毫秒", ThreadPoolMetrics::getMaxTaskMillis),
+                counter(registry, name, "completed", "已完成任务数", ThreadPoolMetrics::getCompletedTaskCount),
+                counter(registry, name, "rejected", "拒绝任务数", ThreadPoolMetrics::getRejectCount)));
+    }
+
+    @Override
+    public void onRemove(String name) {
+        MeterRegistry registry = meterRegistry;
+        List<Meter> meters = boundMeters.remove(name);
+        if (registry != null && meters != null) {
+            meters.forEach(registry::remove);
+        }
+    }
+
+    private Meter gauge(MeterRegistry registry, String name, String metric, String description, Function<ThreadPoolMetrics, Number> getter) {
+        return Gauge.builder(METRIC_PREFIX + metric, name, each -> value(each, getter))
+                .description(description)
+                .tag(TAG_NAME, name)
+                .register(registry);
+    }
+
+    private Meter counter(MeterRegistry registry, String name, String metric, String description, Function<ThreadPoolMetrics, Number> getter) {
+        return FunctionCounter.builder(METRIC_PREFIX + metric, name, each -> value(each, getter))
+                .description(description)
+                .tag(TAG_NAME, name)
+                .register(registry);
+    }
+
+    private static double value(String name, Function<ThreadPoolMetrics, Number> getter) {
+        ThreadPoolMetrics metrics = ThreadPoolMetricsRegistry.get(name);
+        Number value = metrics == null ? null : getter.apply(metrics);
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.common.threadpool.metrics;
+
+/**
+ * 线程池指标注册监听
+ */
+public interface ThreadPoolMetricsListener {
+
+    /**
+     * 线程池注册指标后回调
+     *
+     * @param name 线程池名称
+     */
+    void onRegister(String name);
+
+    /**
+     * 线程池注销指标后回调
+     *
+     * @param name 线程池名称
+     */
+    void onRemove(String name);
+}
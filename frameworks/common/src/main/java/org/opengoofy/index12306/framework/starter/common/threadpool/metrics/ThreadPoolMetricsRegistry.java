@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.common.threadpool.metrics;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * 线程池指标注册中心，由框架构建的线程池创建时注册、终止时注销，供监控端点或定时上报统一采集
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ThreadPoolMetricsRegistry {
+
+    private static final Map<String, Supplier<ThreadPoolMetrics>> METRICS_SUPPLIERS = new ConcurrentHashMap<>();
+
+    private static final List<ThreadPoolMetricsListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    /**
+     * 注册线程池指标，名称相同时覆盖
+     */
+    public static void register(String name, Supplier<ThreadPoolMetrics> metricsSupplier) {
+        METRICS_SUPPLIERS.put(name, metricsSupplier);
+        LISTENERS.forEach(each -> each.onRegister(name));
+    }
+
+    /**
+     * 注销线程池指标
+     */
+    public static void remove(String name) {
+        if (METRICS_SUPPLIERS.remove(name) != null) {
+            LISTENERS.forEach(each -> each.onRemove(name));
+        }
+    }
+
+    /**
+     * 添加线程池注册监听，添加前已注册的线程池需调用方通过 {@link #names()} 自行补齐
+     */
+    public static void addListener(ThreadPoolMetricsListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * 移除线程池注册监听
+     */
+    public static void removeListener(ThreadPoolMetricsListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * 已注册的线程池名称
+     */
+    public static Set<String> names() {
+        return Set.copyOf(METRICS_SUPPLIERS.keySet());
+    }
+
+    /**
+     * 采集指定线程池指标快照
+     *
+     * @return 线程池未注册或已注销时返回 null
+     */
+    public static ThreadPoolMetrics get(String name) {
+        Supplier<ThreadPoolMetrics> metricsSupplier = METRICS_SUPPLIERS.get(name);
+        return metricsSupplier == null ? null : metricsSupplier.get();
+    }
+
+    /**
+     * 采集全部线程池指标快照
+     */
+    public static List<ThreadPoolMetrics> snapshot() {
+        return METRICS_SUPPLIERS.values().stream().map(Supplier::get).toList();
+    }
+}
@@ -17,17 +17,20 @@
 
 package org.opengoofy.index12306.framework.starter.common.threadpool.support.eager;
 
+import org.opengoofy.index12306.framework.starter.common.threadpool.support.instrumented.InstrumentedThreadPoolExecutor;
+
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 快速消费线程池
  */
-public class EagerThreadPoolExecutor extends ThreadPoolExecutor {
+public class EagerThreadPoolExecutor extends InstrumentedThreadPoolExecutor {
+
+    private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
 
     public EagerThreadPoolExecutor(int corePoolSize,
                                    int maximumPoolSize,
@@ -36,7 +39,18 @@ public class EagerThreadPoolExecutor extends ThreadPoolExecutor {
                                    TaskQueue<Runnable> workQueue,
                                    ThreadFactory threadFactory,
                                    RejectedExecutionHandler handler) {
-        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler);
+        this("eager-thread-pool-" + POOL_SEQUENCE.incrementAndGet(), corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler);
+    }
+
+    public EagerThreadPoolExecutor(String name,
+                                   int corePoolSize,
+                                   int maximumPoolSize,
+                                   long keepAliveTime,
+                                   TimeUnit unit,
+                                   TaskQueue<Runnable> workQueue,
+                                   ThreadFactory threadFactory,
+                                   RejectedExecutionHandler handler) {
+        super(name, corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler);
     }
 
     private final AtomicInteger submittedTaskCount = new AtomicInteger(0);
@@ -48,6 +62,7 @@ public class EagerThreadPoolExecutor extends ThreadPoolExecutor {
     @Override
     protected void afterExecute(Runnable r, Throwable t) {
         submittedTaskCount.decrementAndGet();
+        super.afterExecute(r, t);
     }
 
     @Override
@@ -62,6 +77,8 @@ public class EagerThreadPoolExecutor extends ThreadPoolExecutor {
                     submittedTaskCount.decrementAndGet();
                     throw new RejectedExecutionException("Queue capacity is full.", ex);
                 }
+                // 线程数已达上限时重新入队成功，不计为拒绝
+                revokeReject();
             } catch (InterruptedException iex) {
                 submittedTaskCount.decrementAndGet();
                 throw new RejectedExecutionException(iex);
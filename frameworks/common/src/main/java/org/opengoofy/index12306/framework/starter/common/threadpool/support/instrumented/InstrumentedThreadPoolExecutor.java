@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.common.threadpool.support.instrumented;
+
+import lombok.Getter;
+import org.opengoofy.index12306.framework.starter.common.threadpool.metrics.TaskLatencyRecorder;
+import org.opengoofy.index12306.framework.starter.common.threadpool.metrics.ThreadPoolMetrics;
+import org.opengoofy.index12306.framework.starter.common.threadpool.metrics.ThreadPoolMetricsRegistry;
+import org.opengoofy.index12306.framework.starter.common.threadpool.proxy.RejectedProxyUtil;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 可观测线程池
+ * 统计任务执行耗时与拒绝次数，并注册到 {@link ThreadPoolMetricsRegistry} 导出队列深度、活跃线程数等运行指标
+ */
+public class InstrumentedThreadPoolExecutor extends ThreadPoolExecutor {
+
+    @Getter
+    private final String name;
+
+    private final AtomicLong rejectCount = new AtomicLong();
+    private final TaskLatencyRecorder latencyRecorder = new TaskLatencyRecorder();
+    private final ThreadLocal<Long> taskStartTime = new ThreadLocal<>();
+
+    public InstrumentedThreadPoolExecutor(String name,
+                                          int corePoolSize,
+                                          int maximumPoolSize,
+                                          long keepAliveTime,
+                                          TimeUnit unit,
+                                          BlockingQueue<Runnable> workQueue,
+                                          ThreadFactory threadFactory,
+                                          RejectedExecutionHandler handler) {
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler);
+        this.name = name;
+        setRejectedExecutionHandler(handler);
+        ThreadPoolMetricsRegistry.register(name, this::getMetrics);
+    }
+
+    /**
+     * 设置拒绝策略，通过代理统计拒绝次数
+     */
+    @Override
+    public void setRejectedExecutionHandler(RejectedExecutionHandler handler) {
+        super.setRejectedExecutionHandler(RejectedProxyUtil.createProxy(handler, rejectCount));
+    }
+
+    /**
+     * 拒绝策略执行后任务又被成功接收时撤销一次拒绝计数
+     */
+    protected void revokeReject() {
+        rejectCount.decrementAndGet();
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        super.beforeExecute(t, r);
+        taskStartTime.set(System.nanoTime());
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        Long startTime = taskStartTime.get();
+        if (startTime != null) {
+            latencyRecorder.record(System.nanoTime() - startTime);
+            taskStartTime.remove();
+        }
+        super.afterExecute(r, t);
+    }
+
+    @Override
+    protected void terminated() {
+        ThreadPoolMetricsRegistry.remove(name);
+        super.terminated();
+    }
+
+    /**
+     * 获取线程池运行指标快照
+     */
+    public ThreadPoolMetrics getMetrics() {
+        return ThreadPoolMetrics.of(name, this, rejectCount.get(), latencyRecorder);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.common.threadpool.support.scope;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 有界结构化并发任务作用域
+ * 同一作用域内派生的子任务并发数不超过 maxConcurrency，{@link #join} 等待全部子任务完成：
+ * 任一子任务失败或等待超时时取消其余子任务并立即返回，作用域关闭时取消所有未完成的子任务，避免子任务脱离调用方生命周期；
+ * 子任务会修改外部状态、中途取消无法确认是否已生效时使用 {@link #joinAll} 等待全部子任务结束，由调用方根据各子任务结果补偿
+ *
+ * <pre>
+ * try (BoundedTaskScope&lt;Result&gt; scope = new BoundedTaskScope&lt;&gt;(executor, 8)) {
+ *     tasks.forEach(each -&gt; scope.fork(each));
+ *     List&lt;Result&gt; results = scope.join(3, TimeUnit.SECONDS);
+ * }
+ * </pre>
+ *
+ * @param <T> 子任务返回值类型
+ */
+public final class BoundedTaskScope<T> implements AutoCloseable {
+
+    private final Executor executor;
+    private final Semaphore permits;
+    private final List<Future<T>> futures = new ArrayList<>();
+    private final BlockingQueue<Future<T>> completedFutures = new LinkedBlockingQueue<>();
+
+    /**
+     * @param executor       子任务执行器，可以是线程池或虚拟线程执行器
+     * @param maxConcurrency 最大并发子任务数，超过时 {@link #fork} 阻塞等待
+     */
+    public BoundedTaskScope(Executor executor, int maxConcurrency) {
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * 派生子任务
+     *
+     * @param task 子任务
+     * @return 子任务结果
+     * @throws InterruptedException 等待并发许可时被中断
+     */
+    public Future<T> fork(Callable<T> task) throws InterruptedException {
+        permits.acquire();
+        FutureTask<T> futureTask = new FutureTask<>(task) {
+
+            @Override
+            protected void done() {
+                permits.release();
+                completedFutures.add(this);
+            }
+        };
+        try {
+            executor.execute(futureTask);
+        } catch (RejectedExecutionException ex) {
+            permits.release();
+            throw ex;
+        }
+        futures.add(futureTask);
+        return futureTask;
+    }
+
+    /**
+     * 等待全部子任务完成，结果顺序与派生顺序一致
+     *
+     * @param timeout 最长等待时间
+     * @param unit    时间单位
+     * @return 子任务结果集合
+     * @throws ExecutionException   任一子任务执行失败
+     * @throws TimeoutException     等待超时
+     * @throws InterruptedException 等待时被中断
+     */
+    public List<T> join(long timeout, TimeUnit unit) throws ExecutionException, TimeoutException, InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                Future<T> completed = completedFutures.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (completed == null) {
+                    throw new TimeoutException("Bounded task scope join timeout.");
+                }
+                // 子任务完成即检查结果，失败时不再等待其余子任务
+                getResult(completed);
+            }
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> each : futures) {
+                results.add(getResult(each));
+            }
+            return results;
+        } catch (ExecutionException | TimeoutException | InterruptedException ex) {
+            cancelAll();
+            throw ex;
+        }
+    }
+
+    /**
+     * 等待全部子任务结束，不因单个子任务失败而取消其余子任务，等待期间不响应中断，返回后恢复中断标记
+     *
+     * @return 已结束的子任务，顺序与派生顺序一致
+     */
+    public List<Future<T>> joinAll() {
+        boolean interrupted = false;
+        try {
+            for (Future<T> each : futures) {
+                while (true) {
+                    try {
+                        each.get();
+                        break;
+                    } catch (InterruptedException ex) {
+                        interrupted = true;
+                    } catch (ExecutionException | CancellationException ex) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return new ArrayList<>(futures);
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+    }
+
+    private T getResult(Future<T> future) throws ExecutionException, InterruptedException {
+        try {
+            return future.get();
+        } catch (CancellationException ex) {
+            throw new ExecutionException("Subtask cancelled.", ex);
+        }
+    }
+
+    private void cancelAll() {
+        futures.forEach(each -> each.cancel(true));
+    }
+}
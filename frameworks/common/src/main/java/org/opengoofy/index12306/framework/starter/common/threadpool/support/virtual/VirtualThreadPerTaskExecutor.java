@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.common.threadpool.support.virtual;
+
+import lombok.Getter;
+import org.opengoofy.index12306.framework.starter.common.threadpool.metrics.TaskLatencyRecorder;
+import org.opengoofy.index12306.framework.starter.common.threadpool.metrics.ThreadPoolMetrics;
+import org.opengoofy.index12306.framework.starter.common.threadpool.metrics.ThreadPoolMetricsRegistry;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 虚拟线程执行器，每个任务一个虚拟线程，适用于阻塞 IO 为主的扇出任务
+ * 项目以 JDK 17 编译，运行时为 JDK 21 及以上版本时通过反射创建虚拟线程工厂与执行器，调用方需先通过 {@link #isSupported()} 判断；
+ * 执行器统计在途任务数、任务执行耗时与拒绝次数，并注册到 {@link ThreadPoolMetricsRegistry}；
+ * 任务执行耗时从任务开始运行计时，与 {@code InstrumentedThreadPoolExecutor} 口径一致，不包含虚拟线程调度等待
+ */
+public class VirtualThreadPerTaskExecutor extends AbstractExecutorService {
+
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY_PROBE = createVirtualThreadFactory("virtual-probe");
+
+    @Getter
+    private final String name;
+
+    private final ExecutorService delegate;
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicLong completedTaskCount = new AtomicLong();
+    private final AtomicLong rejectCount = new AtomicLong();
+    private final TaskLatencyRecorder latencyRecorder = new TaskLatencyRecorder();
+
+    public VirtualThreadPerTaskExecutor(String name) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads require JDK 21 or later.");
+        }
+        this.name = name;
+        try {
+            this.delegate = (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, createVirtualThreadFactory(name));
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Error creating virtual thread executor.", ex);
+        }
+        ThreadPoolMetricsRegistry.register(name, this::getMetrics);
+    }
+
+    /**
+     * 当前运行时是否支持虚拟线程
+     */
+    public static boolean isSupported() {
+        return VIRTUAL_THREAD_FACTORY_PROBE != null;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        try {
+            delegate.execute(() -> {
+                activeCount.incrementAndGet();
+                long startTime = System.nanoTime();
+                try {
+                    command.run();
+                } finally {
+                    activeCount.decrementAndGet();
+                    completedTaskCount.incrementAndGet();
+                    latencyRecorder.record(System.nanoTime() - startTime);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            rejectCount.incrementAndGet();
+            throw ex;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        ThreadPoolMetricsRegistry.remove(name);
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        ThreadPoolMetricsRegistry.remove(name);
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * 获取执行器运行指标快照，虚拟线程执行器没有等待队列，活跃数即在途任务数
+     */
+    public ThreadPoolMetrics getMetrics() {
+        return ThreadPoolMetrics.builder()
+                .name(name)
+                .poolSize(activeCount.get())
+                .activeCount(activeCount.get())
+                .queueSize(0)
+                .queueRemainingCapacity(Integer.MAX_VALUE)
+                .completedTaskCount(completedTaskCount.get())
+                .rejectCount(rejectCount.get())
+                .averageTaskMillis(latencyRecorder.getAverageMillis())
+                .maxTaskMillis(latencyRecorder.getMaxMillis())
+                .build();
+    }
+
+    /**
+     * 通过反射调用 {@code Thread.ofVirtual().name(prefix, 0).factory()}，运行时不支持虚拟线程时返回 null
+     */
+    private static ThreadFactory createVirtualThreadFactory(String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Method nameMethod = builderClass.getMethod("name", String.class, long.class);
+            builder = nameMethod.invoke(builder, namePrefix + "_", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            return null;
+        }
+    }
+}
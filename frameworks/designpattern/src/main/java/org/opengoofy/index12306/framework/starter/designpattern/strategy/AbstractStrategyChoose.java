@@ -24,8 +24,10 @@ import org.springframework.context.ApplicationListener;
 import org.springframework.util.StringUtils;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
@@ -38,11 +40,23 @@ public class AbstractStrategyChoose implements ApplicationListener<ApplicationIn
      */
     private final Map<String, AbstractExecuteStrategy> abstractExecuteStrategyMap = new HashMap<>();
 
+    /**
+     * 模式匹配策略集合，启动时预编译正则，按注册顺序匹配
+     */
+    private final Map<Pattern, AbstractExecuteStrategy> patternExecuteStrategyMap = new LinkedHashMap<>();
+
+    /**
+     * 模式匹配结果缓存，Key 为策略标识，超过上限后不再缓存新的标识
+     */
+    private final Map<String, AbstractExecuteStrategy> patternMatchCache = new ConcurrentHashMap<>();
+
+    private static final int PATTERN_MATCH_CACHE_MAX_SIZE = 1024;
+
     /**
      * 根据策略标识和匹配范解析标识选择具体的执行策略。
      *
-     * 如果 predicateFlag 为 true，则遍历所有策略，使用正则表达式匹配策略的 patternMatchMark 和传入的 mark，
-     * 返回第一个匹配的策略。如果未找到匹配的策略，则抛出 ServiceException 异常。
+     * 如果 predicateFlag 为 true，则遍历启动时预编译的模式匹配策略，使用正则表达式匹配策略的 patternMatchMark 和传入的 mark，
+     * 返回第一个匹配的策略并按 mark 缓存匹配结果。如果未找到匹配的策略，则抛出 ServiceException 异常。
      *
      * 如果 predicateFlag 为 false 或 null，则直接从 abstractExecuteStrategyMap 中根据 mark 查找对应的策略。
      * 如果未找到对应的策略，则抛出 ServiceException 异常。
@@ -53,17 +67,24 @@ public class AbstractStrategyChoose implements ApplicationListener<ApplicationIn
      * @throws ServiceException 如果未找到匹配的策略，则抛出此异常
      */
     public AbstractExecuteStrategy choose(String mark, Boolean predicateFlag) {
-        // 如果 predicateFlag 为 true，使用正则表达式匹配策略
+        // 如果 predicateFlag 为 true，使用预编译的正则表达式匹配策略，同一标识只匹配一次
         if (predicateFlag != null && predicateFlag) {
-            return abstractExecuteStrategyMap.values().stream()
-                    // 过滤出具有有效模式匹配标记的策略
-                    .filter(each -> StringUtils.hasText(each.patternMatchMark()))
+            AbstractExecuteStrategy cached = patternMatchCache.get(mark);
+            if (cached != null) {
+                return cached;
+            }
+            AbstractExecuteStrategy matched = patternExecuteStrategyMap.entrySet().stream()
                     // 使用正则表达式匹配给定的标记与策略的模式匹配标记
-                    .filter(each -> Pattern.compile(each.patternMatchMark()).matcher(mark).matches())
+                    .filter(each -> each.getKey().matcher(mark).matches())
+                    .map(Map.Entry::getValue)
                     // 返回第一个匹配的策略实例
                     .findFirst()
                     // 如果没有找到匹配的策略，则抛出ServiceException异常
                     .orElseThrow(() -> new ServiceException("策略未定义"));
+            if (patternMatchCache.size() < PATTERN_MATCH_CACHE_MAX_SIZE) {
+                patternMatchCache.put(mark, matched);
+            }
+            return matched;
         }
 
         // 如果 predicateFlag 为 false 或 null，直接从 map 中查找策略
@@ -133,6 +154,11 @@ public class AbstractStrategyChoose implements ApplicationListener<ApplicationIn
             }
             // 将策略注册到策略映射中
             abstractExecuteStrategyMap.put(bean.mark(), bean);
+            // 具有有效模式匹配标记的策略预编译正则
+            if (StringUtils.hasText(bean.patternMatchMark())) {
+                patternExecuteStrategyMap.put(Pattern.compile(bean.patternMatchMark()), bean);
+            }
         });
+        patternMatchCache.clear();
     }
 }
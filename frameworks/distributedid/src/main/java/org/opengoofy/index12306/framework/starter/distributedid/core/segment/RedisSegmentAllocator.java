@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.distributedid.core.segment;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Optional;
+
+/**
+ * 基于 Redis INCRBY 的号段分配器，依赖 Redis 持久化保证重启后号段不回退
+ */
+@RequiredArgsConstructor
+public class RedisSegmentAllocator implements SegmentAllocator {
+
+    private static final String SEGMENT_KEY_PREFIX = "framework:distributed-id:segment:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Override
+    public long allocate(String bizTag, int step) {
+        Long maxId = stringRedisTemplate.opsForValue().increment(SEGMENT_KEY_PREFIX + bizTag, step);
+        return Optional.ofNullable(maxId).orElseThrow(() -> new IllegalStateException("Segment allocate failed: " + bizTag));
+    }
+}
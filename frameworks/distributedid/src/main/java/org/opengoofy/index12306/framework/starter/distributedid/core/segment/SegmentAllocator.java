@@ -0,0 +1,33 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.distributedid.core.segment;
+
+/**
+ * 号段分配器，由持久化存储保证号段全局不重叠
+ */
+public interface SegmentAllocator {
+
+    /**
+     * 申请下一个号段
+     *
+     * @param bizTag 业务标识
+     * @param step   号段长度
+     * @return 号段最大值（不包含），号段区间为 [返回值 - step, 返回值)
+     */
+    long allocate(String bizTag, int step);
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.distributedid.core.segment;
+
+import cn.hutool.core.thread.ThreadUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.opengoofy.index12306.framework.starter.distributedid.core.IdGenerator;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 号段模式 ID 生成器
+ * 从 {@link SegmentAllocator} 批量申请号段在本地递增发号，发号通过原子自增无需加锁；
+ * 当前号段消耗超过预取阈值时异步申请下一个号段（双 Buffer），当前号段耗尽时直接切换，仅切换号段时加锁；
+ * 发出的 ID 为基数加号段内序号，基数取 10 的整数次幂时 ID 位数固定，不会与其他方式生成的 ID 重叠
+ */
+@Slf4j
+public class SegmentIdGenerator implements IdGenerator {
+
+    /**
+     * 当前号段消耗比例达到该值时预取下一个号段
+     */
+    private static final double PREFETCH_RATIO = 0.1D;
+
+    private final String bizTag;
+    private final int step;
+    private final long base;
+    private final SegmentAllocator segmentAllocator;
+    private final AtomicBoolean prefetching = new AtomicBoolean(false);
+    private final ExecutorService prefetchExecutor;
+
+    private volatile Segment current;
+    private volatile Segment next;
+
+    /**
+     * @param bizTag           业务标识
+     * @param step             号段长度
+     * @param segmentAllocator 号段分配器
+     */
+    public SegmentIdGenerator(String bizTag, int step, SegmentAllocator segmentAllocator) {
+        this(bizTag, step, 0L, segmentAllocator);
+    }
+
+    /**
+     * @param bizTag           业务标识
+     * @param step             号段长度
+     * @param base             ID 基数
+     * @param segmentAllocator 号段分配器
+     */
+    public SegmentIdGenerator(String bizTag, int step, long base, SegmentAllocator segmentAllocator) {
+        this.bizTag = bizTag;
+        this.step = step;
+        this.base = base;
+        this.segmentAllocator = segmentAllocator;
+        this.prefetchExecutor = Executors.newSingleThreadExecutor(ThreadUtil.newNamedThreadFactory("segment-id-prefetch-" + bizTag + "-", true));
+        this.current = allocate();
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            Segment segment = current;
+            long id = segment.cursor.getAndIncrement();
+            if (id < segment.max) {
+                if (next == null && id >= segment.prefetchThreshold && prefetching.compareAndSet(false, true)) {
+                    prefetchExecutor.execute(this::prefetch);
+                }
+                return base + id;
+            }
+            switchSegment(segment);
+        }
+    }
+
+    @Override
+    public String nextIdStr() {
+        return Long.toString(nextId());
+    }
+
+    private synchronized void switchSegment(Segment exhausted) {
+        if (current != exhausted) {
+            return;
+        }
+        Segment ready = next;
+        if (ready != null) {
+            next = null;
+        } else {
+            // 预取未完成或失败时同步申请，保证发号不中断
+            ready = allocate();
+        }
+        current = ready;
+    }
+
+    private void prefetch() {
+        try {
+            Segment segment = allocate();
+            synchronized (this) {
+                if (next == null) {
+                    next = segment;
+                }
+            }
+        } catch (Throwable ex) {
+            log.error("Segment prefetch failed, bizTag: {}", bizTag, ex);
+        } finally {
+            prefetching.set(false);
+        }
+    }
+
+    private Segment allocate() {
+        long max = segmentAllocator.allocate(bizTag, step);
+        return new Segment(max - step, max, max - step + (long) (step * PREFETCH_RATIO));
+    }
+
+    /**
+     * 号段 [min, max)
+     */
+    private static final class Segment {
+
+        private final AtomicLong cursor;
+        private final long max;
+        private final long prefetchThreshold;
+
+        private Segment(long min, long max, long prefetchThreshold) {
+            this.cursor = new AtomicLong(min);
+            this.max = max;
+            this.prefetchThreshold = prefetchThreshold;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.distributedid.core.snowflake;
+
+import cn.hutool.core.util.StrUtil;
+import org.opengoofy.index12306.framework.starter.distributedid.core.IdGenerator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 紧凑雪花算法，结构为 时间戳相对值 - 节点标志 - 递增序号
+ * 用于订单号、支付流水号等需要在 ID 尾部拼接用户基因的场景，缩短 ID 长度；
+ * 时间戳与序号合并为一个 long 通过 CAS 更新，生成 ID 无需加锁
+ */
+public class CompactSnowflake implements IdGenerator {
+
+    /**
+     * 默认起始时间 2021-01-01 00:00:00
+     */
+    public static final long DEFAULT_EPOCH = 1609459200000L;
+
+    private final long epoch;
+    private final long nodeId;
+    private final int sequenceBits;
+    private final int nodeShift;
+    private final long sequenceMask;
+    private final int timestampShift;
+
+    /**
+     * 上次生成 ID 的状态，高位为相对起始时间的时间戳，低 sequenceBits 位为自增序号，-1 表示尚未生成
+     */
+    private final AtomicLong state = new AtomicLong(-1L);
+
+    /**
+     * @param nodeId       节点标志
+     * @param nodeBits     节点标志位数
+     * @param sequenceBits 递增序号位数
+     */
+    public CompactSnowflake(long nodeId, int nodeBits, int sequenceBits) {
+        this(DEFAULT_EPOCH, nodeId, nodeBits, sequenceBits);
+    }
+
+    /**
+     * @param epoch        起始时间
+     * @param nodeId       节点标志
+     * @param nodeBits     节点标志位数
+     * @param sequenceBits 递增序号位数
+     */
+    public CompactSnowflake(long epoch, long nodeId, int nodeBits, int sequenceBits) {
+        if (nodeId < 0 || nodeId >= (1L << nodeBits)) {
+            throw new IllegalArgumentException(StrUtil.format("Node id {} out of range [0, {})", nodeId, 1L << nodeBits));
+        }
+        this.epoch = epoch;
+        this.nodeId = nodeId;
+        this.sequenceBits = sequenceBits;
+        this.nodeShift = sequenceBits;
+        this.sequenceMask = ~(-1L << sequenceBits);
+        this.timestampShift = nodeBits + sequenceBits;
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long lastTimestamp = current < 0 ? -1L : current >>> sequenceBits;
+            long timestamp = System.currentTimeMillis() - epoch;
+            if (timestamp < lastTimestamp) {
+                throw new IllegalStateException(StrUtil.format("Clock moved backwards. Refusing to generate id for {}ms", lastTimestamp - timestamp));
+            }
+            long sequence = 0L;
+            if (timestamp == lastTimestamp) {
+                sequence = ((current & sequenceMask) + 1) & sequenceMask;
+                if (sequence == 0) {
+                    timestamp = tilNextMillis(lastTimestamp);
+                }
+            }
+            if (state.compareAndSet(current, (timestamp << sequenceBits) | sequence)) {
+                return (timestamp << timestampShift) | (nodeId << nodeShift) | sequence;
+            }
+        }
+    }
+
+    @Override
+    public String nextIdStr() {
+        return Long.toString(nextId());
+    }
+
+    private long tilNextMillis(long lastTimestamp) {
+        long timestamp = System.currentTimeMillis() - epoch;
+        while (timestamp <= lastTimestamp) {
+            Thread.onSpinWait();
+            timestamp = System.currentTimeMillis() - epoch;
+        }
+        return timestamp;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.distributedid.core.snowflake;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Optional;
+
+/**
+ * 基于 Redis INCR 为紧凑雪花算法分配节点标志
+ * 节点启动时自增计数并对节点数量取模，计数自增为原子操作无需加分布式锁，取模保证节点标志不会超出位数范围
+ */
+@RequiredArgsConstructor
+public class RedisNodeIdChoose {
+
+    private static final String NODE_ID_KEY_PREFIX = "framework:distributed-id:node:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 分配节点标志
+     *
+     * @param bizTag   业务标识，不同业务独立分配
+     * @param nodeBits 节点标志位数
+     * @return 节点标志，取值范围 [0, 2^nodeBits)
+     */
+    public long chooseNodeId(String bizTag, int nodeBits) {
+        Long incremented = stringRedisTemplate.opsForValue().increment(NODE_ID_KEY_PREFIX + bizTag);
+        long sequence = Optional.ofNullable(incremented).orElseThrow(() -> new IllegalStateException("Node id choose failed: " + bizTag));
+        return Math.floorMod(sequence - 1, 1L << nodeBits);
+    }
+}
@@ -26,6 +26,7 @@ import org.opengoofy.index12306.framework.starter.distributedid.core.IdGenerator
 
 import java.io.Serializable;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Twitter的Snowflake 算法<br>
@@ -117,11 +118,10 @@ public class Snowflake implements Serializable, IdGenerator {
     private final long randomSequenceLimit;
 
     /**
-     * 自增序号，当高频模式下时，同一毫秒内生成N个ID，则这个序号在同一毫秒下，自增以避免ID重复。
+     * 上次生成 ID 的状态，高位为相对起始时间的时间戳，低 {@link #SEQUENCE_BITS} 位为自增序号，-1 表示尚未生成。<br>
+     * 时间戳与序号合并为一个值后通过 CAS 整体更新，替代对象锁，当高频模式下时，同一毫秒内生成N个ID，序号在同一毫秒下自增以避免ID重复。
      */
-    private long sequence = 0L;
-
-    private long lastTimestamp = -1L;
+    private final AtomicLong state = new AtomicLong(-1L);
 
     /**
      * 构造，使用自动生成的工作节点ID和数据中心ID
@@ -230,33 +230,39 @@ public class Snowflake implements Serializable, IdGenerator {
      *
      * @return ID
      */
-    public synchronized long nextId() {
-        long timestamp = genTime();
-        if (timestamp < this.lastTimestamp) {
-            if (this.lastTimestamp - timestamp < timeOffset) {
-                // 容忍指定的回拨，避免NTP校时造成的异常
-                timestamp = lastTimestamp;
-            } else {
-                // 如果服务器时间有问题(时钟后退) 报错。
-                throw new IllegalStateException(StrUtil.format("Clock moved backwards. Refusing to generate id for {}ms", lastTimestamp - timestamp));
+    public long nextId() {
+        while (true) {
+            long current = this.state.get();
+            long lastTimestamp = current < 0 ? -1L : (current >>> SEQUENCE_BITS) + twepoch;
+            long timestamp = genTime();
+            if (timestamp < lastTimestamp) {
+                if (lastTimestamp - timestamp < timeOffset) {
+                    // 容忍指定的回拨，避免NTP校时造成的异常
+                    timestamp = lastTimestamp;
+                } else {
+                    // 如果服务器时间有问题(时钟后退) 报错。
+                    throw new IllegalStateException(StrUtil.format("Clock moved backwards. Refusing to generate id for {}ms", lastTimestamp - timestamp));
+                }
             }
-        }
-        if (timestamp == this.lastTimestamp) {
-            final long sequence = (this.sequence + 1) & SEQUENCE_MASK;
-            if (sequence == 0) {
-                timestamp = tilNextMillis(lastTimestamp);
-            }
-            this.sequence = sequence;
-        } else {
-            // issue#I51EJY
-            if (randomSequenceLimit > 1) {
-                sequence = RandomUtil.randomLong(randomSequenceLimit);
+            long sequence;
+            if (timestamp == lastTimestamp) {
+                sequence = ((current & SEQUENCE_MASK) + 1) & SEQUENCE_MASK;
+                if (sequence == 0) {
+                    timestamp = tilNextMillis(lastTimestamp);
+                }
             } else {
-                sequence = 0L;
+                // issue#I51EJY
+                if (randomSequenceLimit > 1) {
+                    sequence = RandomUtil.randomLong(randomSequenceLimit);
+                } else {
+                    sequence = 0L;
+                }
+            }
+            // CAS 失败说明其它线程已生成 ID，基于最新状态重试
+            if (this.state.compareAndSet(current, ((timestamp - twepoch) << SEQUENCE_BITS) | sequence)) {
+                return ((timestamp - twepoch) << TIMESTAMP_LEFT_SHIFT) | (dataCenterId << DATA_CENTER_ID_SHIFT) | (workerId << WORKER_ID_SHIFT) | sequence;
             }
         }
-        lastTimestamp = timestamp;
-        return ((timestamp - twepoch) << TIMESTAMP_LEFT_SHIFT) | (dataCenterId << DATA_CENTER_ID_SHIFT) | (workerId << WORKER_ID_SHIFT) | sequence;
     }
 
     /**
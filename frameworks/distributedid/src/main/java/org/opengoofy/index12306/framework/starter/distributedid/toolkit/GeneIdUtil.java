@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.distributedid.toolkit;
+
+import cn.hutool.core.util.StrUtil;
+
+/**
+ * 基因法 ID 工具类
+ * 在 ID 尾部拼接定长基因，分库分表算法截取尾部定长字符作为分片键，基因不足位数时左侧补零，
+ * 保证 ID 主体与基因的拼接方式唯一，避免 "12" + "3" 与 "1" + "23" 这类拼接冲突
+ */
+public final class GeneIdUtil {
+
+    /**
+     * 基因位数
+     */
+    public static final int GENE_LENGTH = 6;
+
+    private static final long GENE_MODULUS = 1000000L;
+
+    /**
+     * 取数值基因的低 6 位拼接到 ID 尾部
+     *
+     * @param id   ID 主体
+     * @param gene 基因来源，例如用户 ID
+     * @return 拼接基因后的 ID
+     */
+    public static String appendGene(long id, long gene) {
+        return id + StrUtil.padPre(String.valueOf(Math.floorMod(gene, GENE_MODULUS)), GENE_LENGTH, '0');
+    }
+
+    /**
+     * 取字符串基因的尾部 6 位拼接到 ID 尾部
+     *
+     * @param id   ID 主体
+     * @param gene 基因来源，例如订单号
+     * @return 拼接基因后的 ID
+     */
+    public static String appendGene(long id, String gene) {
+        return id + extractGene(gene);
+    }
+
+    /**
+     * 截取拼接在 ID 尾部的基因
+     *
+     * @param idWithGene 拼接基因后的 ID
+     * @return 定长基因
+     */
+    public static String extractGene(String idWithGene) {
+        return StrUtil.padPre(StrUtil.subSufByLength(idWithGene, GENE_LENGTH), GENE_LENGTH, '0');
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.distributedid.core.segment;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 号段模式 ID 生成器单元测试
+ */
+class SegmentIdGeneratorTests {
+
+    private static final long BASE = 100000000000000000L;
+
+    @Test
+    void testConcurrentIdsAreUniqueAcrossSegmentSwitches() throws InterruptedException {
+        SegmentIdGenerator segmentIdGenerator = new SegmentIdGenerator("order", 100, BASE, inMemoryAllocator());
+        int threadCount = 8;
+        int idCountPerThread = 2000;
+        Set<Long> idSet = ConcurrentHashMap.newKeySet();
+        CountDownLatch countDownLatch = new CountDownLatch(threadCount);
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                executorService.execute(() -> {
+                    try {
+                        for (int j = 0; j < idCountPerThread; j++) {
+                            idSet.add(segmentIdGenerator.nextId());
+                        }
+                    } finally {
+                        countDownLatch.countDown();
+                    }
+                });
+            }
+            Assertions.assertTrue(countDownLatch.await(30, TimeUnit.SECONDS));
+        } finally {
+            executorService.shutdownNow();
+        }
+        Assertions.assertEquals(threadCount * idCountPerThread, idSet.size());
+    }
+
+    @Test
+    void testIdsHaveFixedWidth() {
+        SegmentIdGenerator segmentIdGenerator = new SegmentIdGenerator("pay", 10, BASE, inMemoryAllocator());
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(18, segmentIdGenerator.nextIdStr().length());
+        }
+    }
+
+    @Test
+    void testGeneratorsSharingAllocatorNeverOverlap() {
+        SegmentAllocator segmentAllocator = inMemoryAllocator();
+        SegmentIdGenerator first = new SegmentIdGenerator("order", 50, BASE, segmentAllocator);
+        SegmentIdGenerator second = new SegmentIdGenerator("order", 50, BASE, segmentAllocator);
+        Set<Long> idSet = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertTrue(idSet.add(first.nextId()));
+            Assertions.assertTrue(idSet.add(second.nextId()));
+        }
+    }
+
+    private static SegmentAllocator inMemoryAllocator() {
+        AtomicLong maxId = new AtomicLong();
+        return (bizTag, step) -> maxId.addAndGet(step);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.distributedid.core.snowflake;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 紧凑雪花算法单元测试
+ */
+class CompactSnowflakeTests {
+
+    private static final int NODE_BITS = 5;
+    private static final int SEQUENCE_BITS = 7;
+
+    @Test
+    void testConcurrentIdsAreUniqueAndIncreasingPerThread() throws InterruptedException {
+        CompactSnowflake compactSnowflake = new CompactSnowflake(3, NODE_BITS, SEQUENCE_BITS);
+        int threadCount = 8;
+        int idCountPerThread = 5000;
+        Set<Long> idSet = ConcurrentHashMap.newKeySet();
+        CountDownLatch countDownLatch = new CountDownLatch(threadCount);
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                executorService.execute(() -> {
+                    try {
+                        long lastId = -1L;
+                        for (int j = 0; j < idCountPerThread; j++) {
+                            long id = compactSnowflake.nextId();
+                            Assertions.assertTrue(id > lastId);
+                            lastId = id;
+                            idSet.add(id);
+                        }
+                    } finally {
+                        countDownLatch.countDown();
+                    }
+                });
+            }
+            Assertions.assertTrue(countDownLatch.await(30, TimeUnit.SECONDS));
+        } finally {
+            executorService.shutdownNow();
+        }
+        Assertions.assertEquals(threadCount * idCountPerThread, idSet.size());
+    }
+
+    @Test
+    void testNodeIdIsEncoded() {
+        long nodeId = (1L << NODE_BITS) - 1;
+        long id = new CompactSnowflake(nodeId, NODE_BITS, SEQUENCE_BITS).nextId();
+        Assertions.assertEquals(nodeId, (id >>> SEQUENCE_BITS) & ((1L << NODE_BITS) - 1));
+    }
+
+    @Test
+    void testDifferentNodesNeverCollide() {
+        CompactSnowflake first = new CompactSnowflake(0, NODE_BITS, SEQUENCE_BITS);
+        CompactSnowflake second = new CompactSnowflake(1, NODE_BITS, SEQUENCE_BITS);
+        Set<Long> idSet = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 2000; i++) {
+            Assertions.assertTrue(idSet.add(first.nextId()));
+            Assertions.assertTrue(idSet.add(second.nextId()));
+        }
+    }
+
+    @Test
+    void testNodeIdOutOfRangeIsRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CompactSnowflake(1L << NODE_BITS, NODE_BITS, SEQUENCE_BITS));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CompactSnowflake(-1, NODE_BITS, SEQUENCE_BITS));
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.distributedid.toolkit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 基因法 ID 工具类单元测试
+ */
+class GeneIdUtilTests {
+
+    @Test
+    void testGeneIsZeroPadded() {
+        Assertions.assertEquals("12000003", GeneIdUtil.appendGene(12, 3));
+        Assertions.assertEquals("1000023", GeneIdUtil.appendGene(1, 23));
+        Assertions.assertNotEquals(GeneIdUtil.appendGene(12, 3), GeneIdUtil.appendGene(1, 23));
+    }
+
+    @Test
+    void testGeneMatchesUserIdSuffix() {
+        long userId = 1683025552364012345L;
+        String orderSn = GeneIdUtil.appendGene(42, userId);
+        Assertions.assertEquals("012345", GeneIdUtil.extractGene(orderSn));
+        Assertions.assertEquals(String.valueOf(userId).substring(String.valueOf(userId).length() - 6), GeneIdUtil.extractGene(orderSn));
+        // 支付流水号沿用订单号基因
+        Assertions.assertEquals("012345", GeneIdUtil.extractGene(GeneIdUtil.appendGene(7, orderSn)));
+    }
+}
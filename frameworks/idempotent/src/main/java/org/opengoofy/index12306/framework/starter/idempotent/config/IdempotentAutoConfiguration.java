@@ -28,6 +28,7 @@ import org.opengoofy.index12306.framework.starter.idempotent.core.token.Idempote
 import org.opengoofy.index12306.framework.starter.idempotent.core.token.IdempotentTokenExecuteHandler;
 import org.opengoofy.index12306.framework.starter.idempotent.core.token.IdempotentTokenService;
 import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -51,8 +52,9 @@ public class IdempotentAutoConfiguration {
      */
     @Bean
     @ConditionalOnMissingBean
-    public IdempotentParamService idempotentParamExecuteHandler(RedissonClient redissonClient) {
-        return new IdempotentParamExecuteHandler(redissonClient);
+    public IdempotentParamService idempotentParamExecuteHandler(RedissonClient redissonClient,
+                                                                @Value("${framework.idempotent.param.hash-type:md5}") String hashType) {
+        return new IdempotentParamExecuteHandler(redissonClient, hashType);
     }
 
     /**
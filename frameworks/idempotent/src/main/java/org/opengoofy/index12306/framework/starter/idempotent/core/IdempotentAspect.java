@@ -20,11 +20,8 @@ package org.opengoofy.index12306.framework.starter.idempotent.core;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.reflect.MethodSignature;
 import org.opengoofy.index12306.framework.starter.idempotent.annotation.Idempotent;
 
-import java.lang.reflect.Method;
-
 /**
  * 幂等注解 AOP 拦截器
  */
@@ -63,9 +60,7 @@ public final class IdempotentAspect {
         return resultObj;
     }
 
-    public static Idempotent getIdempotent(ProceedingJoinPoint joinPoint) throws NoSuchMethodException {
-        MethodSignature methodSignature = (MethodSignature) joinPoint.getSignature();
-        Method targetMethod = joinPoint.getTarget().getClass().getDeclaredMethod(methodSignature.getName(), methodSignature.getMethod().getParameterTypes());
-        return targetMethod.getAnnotation(Idempotent.class);
+    public static Idempotent getIdempotent(ProceedingJoinPoint joinPoint) {
+        return IdempotentMetadata.resolve(joinPoint).getIdempotent();
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.idempotent.core;
+
+import lombok.Getter;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.opengoofy.index12306.framework.starter.idempotent.annotation.Idempotent;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodClassKey;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 幂等方法元数据
+ * 每个被拦截方法首次调用时解析注解、参数名并预编译 SpEL 表达式，之后按方法缓存复用，避免每次调用重复反射与解析
+ */
+public final class IdempotentMetadata {
+
+    private static final Map<MethodClassKey, IdempotentMetadata> METADATA_CACHE = new ConcurrentHashMap<>();
+
+    private static final DefaultParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+
+    /**
+     * 混合编译模式，表达式多次执行后编译为字节码，编译失败时回退解释执行
+     */
+    private static final SpelExpressionParser EXPRESSION_PARSER = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, IdempotentMetadata.class.getClassLoader()));
+
+    @Getter
+    private final Idempotent idempotent;
+
+    /**
+     * 幂等 Key 表达式，Key 不包含 SpEL 标识时为空，直接使用字面值
+     */
+    private final Expression keyExpression;
+
+    private final String[] parameterNames;
+
+    private IdempotentMetadata(Method targetMethod) {
+        this.idempotent = targetMethod.getAnnotation(Idempotent.class);
+        String key = idempotent != null ? idempotent.key() : "";
+        this.keyExpression = key.contains("#") || key.contains("T(") ? EXPRESSION_PARSER.parseExpression(key) : null;
+        this.parameterNames = PARAMETER_NAME_DISCOVERER.getParameterNames(targetMethod);
+    }
+
+    /**
+     * 获取拦截方法的幂等元数据，注解以目标类实际声明的方法为准
+     */
+    public static IdempotentMetadata resolve(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        return METADATA_CACHE.computeIfAbsent(new MethodClassKey(method, targetClass),
+                each -> new IdempotentMetadata(AopUtils.getMostSpecificMethod(method, targetClass)));
+    }
+
+    /**
+     * 根据方法入参计算幂等 Key
+     */
+    public Object parseKey(Object[] args) {
+        if (keyExpression == null) {
+            return idempotent.key();
+        }
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        if (parameterNames != null) {
+            for (int i = 0; i < parameterNames.length; i++) {
+                context.setVariable(parameterNames[i], args[i]);
+            }
+        }
+        return keyExpression.getValue(context);
+    }
+}
@@ -17,6 +17,7 @@
 
 package org.opengoofy.index12306.framework.starter.idempotent.core.param;
 
+import cn.hutool.core.lang.hash.MurmurHash;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.crypto.digest.DigestUtil;
 import com.alibaba.fastjson2.JSON;
@@ -40,11 +41,18 @@ public final class IdempotentParamExecuteHandler extends AbstractIdempotentExecu
 
     private final RedissonClient redissonClient;
 
+    /**
+     * 参数摘要方式，murmur3 使用 128 位 MurmurHash3 代替 MD5，两者均基于参数 JSON 序列化内容计算，默认使用 MD5
+     */
+    private final String hashType;
+
     private final static String LOCK = "lock:param:restAPI";
 
     @Override
     protected IdempotentParamWrapper buildWrapper(ProceedingJoinPoint joinPoint) {
-        String lockKey = String.format("idempotent:path:%s:currentUserId:%s:md5:%s", getServletPath(), getCurrentUserId(), calcArgsMD5(joinPoint));
+        String lockKey = StrUtil.equals(hashType, "murmur3")
+                ? String.format("idempotent:path:%s:currentUserId:%s:murmur3:%s", getServletPath(), getCurrentUserId(), calcArgsMurmur3(joinPoint))
+                : String.format("idempotent:path:%s:currentUserId:%s:md5:%s", getServletPath(), getCurrentUserId(), calcArgsMD5(joinPoint));
         return IdempotentParamWrapper.builder().lockKey(lockKey).joinPoint(joinPoint).build();
     }
 
@@ -74,6 +82,14 @@ public final class IdempotentParamExecuteHandler extends AbstractIdempotentExecu
         return DigestUtil.md5Hex(JSON.toJSONBytes(joinPoint.getArgs()));
     }
 
+    /**
+     * @return joinPoint 128 位 MurmurHash3，按参数内容计算，不依赖参数对象的 hashCode 实现
+     */
+    private String calcArgsMurmur3(ProceedingJoinPoint joinPoint) {
+        long[] hash = MurmurHash.hash128(JSON.toJSONBytes(joinPoint.getArgs()));
+        return String.format("%016x%016x", hash[0], hash[1]);
+    }
+
     @Override
     public void handler(IdempotentParamWrapper wrapper) {
         String lockKey = wrapper.getLockKey();
@@ -18,15 +18,12 @@
 package org.opengoofy.index12306.framework.starter.idempotent.core.spel;
 
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.reflect.MethodSignature;
 import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
 import org.opengoofy.index12306.framework.starter.idempotent.annotation.Idempotent;
 import org.opengoofy.index12306.framework.starter.idempotent.core.*;
 import org.opengoofy.index12306.framework.starter.idempotent.enums.IdempotentMQConsumeStatusEnum;
 import org.opengoofy.index12306.framework.starter.idempotent.toolkit.LogUtil;
-import org.opengoofy.index12306.framework.starter.idempotent.toolkit.SpELUtil;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
@@ -50,11 +47,14 @@ public final class IdempotentSpELByMQExecuteHandler extends AbstractIdempotentEx
 
     private final DistributedCache distributedCache;
 
-    @SneakyThrows
+    /**
+     * 脚本只加载一次，执行时基于 SHA1 走 EVALSHA，服务端脚本缓存缺失时自动回退 EVAL
+     */
+    private final DefaultRedisScript<String> setIfAbsentAndGetScript = buildSetIfAbsentAndGetScript();
+
     @Override
     protected IdempotentParamWrapper buildWrapper(ProceedingJoinPoint joinPoint) {
-        Idempotent idempotent = IdempotentAspect.getIdempotent(joinPoint);
-        String key = (String) SpELUtil.parseKey(idempotent.key(), ((MethodSignature) joinPoint.getSignature()).getMethod(), joinPoint.getArgs());
+        String key = (String) IdempotentMetadata.resolve(joinPoint).parseKey(joinPoint.getArgs());
         return IdempotentParamWrapper.builder().lockKey(key).joinPoint(joinPoint).build();
     }
 
@@ -72,13 +72,16 @@ public final class IdempotentSpELByMQExecuteHandler extends AbstractIdempotentEx
     }
 
     public String setIfAbsentAndGet(String key, String value, long timeout, TimeUnit timeUnit) {
+        long millis = timeUnit.toMillis(timeout);
+        return ((StringRedisTemplate) distributedCache.getInstance()).execute(setIfAbsentAndGetScript, List.of(key), value, String.valueOf(millis));
+    }
+
+    private static DefaultRedisScript<String> buildSetIfAbsentAndGetScript() {
         DefaultRedisScript<String> redisScript = new DefaultRedisScript<>();
         ClassPathResource resource = new ClassPathResource(LUA_SCRIPT_SET_IF_ABSENT_AND_GET_PATH);
         redisScript.setScriptSource(new ResourceScriptSource(resource));
         redisScript.setResultType(String.class);
-
-        long millis = timeUnit.toMillis(timeout);
-        return ((StringRedisTemplate) distributedCache.getInstance()).execute(redisScript, List.of(key), value, String.valueOf(millis));
+        return redisScript;
     }
 
     @Override
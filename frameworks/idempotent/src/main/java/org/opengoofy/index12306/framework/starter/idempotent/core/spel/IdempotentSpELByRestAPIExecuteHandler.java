@@ -18,16 +18,12 @@
 package org.opengoofy.index12306.framework.starter.idempotent.core.spel;
 
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.reflect.MethodSignature;
 import org.opengoofy.index12306.framework.starter.convention.exception.ClientException;
-import org.opengoofy.index12306.framework.starter.idempotent.annotation.Idempotent;
 import org.opengoofy.index12306.framework.starter.idempotent.core.AbstractIdempotentExecuteHandler;
-import org.opengoofy.index12306.framework.starter.idempotent.core.IdempotentAspect;
 import org.opengoofy.index12306.framework.starter.idempotent.core.IdempotentContext;
+import org.opengoofy.index12306.framework.starter.idempotent.core.IdempotentMetadata;
 import org.opengoofy.index12306.framework.starter.idempotent.core.IdempotentParamWrapper;
-import org.opengoofy.index12306.framework.starter.idempotent.toolkit.SpELUtil;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 
@@ -41,11 +37,9 @@ public final class IdempotentSpELByRestAPIExecuteHandler extends AbstractIdempot
 
     private final static String LOCK = "lock:spEL:restAPI";
 
-    @SneakyThrows
     @Override
     protected IdempotentParamWrapper buildWrapper(ProceedingJoinPoint joinPoint) {
-        Idempotent idempotent = IdempotentAspect.getIdempotent(joinPoint);
-        String key = (String) SpELUtil.parseKey(idempotent.key(), ((MethodSignature) joinPoint.getSignature()).getMethod(), joinPoint.getArgs());
+        String key = (String) IdempotentMetadata.resolve(joinPoint).parseKey(joinPoint.getArgs());
         return IdempotentParamWrapper.builder().lockKey(key).joinPoint(joinPoint).build();
     }
 
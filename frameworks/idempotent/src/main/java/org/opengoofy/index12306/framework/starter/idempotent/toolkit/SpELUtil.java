@@ -1,72 +0,0 @@
-/*
- * Licensed to the Apache Software Foundation (ASF) under one or more
- * contributor license agreements.  See the NOTICE file distributed with
- * this work for additional information regarding copyright ownership.
- * The ASF licenses this file to You under the Apache License, Version 2.0
- * (the "License"); you may not use this file except in compliance with
- * the License.  You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-
-package org.opengoofy.index12306.framework.starter.idempotent.toolkit;
-
-import cn.hutool.core.util.ArrayUtil;
-import com.google.common.collect.Lists;
-import org.springframework.core.DefaultParameterNameDiscoverer;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
-
-import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.Optional;
-
-/**
- * SpEL 表达式解析工具
- */
-public class SpELUtil {
-
-    /**
-     * 校验并返回实际使用的 spEL 表达式
-     *
-     * @param spEl spEL 表达式
-     * @return 实际使用的 spEL 表达式
-     */
-    public static Object parseKey(String spEl, Method method, Object[] contextObj) {
-        ArrayList<String> spELFlag = Lists.newArrayList("#", "T(");
-        Optional<String> optional = spELFlag.stream().filter(spEl::contains).findFirst();
-        if (optional.isPresent()) {
-            return parse(spEl, method, contextObj);
-        }
-        return spEl;
-    }
-
-    /**
-     * 转换参数为字符串
-     *
-     * @param spEl       spEl 表达式
-     * @param contextObj 上下文对象
-     * @return 解析的字符串值
-     */
-    public static Object parse(String spEl, Method method, Object[] contextObj) {
-        DefaultParameterNameDiscoverer discoverer = new DefaultParameterNameDiscoverer();
-        ExpressionParser parser = new SpelExpressionParser();
-        Expression exp = parser.parseExpression(spEl);
-        String[] params = discoverer.getParameterNames(method);
-        StandardEvaluationContext context = new StandardEvaluationContext();
-        if (ArrayUtil.isNotEmpty(params)) {
-            for (int len = 0; len < params.length; len++) {
-                context.setVariable(params[len], contextObj[len]);
-            }
-        }
-        return exp.getValue(context);
-    }
-}
@@ -43,4 +43,18 @@ public @interface ILog {
      * @return 打印结果中是否包含出参，{@link Boolean#TRUE} 打印，{@link Boolean#FALSE} 不打印
      */
     boolean output() default true;
+
+    /**
+     * 采样率
+     *
+     * @return 打印日志的请求比例，取值 0 ~ 1，默认全部打印
+     */
+    double sampleRate() default 1D;
+
+    /**
+     * 日志内容最大长度
+     *
+     * @return 序列化后的日志内容超过该长度时截断，小于等于 0 时使用全局配置 {@code framework.log.max-length}
+     */
+    int maxLength() default 0;
 }
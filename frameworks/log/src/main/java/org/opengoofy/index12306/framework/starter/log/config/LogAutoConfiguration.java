@@ -17,20 +17,31 @@
 
 package org.opengoofy.index12306.framework.starter.log.config;
 
-import org.opengoofy.index12306.framework.starter.log.core.ILogPrintAspect;
 import org.opengoofy.index12306.framework.starter.log.annotation.ILog;
+import org.opengoofy.index12306.framework.starter.log.core.ILogPrintAspect;
+import org.opengoofy.index12306.framework.starter.log.core.ILogPrinter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 
 /**
  * 日志自动装配
  */
+@EnableConfigurationProperties(LogProperties.class)
 public class LogAutoConfiguration {
 
+    /**
+     * {@link ILog} 日志打印器
+     */
+    @Bean
+    public ILogPrinter iLogPrinter(LogProperties logProperties) {
+        return new ILogPrinter(logProperties);
+    }
+
     /**
      * {@link ILog} 日志打印 AOP 切面
      */
     @Bean
-    public ILogPrintAspect iLogPrintAspect() {
-        return new ILogPrintAspect();
+    public ILogPrintAspect iLogPrintAspect(ILogPrinter iLogPrinter) {
+        return new ILogPrintAspect(iLogPrinter);
     }
 }
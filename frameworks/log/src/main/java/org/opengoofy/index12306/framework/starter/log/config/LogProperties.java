@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.log.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 日志配置
+ */
+@Data
+@ConfigurationProperties(prefix = LogProperties.PREFIX)
+public class LogProperties {
+
+    public static final String PREFIX = "framework.log";
+
+    /**
+     * 是否异步打印，开启后日志输出在独立线程执行，不占用请求线程
+     */
+    private Boolean async = Boolean.TRUE;
+
+    /**
+     * 异步打印缓冲队列容量，队列已满时丢弃日志而不阻塞请求线程
+     */
+    private Integer queueCapacity = 4096;
+
+    /**
+     * 异步打印缓冲队列中日志内容的最大字节数，按 UTF-16 估算，超出时丢弃日志而不阻塞请求线程
+     */
+    private Long queueMaxBytes = 16L * 1024 * 1024;
+
+    /**
+     * 日志内容最大长度，超过后截断
+     */
+    private Integer maxLength = 4096;
+}
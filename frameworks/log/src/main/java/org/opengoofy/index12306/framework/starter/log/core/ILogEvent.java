@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.log.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+
+/**
+ * ILog 日志事件，由 {@link ILogPrinter} 在请求线程序列化后提交打印
+ */
+@Getter
+@AllArgsConstructor
+public class ILogEvent {
+
+    /**
+     * 目标类日志对象
+     */
+    private final Logger logger;
+
+    /**
+     * 请求方法
+     */
+    private final String methodType;
+
+    /**
+     * 请求路径
+     */
+    private final String requestURI;
+
+    /**
+     * 执行耗时，单位毫秒
+     */
+    private final long executeTime;
+
+    /**
+     * 日志内容最大长度，小于等于 0 时使用全局配置
+     */
+    private final int maxLength;
+
+    /**
+     * 日志打印实体
+     */
+    private final ILogPrintDTO logPrint;
+}
@@ -19,9 +19,9 @@ package org.opengoofy.index12306.framework.starter.log.core;
 
 import cn.hutool.core.date.DateUtil;
 import cn.hutool.core.date.SystemClock;
-import com.alibaba.fastjson2.JSON;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
@@ -29,57 +29,83 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.opengoofy.index12306.framework.starter.log.annotation.ILog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.MethodClassKey;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * {@link ILog} 日志打印 AOP 切面
  */
 @Aspect
+@RequiredArgsConstructor
 public class ILogPrintAspect {
 
+    /**
+     * 方法上的 {@link ILog}，方法未标记时使用类上的注解，首次调用时解析后缓存
+     */
+    private static final Map<MethodClassKey, Optional<ILog>> LOG_ANNOTATION_CACHE = new ConcurrentHashMap<>();
+
+    private final ILogPrinter iLogPrinter;
+
     /**
      * 打印类或方法上的 {@link ILog}
      */
     @Around("@within(org.opengoofy.index12306.framework.starter.log.annotation.ILog) || @annotation(org.opengoofy.index12306.framework.starter.log.annotation.ILog)")
     public Object printMLog(ProceedingJoinPoint joinPoint) throws Throwable {
+        ILog logAnnotation = getLogAnnotation(joinPoint);
+        // 未命中采样的请求不采集任何日志信息
+        if (logAnnotation == null || (logAnnotation.sampleRate() < 1D && ThreadLocalRandom.current().nextDouble() >= logAnnotation.sampleRate())) {
+            return joinPoint.proceed();
+        }
         long startTime = SystemClock.now();
         MethodSignature methodSignature = (MethodSignature) joinPoint.getSignature();
         Logger log = LoggerFactory.getLogger(methodSignature.getDeclaringType());
+        if (!log.isInfoEnabled()) {
+            return joinPoint.proceed();
+        }
         String beginTime = DateUtil.now();
         Object result = null;
         try {
             result = joinPoint.proceed();
         } finally {
-            Method targetMethod = joinPoint.getTarget().getClass().getDeclaredMethod(methodSignature.getName(), methodSignature.getMethod().getParameterTypes());
-            ILog logAnnotation = Optional.ofNullable(targetMethod.getAnnotation(ILog.class)).orElse(joinPoint.getTarget().getClass().getAnnotation(ILog.class));
-            if (logAnnotation != null) {
-                ILogPrintDTO logPrint = new ILogPrintDTO();
-                logPrint.setBeginTime(beginTime);
-                if (logAnnotation.input()) {
-                    logPrint.setInputParams(buildInput(joinPoint));
-                }
-                if (logAnnotation.output()) {
-                    logPrint.setOutputParams(result);
-                }
-                String methodType = "", requestURI = "";
-                try {
-                    ServletRequestAttributes servletRequestAttributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-                    assert servletRequestAttributes != null;
-                    methodType = servletRequestAttributes.getRequest().getMethod();
-                    requestURI = servletRequestAttributes.getRequest().getRequestURI();
-                } catch (Exception ignored) {
-                }
-                log.info("[{}] {}, executeTime: {}ms, info: {}", methodType, requestURI, SystemClock.now() - startTime, JSON.toJSONString(logPrint));
+            ILogPrintDTO logPrint = new ILogPrintDTO();
+            logPrint.setBeginTime(beginTime);
+            if (logAnnotation.input()) {
+                logPrint.setInputParams(buildInput(joinPoint));
+            }
+            if (logAnnotation.output()) {
+                logPrint.setOutputParams(result);
+            }
+            String methodType = "", requestURI = "";
+            try {
+                ServletRequestAttributes servletRequestAttributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+                assert servletRequestAttributes != null;
+                methodType = servletRequestAttributes.getRequest().getMethod();
+                requestURI = servletRequestAttributes.getRequest().getRequestURI();
+            } catch (Exception ignored) {
             }
+            iLogPrinter.print(new ILogEvent(log, methodType, requestURI, SystemClock.now() - startTime, logAnnotation.maxLength(), logPrint));
         }
         return result;
     }
 
+    private ILog getLogAnnotation(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        return LOG_ANNOTATION_CACHE.computeIfAbsent(new MethodClassKey(method, targetClass), each -> {
+            Method targetMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+            return Optional.ofNullable(targetMethod.getAnnotation(ILog.class)).or(() -> Optional.ofNullable(targetClass.getAnnotation(ILog.class)));
+        }).orElse(null);
+    }
+
     private Object[] buildInput(ProceedingJoinPoint joinPoint) {
         Object[] args = joinPoint.getArgs();
         Object[] printArgs = new Object[args.length];
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.log.core;
+
+import com.alibaba.fastjson2.JSONFactory;
+import com.alibaba.fastjson2.JSONWriter;
+import com.alibaba.fastjson2.filter.ValueFilter;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opengoofy.index12306.framework.starter.log.config.LogProperties;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link org.opengoofy.index12306.framework.starter.log.annotation.ILog} 日志打印器
+ * 请求线程将入参与出参序列化为日志内容，序列化过程中超过最大长度立即停止，耗时不随入参与出参大小增长；
+ * 异步模式下日志输出由单独线程延迟执行；
+ * 缓冲队列不持有请求对象，同时按条数与内容字节数限界，超出任一上限时丢弃日志并计数，保证日志不会反压请求
+ */
+@Slf4j
+public class ILogPrinter implements DisposableBean {
+
+    private static final long DROP_REPORT_INTERVAL_MS = 60000L;
+
+    private final LogProperties logProperties;
+    private final BlockingQueue<PrintTask> queue;
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final Thread printThread;
+
+    private volatile boolean running = true;
+
+    public ILogPrinter(LogProperties logProperties) {
+        this.logProperties = logProperties;
+        this.queue = new ArrayBlockingQueue<>(logProperties.getQueueCapacity());
+        if (Boolean.TRUE.equals(logProperties.getAsync())) {
+            printThread = new Thread(this::printLoop, "ilog-printer");
+            printThread.setDaemon(true);
+            printThread.start();
+        } else {
+            printThread = null;
+        }
+    }
+
+    /**
+     * 提交日志，同步模式下直接打印
+     */
+    public void print(ILogEvent event) {
+        PrintTask task = new PrintTask(event, serialize(event));
+        if (printThread == null) {
+            doPrint(task);
+            return;
+        }
+        long bytes = task.estimateBytes();
+        if (queuedBytes.addAndGet(bytes) > logProperties.getQueueMaxBytes() || !queue.offer(task)) {
+            queuedBytes.addAndGet(-bytes);
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 在请求线程序列化日志内容，入队后不再引用请求的入参与出参对象；
+     * 已写出内容超过最大长度时中止序列化，只保留已写出的部分
+     */
+    private String serialize(ILogEvent event) {
+        int maxLength = event.getMaxLength() > 0 ? event.getMaxLength() : logProperties.getMaxLength();
+        JSONWriter.Context context = JSONFactory.createWriteContext();
+        LengthLimitFilter lengthLimitFilter = null;
+        if (maxLength > 0) {
+            lengthLimitFilter = new LengthLimitFilter(maxLength);
+            context.setValueFilter(lengthLimitFilter);
+        }
+        try (JSONWriter writer = JSONWriter.of(context)) {
+            if (lengthLimitFilter != null) {
+                lengthLimitFilter.writer = writer;
+            }
+            try {
+                writer.writeAny(event.getLogPrint());
+            } catch (RuntimeException ex) {
+                if (lengthLimitFilter == null || !lengthLimitFilter.exceeded) {
+                    throw ex;
+                }
+            }
+            String info = writer.toString();
+            if (maxLength > 0 && (lengthLimitFilter.exceeded || info.length() > maxLength)) {
+                info = info.substring(0, Math.min(maxLength, info.length())) + "...(truncated)";
+            }
+            return info;
+        }
+    }
+
+    private void printLoop() {
+        long lastReportTime = System.currentTimeMillis();
+        while (running || !queue.isEmpty()) {
+            try {
+                PrintTask task = queue.poll(1, TimeUnit.SECONDS);
+                if (task != null) {
+                    queuedBytes.addAndGet(-task.estimateBytes());
+                    doPrint(task);
+                }
+                long now = System.currentTimeMillis();
+                if (now - lastReportTime >= DROP_REPORT_INTERVAL_MS) {
+                    lastReportTime = now;
+                    long dropped = droppedCount.getAndSet(0L);
+                    if (dropped > 0) {
+                        log.warn("ILog buffer is full, {} logs dropped in last {}s.", dropped, DROP_REPORT_INTERVAL_MS / 1000);
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable ex) {
+                log.error("ILog print failed.", ex);
+            }
+        }
+    }
+
+    private void doPrint(PrintTask task) {
+        Logger logger = task.logger;
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        logger.info("[{}] {}, executeTime: {}ms, info: {}", task.methodType, task.requestURI, task.executeTime, task.info);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        running = false;
+        if (printThread != null) {
+            printThread.join(TimeUnit.SECONDS.toMillis(3));
+        }
+    }
+
+    /**
+     * 待打印日志，仅持有序列化后的日志内容
+     */
+    @AllArgsConstructor
+    private static final class PrintTask {
+
+        private final Logger logger;
+        private final String methodType;
+        private final String requestURI;
+        private final long executeTime;
+        private final String info;
+
+        PrintTask(ILogEvent event, String info) {
+            this(event.getLogger(), event.getMethodType(), event.getRequestURI(), event.getExecuteTime(), info);
+        }
+
+        /**
+         * 按 UTF-16 估算日志内容占用的字节数
+         */
+        long estimateBytes() {
+            return 2L * (info.length() + methodType.length() + requestURI.length());
+        }
+    }
+
+    /**
+     * 序列化长度限制，每写出一个属性前检查已写出长度，超过最大长度时抛出异常中止序列化
+     */
+    private static final class LengthLimitFilter implements ValueFilter {
+
+        private static final RuntimeException LENGTH_EXCEEDED = new RuntimeException("ILog content length exceeded", null, false, false) {
+        };
+
+        private final int maxLength;
+        private JSONWriter writer;
+        private boolean exceeded;
+
+        LengthLimitFilter(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public Object apply(Object object, String name, Object value) {
+            if (writer != null && writer.size() > maxLength) {
+                exceeded = true;
+                throw LENGTH_EXCEEDED;
+            }
+            return value;
+        }
+    }
+}
@@ -172,7 +172,7 @@ CREATE TABLE `t_order_0`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_1`
@@ -198,7 +198,7 @@ CREATE TABLE `t_order_1`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_10`
@@ -224,7 +224,7 @@ CREATE TABLE `t_order_10`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_11`
@@ -250,7 +250,7 @@ CREATE TABLE `t_order_11`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_12`
@@ -276,7 +276,7 @@ CREATE TABLE `t_order_12`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_13`
@@ -302,7 +302,7 @@ CREATE TABLE `t_order_13`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_14`
@@ -328,7 +328,7 @@ CREATE TABLE `t_order_14`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_15`
@@ -354,7 +354,7 @@ CREATE TABLE `t_order_15`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_2`
@@ -380,7 +380,7 @@ CREATE TABLE `t_order_2`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_3`
@@ -406,7 +406,7 @@ CREATE TABLE `t_order_3`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_4`
@@ -432,7 +432,7 @@ CREATE TABLE `t_order_4`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_5`
@@ -458,7 +458,7 @@ CREATE TABLE `t_order_5`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_6`
@@ -484,7 +484,7 @@ CREATE TABLE `t_order_6`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_7`
@@ -510,7 +510,7 @@ CREATE TABLE `t_order_7`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_8`
@@ -536,7 +536,7 @@ CREATE TABLE `t_order_8`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_9`
@@ -562,7 +562,7 @@ CREATE TABLE `t_order_9`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_item_0`
@@ -1173,6 +1173,262 @@ CREATE TABLE `t_order_item_passenger_9`
     KEY           `idx_id_card` (`id_card`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人订单关系表';
 
+CREATE TABLE `t_order_trip_index_0`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_1`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_10`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_11`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_12`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_13`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_14`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_15`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_2`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_3`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_4`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_5`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_6`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_7`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_8`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_9`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
 CREATE TABLE `t_passenger_0`
 (
     `id`            bigint(20) unsigned NOT NULL AUTO_INCREMENT COMMENT 'ID',
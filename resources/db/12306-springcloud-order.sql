@@ -24,7 +24,7 @@ CREATE TABLE `t_order_0`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_1`
@@ -50,7 +50,7 @@ CREATE TABLE `t_order_1`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_10`
@@ -76,7 +76,7 @@ CREATE TABLE `t_order_10`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_11`
@@ -102,7 +102,7 @@ CREATE TABLE `t_order_11`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_12`
@@ -128,7 +128,7 @@ CREATE TABLE `t_order_12`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_13`
@@ -154,7 +154,7 @@ CREATE TABLE `t_order_13`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_14`
@@ -180,7 +180,7 @@ CREATE TABLE `t_order_14`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_15`
@@ -206,7 +206,7 @@ CREATE TABLE `t_order_15`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_2`
@@ -232,7 +232,7 @@ CREATE TABLE `t_order_2`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_3`
@@ -258,7 +258,7 @@ CREATE TABLE `t_order_3`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_4`
@@ -284,7 +284,7 @@ CREATE TABLE `t_order_4`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_5`
@@ -310,7 +310,7 @@ CREATE TABLE `t_order_5`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_6`
@@ -336,7 +336,7 @@ CREATE TABLE `t_order_6`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_7`
@@ -362,7 +362,7 @@ CREATE TABLE `t_order_7`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_8`
@@ -388,7 +388,7 @@ CREATE TABLE `t_order_8`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_9`
@@ -414,7 +414,7 @@ CREATE TABLE `t_order_9`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 CREATE TABLE `t_order_item_0`
@@ -1025,6 +1025,262 @@ CREATE TABLE `t_order_item_passenger_9`
     KEY           `idx_id_card` (`id_card`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人订单关系表';
 
+CREATE TABLE `t_order_trip_index_0`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_1`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_10`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_11`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_12`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_13`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_14`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_15`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_2`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_3`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_4`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_5`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_6`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_7`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_8`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_9`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
 USE
 12306_order_1;
 
@@ -1051,7 +1307,7 @@ CREATE TABLE `t_order_16`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 CREATE TABLE `t_order_item_16`
 (
@@ -1112,7 +1368,7 @@ CREATE TABLE `t_order_17`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 CREATE TABLE `t_order_item_17`
 (
@@ -1173,7 +1429,7 @@ CREATE TABLE `t_order_18`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 CREATE TABLE `t_order_item_18`
 (
@@ -1234,7 +1490,7 @@ CREATE TABLE `t_order_19`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 CREATE TABLE `t_order_item_19`
 (
@@ -1295,7 +1551,7 @@ CREATE TABLE `t_order_20`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 CREATE TABLE `t_order_item_20`
 (
@@ -1356,7 +1612,7 @@ CREATE TABLE `t_order_21`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 CREATE TABLE `t_order_item_21`
 (
@@ -1417,7 +1673,7 @@ CREATE TABLE `t_order_22`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 CREATE TABLE `t_order_item_22`
 (
@@ -1478,7 +1734,7 @@ CREATE TABLE `t_order_23`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 CREATE TABLE `t_order_item_23`
 (
@@ -1539,7 +1795,7 @@ CREATE TABLE `t_order_24`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 CREATE TABLE `t_order_item_24`
 (
@@ -1600,7 +1856,7 @@ CREATE TABLE `t_order_25`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 CREATE TABLE `t_order_item_25`
 (
@@ -1661,7 +1917,7 @@ CREATE TABLE `t_order_26`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 CREATE TABLE `t_order_item_26`
 (
@@ -1722,7 +1978,7 @@ CREATE TABLE `t_order_27`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 CREATE TABLE `t_order_item_27`
 (
@@ -1783,7 +2039,7 @@ CREATE TABLE `t_order_28`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 CREATE TABLE `t_order_item_28`
 (
@@ -1844,7 +2100,7 @@ CREATE TABLE `t_order_29`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 CREATE TABLE `t_order_item_29`
 (
@@ -1905,7 +2161,7 @@ CREATE TABLE `t_order_30`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 CREATE TABLE `t_order_item_30`
 (
@@ -1966,7 +2222,7 @@ CREATE TABLE `t_order_31`
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
     PRIMARY KEY (`id`),
     KEY              `idx_user_id` (`user_id`) USING BTREE,
-    KEY              `idx_order_sn` (`order_sn`) USING BTREE
+    UNIQUE KEY       `uk_order_sn` (`order_sn`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 CREATE TABLE `t_order_item_31`
 (
@@ -2004,3 +2260,259 @@ CREATE TABLE `t_order_item_passenger_31`
     PRIMARY KEY (`id`),
     KEY           `idx_id_card` (`id_card`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人订单关系表';
+
+CREATE TABLE `t_order_trip_index_16`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_17`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_18`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_19`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_20`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_21`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_22`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_23`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_24`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_25`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_26`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_27`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_28`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_29`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_30`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
+
+CREATE TABLE `t_order_trip_index_31`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `id_card`        varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
+    `order_sn`       varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '订单号',
+    `train_id`       bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `riding_date`    date                                    DEFAULT NULL COMMENT '乘车日期',
+    `departure_time` datetime                                DEFAULT NULL COMMENT '出发时间',
+    `arrival_time`   datetime                                DEFAULT NULL COMMENT '到达时间',
+    `create_time`    datetime                                DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime                                DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY              `idx_id_card_riding_date` (`id_card`, `riding_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人行程索引表';
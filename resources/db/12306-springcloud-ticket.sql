@@ -151,3 +151,20 @@ CREATE TABLE `t_train_station_relation`
     PRIMARY KEY (`id`),
     KEY              `idx_train_id` (`train_id`) USING BTREE
 ) ENGINE=InnoDB AUTO_INCREMENT=1677689610742865921 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='列车站点关系表';
+
+CREATE TABLE `t_order_outbox`
+(
+    `id`              bigint(20) unsigned NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `order_sn`        varchar(64) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '订单号',
+    `train_id`        bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `payload`         text COLLATE utf8mb4_unicode_ci COMMENT '订单创建请求报文',
+    `status`          int(3) DEFAULT NULL COMMENT '投递状态 0：待投递 1：已投递 2：已拒绝 3：拒绝后释放中',
+    `retry_count`     int(11) DEFAULT NULL COMMENT '重试次数',
+    `next_retry_time` datetime                               DEFAULT NULL COMMENT '下次重试时间',
+    `create_time`     datetime                               DEFAULT NULL COMMENT '创建时间',
+    `update_time`     datetime                               DEFAULT NULL COMMENT '修改时间',
+    `del_flag`        tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY        `uk_order_sn` (`order_sn`) USING BTREE,
+    KEY               `idx_status_next_retry_time` (`status`, `next_retry_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单发件箱表';
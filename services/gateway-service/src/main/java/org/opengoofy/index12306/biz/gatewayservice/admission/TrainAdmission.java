@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.gatewayservice.admission;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 单车次准入结果
+ * 准入状态由 {@link TrainAdmissionRegistry} 维护在 Redis 中，所有网关实例共享同一个等待室
+ */
+@Getter
+@AllArgsConstructor
+public class TrainAdmission {
+
+    /**
+     * 是否放行
+     */
+    private final boolean admitted;
+
+    /**
+     * 排队序号，放行的首次请求为 -1
+     */
+    private final long sequence;
+
+    /**
+     * 排队序号前方的等待人数
+     */
+    private final long position;
+
+    /**
+     * 按每秒放行数估算的建议轮询间隔
+     */
+    private final long retryAfterMillis;
+
+    /**
+     * 在途购票请求租约 ID，放行的请求结束后据此归还并发名额
+     */
+    private final String leaseId;
+}
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.gatewayservice.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.opengoofy.index12306.biz.gatewayservice.config.AdmissionConfig;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 车次准入控制注册中心
+ * 各车次的等待室、在途请求与放行速率维护在 Redis 中，由 Lua 脚本原子完成叫号、放行与排队，所有网关实例共享同一个等待室，
+ * 路由配置的并发数与每秒放行数为全部网关实例的合计；排队凭证签名密钥同样保存在 Redis 中，凭证在任一网关实例均有效。
+ * 在途请求以租约形式登记，网关实例宕机未归还的名额在租约到期后自动回收；余票售罄标记只在本实例短时间缓存
+ */
+@Slf4j
+@Component
+public class TrainAdmissionRegistry implements InitializingBean {
+
+    /**
+     * 排队凭证签名密钥，首个启动的网关实例随机生成
+     */
+    public static final String ADMISSION_TICKET_SECRET_KEY = "index12306-gateway-service:admission-ticket-secret";
+
+    /**
+     * 车次准入状态，HASH 结构，Key Prefix + {车次 ID}，包含已发放序号、已叫到序号与令牌桶状态
+     */
+    public static final String ADMISSION_STATE_KEY = "index12306-gateway-service:admission-state:";
+
+    /**
+     * 车次在途购票请求租约，ZSET 结构，Key Prefix + {车次 ID}，Score 为租约到期时间
+     */
+    public static final String ADMISSION_IN_FLIGHT_KEY = "index12306-gateway-service:admission-in-flight:";
+
+    /**
+     * 车次尚未叫到的排队序号放弃期限，ZSET 结构，Key Prefix + {车次 ID}，Score 为放弃期限
+     */
+    public static final String ADMISSION_ABANDON_DEADLINE_KEY = "index12306-gateway-service:admission-abandon-deadline:";
+
+    private static final String LUA_TRAIN_ADMISSION_PATH = "lua/train_admission.lua";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    /**
+     * 超过建议轮询间隔的该倍数未轮询视为放弃排队
+     */
+    private static final int ABANDON_RETRY_MULTIPLE = 3;
+
+    /**
+     * 单次叫号最多越过的放弃序号数，避免单次脚本执行时间过长
+     */
+    private static final int SKIP_ABANDONED_LIMIT = 1000;
+
+    /**
+     * 车次准入状态闲置过期时间
+     */
+    private static final long STATE_TTL_SECONDS = TimeUnit.MINUTES.toSeconds(10);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final Cache<String, Boolean> soldOutCache;
+
+    private final DefaultRedisScript<List> admissionScript;
+
+    private volatile byte[] ticketSecret;
+
+    public TrainAdmissionRegistry(@Value("${gateway.admission.sold-out-millis:1000}") long soldOutMillis, StringRedisTemplate stringRedisTemplate) {
+        this.soldOutCache = Caffeine.newBuilder()
+                .expireAfterWrite(soldOutMillis, TimeUnit.MILLISECONDS)
+                .maximumSize(100000)
+                .build();
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.admissionScript = new DefaultRedisScript<>();
+        this.admissionScript.setScriptSource(new ResourceScriptSource(new ClassPathResource(LUA_TRAIN_ADMISSION_PATH)));
+        this.admissionScript.setResultType(List.class);
+    }
+
+    /**
+     * 启动时加载排队凭证签名密钥，不存在时随机生成并以 SETNX 写入，并发启动的网关实例以先写入的为准
+     */
+    @Override
+    public void afterPropertiesSet() {
+        byte[] randomSecret = new byte[32];
+        new SecureRandom().nextBytes(randomSecret);
+        stringRedisTemplate.opsForValue().setIfAbsent(ADMISSION_TICKET_SECRET_KEY, Base64.getEncoder().encodeToString(randomSecret));
+        ticketSecret = Base64.getDecoder().decode(stringRedisTemplate.opsForValue().get(ADMISSION_TICKET_SECRET_KEY));
+    }
+
+    /**
+     * 请求准入，Redis 调用在弹性线程池执行，避免阻塞网关事件循环线程；Redis 不可用时放行，由购票服务令牌桶兜底
+     *
+     * @param trainId  车次 ID
+     * @param sequence 排队凭证中的排队序号，首次请求为 -1；序号已失效时按首次请求处理
+     * @param config   路由准入配置
+     * @return 准入结果
+     */
+    public Mono<TrainAdmission> tryAdmit(String trainId, long sequence, AdmissionConfig config) {
+        return Mono.fromCallable(() -> {
+            String leaseId = UUID.randomUUID().toString();
+            String hashTag = "{" + trainId + "}";
+            List<?> result = stringRedisTemplate.execute(
+                    admissionScript,
+                    List.of(ADMISSION_STATE_KEY + hashTag, ADMISSION_IN_FLIGHT_KEY + hashTag, ADMISSION_ABANDON_DEADLINE_KEY + hashTag),
+                    String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(config.getMaxConcurrency()),
+                    String.valueOf(config.getPermitsPerSecond()),
+                    leaseId,
+                    String.valueOf(config.getInFlightLeaseMillis()),
+                    String.valueOf(sequence),
+                    String.valueOf(ABANDON_RETRY_MULTIPLE),
+                    String.valueOf(STATE_TTL_SECONDS),
+                    String.valueOf(SKIP_ABANDONED_LIMIT));
+            return new TrainAdmission(
+                    ((Number) result.get(0)).longValue() == 1L,
+                    ((Number) result.get(1)).longValue(),
+                    ((Number) result.get(2)).longValue(),
+                    ((Number) result.get(3)).longValue(),
+                    leaseId);
+        }).subscribeOn(Schedulers.boundedElastic()).onErrorResume(ex -> {
+            log.error("[网关准入控制] 车次：{} 准入控制执行失败，直接放行", trainId, ex);
+            return Mono.just(new TrainAdmission(true, -1L, 0L, 0L, null));
+        });
+    }
+
+    /**
+     * 放行的购票请求结束后归还并发名额，Redis 不可用时仅记录日志，名额在租约到期后回收
+     */
+    public Mono<Void> release(String trainId, TrainAdmission admission) {
+        if (admission.getLeaseId() == null) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromRunnable(() -> stringRedisTemplate.opsForZSet().remove(ADMISSION_IN_FLIGHT_KEY + "{" + trainId + "}", admission.getLeaseId()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(ex -> {
+                    log.error("[网关准入控制] 车次：{} 归还并发名额失败，等待租约到期回收", trainId, ex);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * 车次区间席别是否已售罄
+     */
+    public boolean isSoldOut(String soldOutKey) {
+        return soldOutCache.getIfPresent(soldOutKey) != null;
+    }
+
+    /**
+     * 标记车次区间席别已售罄，售罄标记短时间后过期，以便退票、取消订单释放的余票重新放行
+     */
+    public void markSoldOut(String soldOutKey) {
+        soldOutCache.put(soldOutKey, Boolean.TRUE);
+    }
+
+    /**
+     * 签发排队凭证，格式为 排队序号.签名
+     */
+    public String issueQueueTicket(String trainId, long sequence) {
+        return sequence + "." + sign(trainId, sequence);
+    }
+
+    /**
+     * 校验排队凭证
+     *
+     * @return 排队序号，凭证无效返回 -1
+     */
+    public long parseQueueTicket(String trainId, String queueTicket) {
+        int index = queueTicket.indexOf('.');
+        if (index <= 0) {
+            return -1L;
+        }
+        long sequence;
+        try {
+            sequence = Long.parseLong(queueTicket.substring(0, index));
+        } catch (NumberFormatException ex) {
+            return -1L;
+        }
+        byte[] expected = sign(trainId, sequence).getBytes(StandardCharsets.UTF_8);
+        byte[] actual = queueTicket.substring(index + 1).getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(expected, actual) ? sequence : -1L;
+    }
+
+    private String sign(String trainId, long sequence) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(ticketSecret, HMAC_ALGORITHM));
+            byte[] digest = mac.doFinal((trainId + ":" + sequence).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 12));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.gatewayservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opengoofy.index12306.biz.gatewayservice.toolkit.JWTUtil;
+import org.opengoofy.index12306.biz.gatewayservice.toolkit.UserInfoDTO;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验签 Token 本地缓存
+ * Key 为 Token 的 SHA-256 摘要，Value 为解析后的用户信息，缓存过期时间与 Token 自身过期时间一致，
+ * 同一 Token 的后续请求无需重复 HMAC 验签与 JSON 反序列化；验签失败的 Token 不缓存，避免伪造 Token 挤占缓存
+ * 退出登录或注销账户吊销的 Token 摘要记录在本地吊销集合中，保留至 Token 过期，验签前优先检查；
+ * 吊销记录同时写入 Redis 有序集合并通过 Redis 发布订阅广播，其它网关节点实时同步，新启动的节点从有序集合加载
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache implements InitializingBean {
+
+    /**
+     * 已吊销 Token 摘要有序集合，分值为 Token 过期时间戳
+     */
+    public static final String REVOKED_TOKEN_KEY = "index12306-gateway-service:revoked-token";
+
+    /**
+     * Token 吊销广播频道
+     */
+    public static final String REVOKED_TOKEN_CHANNEL = "index12306-gateway-service:revoked-token-channel";
+
+    private static final char REVOCATION_SEPARATOR = ':';
+
+    private final Cache<String, VerifiedToken> cache;
+
+    private final Cache<String, Long> revokedTokens;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public VerifiedTokenCache(@Value("${gateway.token-cache.maximum-size:100000}") long maximumSize, StringRedisTemplate stringRedisTemplate) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        return remainingNanos(value.expirationMillis);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.revokedTokens = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, Long>() {
+
+                    @Override
+                    public long expireAfterCreate(String key, Long value, long currentTime) {
+                        return remainingNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Long value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Long value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * 获取 Token 对应的用户信息，缓存未命中时验签并写入缓存
+     *
+     * @param token 用户访问 Token
+     * @return 用户信息，Token 无效、已过期或已吊销返回 null
+     */
+    public UserInfoDTO getUserInfo(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        String digest = digest(token);
+        if (revokedTokens.getIfPresent(digest) != null) {
+            return null;
+        }
+        VerifiedToken verifiedToken = cache.getIfPresent(digest);
+        if (verifiedToken != null && verifiedToken.expirationMillis > System.currentTimeMillis()) {
+            return verifiedToken.userInfo;
+        }
+        Claims claims = JWTUtil.parseJwtClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        UserInfoDTO userInfo = JWTUtil.parseUserInfo(claims);
+        if (userInfo != null) {
+            cache.put(digest, new VerifiedToken(userInfo, claims.getExpiration().getTime()));
+        }
+        return userInfo;
+    }
+
+    /**
+     * 吊销 Token，用户退出登录或注销账户时调用
+     * 当前节点立即生效，Redis 写入与广播在弹性线程池执行，避免阻塞网关事件循环线程；Redis 不可用时仅记录日志
+     *
+     * @param token 用户访问 Token
+     * @return 吊销记录同步到 Redis 后完成
+     */
+    public Mono<Void> revoke(String token) {
+        if (!StringUtils.hasText(token)) {
+            return Mono.empty();
+        }
+        String digest = digest(token);
+        VerifiedToken verifiedToken = cache.getIfPresent(digest);
+        Long expirationMillis = verifiedToken != null ? Long.valueOf(verifiedToken.expirationMillis) : parseExpirationMillis(token);
+        if (expirationMillis == null) {
+            return Mono.empty();
+        }
+        revokeLocal(digest, expirationMillis);
+        return Mono.<Void>fromRunnable(() -> {
+                    ZSetOperations<String, String> zSetOperations = stringRedisTemplate.opsForZSet();
+                    zSetOperations.removeRangeByScore(REVOKED_TOKEN_KEY, 0, System.currentTimeMillis());
+                    zSetOperations.add(REVOKED_TOKEN_KEY, digest, expirationMillis);
+                    stringRedisTemplate.convertAndSend(REVOKED_TOKEN_CHANNEL, digest + REVOCATION_SEPARATOR + expirationMillis);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(ex -> {
+                    log.error("[网关 Token 吊销] 吊销记录同步 Redis 失败，其它网关节点需等待 Token 过期", ex);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * 处理其它网关节点广播的 Token 吊销消息
+     *
+     * @param message 吊销消息，格式为 Token 摘要:过期时间戳
+     */
+    public void onRevocation(String message) {
+        int index = message.lastIndexOf(REVOCATION_SEPARATOR);
+        if (index <= 0) {
+            return;
+        }
+        revokeLocal(message.substring(0, index), Long.parseLong(message.substring(index + 1)));
+    }
+
+    /**
+     * 启动时从 Redis 加载尚未过期的吊销记录，覆盖本节点启动前吊销的 Token
+     */
+    @Override
+    public void afterPropertiesSet() {
+        try {
+            ZSetOperations<String, String> zSetOperations = stringRedisTemplate.opsForZSet();
+            zSetOperations.removeRangeByScore(REVOKED_TOKEN_KEY, 0, System.currentTimeMillis());
+            Set<ZSetOperations.TypedTuple<String>> revokedTuples = zSetOperations.rangeWithScores(REVOKED_TOKEN_KEY, 0, -1);
+            if (revokedTuples != null) {
+                revokedTuples.forEach(each -> revokeLocal(each.getValue(), each.getScore().longValue()));
+            }
+        } catch (Exception ex) {
+            log.error("[网关 Token 吊销] 加载 Redis 吊销记录失败", ex);
+        }
+    }
+
+    private void revokeLocal(String digest, long expirationMillis) {
+        if (expirationMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        revokedTokens.put(digest, expirationMillis);
+        cache.invalidate(digest);
+    }
+
+    private Long parseExpirationMillis(String token) {
+        Claims claims = JWTUtil.parseJwtClaims(token);
+        return claims != null ? claims.getExpiration().getTime() : null;
+    }
+
+    private static long remainingNanos(long expirationMillis) {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, expirationMillis - System.currentTimeMillis()));
+    }
+
+    private String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = messageDigest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(bytes);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class VerifiedToken {
+
+        private final UserInfoDTO userInfo;
+
+        private final long expirationMillis;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.gatewayservice.config;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 购票准入控制过滤器配置
+ */
+@Data
+public class AdmissionConfig {
+
+    /**
+     * 需要准入控制的购票路径前缀
+     */
+    private List<String> pathPre;
+
+    /**
+     * 单车次最大并发购票请求数，全部网关实例合计
+     */
+    private int maxConcurrency = 200;
+
+    /**
+     * 单车次每秒放行购票请求数，全部网关实例合计
+     */
+    private int permitsPerSecond = 500;
+
+    /**
+     * 在途购票请求租约时长，网关实例宕机未归还的并发名额在租约到期后回收，需大于购票请求超时时间
+     */
+    private long inFlightLeaseMillis = 30000L;
+}
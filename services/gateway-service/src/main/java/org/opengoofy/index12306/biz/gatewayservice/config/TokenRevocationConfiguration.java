@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.gatewayservice.config;
+
+import org.opengoofy.index12306.biz.gatewayservice.cache.VerifiedTokenCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Token 吊销广播配置
+ */
+@Configuration
+public class TokenRevocationConfiguration {
+
+    @Bean
+    public RedisMessageListenerContainer tokenRevocationListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                          VerifiedTokenCache verifiedTokenCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> verifiedTokenCache.onRevocation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(VerifiedTokenCache.REVOKED_TOKEN_CHANNEL));
+        return container;
+    }
+}
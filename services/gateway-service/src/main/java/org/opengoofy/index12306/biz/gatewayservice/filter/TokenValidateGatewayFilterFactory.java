@@ -17,9 +17,9 @@
 
 package org.opengoofy.index12306.biz.gatewayservice.filter;
 
-import com.alibaba.nacos.client.naming.utils.CollectionUtils;
+import org.opengoofy.index12306.biz.gatewayservice.cache.VerifiedTokenCache;
 import org.opengoofy.index12306.biz.gatewayservice.config.Config;
-import org.opengoofy.index12306.biz.gatewayservice.toolkit.JWTUtil;
+import org.opengoofy.index12306.biz.gatewayservice.toolkit.PathPrefixTrie;
 import org.opengoofy.index12306.biz.gatewayservice.toolkit.UserInfoDTO;
 import org.opengoofy.index12306.framework.starter.bases.constant.UserConstant;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
@@ -28,10 +28,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
 import java.util.Objects;
 
 /**
@@ -40,8 +40,11 @@ import java.util.Objects;
 @Component
 public class TokenValidateGatewayFilterFactory extends AbstractGatewayFilterFactory<Config> {
 
-    public TokenValidateGatewayFilterFactory() {
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    public TokenValidateGatewayFilterFactory(VerifiedTokenCache verifiedTokenCache) {
         super(Config.class);
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     /**
@@ -49,15 +52,20 @@ public class TokenValidateGatewayFilterFactory extends AbstractGatewayFilterFact
      */
     public static final String DELETION_PATH = "/api/user-service/deletion";
 
+    /**
+     * 用户退出登录
+     */
+    public static final String LOGOUT_PATH = "/api/user-service/logout";
+
     @Override
     public GatewayFilter apply(Config config) {
+        PathPrefixTrie blackPathPreTrie = PathPrefixTrie.build(config.getBlackPathPre());
         return (exchange, chain) -> {
             ServerHttpRequest request = exchange.getRequest();
             String requestPath = request.getPath().toString();
-            if (isPathInBlackPreList(requestPath, config.getBlackPathPre())) {
+            if (blackPathPreTrie.matches(requestPath)) {
                 String token = request.getHeaders().getFirst("Authorization");
-                // TODO 需要验证 Token 是否有效，有可能用户注销了账户，但是 Token 有效期还未过
-                UserInfoDTO userInfo = JWTUtil.parseJwtToken(token);
+                UserInfoDTO userInfo = verifiedTokenCache.getUserInfo(token);
                 if (!validateToken(userInfo)) {
                     ServerHttpResponse response = exchange.getResponse();
                     response.setStatusCode(HttpStatus.UNAUTHORIZED);
@@ -72,19 +80,16 @@ public class TokenValidateGatewayFilterFactory extends AbstractGatewayFilterFact
                         httpHeaders.set(UserConstant.USER_TOKEN_KEY, token);
                     }
                 });
+                // 退出登录或注销账户时吊销 Token，并广播至其它网关节点
+                if (Objects.equals(requestPath, LOGOUT_PATH) || Objects.equals(requestPath, DELETION_PATH)) {
+                    return verifiedTokenCache.revoke(token).then(Mono.defer(() -> chain.filter(exchange.mutate().request(builder.build()).build())));
+                }
                 return chain.filter(exchange.mutate().request(builder.build()).build());
             }
             return chain.filter(exchange);
         };
     }
 
-    private boolean isPathInBlackPreList(String requestPath, List<String> blackPathPre) {
-        if (CollectionUtils.isEmpty(blackPathPre)) {
-            return false;
-        }
-        return blackPathPre.stream().anyMatch(requestPath::startsWith);
-    }
-
     private boolean validateToken(UserInfoDTO userInfo) {
         return userInfo != null;
     }
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.gatewayservice.filter;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import lombok.extern.slf4j.Slf4j;
+import org.opengoofy.index12306.biz.gatewayservice.admission.TrainAdmission;
+import org.opengoofy.index12306.biz.gatewayservice.admission.TrainAdmissionRegistry;
+import org.opengoofy.index12306.biz.gatewayservice.config.AdmissionConfig;
+import org.opengoofy.index12306.biz.gatewayservice.toolkit.PathPrefixTrie;
+import org.opengoofy.index12306.framework.starter.bases.constant.AdmissionConstant;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.TreeSet;
+
+/**
+ * SpringCloud Gateway 车次购票准入控制过滤器
+ * 按车次限制全部网关实例合计的在途购票请求数与每秒放行数，超出预算的请求返回排队凭证，用户携带凭证轮询任一网关实例的购票接口；
+ * 购票服务返回余票售罄响应头后，同一车次区间席别的后续请求在网关直接拒绝，不再争抢购票分布式锁与令牌桶
+ */
+@Slf4j
+@Component
+public class TrainAdmissionGatewayFilterFactory extends AbstractGatewayFilterFactory<AdmissionConfig> {
+
+    /**
+     * 排队等待响应码
+     */
+    public static final String ADMISSION_WAITING_CODE = "A000300";
+
+    /**
+     * 余票售罄响应码，与购票服务业务异常响应码一致
+     */
+    public static final String SOLD_OUT_CODE = "B000001";
+
+    private final TrainAdmissionRegistry trainAdmissionRegistry;
+
+    public TrainAdmissionGatewayFilterFactory(TrainAdmissionRegistry trainAdmissionRegistry) {
+        super(AdmissionConfig.class);
+        this.trainAdmissionRegistry = trainAdmissionRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(AdmissionConfig config) {
+        PathPrefixTrie pathPreTrie = PathPrefixTrie.build(config.getPathPre());
+        return (exchange, chain) -> {
+            if (!pathPreTrie.matches(exchange.getRequest().getPath().toString())) {
+                return chain.filter(exchange);
+            }
+            return ServerWebExchangeUtils.cacheRequestBodyAndRequest(exchange, cachedRequest -> {
+                ServerWebExchange cachedExchange = exchange.mutate().request(cachedRequest).build();
+                JSONObject purchase = parsePurchaseRequest(exchange.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR));
+                String trainId = purchase != null ? purchase.getString("trainId") : null;
+                // 请求参数不完整时交由购票服务校验
+                if (!StringUtils.hasText(trainId)) {
+                    return chain.filter(cachedExchange);
+                }
+                String soldOutKey = buildSoldOutKey(trainId, purchase);
+                if (trainAdmissionRegistry.isSoldOut(soldOutKey)) {
+                    return writeResult(cachedExchange, HttpStatus.OK, SOLD_OUT_CODE, "列车站点已无余票", null);
+                }
+                String queueTicket = cachedRequest.getHeaders().getFirst(AdmissionConstant.QUEUE_TICKET_KEY);
+                long sequence = StringUtils.hasText(queueTicket) ? trainAdmissionRegistry.parseQueueTicket(trainId, queueTicket) : -1L;
+                return trainAdmissionRegistry.tryAdmit(trainId, sequence, config).flatMap(admission -> {
+                    if (!admission.isAdmitted()) {
+                        return writeWaiting(cachedExchange, trainId, admission);
+                    }
+                    return chain.filter(cachedExchange).doFinally(signal -> {
+                        trainAdmissionRegistry.release(trainId, admission).subscribe();
+                        String soldOut = cachedExchange.getResponse().getHeaders().getFirst(AdmissionConstant.TICKET_SOLD_OUT_KEY);
+                        if (Boolean.parseBoolean(soldOut)) {
+                            trainAdmissionRegistry.markSoldOut(soldOutKey);
+                        }
+                    });
+                });
+            });
+        };
+    }
+
+    private JSONObject parsePurchaseRequest(DataBuffer body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return JSON.parseObject(body.toString(StandardCharsets.UTF_8));
+        } catch (Exception ex) {
+            log.warn("购票请求参数解析失败，跳过网关准入控制", ex);
+            return null;
+        }
+    }
+
+    /**
+     * 售罄标记粒度为车次、出发站、到达站与购买席别集合，与购票服务令牌桶粒度一致
+     */
+    private String buildSoldOutKey(String trainId, JSONObject purchase) {
+        TreeSet<String> seatTypes = new TreeSet<>();
+        JSONArray passengers = purchase.getJSONArray("passengers");
+        if (passengers != null) {
+            for (int i = 0; i < passengers.size(); i++) {
+                JSONObject passenger = passengers.getJSONObject(i);
+                if (passenger != null) {
+                    seatTypes.add(String.valueOf(passenger.get("seatType")));
+                }
+            }
+        }
+        return String.join("_", trainId, purchase.getString("departure"), purchase.getString("arrival"), String.join(",", seatTypes));
+    }
+
+    private Mono<Void> writeWaiting(ServerWebExchange exchange, String trainId, TrainAdmission admission) {
+        long retryAfterMillis = admission.getRetryAfterMillis();
+        JSONObject data = new JSONObject();
+        data.put(AdmissionConstant.QUEUE_TICKET_KEY, trainAdmissionRegistry.issueQueueTicket(trainId, admission.getSequence()));
+        data.put("position", admission.getPosition());
+        data.put("retryAfterMillis", retryAfterMillis);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, retryAfterMillis / 1000)));
+        return writeResult(exchange, HttpStatus.TOO_MANY_REQUESTS, ADMISSION_WAITING_CODE, "当前车次购票人数较多，正在排队中", data);
+    }
+
+    private Mono<Void> writeResult(ServerWebExchange exchange, HttpStatus status, String code, String message, Object data) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        JSONObject result = new JSONObject();
+        result.put("code", code);
+        result.put("message", message);
+        result.put("data", data);
+        DataBuffer buffer = response.bufferFactory().wrap(result.toJSONString().getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(buffer));
+    }
+}
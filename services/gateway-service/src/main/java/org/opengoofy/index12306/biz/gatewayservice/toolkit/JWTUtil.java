@@ -72,14 +72,24 @@ public final class JWTUtil {
      * @return 用户信息
      */
     public static UserInfoDTO parseJwtToken(String jwtToken) {
+        Claims claims = parseJwtClaims(jwtToken);
+        return claims != null ? parseUserInfo(claims) : null;
+    }
+
+    /**
+     * 校验用户 Token 签名与有效期并解析 Claims
+     *
+     * @param jwtToken 用户访问 Token
+     * @return Token Claims，Token 无效或已过期返回 null
+     */
+    public static Claims parseJwtClaims(String jwtToken) {
         if (StringUtils.hasText(jwtToken)) {
             String actualJwtToken = jwtToken.replace(TOKEN_PREFIX, "");
             try {
                 Claims claims = Jwts.parser().setSigningKey(SECRET).parseClaimsJws(actualJwtToken).getBody();
                 Date expiration = claims.getExpiration();
                 if (expiration.after(new Date())) {
-                    String subject = claims.getSubject();
-                    return JSON.parseObject(subject, UserInfoDTO.class);
+                    return claims;
                 }
             } catch (ExpiredJwtException ignored) {
             } catch (Exception ex) {
@@ -88,4 +98,14 @@ public final class JWTUtil {
         }
         return null;
     }
+
+    /**
+     * 从 Token Claims 中解析用户信息
+     *
+     * @param claims Token Claims
+     * @return 用户信息
+     */
+    public static UserInfoDTO parseUserInfo(Claims claims) {
+        return JSON.parseObject(claims.getSubject(), UserInfoDTO.class);
+    }
 }
\ No newline at end of file
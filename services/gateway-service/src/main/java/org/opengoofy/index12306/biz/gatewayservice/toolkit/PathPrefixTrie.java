@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.gatewayservice.toolkit;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 路径前缀字典树
+ * 过滤器配置加载时预编译黑名单前置路径，请求路径只需沿字典树匹配一次，匹配成本与前缀数量无关
+ */
+public final class PathPrefixTrie {
+
+    private final Node root = new Node();
+
+    private final boolean empty;
+
+    private PathPrefixTrie(List<String> prefixes) {
+        boolean hasPrefix = false;
+        if (prefixes != null) {
+            for (String each : prefixes) {
+                if (each == null) {
+                    continue;
+                }
+                Node node = root;
+                for (int i = 0; i < each.length(); i++) {
+                    node = node.children.computeIfAbsent(each.charAt(i), key -> new Node());
+                }
+                node.terminal = true;
+                hasPrefix = true;
+            }
+        }
+        this.empty = !hasPrefix;
+    }
+
+    /**
+     * 根据前缀集合构建字典树
+     *
+     * @param prefixes 路径前缀集合
+     * @return 路径前缀字典树
+     */
+    public static PathPrefixTrie build(List<String> prefixes) {
+        return new PathPrefixTrie(prefixes);
+    }
+
+    /**
+     * 判断路径是否以任一前缀开头，语义与 {@link String#startsWith(String)} 一致
+     *
+     * @param path 请求路径
+     * @return 是否匹配
+     */
+    public boolean matches(String path) {
+        if (empty) {
+            return false;
+        }
+        Node node = root;
+        if (node.terminal) {
+            return true;
+        }
+        for (int i = 0; i < path.length(); i++) {
+            node = node.children.get(path.charAt(i));
+            if (node == null) {
+                return false;
+            }
+            if (node.terminal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Node {
+
+        private final Map<Character, Node> children = new HashMap<>(4);
+
+        private boolean terminal;
+    }
+}
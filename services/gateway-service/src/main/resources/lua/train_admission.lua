@@ -0,0 +1,80 @@
+local now = tonumber(ARGV[1])
+local maxConcurrency = tonumber(ARGV[2])
+local permitsPerSecond = tonumber(ARGV[3])
+local leaseId = ARGV[4]
+local leaseMillis = tonumber(ARGV[5])
+local ticket = tonumber(ARGV[6])
+local abandonMultiple = tonumber(ARGV[7])
+local stateTtl = tonumber(ARGV[8])
+local skipLimit = tonumber(ARGV[9])
+
+local issued = tonumber(redis.call('hget', KEYS[1], 'issued') or '0')
+local called = tonumber(redis.call('hget', KEYS[1], 'called') or '0')
+
+local function retryAfter(queueTicket)
+    local millis = math.floor(math.max(0, queueTicket - called) * 1000 / math.max(1, permitsPerSecond))
+    return math.min(math.max(millis, 200), 5000)
+end
+
+local function tryAcquire(inFlight)
+    if inFlight >= maxConcurrency then
+        return false
+    end
+    local permits = tonumber(redis.call('hget', KEYS[1], 'permits') or permitsPerSecond)
+    local refillAt = tonumber(redis.call('hget', KEYS[1], 'refill_at') or now)
+    permits = math.min(permitsPerSecond, permits + math.max(0, now - refillAt) * permitsPerSecond / 1000)
+    redis.call('hset', KEYS[1], 'refill_at', now)
+    if permits < 1 then
+        redis.call('hset', KEYS[1], 'permits', tostring(permits))
+        return false
+    end
+    redis.call('hset', KEYS[1], 'permits', tostring(permits - 1))
+    redis.call('zadd', KEYS[2], now + leaseMillis, leaseId)
+    return true
+end
+
+if ticket >= issued then
+    ticket = -1
+end
+if ticket >= 0 then
+    redis.call('zadd', KEYS[3], 'XX', now + retryAfter(ticket) * abandonMultiple, ticket)
+end
+
+local skipped = 0
+while called < issued and skipped < skipLimit do
+    local deadline = redis.call('zscore', KEYS[3], called)
+    if deadline and tonumber(deadline) > now then
+        break
+    end
+    redis.call('zrem', KEYS[3], called)
+    called = called + 1
+    skipped = skipped + 1
+end
+
+redis.call('zremrangebyscore', KEYS[2], '-inf', now)
+local inFlight = redis.call('zcard', KEYS[2])
+local admitted = 0
+if ticket < 0 then
+    if called >= issued and tryAcquire(inFlight) then
+        admitted = 1
+    else
+        ticket = issued
+        issued = issued + 1
+        redis.call('zadd', KEYS[3], now + retryAfter(ticket) * abandonMultiple, ticket)
+    end
+elseif ticket - called < maxConcurrency - inFlight and tryAcquire(inFlight) then
+    admitted = 1
+    for each = called, ticket do
+        redis.call('zrem', KEYS[3], each)
+    end
+    if ticket + 1 > called then
+        called = ticket + 1
+    end
+end
+
+redis.call('hset', KEYS[1], 'issued', issued)
+redis.call('hset', KEYS[1], 'called', called)
+for i = 1, 3 do
+    redis.call('expire', KEYS[i], stateTtl)
+end
+return {admitted, ticket, math.max(0, ticket - called), retryAfter(ticket)}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.gatewayservice.admission;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.opengoofy.index12306.biz.gatewayservice.config.AdmissionConfig;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * 车次准入控制注册中心单元测试，覆盖多个网关实例共享排队凭证签名密钥以及准入脚本结果解析
+ */
+class TrainAdmissionRegistryTests {
+
+    private StringRedisTemplate stringRedisTemplate;
+
+    private ZSetOperations<String, String> zSetOperations;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = Mockito.mock(ValueOperations.class);
+        zSetOperations = Mockito.mock(ZSetOperations.class);
+        Mockito.when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        // 模拟 SETNX，只有首次写入生效
+        AtomicReference<String> secret = new AtomicReference<>();
+        Mockito.when(valueOperations.setIfAbsent(eq(TrainAdmissionRegistry.ADMISSION_TICKET_SECRET_KEY), anyString()))
+                .thenAnswer(invocation -> secret.compareAndSet(null, invocation.getArgument(1)));
+        Mockito.when(valueOperations.get(TrainAdmissionRegistry.ADMISSION_TICKET_SECRET_KEY)).thenAnswer(invocation -> secret.get());
+    }
+
+    @Test
+    void testQueueTicketIsValidAcrossInstances() {
+        TrainAdmissionRegistry registry = newRegistry();
+        TrainAdmissionRegistry otherRegistry = newRegistry();
+        String queueTicket = registry.issueQueueTicket("1", 42L);
+        Assertions.assertEquals(42L, otherRegistry.parseQueueTicket("1", queueTicket));
+        Assertions.assertEquals(-1L, otherRegistry.parseQueueTicket("2", queueTicket));
+        Assertions.assertEquals(-1L, otherRegistry.parseQueueTicket("1", "43" + queueTicket.substring(queueTicket.indexOf('.'))));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAdmissionResultAndRelease() {
+        TrainAdmissionRegistry registry = newRegistry();
+        Mockito.when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any()))
+                .thenReturn(List.of(0L, 7L, 3L, 600L))
+                .thenReturn(List.of(1L, 7L, 0L, 200L));
+        TrainAdmission waiting = registry.tryAdmit("1", -1L, new AdmissionConfig()).block();
+        Assertions.assertFalse(waiting.isAdmitted());
+        Assertions.assertEquals(7L, waiting.getSequence());
+        Assertions.assertEquals(3L, waiting.getPosition());
+        Assertions.assertEquals(600L, waiting.getRetryAfterMillis());
+        TrainAdmission admitted = registry.tryAdmit("1", 7L, new AdmissionConfig()).block();
+        Assertions.assertTrue(admitted.isAdmitted());
+        registry.release("1", admitted).block();
+        Mockito.verify(zSetOperations).remove(TrainAdmissionRegistry.ADMISSION_IN_FLIGHT_KEY + "{1}", admitted.getLeaseId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAdmitWhenRedisUnavailable() {
+        TrainAdmissionRegistry registry = newRegistry();
+        Mockito.when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any()))
+                .thenThrow(new IllegalStateException("redis unavailable"));
+        TrainAdmission admission = registry.tryAdmit("1", -1L, new AdmissionConfig()).block();
+        Assertions.assertTrue(admission.isAdmitted());
+        registry.release("1", admission).block();
+        Mockito.verifyNoInteractions(zSetOperations);
+    }
+
+    private TrainAdmissionRegistry newRegistry() {
+        TrainAdmissionRegistry registry = new TrainAdmissionRegistry(1000L, stringRedisTemplate);
+        registry.afterPropertiesSet();
+        return registry;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.gatewayservice.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.opengoofy.index12306.biz.gatewayservice.toolkit.JWTUtil;
+import org.opengoofy.index12306.biz.gatewayservice.toolkit.UserInfoDTO;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * 已验签 Token 缓存吊销单元测试
+ */
+class VerifiedTokenCacheTests {
+
+    private StringRedisTemplate stringRedisTemplate;
+
+    private ZSetOperations<String, String> zSetOperations;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+        zSetOperations = Mockito.mock(ZSetOperations.class);
+        Mockito.when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+    }
+
+    @Test
+    void testRevokedTokenIsRejectedAndBroadcast() {
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(100L, stringRedisTemplate);
+        String token = generateAccessToken("1");
+        Assertions.assertNotNull(verifiedTokenCache.getUserInfo(token));
+        verifiedTokenCache.revoke(token).block();
+        Assertions.assertNull(verifiedTokenCache.getUserInfo(token));
+        Assertions.assertNotNull(verifiedTokenCache.getUserInfo(generateAccessToken("2")));
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(zSetOperations).add(eq(VerifiedTokenCache.REVOKED_TOKEN_KEY), anyString(), anyDouble());
+        Mockito.verify(stringRedisTemplate).convertAndSend(eq(VerifiedTokenCache.REVOKED_TOKEN_CHANNEL), message.capture());
+
+        // 其它网关节点收到广播后拒绝同一 Token
+        VerifiedTokenCache otherVerifiedTokenCache = new VerifiedTokenCache(100L, stringRedisTemplate);
+        Assertions.assertNotNull(otherVerifiedTokenCache.getUserInfo(token));
+        otherVerifiedTokenCache.onRevocation(message.getValue());
+        Assertions.assertNull(otherVerifiedTokenCache.getUserInfo(token));
+    }
+
+    @Test
+    void testRevocationIsLoadedOnStartup() {
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(100L, stringRedisTemplate);
+        String token = generateAccessToken("1");
+        verifiedTokenCache.revoke(token).block();
+        ArgumentCaptor<String> digest = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Double> expiration = ArgumentCaptor.forClass(Double.class);
+        Mockito.verify(zSetOperations).add(eq(VerifiedTokenCache.REVOKED_TOKEN_KEY), digest.capture(), expiration.capture());
+
+        Mockito.when(zSetOperations.rangeWithScores(VerifiedTokenCache.REVOKED_TOKEN_KEY, 0, -1))
+                .thenReturn(Set.of(ZSetOperations.TypedTuple.of(digest.getValue(), expiration.getValue())));
+        VerifiedTokenCache startedVerifiedTokenCache = new VerifiedTokenCache(100L, stringRedisTemplate);
+        startedVerifiedTokenCache.afterPropertiesSet();
+        Assertions.assertNull(startedVerifiedTokenCache.getUserInfo(token));
+    }
+
+    @Test
+    void testRevocationSurvivesRedisFailure() {
+        Mockito.when(stringRedisTemplate.convertAndSend(anyString(), anyString())).thenThrow(new IllegalStateException("redis unavailable"));
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(100L, stringRedisTemplate);
+        String token = generateAccessToken("1");
+        verifiedTokenCache.revoke(token).block();
+        Assertions.assertNull(verifiedTokenCache.getUserInfo(token));
+    }
+
+    @Test
+    void testInvalidTokenIsNotRevoked() {
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(100L, stringRedisTemplate);
+        verifiedTokenCache.revoke("Bearer invalid").block();
+        verifiedTokenCache.revoke(null).block();
+        Mockito.verifyNoInteractions(zSetOperations);
+        Mockito.verify(stringRedisTemplate, Mockito.never()).convertAndSend(anyString(), anyString());
+    }
+
+    private String generateAccessToken(String userId) {
+        UserInfoDTO userInfo = new UserInfoDTO();
+        userInfo.setUserId(userId);
+        userInfo.setUsername("admin" + userId);
+        userInfo.setRealName("管理员");
+        return JWTUtil.generateAccessToken(userInfo);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.gatewayservice.toolkit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 路径前缀字典树单元测试，匹配结果需与逐个 {@link String#startsWith(String)} 一致
+ */
+class PathPrefixTrieTests {
+
+    private static final List<String> PREFIXES = List.of(
+            "/api/ticket-service/ticket/purchase",
+            "/api/ticket-service/ticket/pay/query",
+            "/api/ticket-service/ticket/cancel",
+            "/api/user-service/query");
+
+    @Test
+    void testMatchesPrefix() {
+        PathPrefixTrie trie = PathPrefixTrie.build(PREFIXES);
+        Assertions.assertTrue(trie.matches("/api/ticket-service/ticket/purchase"));
+        Assertions.assertTrue(trie.matches("/api/ticket-service/ticket/purchase/v2"));
+        Assertions.assertTrue(trie.matches("/api/user-service/query?username=admin"));
+        Assertions.assertFalse(trie.matches("/api/ticket-service/ticket/pay"));
+        Assertions.assertFalse(trie.matches("/api/ticket-service/ticket/query"));
+        Assertions.assertFalse(trie.matches("/api/user-service"));
+        Assertions.assertFalse(trie.matches(""));
+    }
+
+    @Test
+    void testOverlappingPrefixes() {
+        PathPrefixTrie trie = PathPrefixTrie.build(Arrays.asList("/api/user-service/passenger/list", "/api/user-service/passenger", null));
+        Assertions.assertTrue(trie.matches("/api/user-service/passenger"));
+        Assertions.assertTrue(trie.matches("/api/user-service/passenger/remove"));
+        Assertions.assertTrue(trie.matches("/api/user-service/passenger/list"));
+        Assertions.assertFalse(trie.matches("/api/user-service/passe"));
+    }
+
+    @Test
+    void testEmptyPrefixes() {
+        Assertions.assertFalse(PathPrefixTrie.build(null).matches("/api/user-service/query"));
+        Assertions.assertFalse(PathPrefixTrie.build(Collections.emptyList()).matches("/api/user-service/query"));
+        Assertions.assertFalse(PathPrefixTrie.build(Collections.singletonList(null)).matches("/"));
+        // 空字符串前缀与 startsWith 语义一致，匹配任意路径
+        Assertions.assertTrue(PathPrefixTrie.build(List.of("")).matches("/api/user-service/query"));
+        Assertions.assertTrue(PathPrefixTrie.build(List.of("")).matches(""));
+    }
+
+    @Test
+    void testConsistentWithStartsWith() {
+        PathPrefixTrie trie = PathPrefixTrie.build(PREFIXES);
+        List<String> paths = List.of(
+                "/api/ticket-service/ticket/cancel",
+                "/api/ticket-service/ticket/cance",
+                "/api/ticket-service/ticket/cancelled",
+                "/api/order-service/order/ticket/query",
+                "/api/user-service/query/",
+                "/");
+        for (String each : paths) {
+            boolean expected = PREFIXES.stream().anyMatch(each::startsWith);
+            Assertions.assertEquals(expected, trie.matches(each), each);
+        }
+    }
+}
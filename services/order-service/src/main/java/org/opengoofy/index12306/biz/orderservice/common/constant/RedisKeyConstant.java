@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.orderservice.common.constant;
+
+/**
+ * Redis Key 定义常量类
+ */
+public final class RedisKeyConstant {
+
+    /**
+     * 乘车人行程索引存量订单回填完成标识
+     */
+    public static final String ORDER_TRIP_INDEX_BACKFILL_READY = "index12306-order-service:trip-index-backfill-ready";
+
+    /**
+     * 乘车人行程索引存量订单回填锁，保证集群内只有一个实例执行回填
+     */
+    public static final String LOCK_ORDER_TRIP_INDEX_BACKFILL = "index12306-order-service:lock:trip-index-backfill";
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.orderservice.common.enums;
+
+import lombok.AllArgsConstructor;
+import org.opengoofy.index12306.framework.starter.convention.errorcode.IErrorCode;
+
+/**
+ * 订单创建错误码枚举，购票服务按错误码识别订单服务拒绝创建的订单
+ */
+@AllArgsConstructor
+public enum OrderCreateErrorCodeEnum implements IErrorCode {
+
+    ORDER_CREATE_REPETITION_ERROR("A007001", "存在重复订单"),
+
+    ORDER_CREATE_TRIP_CONFLICT_ERROR("A007002", "列车运行时间与行程冲突");
+
+    /**
+     * 错误码
+     */
+    private final String code;
+
+    /**
+     * 错误提示消息
+     */
+    private final String message;
+
+    @Override
+    public String code() {
+        return code;
+    }
+
+    @Override
+    public String message() {
+        return message;
+    }
+}
@@ -19,7 +19,6 @@ package org.opengoofy.index12306.biz.orderservice.dao.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
-import org.apache.ibatis.annotations.Select;
 import org.opengoofy.index12306.biz.orderservice.dao.entity.OrderDO;
 import org.opengoofy.index12306.biz.orderservice.dto.req.TicketOrderQueryListDTO;
 import org.opengoofy.index12306.biz.orderservice.dto.resp.TicketOrderAndUserDetailRespDTO;
@@ -33,10 +32,6 @@ import java.util.List;
 @Mapper
 public interface OrderMapper extends BaseMapper<OrderDO> {
 
-    //根据身份证查询订单
-    @Select("SELECT t_order.* FROM t_order ,t_order_item WHERE t_order_item.order_sn = t_order.order_sn AND t_order_item.id_card = #{idCard} ")
-    List<OrderDO> selectByIDCard(String idCard);
-
     List<TicketOrderAndUserDetailRespDTO> selectOrderAndUserInfoListByCondition(TicketOrderQueryListDTO requestParam);
 
 }
@@ -28,6 +28,11 @@ import java.util.List;
 @Data
 public class TicketOrderCreateReqDTO {
 
+    /**
+     * 订单号，由购票服务预先生成时订单服务按订单号幂等创建
+     */
+    private String orderSn;
+
     /**
      * 用户 ID
      */
@@ -87,4 +92,9 @@ public class TicketOrderCreateReqDTO {
      * 订单明细
      */
     private List<TicketOrderItemCreateReqDTO> ticketOrderItems;
+
+    /**
+     * 是否由购票服务本地时间轮关闭订单，为 true 时不再投递 RocketMQ 延时消息
+     */
+    private Boolean localDelayClose;
 }
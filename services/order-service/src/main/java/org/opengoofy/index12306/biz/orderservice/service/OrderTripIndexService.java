@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.orderservice.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import org.opengoofy.index12306.biz.orderservice.dao.entity.OrderTripIndexDO;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 乘车人行程索引接口层
+ */
+public interface OrderTripIndexService extends IService<OrderTripIndexDO> {
+
+    /**
+     * 查询乘车人在乘车日期可能冲突的行程，仅按证件号路由到对应分片
+     * 存量订单回填完成前，额外按证件号查询订单明细兜底，避免遗漏未建立索引的存量订单
+     *
+     * @param idCards    乘车人证件号集合
+     * @param trainId    列车ID
+     * @param ridingDate 乘车日期
+     * @return 可能冲突的行程索引集合
+     */
+    List<OrderTripIndexDO> listConflictCandidate(List<String> idCards, Long trainId, Date ridingDate);
+
+    /**
+     * 删除订单对应的乘车人行程索引
+     *
+     * @param orderSn 订单号
+     * @param idCards 订单乘车人证件号集合
+     */
+    void removeByOrderSn(String orderSn, List<String> idCards);
+
+    /**
+     * 为未建立乘车人行程索引的存量订单回填索引，仅回填未关闭且行程未结束的订单
+     */
+    void backfill();
+}
@@ -19,21 +19,26 @@ package org.opengoofy.index12306.biz.orderservice.service.impl;
 
 import cn.hutool.core.collection.ListUtil;
 import cn.hutool.core.text.StrBuilder;
+import cn.hutool.core.util.StrUtil;
 import com.alibaba.fastjson2.JSON;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.rocketmq.client.producer.SendResult;
 import org.apache.rocketmq.client.producer.SendStatus;
 import org.opengoofy.index12306.biz.orderservice.common.enums.OrderCanalErrorCodeEnum;
+import org.opengoofy.index12306.biz.orderservice.common.enums.OrderCreateErrorCodeEnum;
 import org.opengoofy.index12306.biz.orderservice.common.enums.OrderItemStatusEnum;
 import org.opengoofy.index12306.biz.orderservice.common.enums.OrderStatusEnum;
 import org.opengoofy.index12306.biz.orderservice.dao.entity.OrderDO;
 import org.opengoofy.index12306.biz.orderservice.dao.entity.OrderItemDO;
 import org.opengoofy.index12306.biz.orderservice.dao.entity.OrderItemPassengerDO;
+import org.opengoofy.index12306.biz.orderservice.dao.entity.OrderTripIndexDO;
 import org.opengoofy.index12306.biz.orderservice.dao.mapper.OrderItemMapper;
 import org.opengoofy.index12306.biz.orderservice.dao.mapper.OrderMapper;
 import org.opengoofy.index12306.biz.orderservice.dto.domain.OrderStatusReversalDTO;
@@ -50,6 +55,7 @@ import org.opengoofy.index12306.biz.orderservice.remote.dto.UserQueryActualRespD
 import org.opengoofy.index12306.biz.orderservice.service.OrderItemService;
 import org.opengoofy.index12306.biz.orderservice.service.OrderPassengerRelationService;
 import org.opengoofy.index12306.biz.orderservice.service.OrderService;
+import org.opengoofy.index12306.biz.orderservice.service.OrderTripIndexService;
 import org.opengoofy.index12306.biz.orderservice.service.orderid.OrderIdGeneratorManager;
 import org.opengoofy.index12306.framework.starter.common.toolkit.BeanUtil;
 import org.opengoofy.index12306.framework.starter.convention.exception.ClientException;
@@ -60,12 +66,15 @@ import org.opengoofy.index12306.framework.starter.database.toolkit.PageUtil;
 import org.opengoofy.index12306.frameworks.starter.user.core.UserContext;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * 订单服务接口层实现
@@ -79,10 +88,20 @@ public class OrderServiceImpl implements OrderService {
     private final OrderItemMapper orderItemMapper;
     private final OrderItemService orderItemService;
     private final OrderPassengerRelationService orderPassengerRelationService;
+    private final OrderTripIndexService orderTripIndexService;
     private final RedissonClient redissonClient;
     private final DelayCloseOrderSendProduce delayCloseOrderSendProduce;
     private final UserRemoteService userRemoteService;
 
+    /**
+     * 用户 ID -> 证件号，用户证件号注册后不可修改，本地缓存避免每次查询本人订单都远程调用用户服务；
+     * 注销后的用户名可以被新用户复用，按用户名缓存会把旧用户的证件号返回给新用户，因此按不会复用的用户 ID 缓存
+     */
+    private final Cache<String, String> userIdCardCache = Caffeine.newBuilder()
+            .expireAfterWrite(30, TimeUnit.MINUTES)
+            .maximumSize(100000)
+            .build();
+
     /**
      * 判断给定的日期是否在指定的日期范围内。
      *
@@ -136,11 +155,20 @@ public class OrderServiceImpl implements OrderService {
                 .in(OrderDO::getStatus, buildOrderStatusList(requestParam))
                 .orderByDesc(OrderDO::getOrderTime);
         IPage<OrderDO> orderPage = orderMapper.selectPage(PageUtil.convert(requestParam), queryWrapper);
+        // 一次查询加载整页订单明细，同一用户订单明细位于同一分片
+        List<String> orderSns = orderPage.getRecords().stream().map(OrderDO::getOrderSn).toList();
+        Map<String, List<OrderItemDO>> orderItemMap = Collections.emptyMap();
+        if (!orderSns.isEmpty()) {
+            LambdaQueryWrapper<OrderItemDO> orderItemQueryWrapper = Wrappers.lambdaQuery(OrderItemDO.class)
+                    .eq(OrderItemDO::getUserId, requestParam.getUserId())
+                    .in(OrderItemDO::getOrderSn, orderSns);
+            orderItemMap = orderItemMapper.selectList(orderItemQueryWrapper).stream()
+                    .collect(Collectors.groupingBy(OrderItemDO::getOrderSn));
+        }
+        Map<String, List<OrderItemDO>> actualOrderItemMap = orderItemMap;
         return PageUtil.convert(orderPage, each -> {
             TicketOrderDetailRespDTO result = BeanUtil.convert(each, TicketOrderDetailRespDTO.class);
-            LambdaQueryWrapper<OrderItemDO> orderItemQueryWrapper = Wrappers.lambdaQuery(OrderItemDO.class)
-                    .eq(OrderItemDO::getOrderSn, each.getOrderSn());
-            List<OrderItemDO> orderItemDOList = orderItemMapper.selectList(orderItemQueryWrapper);
+            List<OrderItemDO> orderItemDOList = actualOrderItemMap.getOrDefault(each.getOrderSn(), Collections.emptyList());
             result.setPassengerDetails(BeanUtil.convert(orderItemDOList, TicketOrderPassengerDetailRespDTO.class));
             return result;
         });
@@ -150,23 +178,27 @@ public class OrderServiceImpl implements OrderService {
     @Transactional(rollbackFor = Exception.class)
     @Override
     public String createTicketOrder(TicketOrderCreateReqDTO requestParam) {
-        //查询每个乘车人的订单列表
+        // 购票服务通过发件箱异步投递时会预先生成订单号，重复投递直接返回已创建的订单号
+        if (StrUtil.isNotBlank(requestParam.getOrderSn())) {
+            LambdaQueryWrapper<OrderDO> orderSnQueryWrapper = Wrappers.lambdaQuery(OrderDO.class)
+                    .eq(OrderDO::getOrderSn, requestParam.getOrderSn());
+            if (orderMapper.selectCount(orderSnQueryWrapper) > 0) {
+                return requestParam.getOrderSn();
+            }
+        }
+        //通过乘车人行程索引按证件号点查可能冲突的订单，避免按证件号关联订单表广播查询全部分片
         List<String> passengerIds = requestParam.getTicketOrderItems()
                 .stream()
                 .map(TicketOrderItemCreateReqDTO::getIdCard)
                 .toList();
-        //乘车人订单列表
-        Map<String, List<OrderDO>> OrderList = new HashMap<>();
-        for (String passengerId : passengerIds) {
-            LambdaQueryWrapper passageInfo = Wrappers.lambdaQuery(OrderItemDO.class)
-                    .eq(OrderItemDO::getIdCard, passengerId);
-            OrderList.put(passengerId, orderMapper.selectByIDCard(passengerId));
-        }
-        Long curTrainIds = requestParam.getTrainId();
-        LocalDate ridingDate = requestParam.getRidingDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-        Set<String> passengerIdSet = OrderList.keySet();
-        for (String passengerId : passengerIdSet) {
-            List<OrderDO> orders = OrderList.get(passengerId);
+        List<OrderTripIndexDO> conflictCandidates = orderTripIndexService.listConflictCandidate(passengerIds, requestParam.getTrainId(), requestParam.getRidingDate());
+        if (!conflictCandidates.isEmpty()) {
+            List<String> candidateOrderSns = conflictCandidates.stream().map(OrderTripIndexDO::getOrderSn).distinct().toList();
+            LambdaQueryWrapper<OrderDO> candidateQueryWrapper = Wrappers.lambdaQuery(OrderDO.class)
+                    .in(OrderDO::getOrderSn, candidateOrderSns);
+            List<OrderDO> orders = orderMapper.selectList(candidateQueryWrapper);
+            Long curTrainIds = requestParam.getTrainId();
+            LocalDate ridingDate = requestParam.getRidingDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
             for (OrderDO order : orders) {
                 LocalDate orderRidingDate = order.getRidingDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
                 //1、判断该[乘车人身份证]下是否存在[车次]以及[出发日期]相同订单
@@ -177,7 +209,7 @@ public class OrderServiceImpl implements OrderService {
                         && orderRidingDate.equals(ridingDate)
                 ) {
                     log.error("存在重复订单");
-                    return "存在重复订单";
+                    throw new ClientException(OrderCreateErrorCodeEnum.ORDER_CREATE_REPETITION_ERROR);
                 }
                 //2、该列车运行时间内是否存在其他[已支付]订单
                 //  存在，则抛出异常[列车运行时间与行程冲突]。
@@ -185,12 +217,12 @@ public class OrderServiceImpl implements OrderService {
                 if (Objects.equals(order.getStatus(), OrderItemStatusEnum.ALREADY_PAID.getStatus())
                         && isDateWithinRange(requestParam.getRidingDate(), order.getDepartureTime(), order.getArrivalTime())) {
                     log.error("列车运行时间与行程冲突");
-                    return "列车运行时间与行程冲突";
+                    throw new ClientException(OrderCreateErrorCodeEnum.ORDER_CREATE_TRIP_CONFLICT_ERROR);
                 }
             }
         }
         // 通过基因法将用户 ID 融入到订单号
-        String orderSn = OrderIdGeneratorManager.generateId(requestParam.getUserId());
+        String orderSn = StrUtil.isNotBlank(requestParam.getOrderSn()) ? requestParam.getOrderSn() : OrderIdGeneratorManager.generateId(requestParam.getUserId());
         // 创建OrderDO对象并初始化其属性
         OrderDO orderDO = OrderDO.builder()
                 .orderSn(orderSn) // 设置订单编号
@@ -207,10 +239,19 @@ public class OrderServiceImpl implements OrderService {
                 .username(requestParam.getUsername()) // 设置用户名
                 .userId(String.valueOf(requestParam.getUserId())) // 设置用户ID
                 .build(); // 构建OrderDO对象
-        orderMapper.insert(orderDO);
+        try {
+            orderMapper.insert(orderDO);
+        } catch (DuplicateKeyException ex) {
+            // 订单号唯一索引兜底，并发投递同一发件箱记录时仅有一次插入成功，其余直接返回已创建的订单号
+            if (StrUtil.isNotBlank(requestParam.getOrderSn())) {
+                return orderSn;
+            }
+            throw ex;
+        }
         List<TicketOrderItemCreateReqDTO> ticketOrderItems = requestParam.getTicketOrderItems();
         List<OrderItemDO> orderItemDOList = new ArrayList<>();
         List<OrderItemPassengerDO> orderPassengerRelationDOList = new ArrayList<>();
+        List<OrderTripIndexDO> orderTripIndexDOList = new ArrayList<>();
         // 遍历票务订单项，处理每个订单项的数据
         ticketOrderItems.forEach(each -> {
             // 构建OrderItemDO对象，设置订单项的详细信息
@@ -240,9 +281,25 @@ public class OrderServiceImpl implements OrderService {
                     .build();
             // 将构建好的OrderItemPassengerDO对象添加到订单乘客关系列表中
             orderPassengerRelationDOList.add(orderPassengerRelationDO);
+
+            // 构建乘车人行程索引，用于后续下单行程冲突检测
+            OrderTripIndexDO orderTripIndexDO = OrderTripIndexDO.builder()
+                    .idCard(each.getIdCard())
+                    .orderSn(orderSn)
+                    .trainId(requestParam.getTrainId())
+                    .ridingDate(requestParam.getRidingDate())
+                    .departureTime(requestParam.getDepartureTime())
+                    .arrivalTime(requestParam.getArrivalTime())
+                    .build();
+            orderTripIndexDOList.add(orderTripIndexDO);
         });
         orderItemService.saveBatch(orderItemDOList);
         orderPassengerRelationService.saveBatch(orderPassengerRelationDOList);
+        orderTripIndexService.saveBatch(orderTripIndexDOList);
+        // 购票服务本地时间轮负责关闭订单时不再投递 RocketMQ 延时消息
+        if (Boolean.TRUE.equals(requestParam.getLocalDelayClose())) {
+            return orderSn;
+        }
         try {
             // 发送 RocketMQ 延时消息，指定时间后取消订单
             DelayCloseOrderEvent delayCloseOrderEvent = DelayCloseOrderEvent.builder()
@@ -336,6 +393,12 @@ public class OrderServiceImpl implements OrderService {
             if (updateItemResult <= 0) {
                 throw new ServiceException(OrderCanalErrorCodeEnum.ORDER_CANAL_ERROR);
             }
+            // 已关闭订单不再参与行程冲突检测，删除乘车人行程索引
+            LambdaQueryWrapper<OrderItemDO> orderItemQueryWrapper = Wrappers.lambdaQuery(OrderItemDO.class)
+                    .eq(OrderItemDO::getOrderSn, orderSn)
+                    .select(OrderItemDO::getIdCard);
+            List<String> idCards = orderItemMapper.selectList(orderItemQueryWrapper).stream().map(OrderItemDO::getIdCard).toList();
+            orderTripIndexService.removeByOrderSn(orderSn, idCards);
         } finally {
             // 释放分布式锁
             lock.unlock();
@@ -414,28 +477,39 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     public PageResponse<TicketOrderDetailSelfRespDTO> pageSelfTicketOrder(TicketOrderSelfPageQueryReqDTO requestParam) {
-        // 通过当前登录用户的用户名查询实际用户信息
-        Result<UserQueryActualRespDTO> userActualResp = userRemoteService.queryActualUserByUsername(UserContext.getUsername());
+        // 通过当前登录用户的用户名查询证件号，优先读取按用户 ID 缓存的本地缓存
+        String username = UserContext.getUsername();
+        String idCard = userIdCardCache.get(UserContext.getUserId(), userId -> {
+            Result<UserQueryActualRespDTO> userActualResp = userRemoteService.queryActualUserByUsername(username);
+            if (!userActualResp.isSuccess() || userActualResp.getData() == null) {
+                throw new ServiceException("查询用户证件号失败");
+            }
+            return userActualResp.getData().getIdCard();
+        });
         // 构建查询条件，根据用户身份证号查询乘客订单项，并按创建时间降序排列
         LambdaQueryWrapper<OrderItemPassengerDO> queryWrapper = Wrappers.lambdaQuery(OrderItemPassengerDO.class)
-                .eq(OrderItemPassengerDO::getIdCard, userActualResp.getData().getIdCard())
+                .eq(OrderItemPassengerDO::getIdCard, idCard)
                 .orderByDesc(OrderItemPassengerDO::getCreateTime);
         // 执行分页查询，获取乘客订单项的分页结果
         IPage<OrderItemPassengerDO> orderItemPassengerPage = orderPassengerRelationService.page(PageUtil.convert(requestParam), queryWrapper);
-        // 将分页结果转换为包含订单详情的分页响应对象
-        return PageUtil.convert(orderItemPassengerPage, each -> {
-            // 根据订单号查询订单信息
+        // 按订单号批量加载整页订单及本人订单明细，避免逐条查询
+        List<String> orderSns = orderItemPassengerPage.getRecords().stream().map(OrderItemPassengerDO::getOrderSn).distinct().toList();
+        Map<String, OrderDO> orderMap = new HashMap<>();
+        Map<String, OrderItemDO> orderItemMap = new HashMap<>();
+        if (!orderSns.isEmpty()) {
             LambdaQueryWrapper<OrderDO> orderQueryWrapper = Wrappers.lambdaQuery(OrderDO.class)
-                    .eq(OrderDO::getOrderSn, each.getOrderSn());
-            OrderDO orderDO = orderMapper.selectOne(orderQueryWrapper);
-            // 根据订单号和身份证号查询订单项信息
+                    .in(OrderDO::getOrderSn, orderSns);
+            orderMapper.selectList(orderQueryWrapper).forEach(each -> orderMap.put(each.getOrderSn(), each));
             LambdaQueryWrapper<OrderItemDO> orderItemQueryWrapper = Wrappers.lambdaQuery(OrderItemDO.class)
-                    .eq(OrderItemDO::getOrderSn, each.getOrderSn())
-                    .eq(OrderItemDO::getIdCard, each.getIdCard());
-            OrderItemDO orderItemDO = orderItemMapper.selectOne(orderItemQueryWrapper);
+                    .in(OrderItemDO::getOrderSn, orderSns)
+                    .eq(OrderItemDO::getIdCard, idCard);
+            orderItemMapper.selectList(orderItemQueryWrapper).forEach(each -> orderItemMap.putIfAbsent(each.getOrderSn(), each));
+        }
+        // 将分页结果转换为包含订单详情的分页响应对象
+        return PageUtil.convert(orderItemPassengerPage, each -> {
             // 将订单信息和订单项信息合并到响应对象中
-            TicketOrderDetailSelfRespDTO actualResult = BeanUtil.convert(orderDO, TicketOrderDetailSelfRespDTO.class);
-            BeanUtil.convertIgnoreNullAndBlank(orderItemDO, actualResult);
+            TicketOrderDetailSelfRespDTO actualResult = BeanUtil.convert(orderMap.get(each.getOrderSn()), TicketOrderDetailSelfRespDTO.class);
+            BeanUtil.convertIgnoreNullAndBlank(orderItemMap.get(each.getOrderSn()), actualResult);
             return actualResult;
         });
     }
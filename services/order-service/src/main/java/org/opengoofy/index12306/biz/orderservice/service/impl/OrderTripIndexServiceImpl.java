@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.orderservice.service.impl;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.date.DateUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opengoofy.index12306.biz.orderservice.common.enums.OrderStatusEnum;
+import org.opengoofy.index12306.biz.orderservice.dao.entity.OrderDO;
+import org.opengoofy.index12306.biz.orderservice.dao.entity.OrderItemDO;
+import org.opengoofy.index12306.biz.orderservice.dao.entity.OrderTripIndexDO;
+import org.opengoofy.index12306.biz.orderservice.dao.mapper.OrderItemMapper;
+import org.opengoofy.index12306.biz.orderservice.dao.mapper.OrderMapper;
+import org.opengoofy.index12306.biz.orderservice.dao.mapper.OrderTripIndexMapper;
+import org.opengoofy.index12306.biz.orderservice.service.OrderTripIndexService;
+import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.opengoofy.index12306.biz.orderservice.common.constant.RedisKeyConstant.LOCK_ORDER_TRIP_INDEX_BACKFILL;
+import static org.opengoofy.index12306.biz.orderservice.common.constant.RedisKeyConstant.ORDER_TRIP_INDEX_BACKFILL_READY;
+
+/**
+ * 乘车人行程索引接口层实现
+ * 服务启动后异步回填存量订单的行程索引，回填完成前冲突检测同时按证件号查询订单明细兜底
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderTripIndexServiceImpl extends ServiceImpl<OrderTripIndexMapper, OrderTripIndexDO> implements OrderTripIndexService, CommandLineRunner {
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final OrderMapper orderMapper;
+    private final OrderItemMapper orderItemMapper;
+    private final DistributedCache distributedCache;
+    private final RedissonClient redissonClient;
+
+    /**
+     * 存量订单是否已全部回填行程索引，回填完成前不能仅依据行程索引判定无冲突
+     */
+    private volatile boolean backfillReady;
+
+    @Override
+    public void run(String... args) {
+        if (isBackfillReady()) {
+            return;
+        }
+        CompletableFuture.runAsync(this::backfill)
+                .exceptionally(ex -> {
+                    log.error("乘车人行程索引存量订单回填失败", ex);
+                    return null;
+                });
+    }
+
+    @Override
+    public List<OrderTripIndexDO> listConflictCandidate(List<String> idCards, Long trainId, Date ridingDate) {
+        if (CollUtil.isEmpty(idCards)) {
+            return Collections.emptyList();
+        }
+        List<OrderTripIndexDO> conflictCandidates = new ArrayList<>(selectConflictCandidate(idCards, trainId, ridingDate));
+        if (!isBackfillReady()) {
+            // 回填完成前按证件号广播查询订单明细，由调用方加载订单后按原规则判定冲突
+            LambdaQueryWrapper<OrderItemDO> orderItemQueryWrapper = Wrappers.lambdaQuery(OrderItemDO.class)
+                    .in(OrderItemDO::getIdCard, idCards)
+                    .select(OrderItemDO::getIdCard, OrderItemDO::getOrderSn);
+            orderItemMapper.selectList(orderItemQueryWrapper).forEach(each -> conflictCandidates.add(
+                    OrderTripIndexDO.builder().idCard(each.getIdCard()).orderSn(each.getOrderSn()).build()));
+        }
+        return conflictCandidates;
+    }
+
+    private List<OrderTripIndexDO> selectConflictCandidate(List<String> idCards, Long trainId, Date ridingDate) {
+        Date beginOfDay = DateUtil.beginOfDay(ridingDate);
+        Date endOfDay = DateUtil.endOfDay(ridingDate);
+        // 同一车次同一乘车日期，或乘车日期落在已有行程运行区间内
+        LambdaQueryWrapper<OrderTripIndexDO> queryWrapper = Wrappers.lambdaQuery(OrderTripIndexDO.class)
+                .in(OrderTripIndexDO::getIdCard, idCards)
+                .and(wrapper -> wrapper
+                        .nested(each -> each
+                                .eq(OrderTripIndexDO::getTrainId, trainId)
+                                .between(OrderTripIndexDO::getRidingDate, beginOfDay, endOfDay))
+                        .or(each -> each
+                                .le(OrderTripIndexDO::getDepartureTime, ridingDate)
+                                .ge(OrderTripIndexDO::getArrivalTime, ridingDate)));
+        return baseMapper.selectList(queryWrapper);
+    }
+
+    @Override
+    public void removeByOrderSn(String orderSn, List<String> idCards) {
+        if (CollUtil.isEmpty(idCards)) {
+            return;
+        }
+        LambdaUpdateWrapper<OrderTripIndexDO> deleteWrapper = Wrappers.lambdaUpdate(OrderTripIndexDO.class)
+                .in(OrderTripIndexDO::getIdCard, idCards)
+                .eq(OrderTripIndexDO::getOrderSn, orderSn);
+        baseMapper.delete(deleteWrapper);
+    }
+
+    @Override
+    public void backfill() {
+        RLock lock = redissonClient.getLock(LOCK_ORDER_TRIP_INDEX_BACKFILL);
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            if (isBackfillReady()) {
+                return;
+            }
+            // 已结束的行程不会与新订单冲突，仅回填到达时间在今天及以后的订单
+            Date beginOfToday = DateUtil.beginOfDay(new Date());
+            long lastId = 0L;
+            long count = 0L;
+            List<OrderDO> orderDOList;
+            do {
+                LambdaQueryWrapper<OrderDO> queryWrapper = Wrappers.lambdaQuery(OrderDO.class)
+                        .gt(OrderDO::getId, lastId)
+                        .ne(OrderDO::getStatus, OrderStatusEnum.CLOSED.getStatus())
+                        .ge(OrderDO::getArrivalTime, beginOfToday)
+                        .orderByAsc(OrderDO::getId)
+                        .select(OrderDO::getId, OrderDO::getOrderSn, OrderDO::getTrainId, OrderDO::getRidingDate, OrderDO::getDepartureTime, OrderDO::getArrivalTime)
+                        .last("limit " + BACKFILL_BATCH_SIZE);
+                orderDOList = orderMapper.selectList(queryWrapper);
+                if (!orderDOList.isEmpty()) {
+                    count += backfillBatch(orderDOList);
+                    lastId = Objects.requireNonNull(orderDOList.get(orderDOList.size() - 1).getId());
+                }
+            } while (orderDOList.size() == BACKFILL_BATCH_SIZE);
+            StringRedisTemplate instance = (StringRedisTemplate) distributedCache.getInstance();
+            instance.opsForValue().set(ORDER_TRIP_INDEX_BACKFILL_READY, Boolean.TRUE.toString());
+            backfillReady = true;
+            log.info("乘车人行程索引存量订单回填完成，回填索引数：{}", count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 回填一批订单的行程索引，跳过已存在的索引，重复执行不会产生重复索引
+     *
+     * @return 本批新增索引数
+     */
+    private int backfillBatch(List<OrderDO> orderDOList) {
+        Map<String, OrderDO> orderMap = orderDOList.stream()
+                .collect(Collectors.toMap(OrderDO::getOrderSn, Function.identity(), (left, right) -> left));
+        LambdaQueryWrapper<OrderItemDO> orderItemQueryWrapper = Wrappers.lambdaQuery(OrderItemDO.class)
+                .in(OrderItemDO::getOrderSn, orderMap.keySet())
+                .select(OrderItemDO::getOrderSn, OrderItemDO::getIdCard);
+        List<OrderItemDO> orderItemDOList = orderItemMapper.selectList(orderItemQueryWrapper).stream()
+                .filter(each -> each.getIdCard() != null)
+                .toList();
+        if (orderItemDOList.isEmpty()) {
+            return 0;
+        }
+        List<String> idCards = orderItemDOList.stream().map(OrderItemDO::getIdCard).distinct().toList();
+        LambdaQueryWrapper<OrderTripIndexDO> existQueryWrapper = Wrappers.lambdaQuery(OrderTripIndexDO.class)
+                .in(OrderTripIndexDO::getIdCard, idCards)
+                .in(OrderTripIndexDO::getOrderSn, orderMap.keySet())
+                .select(OrderTripIndexDO::getIdCard, OrderTripIndexDO::getOrderSn);
+        Set<String> existKeys = baseMapper.selectList(existQueryWrapper).stream()
+                .map(each -> each.getIdCard() + ":" + each.getOrderSn())
+                .collect(Collectors.toSet());
+        List<OrderTripIndexDO> orderTripIndexDOList = orderItemDOList.stream()
+                .filter(each -> existKeys.add(each.getIdCard() + ":" + each.getOrderSn()))
+                .map(each -> {
+                    OrderDO orderDO = orderMap.get(each.getOrderSn());
+                    return OrderTripIndexDO.builder()
+                            .idCard(each.getIdCard())
+                            .orderSn(each.getOrderSn())
+                            .trainId(orderDO.getTrainId())
+                            .ridingDate(orderDO.getRidingDate())
+                            .departureTime(orderDO.getDepartureTime())
+                            .arrivalTime(orderDO.getArrivalTime())
+                            .build();
+                })
+                .toList();
+        saveBatch(orderTripIndexDOList);
+        return orderTripIndexDOList.size();
+    }
+
+    private boolean isBackfillReady() {
+        if (!backfillReady) {
+            backfillReady = Boolean.TRUE.equals(distributedCache.hasKey(ORDER_TRIP_INDEX_BACKFILL_READY));
+        }
+        return backfillReady;
+    }
+}
@@ -17,16 +17,20 @@
 
 package org.opengoofy.index12306.biz.orderservice.service.orderid;
 
+import cn.hutool.core.util.StrUtil;
 import lombok.RequiredArgsConstructor;
 import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
+import org.opengoofy.index12306.framework.starter.distributedid.core.IdGenerator;
+import org.opengoofy.index12306.framework.starter.distributedid.core.segment.RedisSegmentAllocator;
+import org.opengoofy.index12306.framework.starter.distributedid.core.segment.SegmentIdGenerator;
+import org.opengoofy.index12306.framework.starter.distributedid.core.snowflake.CompactSnowflake;
+import org.opengoofy.index12306.framework.starter.distributedid.core.snowflake.RedisNodeIdChoose;
+import org.opengoofy.index12306.framework.starter.distributedid.toolkit.GeneIdUtil;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Component;
 
-import java.util.Optional;
-
 /**
  * 订单 ID 全局唯一生成器管理
  */
@@ -34,9 +38,31 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public final class OrderIdGeneratorManager implements InitializingBean {
 
-    private final RedissonClient redissonClient;
+    /**
+     * 节点标志 5 bit，递增序号 7 bit
+     */
+    private static final int NODE_BITS = 5;
+    private static final int SEQUENCE_BITS = 7;
+
+    /**
+     * 号段模式 ID 基数，号段 ID 固定 18 位，紧凑雪花算法 ID 在可预见时间内不超过 17 位，切换生成方式后不会重复
+     */
+    private static final long SEGMENT_ID_BASE = 100000000000000000L;
+
     private final DistributedCache distributedCache;
-    private static DistributedIdGenerator DISTRIBUTED_ID_GENERATOR;
+    private static IdGenerator DISTRIBUTED_ID_GENERATOR;
+
+    /**
+     * ID 生成方式，配置为 segment 时使用号段模式，默认使用紧凑雪花算法
+     */
+    @Value("${order.id.type:}")
+    private String idType;
+
+    /**
+     * 号段模式下每次申请的号段长度
+     */
+    @Value("${order.id.segment-step:2000}")
+    private int segmentStep;
 
     /**
      * 生成订单全局唯一 ID
@@ -45,27 +71,18 @@ public final class OrderIdGeneratorManager implements InitializingBean {
      * @return 订单 ID
      */
     public static String generateId(long userId) {
-        return DISTRIBUTED_ID_GENERATOR.generateId() + String.valueOf(userId % 1000000);
+        return GeneIdUtil.appendGene(DISTRIBUTED_ID_GENERATOR.nextId(), userId);
     }
 
     @Override
     public void afterPropertiesSet() throws Exception {
-        String LOCK_KEY = "distributed_id_generator_lock_key";
-        RLock lock = redissonClient.getLock(LOCK_KEY);
-        lock.lock();
-        try {
-            StringRedisTemplate instance = (StringRedisTemplate) distributedCache.getInstance();
-            String DISTRIBUTED_ID_GENERATOR_KEY = "distributed_id_generator_config";
-            long incremented = Optional.ofNullable(instance.opsForValue().increment(DISTRIBUTED_ID_GENERATOR_KEY)).orElse(0L);
-            // 注意：这里只是提供一种分库分表基因法的实现思路，所以将标识位定义 32。其次，如果对比 TB 网站订单号，应该不是在应用内生成，而是有一个全局服务调用获取
-            int NODE_MAX = 32;
-            if (incremented > NODE_MAX) {
-                incremented = 0;
-                instance.opsForValue().set(DISTRIBUTED_ID_GENERATOR_KEY, "0");
-            }
-            DISTRIBUTED_ID_GENERATOR = new DistributedIdGenerator(incremented);
-        } finally {
-            lock.unlock();
+        StringRedisTemplate instance = (StringRedisTemplate) distributedCache.getInstance();
+        if (StrUtil.equals(idType, "segment")) {
+            DISTRIBUTED_ID_GENERATOR = new SegmentIdGenerator("order", segmentStep, SEGMENT_ID_BASE, new RedisSegmentAllocator(instance));
+            return;
         }
+        // 注意：这里只是提供一种分库分表基因法的实现思路，所以将标识位定义 32。其次，如果对比 TB 网站订单号，应该不是在应用内生成，而是有一个全局服务调用获取
+        long nodeId = new RedisNodeIdChoose(instance).chooseNodeId("order", NODE_BITS);
+        DISTRIBUTED_ID_GENERATOR = new CompactSnowflake(nodeId, NODE_BITS, SEQUENCE_BITS);
     }
 }
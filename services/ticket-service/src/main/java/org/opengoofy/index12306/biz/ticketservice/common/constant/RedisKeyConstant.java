@@ -137,8 +137,53 @@ public final class RedisKeyConstant {
      */
     public static final String LOCK_TICKET_AVAILABILITY_TOKEN_BUCKET = "index12306-ticket-service:lock:ticket_availability_token_bucket:%s";
 
+    /**
+     * 列车购买令牌租约回收标识，Key Prefix + 列车ID_出发站_到达站_座位类型
+     */
+    public static final String TICKET_AVAILABILITY_TOKEN_LEASE_RECLAIM = "index12306-ticket-service:ticket_availability_token_lease_reclaim:";
+
     /**
      * 令牌获取失败分布式锁 Key
      */
     public static final String LOCK_TOKEN_BUCKET_ISNULL = "index12306-ticket-service:lock:token-bucket-isnull:%s";
+
+    /**
+     * 列车座位位图库存快照，Key Prefix + 列车ID
+     */
+    public static final String TRAIN_SEAT_INVENTORY_SNAPSHOT = "index12306-ticket-service:train_seat_inventory_snapshot:";
+
+    /**
+     * 列车座位位图库存变更日志，Key Prefix + 列车ID
+     */
+    public static final String TRAIN_SEAT_INVENTORY_CHANGE_LOG = "index12306-ticket-service:train_seat_inventory_change_log:";
+
+    /**
+     * 列车座位位图库存变更日志已裁剪条数，变更日志第 N 条对应的库存版本为裁剪条数 + N，Key Prefix + 列车ID
+     */
+    public static final String TRAIN_SEAT_INVENTORY_CHANGE_LOG_OFFSET = "index12306-ticket-service:train_seat_inventory_change_log_offset:";
+
+    /**
+     * 列车座位位图库存初始化分布式锁 Key
+     */
+    public static final String LOCK_TRAIN_SEAT_INVENTORY_LOAD = "index12306-ticket-service:lock:train_seat_inventory_load:%s";
+
+    /**
+     * 用户乘车人变更通知 Channel，由用户服务发布，消息内容为用户名
+     */
+    public static final String USER_PASSENGER_CHANGE_TOPIC = "index12306-user-service:user-passenger-change";
+
+    /**
+     * 延迟关闭订单到期索引，ZSET 结构，Key Prefix + 分片号，Score 为到期时间，Member 为订单号
+     */
+    public static final String ORDER_DELAY_CLOSE_INDEX = "index12306-ticket-service:order_delay_close_index:";
+
+    /**
+     * 延迟关闭订单事件，HASH 结构，Key Prefix + 分片号，Field 为订单号，Value 为延迟关闭订单事件
+     */
+    public static final String ORDER_DELAY_CLOSE_EVENT = "index12306-ticket-service:order_delay_close_event:";
+
+    /**
+     * 订单发件箱拒绝订单已完成的释放步骤，HASH 结构，Key Prefix + 订单号，Field 为释放步骤
+     */
+    public static final String ORDER_OUTBOX_RELEASE_STEP = "index12306-ticket-service:order_outbox_release_step:";
 }
@@ -47,6 +47,16 @@ public final class TicketRocketMQConstant {
      */
     public static final String CANAL_COMMON_SYNC_CG_KEY = "index12306_canal_ticket-service_common-sync_cg${unique-name:}";
 
+    /**
+     * Canal 监听列车站点变更广播失效本地路线拓扑索引消费者组 Key
+     */
+    public static final String CANAL_TRAIN_STATION_ROUTE_INDEX_CG_KEY = "index12306_canal_ticket-service_train-station-route-index_cg${unique-name:}";
+
+    /**
+     * Canal 监听列车站点票价变更广播失效本地票价表消费者组 Key
+     */
+    public static final String CANAL_TRAIN_STATION_PRICE_CG_KEY = "index12306_canal_ticket-service_train-station-price_cg${unique-name:}";
+
     /**
      * 支付服务相关业务 Topic Key
      */
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.common.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 订单发件箱状态枚举
+ */
+@RequiredArgsConstructor
+public enum OrderOutboxStatusEnum {
+
+    /**
+     * 待投递
+     */
+    PENDING(0),
+
+    /**
+     * 已投递
+     */
+    DELIVERED(1),
+
+    /**
+     * 订单服务拒绝创建，已释放座位
+     */
+    REJECTED(2),
+
+    /**
+     * 订单服务拒绝创建，座位、车票以及余票令牌释放中，释放失败时按退避时间重试
+     */
+    RELEASING(3);
+
+    @Getter
+    private final Integer code;
+}
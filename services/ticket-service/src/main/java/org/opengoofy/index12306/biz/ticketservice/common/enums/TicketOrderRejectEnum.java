@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.common.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 订单服务拒绝创建订单枚举，与订单服务订单创建错误码保持一致
+ */
+@RequiredArgsConstructor
+public enum TicketOrderRejectEnum {
+
+    /**
+     * 已存在该乘车人的相同订单
+     */
+    REPETITION("A007001", "已存在该乘车人的相同订单"),
+
+    /**
+     * 列车运行时间与乘车人行程冲突
+     */
+    TRIP_CONFLICT("A007002", "本次列车运行时间与您的行程冲突");
+
+    @Getter
+    private final String code;
+
+    @Getter
+    private final String message;
+
+    /**
+     * 根据订单服务返回的错误码查找拒绝原因
+     */
+    public static TicketOrderRejectEnum findByCode(String code) {
+        return Arrays.stream(TicketOrderRejectEnum.values())
+                .filter(each -> Objects.equals(each.getCode(), code))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -19,7 +19,14 @@ package org.opengoofy.index12306.biz.ticketservice.config;
 
 import cn.hippo4j.common.executor.support.BlockingQueueTypeEnum;
 import cn.hippo4j.core.executor.DynamicThreadPool;
+import cn.hippo4j.core.executor.DynamicThreadPoolExecutor;
 import cn.hippo4j.core.executor.support.ThreadPoolBuilder;
+import cn.hippo4j.core.plugin.ExecuteAwarePlugin;
+import cn.hippo4j.core.plugin.ShutdownAwarePlugin;
+import lombok.RequiredArgsConstructor;
+import org.opengoofy.index12306.framework.starter.common.threadpool.metrics.TaskLatencyRecorder;
+import org.opengoofy.index12306.framework.starter.common.threadpool.metrics.ThreadPoolMetrics;
+import org.opengoofy.index12306.framework.starter.common.threadpool.metrics.ThreadPoolMetricsRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -41,7 +48,7 @@ public class Hippo4jThreadPoolConfiguration {
     @DynamicThreadPool
     public ThreadPoolExecutor selectSeatThreadPoolExecutor() {
         String threadPoolId = "select-seat-thread-pool-executor";
-        return ThreadPoolBuilder.builder()
+        DynamicThreadPoolExecutor executor = (DynamicThreadPoolExecutor) ThreadPoolBuilder.builder()
                 .threadPoolId(threadPoolId)
                 .threadFactory(threadPoolId)
                 .workQueue(BlockingQueueTypeEnum.SYNCHRONOUS_QUEUE)
@@ -52,5 +59,45 @@ public class Hippo4jThreadPoolConfiguration {
                 .rejected(new ThreadPoolExecutor.CallerRunsPolicy())
                 .dynamicPool()
                 .build();
+        TaskLatencyRecorder latencyRecorder = new TaskLatencyRecorder();
+        executor.getThreadPoolPluginManager().register(new ThreadPoolMetricsPlugin(threadPoolId, latencyRecorder));
+        ThreadPoolMetricsRegistry.register(threadPoolId, () -> ThreadPoolMetrics.of(threadPoolId, executor, executor.getRejectCountNum(), latencyRecorder));
+        return executor;
+    }
+
+    /**
+     * 动态线程池指标插件，统计任务执行耗时，线程池终止时注销指标
+     * 动态线程池不能替换为框架可观测线程池，通过 Hippo4j 插件接入线程池指标注册中心
+     */
+    @RequiredArgsConstructor
+    private static class ThreadPoolMetricsPlugin implements ExecuteAwarePlugin, ShutdownAwarePlugin {
+
+        private final String threadPoolId;
+        private final TaskLatencyRecorder latencyRecorder;
+        private final ThreadLocal<Long> taskStartTime = new ThreadLocal<>();
+
+        @Override
+        public String getId() {
+            return "index12306-thread-pool-metrics";
+        }
+
+        @Override
+        public void beforeExecute(Thread thread, Runnable runnable) {
+            taskStartTime.set(System.nanoTime());
+        }
+
+        @Override
+        public void afterExecute(Runnable runnable, Throwable throwable) {
+            Long startTime = taskStartTime.get();
+            if (startTime != null) {
+                latencyRecorder.record(System.nanoTime() - startTime);
+                taskStartTime.remove();
+            }
+        }
+
+        @Override
+        public void afterTerminated(ThreadPoolExecutor executor) {
+            ThreadPoolMetricsRegistry.remove(threadPoolId);
+        }
     }
 }
@@ -56,6 +56,22 @@ public class TicketController {
         return Results.success(ticketService.pageListTicketQueryV1(requestParam));
     }
 
+    /**
+     * 根据条件查询车票v3
+     */
+    @GetMapping("/api/ticket-service/ticket/query/v3")
+    public Result<TicketPageQueryRespDTO> pageListTicketQueryV3(TicketPageQueryReqDTO requestParam) {
+        return Results.success(ticketService.pageListTicketQueryV3(requestParam));
+    }
+
+    /**
+     * 根据条件查询车票v4
+     */
+    @GetMapping("/api/ticket-service/ticket/query/v4")
+    public Result<TicketPageQueryRespDTO> pageListTicketQueryV4(TicketPageQueryReqDTO requestParam) {
+        return Results.success(ticketService.pageListTicketQueryV4(requestParam));
+    }
+
     /**
      * 购买车票
      */
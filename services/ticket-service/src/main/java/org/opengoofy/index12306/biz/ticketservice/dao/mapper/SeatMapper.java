@@ -21,6 +21,7 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.opengoofy.index12306.biz.ticketservice.dao.entity.SeatDO;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.RouteDTO;
 import org.opengoofy.index12306.biz.ticketservice.dto.domain.SeatTypeCountDTO;
 
 import java.util.List;
@@ -40,4 +41,26 @@ public interface SeatMapper extends BaseMapper<SeatDO> {
      * 获取列车 startStation 到 endStation 区间可用座位数量
      */
     List<SeatTypeCountDTO> listSeatTypeCount(@Param("trainId") Long trainId, @Param("startStation") String startStation, @Param("endStation") String endStation, @Param("seatTypes") List<Integer> seatTypes);
+
+    /**
+     * 条件更新座位集合在 startStation 到 endStation 区间上的座位状态，仅更新当前状态为 expectSeatStatus 的记录
+     *
+     * @return 实际更新行数
+     */
+    int compareAndUpdateSeatStatus(@Param("trainId") Long trainId,
+                                   @Param("seatList") List<SeatDO> seatList,
+                                   @Param("startStation") String startStation,
+                                   @Param("endStation") String endStation,
+                                   @Param("expectSeatStatus") Integer expectSeatStatus,
+                                   @Param("seatStatus") Integer seatStatus);
+
+    /**
+     * 批量更新座位集合在路线集合上的座位状态
+     *
+     * @return 实际更新行数
+     */
+    int updateSeatStatusBatch(@Param("trainId") Long trainId,
+                              @Param("seatList") List<SeatDO> seatList,
+                              @Param("routeList") List<RouteDTO> routeList,
+                              @Param("seatStatus") Integer seatStatus);
 }
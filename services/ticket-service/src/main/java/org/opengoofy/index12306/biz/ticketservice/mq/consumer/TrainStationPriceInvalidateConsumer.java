@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.mq.consumer;
+
+import cn.hutool.core.collection.CollUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.spring.annotation.MessageModel;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.opengoofy.index12306.biz.ticketservice.common.constant.TicketRocketMQConstant;
+import org.opengoofy.index12306.biz.ticketservice.mq.event.CanalBinlogEvent;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.TrainStationPriceCacheLoader;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 列车站点票价变更失效票价缓存消费端
+ * 广播模式消费，保证每个购票服务节点的本地票价表都被替换
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@RocketMQMessageListener(
+        topic = TicketRocketMQConstant.CANAL_COMMON_SYNC_TOPIC_KEY,
+        consumerGroup = TicketRocketMQConstant.CANAL_TRAIN_STATION_PRICE_CG_KEY,
+        messageModel = MessageModel.BROADCASTING
+)
+public class TrainStationPriceInvalidateConsumer implements RocketMQListener<CanalBinlogEvent> {
+
+    private static final String TRAIN_STATION_PRICE_TABLE = "t_train_station_price";
+
+    private final TrainStationPriceCacheLoader trainStationPriceCacheLoader;
+
+    @Override
+    public void onMessage(CanalBinlogEvent message) {
+        if (message.getIsDdl() || !Objects.equals(TRAIN_STATION_PRICE_TABLE, message.getTable()) || CollUtil.isEmpty(message.getData())) {
+            return;
+        }
+        // 列车 ID -> 变更区间，修改列车 ID 或站点时新旧区间都需要失效；Canal 的 old 只包含被修改的列
+        Map<String, List<String[]>> trainSegmentsMap = new LinkedHashMap<>();
+        List<Map<String, Object>> data = message.getData();
+        List<Map<String, Object>> old = message.getOld();
+        for (int i = 0; i < data.size(); i++) {
+            Map<String, Object> row = data.get(i);
+            addSegment(trainSegmentsMap, row);
+            if (CollUtil.isNotEmpty(old) && i < old.size() && CollUtil.isNotEmpty(old.get(i))) {
+                Map<String, Object> oldRow = new HashMap<>(row);
+                oldRow.putAll(old.get(i));
+                addSegment(trainSegmentsMap, oldRow);
+            }
+        }
+        trainSegmentsMap.forEach((trainId, segments) -> {
+            trainStationPriceCacheLoader.invalidate(trainId, segments);
+            log.info("[列车站点票价] 列车：{} 票价变更，失效区间数量：{}", trainId, segments.size());
+        });
+    }
+
+    private void addSegment(Map<String, List<String[]>> trainSegmentsMap, Map<String, Object> row) {
+        Object trainId = row.get("train_id");
+        Object departure = row.get("departure");
+        Object arrival = row.get("arrival");
+        if (trainId == null || departure == null || arrival == null) {
+            return;
+        }
+        trainSegmentsMap.computeIfAbsent(trainId.toString(), key -> new ArrayList<>())
+                .add(new String[]{departure.toString(), arrival.toString()});
+    }
+}
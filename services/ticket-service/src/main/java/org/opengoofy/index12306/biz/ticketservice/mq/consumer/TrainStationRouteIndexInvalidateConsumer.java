@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.mq.consumer;
+
+import cn.hutool.core.collection.CollUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.spring.annotation.MessageModel;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.opengoofy.index12306.biz.ticketservice.common.constant.TicketRocketMQConstant;
+import org.opengoofy.index12306.biz.ticketservice.mq.event.CanalBinlogEvent;
+import org.opengoofy.index12306.biz.ticketservice.service.TrainStationService;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * 列车站点变更失效路线拓扑索引消费端
+ * 广播模式消费，保证每个购票服务节点的本地索引都被失效
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@RocketMQMessageListener(
+        topic = TicketRocketMQConstant.CANAL_COMMON_SYNC_TOPIC_KEY,
+        consumerGroup = TicketRocketMQConstant.CANAL_TRAIN_STATION_ROUTE_INDEX_CG_KEY,
+        messageModel = MessageModel.BROADCASTING
+)
+public class TrainStationRouteIndexInvalidateConsumer implements RocketMQListener<CanalBinlogEvent> {
+
+    private static final String TRAIN_STATION_TABLE = "t_train_station";
+
+    private final TrainStationService trainStationService;
+
+    @Override
+    public void onMessage(CanalBinlogEvent message) {
+        if (message.getIsDdl() || !Objects.equals(TRAIN_STATION_TABLE, message.getTable())) {
+            return;
+        }
+        // 列车 ID 本身被修改时新旧列车都需要失效
+        Stream.of(message.getData(), message.getOld())
+                .filter(CollUtil::isNotEmpty)
+                .flatMap(List::stream)
+                .map(each -> each.get("train_id"))
+                .filter(Objects::nonNull)
+                .map(Object::toString)
+                .distinct()
+                .forEach(trainId -> {
+                    trainStationService.invalidateTrainStationRouteIndex(trainId);
+                    log.info("[列车站点路线索引] 列车：{} 站点变更，失效本地索引", trainId);
+                });
+    }
+}
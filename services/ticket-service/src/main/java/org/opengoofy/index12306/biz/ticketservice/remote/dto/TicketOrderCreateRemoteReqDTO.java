@@ -34,6 +34,11 @@ import java.util.List;
 @Builder
 public class TicketOrderCreateRemoteReqDTO {
 
+    /**
+     * 订单号，由购票服务预先生成时订单服务按订单号幂等创建
+     */
+    private String orderSn;
+
     /**
      * 用户 ID
      */
@@ -93,4 +98,9 @@ public class TicketOrderCreateRemoteReqDTO {
      * 订单明细
      */
     private List<TicketOrderItemCreateRemoteReqDTO> ticketOrderItems;
+
+    /**
+     * 是否由购票服务本地时间轮关闭订单，为 true 时订单服务不再投递 RocketMQ 延时消息
+     */
+    private Boolean localDelayClose;
 }
@@ -50,6 +50,22 @@ public interface TicketService extends IService<TicketDO> {
      */
     TicketPageQueryRespDTO pageListTicketQueryV2(TicketPageQueryReqDTO requestParam);
 
+    /**
+     * 根据条件分页查询车票V3版本，单次 Redis 往返完成车次、票价以及余票聚合
+     *
+     * @param requestParam 分页查询车票请求参数
+     * @return 查询车票返回结果
+     */
+    TicketPageQueryRespDTO pageListTicketQueryV3(TicketPageQueryReqDTO requestParam);
+
+    /**
+     * 根据条件分页查询车票V4版本，基于预先构建的车票查询快照仅补齐余票数量
+     *
+     * @param requestParam 分页查询车票请求参数
+     * @return 查询车票返回结果
+     */
+    TicketPageQueryRespDTO pageListTicketQueryV4(TicketPageQueryReqDTO requestParam);
+
     /**
      * 购买车票
      *
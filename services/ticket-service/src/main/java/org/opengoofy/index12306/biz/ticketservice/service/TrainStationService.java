@@ -19,6 +19,7 @@ package org.opengoofy.index12306.biz.ticketservice.service;
 
 import org.opengoofy.index12306.biz.ticketservice.dto.domain.RouteDTO;
 import org.opengoofy.index12306.biz.ticketservice.dto.resp.TrainStationQueryRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.TrainStationRouteIndex;
 
 import java.util.List;
 
@@ -56,4 +57,19 @@ public interface TrainStationService {
      * @return 需扣减列车站点路线关系信息
      */
     List<RouteDTO> listTakeoutTrainStationRoute(String trainId, String departure, String arrival);
+
+    /**
+     * 获取列车站点路线拓扑索引，首次访问时从数据库加载并缓存在本地
+     *
+     * @param trainId 列车 ID
+     * @return 列车站点路线拓扑索引
+     */
+    TrainStationRouteIndex getTrainStationRouteIndex(String trainId);
+
+    /**
+     * 列车站点变更后失效本地缓存的路线拓扑索引
+     *
+     * @param trainId 列车 ID
+     */
+    void invalidateTrainStationRouteIndex(String trainId);
 }
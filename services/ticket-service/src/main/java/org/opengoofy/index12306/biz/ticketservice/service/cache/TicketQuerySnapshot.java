@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.cache;
+
+import lombok.Getter;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.SeatClassDTO;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.TicketListDTO;
+import org.opengoofy.index12306.biz.ticketservice.dto.resp.TicketPageQueryRespDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 车票查询快照
+ * 车次信息已排序、票价已换算，仅余票数量在查询时按车次补齐，实例不可变可安全共享
+ */
+public final class TicketQuerySnapshot {
+
+    @Getter
+    private final List<SnapshotTrain> trains;
+
+    private final List<Integer> trainBrandList;
+    private final List<String> departureStationList;
+    private final List<String> arrivalStationList;
+    private final List<Integer> seatClassTypeList;
+
+    private TicketQuerySnapshot(List<SnapshotTrain> trains, TicketPageQueryRespDTO source) {
+        this.trains = List.copyOf(trains);
+        this.trainBrandList = List.copyOf(source.getTrainBrandList());
+        this.departureStationList = List.copyOf(source.getDepartureStationList());
+        this.arrivalStationList = List.copyOf(source.getArrivalStationList());
+        this.seatClassTypeList = List.copyOf(source.getSeatClassTypeList());
+    }
+
+    /**
+     * 基于完整查询结果构建快照
+     *
+     * @param source                   车票分页查询响应，车次需已排序
+     * @param remainingTicketKeyPrefix 列车站点余票 Key 前缀，包含缓存全局前缀
+     * @return 车票查询快照
+     */
+    public static TicketQuerySnapshot of(TicketPageQueryRespDTO source, String remainingTicketKeyPrefix) {
+        List<SnapshotTrain> trains = new ArrayList<>(source.getTrainList().size());
+        for (TicketListDTO each : source.getTrainList()) {
+            trains.add(new SnapshotTrain(each, remainingTicketKeyPrefix));
+        }
+        return new TicketQuerySnapshot(trains, source);
+    }
+
+    /**
+     * 补齐余票数量生成查询响应，quantities 顺序与 {@link #getTrains()} 以及各车次席别顺序一致
+     */
+    public TicketPageQueryRespDTO toResponse(List<int[]> quantities) {
+        List<TicketListDTO> trainList = new ArrayList<>(trains.size());
+        for (int i = 0; i < trains.size(); i++) {
+            trainList.add(trains.get(i).toTicketListDTO(quantities.get(i)));
+        }
+        return TicketPageQueryRespDTO.builder()
+                .trainList(trainList)
+                .departureStationList(departureStationList)
+                .arrivalStationList(arrivalStationList)
+                .trainBrandList(trainBrandList)
+                .seatClassTypeList(seatClassTypeList)
+                .build();
+    }
+
+    /**
+     * 快照车次
+     */
+    public static final class SnapshotTrain {
+
+        private final TicketListDTO template;
+
+        /**
+         * 列车站点余票 Key
+         */
+        @Getter
+        private final String remainingTicketKey;
+
+        /**
+         * 席别类型，作为余票 Hash 的 Field
+         */
+        @Getter
+        private final List<String> seatTypeFields;
+
+        private final Integer[] seatTypes;
+        private final BigDecimal[] prices;
+
+        private SnapshotTrain(TicketListDTO source, String remainingTicketKeyPrefix) {
+            this.template = source;
+            this.remainingTicketKey = remainingTicketKeyPrefix + String.join("_", source.getTrainId(), source.getDeparture(), source.getArrival());
+            List<SeatClassDTO> seatClassList = source.getSeatClassList();
+            this.seatTypes = new Integer[seatClassList.size()];
+            this.prices = new BigDecimal[seatClassList.size()];
+            List<String> fields = new ArrayList<>(seatClassList.size());
+            for (int i = 0; i < seatClassList.size(); i++) {
+                seatTypes[i] = seatClassList.get(i).getType();
+                prices[i] = seatClassList.get(i).getPrice();
+                fields.add(String.valueOf(seatTypes[i]));
+            }
+            this.seatTypeFields = List.copyOf(fields);
+        }
+
+        public String getTrainId() {
+            return template.getTrainId();
+        }
+
+        public String getDeparture() {
+            return template.getDeparture();
+        }
+
+        public String getArrival() {
+            return template.getArrival();
+        }
+
+        private TicketListDTO toTicketListDTO(int[] quantities) {
+            TicketListDTO result = new TicketListDTO();
+            result.setTrainId(template.getTrainId());
+            result.setTrainNumber(template.getTrainNumber());
+            result.setDepartureTime(template.getDepartureTime());
+            result.setArrivalTime(template.getArrivalTime());
+            result.setDuration(template.getDuration());
+            result.setDaysArrived(template.getDaysArrived());
+            result.setDeparture(template.getDeparture());
+            result.setArrival(template.getArrival());
+            result.setDepartureFlag(template.getDepartureFlag());
+            result.setArrivalFlag(template.getArrivalFlag());
+            result.setTrainType(template.getTrainType());
+            result.setSaleTime(template.getSaleTime());
+            result.setSaleStatus(template.getSaleStatus());
+            result.setTrainTags(template.getTrainTags());
+            result.setTrainBrand(template.getTrainBrand());
+            List<SeatClassDTO> seatClassList = new ArrayList<>(seatTypes.length);
+            for (int i = 0; i < seatTypes.length; i++) {
+                seatClassList.add(new SeatClassDTO(seatTypes[i], quantities[i], prices[i], false));
+            }
+            result.setSeatClassList(seatClassList);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainStationPriceDO;
+import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainStationPriceMapper;
+import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.Index12306Constant.ADVANCE_TICKET_DAY;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_STATION_PRICE;
+
+/**
+ * 列车站点票价缓存加载
+ * 车票查询与购票共用同一份 TRAIN_STATION_PRICE 缓存；购票按列车在本地维护一代票价表，同一区间只反序列化一次，
+ * 票价变更时由 Canal 广播消息刷新 Redis 缓存并整体替换该列车的票价表，替换前开始的加载只会写入已废弃的旧表
+ */
+@Component
+@RequiredArgsConstructor
+public class TrainStationPriceCacheLoader {
+
+    private final DistributedCache distributedCache;
+    private final TrainStationPriceMapper trainStationPriceMapper;
+
+    private final Cache<String, TrainStationPriceTable> trainStationPriceTableCache = Caffeine.newBuilder()
+            .expireAfterWrite(1, TimeUnit.DAYS)
+            .maximumSize(10000)
+            .build();
+
+    /**
+     * 加载列车出发站到到达站全部席别票价
+     *
+     * @return 票价集合 JSON 字符串
+     */
+    public String load(String trainId, String departure, String arrival) {
+        return distributedCache.safeGet(
+                String.format(TRAIN_STATION_PRICE, trainId, departure, arrival),
+                String.class,
+                () -> loadFromDatabase(trainId, departure, arrival),
+                ADVANCE_TICKET_DAY,
+                TimeUnit.DAYS
+        );
+    }
+
+    /**
+     * 加载列车出发站到到达站票价表
+     *
+     * @return 席别类型 -> 票价（单位：分）
+     */
+    public Map<Integer, Integer> loadPriceTable(String trainId, String departure, String arrival) {
+        TrainStationPriceTable trainStationPriceTable = trainStationPriceTableCache.get(trainId, key -> new TrainStationPriceTable());
+        String segmentKey = departure + "_" + arrival;
+        Map<Integer, Integer> result = trainStationPriceTable.segmentPriceMap.get(segmentKey);
+        if (result != null) {
+            return result;
+        }
+        List<TrainStationPriceDO> trainStationPriceDOList = JSON.parseArray(load(trainId, departure, arrival), TrainStationPriceDO.class);
+        Map<Integer, Integer> priceTable = new HashMap<>(trainStationPriceDOList.size() * 2);
+        trainStationPriceDOList.forEach(each -> priceTable.put(each.getSeatType(), each.getPrice()));
+        result = trainStationPriceTable.segmentPriceMap.putIfAbsent(segmentKey, Collections.unmodifiableMap(priceTable));
+        return result != null ? result : trainStationPriceTable.segmentPriceMap.get(segmentKey);
+    }
+
+    /**
+     * 票价变更后从数据库刷新变更区间的 Redis 缓存，并替换列车本地票价表
+     * 刷新而不是删除 Redis 缓存，车票查询通过管道批量读取票价时不会读到空值
+     *
+     * @param trainId  列车 ID
+     * @param segments 变更区间集合，元素为 [出发站, 到达站]
+     */
+    public void invalidate(String trainId, Collection<String[]> segments) {
+        segments.forEach(each -> distributedCache.put(
+                String.format(TRAIN_STATION_PRICE, trainId, each[0], each[1]),
+                loadFromDatabase(trainId, each[0], each[1]),
+                ADVANCE_TICKET_DAY,
+                TimeUnit.DAYS
+        ));
+        trainStationPriceTableCache.invalidate(trainId);
+    }
+
+    private String loadFromDatabase(String trainId, String departure, String arrival) {
+        LambdaQueryWrapper<TrainStationPriceDO> trainStationPriceQueryWrapper = Wrappers.lambdaQuery(TrainStationPriceDO.class)
+                .eq(TrainStationPriceDO::getDeparture, departure)
+                .eq(TrainStationPriceDO::getArrival, arrival)
+                .eq(TrainStationPriceDO::getTrainId, trainId);
+        return JSON.toJSONString(trainStationPriceMapper.selectList(trainStationPriceQueryWrapper));
+    }
+
+    /**
+     * 单个列车的一代票价表，区间 -> 席别类型 -> 票价
+     */
+    private static final class TrainStationPriceTable {
+
+        private final ConcurrentMap<String, Map<Integer, Integer>> segmentPriceMap = new ConcurrentHashMap<>();
+    }
+}
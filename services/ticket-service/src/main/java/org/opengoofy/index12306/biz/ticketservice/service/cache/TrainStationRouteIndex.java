@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.cache;
+
+import lombok.Getter;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.RouteDTO;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 列车站点路线拓扑索引
+ * 站点编码映射为连续序号，途经路线与需扣减路线按 [出发站序号, 到达站序号] 懒加载计算后缓存，实例不可变可安全共享
+ */
+public final class TrainStationRouteIndex {
+
+    @Getter
+    private final String trainId;
+
+    /**
+     * 列车沿途站点，按行驶顺序排列
+     */
+    @Getter
+    private final List<String> stations;
+
+    private final Map<String, Integer> stationOrdinalMap;
+
+    /**
+     * 站点 i 到站点 j 的路线对象，下标 i * n + j
+     */
+    private final RouteDTO[] routes;
+
+    private final AtomicReferenceArray<List<RouteDTO>> throughRouteCache;
+    private final AtomicReferenceArray<List<RouteDTO>> takeoutRouteCache;
+
+    public TrainStationRouteIndex(String trainId, List<String> stations) {
+        int size = stations.size();
+        this.trainId = trainId;
+        this.stations = List.copyOf(stations);
+        this.stationOrdinalMap = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            stationOrdinalMap.putIfAbsent(stations.get(i), i);
+        }
+        this.routes = new RouteDTO[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                routes[i * size + j] = new RouteDTO(stations.get(i), stations.get(j));
+            }
+        }
+        this.throughRouteCache = new AtomicReferenceArray<>(size * size);
+        this.takeoutRouteCache = new AtomicReferenceArray<>(size * size);
+    }
+
+    /**
+     * 获取站点序号，站点不存在返回 -1
+     */
+    public int ordinalOf(String station) {
+        Integer ordinal = stationOrdinalMap.get(station);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * 出发站到到达站之间的全部路线（包含出发站和到达站），与 StationCalculateUtil#throughStation 结果一致
+     */
+    public List<RouteDTO> listThroughRoute(String departure, String arrival) {
+        int startIndex = ordinalOf(departure);
+        int endIndex = ordinalOf(arrival);
+        if (startIndex < 0 || endIndex < 0 || startIndex >= endIndex) {
+            return Collections.emptyList();
+        }
+        int size = stations.size();
+        int cacheIndex = startIndex * size + endIndex;
+        List<RouteDTO> result = throughRouteCache.get(cacheIndex);
+        if (result == null) {
+            List<RouteDTO> actual = new ArrayList<>();
+            for (int i = startIndex; i < endIndex; i++) {
+                for (int j = i + 1; j <= endIndex; j++) {
+                    actual.add(routes[i * size + j]);
+                }
+            }
+            result = Collections.unmodifiableList(actual);
+            throughRouteCache.compareAndSet(cacheIndex, null, result);
+        }
+        return result;
+    }
+
+    /**
+     * 与出发站到到达站区段相交、需要扣减余票的全部路线，与 StationCalculateUtil#takeoutStation 结果一致
+     */
+    public List<RouteDTO> listTakeoutRoute(String departure, String arrival) {
+        int startIndex = ordinalOf(departure);
+        int endIndex = ordinalOf(arrival);
+        if (startIndex < 0 || endIndex < 0 || startIndex >= endIndex) {
+            return Collections.emptyList();
+        }
+        int size = stations.size();
+        int cacheIndex = startIndex * size + endIndex;
+        List<RouteDTO> result = takeoutRouteCache.get(cacheIndex);
+        if (result == null) {
+            List<RouteDTO> actual = new ArrayList<>();
+            for (int i = 0; i < startIndex; i++) {
+                for (int j = startIndex + 1; j < size; j++) {
+                    actual.add(routes[i * size + j]);
+                }
+            }
+            for (int i = startIndex; i < endIndex; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    actual.add(routes[i * size + j]);
+                }
+            }
+            result = Collections.unmodifiableList(actual);
+            takeoutRouteCache.compareAndSet(cacheIndex, null, result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.cache;
+
+import cn.hutool.core.collection.CollUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opengoofy.index12306.biz.ticketservice.remote.UserRemoteService;
+import org.opengoofy.index12306.biz.ticketservice.remote.dto.PassengerRespDTO;
+import org.opengoofy.index12306.framework.starter.convention.exception.RemoteException;
+import org.opengoofy.index12306.framework.starter.convention.result.Result;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.USER_PASSENGER_CHANGE_TOPIC;
+
+/**
+ * 用户乘车人本地缓存
+ * 按用户名缓存已查询过的乘车人快照，仅缺失的乘车人才远程调用用户服务；用户服务变更乘车人后通过 Redis Channel 通知失效
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserPassengerCache implements InitializingBean, DisposableBean {
+
+    private final UserRemoteService userRemoteService;
+    private final RedisConnectionFactory redisConnectionFactory;
+
+    /**
+     * 用户名 -> 乘车人 ID -> 乘车人，Value 不可变，更新时整体替换
+     */
+    private final Cache<String, Map<String, PassengerRespDTO>> userPassengerCache = Caffeine.newBuilder()
+            .expireAfterWrite(60, TimeUnit.SECONDS)
+            .maximumSize(100000)
+            .build();
+
+    /**
+     * 用户名 -> 失效代数，每次失效自增；远程查询前记录代数，写回缓存时代数变化说明查询期间乘车人已变更，放弃写回。
+     * 过期时间远大于远程调用耗时，不设容量上限避免代数被提前淘汰
+     */
+    private final Cache<String, Long> userPassengerGenerations = Caffeine.newBuilder()
+            .expireAfterWrite(5, TimeUnit.MINUTES)
+            .build();
+
+    private RedisMessageListenerContainer userPassengerChangeListenerContainer;
+
+    /**
+     * 根据乘车人 ID 集合查询乘车人，顺序与入参一致，不存在的乘车人不返回
+     *
+     * @param username     用户名
+     * @param passengerIds 乘车人 ID 集合
+     * @return 乘车人集合
+     */
+    public List<PassengerRespDTO> listPassengerQueryByIds(String username, List<String> passengerIds) {
+        Long generation = userPassengerGenerations.getIfPresent(username);
+        Map<String, PassengerRespDTO> cachedPassengerMap = userPassengerCache.getIfPresent(username);
+        List<String> missingPassengerIds = cachedPassengerMap == null
+                ? passengerIds
+                : passengerIds.stream().filter(each -> !cachedPassengerMap.containsKey(each)).toList();
+        Map<String, PassengerRespDTO> actualPassengerMap = cachedPassengerMap;
+        if (CollUtil.isNotEmpty(missingPassengerIds)) {
+            Result<List<PassengerRespDTO>> passengerRemoteResult = userRemoteService.listPassengerQueryByIds(username, missingPassengerIds);
+            if (!passengerRemoteResult.isSuccess() || CollUtil.isEmpty(passengerRemoteResult.getData())) {
+                throw new RemoteException("用户服务远程调用查询乘车人相关信息错误");
+            }
+            actualPassengerMap = cachedPassengerMap == null ? new HashMap<>() : new HashMap<>(cachedPassengerMap);
+            Map<String, PassengerRespDTO> remotePassengerMap = new HashMap<>();
+            for (PassengerRespDTO each : passengerRemoteResult.getData()) {
+                actualPassengerMap.put(each.getId(), each);
+                remotePassengerMap.put(each.getId(), each);
+            }
+            // 基于写回时的缓存值合并，失效代数变化时保留当前值，避免覆盖并发失效
+            userPassengerCache.asMap().compute(username, (key, current) -> {
+                if (!Objects.equals(generation, userPassengerGenerations.getIfPresent(key))) {
+                    return current;
+                }
+                Map<String, PassengerRespDTO> merged = current == null ? new HashMap<>() : new HashMap<>(current);
+                merged.putAll(remotePassengerMap);
+                return merged;
+            });
+        }
+        List<PassengerRespDTO> result = new ArrayList<>(passengerIds.size());
+        for (String each : passengerIds) {
+            PassengerRespDTO passenger = actualPassengerMap.get(each);
+            if (passenger != null) {
+                result.add(passenger);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 失效用户乘车人缓存
+     */
+    public void invalidate(String username) {
+        // 先自增代数再失效，失效前已开始的远程查询写回时发现代数变化
+        userPassengerGenerations.asMap().merge(username, 1L, Long::sum);
+        userPassengerCache.invalidate(username);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        userPassengerChangeListenerContainer = new RedisMessageListenerContainer();
+        userPassengerChangeListenerContainer.setConnectionFactory(redisConnectionFactory);
+        userPassengerChangeListenerContainer.addMessageListener(
+                (message, pattern) -> invalidate(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(USER_PASSENGER_CHANGE_TOPIC)
+        );
+        userPassengerChangeListenerContainer.afterPropertiesSet();
+        userPassengerChangeListenerContainer.start();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        userPassengerChangeListenerContainer.destroy();
+    }
+}
@@ -0,0 +1,485 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.delayclose;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.collection.ListUtil;
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.fastjson2.JSON;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.RouteDTO;
+import org.opengoofy.index12306.biz.ticketservice.dto.req.CancelTicketOrderReqDTO;
+import org.opengoofy.index12306.biz.ticketservice.mq.event.DelayCloseOrderEvent;
+import org.opengoofy.index12306.biz.ticketservice.remote.TicketOrderRemoteService;
+import org.opengoofy.index12306.biz.ticketservice.remote.dto.TicketOrderDetailRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.remote.dto.TicketOrderPassengerDetailRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.SeatService;
+import org.opengoofy.index12306.biz.ticketservice.service.TrainStationService;
+import org.opengoofy.index12306.biz.ticketservice.service.delayclose.HierarchicalTimingWheel.TimerBucket;
+import org.opengoofy.index12306.biz.ticketservice.service.delayclose.HierarchicalTimingWheel.TimerEntry;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.tokenbucket.TicketAvailabilityTokenBucket;
+import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.opengoofy.index12306.framework.starter.common.threadpool.build.ThreadFactoryBuilder;
+import org.opengoofy.index12306.framework.starter.common.toolkit.BeanUtil;
+import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
+import org.opengoofy.index12306.framework.starter.convention.result.Result;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.ORDER_DELAY_CLOSE_EVENT;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.ORDER_DELAY_CLOSE_INDEX;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_STATION_REMAINING_TICKET;
+
+/**
+ * 延迟关闭订单本地时间轮调度器
+ * 开启后订单服务不再投递 RocketMQ 延时消息，由购票服务在购票事务内同步写入 Redis 到期索引，事务提交后放入本地分层时间轮；
+ * 时间轮按时间格批量触发，通过 Lua 脚本将到期订单的到期时间推迟为租约到期时间完成抢占，避免多节点重复关闭，
+ * 再按列车聚合回滚座位、余票缓存与令牌桶，全部成功后才从到期索引移除；节点在租约期内宕机时订单在租约到期后由定时扫描重新抢占。
+ * 到期索引与事件按订单号哈希分片，避免全部购票请求集中写入同一个 Redis Key；节点重启时从 Redis 到期索引恢复时间轮。
+ * 订单服务是否投递 RocketMQ 延时消息由创建订单请求携带的标记决定，两个服务只以本调度器的配置为准
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DelayCloseOrderScheduler implements InitializingBean, DisposableBean {
+
+    private static final long TICK_MS = 1000L;
+    private static final int WHEEL_SIZE = 60;
+    private static final int FIRE_BATCH_SIZE = 200;
+
+    /**
+     * 到期索引与事件分片数
+     */
+    private static final int SHARD_COUNT = 16;
+
+    /**
+     * 关闭失败后的重试间隔，同时作为兜底扫描认定节点已宕机的超期时长
+     */
+    private static final long RETRY_DELAY_MS = 30000L;
+
+    /**
+     * 订单已关闭但座位等资源尚未回滚完成的标记，存放在延迟关闭事件 HASH 中，Field 为订单号 + 后缀
+     */
+    private static final String CLOSED_FIELD_SUFFIX = ":closed";
+
+    private static final String LUA_ORDER_DELAY_CLOSE_CLAIM_PATH = "lua/order_delay_close_claim.lua";
+
+    private final TicketOrderRemoteService ticketOrderRemoteService;
+    private final SeatService seatService;
+    private final TrainStationService trainStationService;
+    private final TicketAvailabilityTokenBucket ticketAvailabilityTokenBucket;
+    private final DistributedCache distributedCache;
+
+    @Value("${ticket.order.delay-close.type:}")
+    private String orderDelayCloseType;
+
+    @Value("${ticket.order.delay-close.delay-seconds:600}")
+    private long delayCloseSeconds;
+
+    @Value("${ticket.availability.cache-update.type:}")
+    private String ticketAvailabilityCacheUpdateType;
+
+    @Value("${framework.cache.redis.prefix:}")
+    private String cacheRedisPrefix;
+
+    private final DelayQueue<TimerBucket<String>> delayQueue = new DelayQueue<>();
+    private final ScheduledExecutorService timerExecutor = Executors.newScheduledThreadPool(2, ThreadFactoryBuilder.builder()
+            .prefix("order-delay-close-timer")
+            .daemon(true)
+            .build());
+    private final ExecutorService closeExecutor = Executors.newFixedThreadPool(4, ThreadFactoryBuilder.builder()
+            .prefix("order-delay-close")
+            .daemon(true)
+            .build());
+    private final DefaultRedisScript<List> claimScript = buildClaimScript();
+    private HierarchicalTimingWheel<String> timingWheel;
+
+    /**
+     * 是否由本地时间轮关闭订单
+     */
+    public boolean isEnabled() {
+        return StrUtil.equals(orderDelayCloseType, "local");
+    }
+
+    /**
+     * 登记延迟关闭订单，到期索引在购票事务内同步写入，写入失败时购票失败；事务提交后放入本地时间轮，事务回滚时移除到期索引
+     *
+     * @param delayCloseOrderEvent 延迟关闭订单事件
+     */
+    public void schedule(DelayCloseOrderEvent delayCloseOrderEvent) {
+        if (!isEnabled()) {
+            return;
+        }
+        String orderSn = delayCloseOrderEvent.getOrderSn();
+        long expirationMs = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(delayCloseSeconds);
+        try {
+            StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+            stringRedisTemplate.opsForHash().put(eventKey(orderSn), orderSn, JSON.toJSONString(delayCloseOrderEvent));
+            stringRedisTemplate.opsForZSet().add(indexKey(orderSn), orderSn, expirationMs);
+        } catch (Throwable ex) {
+            // 到期索引是订单超时关闭的唯一依据，写入失败时不能放行购票
+            log.error("[延迟关闭订单] 订单号：{} 写入到期索引失败", orderSn, ex);
+            throw new ServiceException("购票失败，请稍后重试");
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            addTimer(List.of(timerEntry(orderSn, expirationMs)));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    addTimer(List.of(timerEntry(orderSn, expirationMs)));
+                } else {
+                    unregister(orderSn);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!isEnabled()) {
+            return;
+        }
+        timingWheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, System.currentTimeMillis(), delayQueue);
+        timerExecutor.execute(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    advance();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (Throwable ex) {
+                    log.error("[延迟关闭订单] 时间轮驱动线程执行异常", ex);
+                }
+            }
+        });
+        closeExecutor.execute(this::recover);
+        timerExecutor.scheduleWithFixedDelay(this::scanOverdue, RETRY_DELAY_MS, RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        timerExecutor.shutdownNow();
+        closeExecutor.shutdownNow();
+    }
+
+    private void unregister(String orderSn) {
+        try {
+            StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+            stringRedisTemplate.opsForZSet().remove(indexKey(orderSn), orderSn);
+            stringRedisTemplate.opsForHash().delete(eventKey(orderSn), orderSn);
+        } catch (Throwable ex) {
+            // 残留的到期索引到期后关闭订单时订单不存在，按无需回滚处理
+            log.warn("[延迟关闭订单] 订单号：{} 购票事务回滚后移除到期索引失败", orderSn, ex);
+        }
+    }
+
+    /**
+     * 时间格最早在任务到期前一个时间格触发，放入时间轮的到期时间推迟一个时间格，保证触发时订单在到期索引中已到期
+     */
+    private TimerEntry<String> timerEntry(String orderSn, long expirationMs) {
+        return new TimerEntry<>(orderSn, expirationMs + TICK_MS);
+    }
+
+    /**
+     * 放入时间轮，已到期的订单直接关闭
+     */
+    private void addTimer(List<TimerEntry<String>> entries) {
+        List<String> expiredOrderSnList = new ArrayList<>();
+        synchronized (this) {
+            for (TimerEntry<String> each : entries) {
+                if (!timingWheel.add(each)) {
+                    expiredOrderSnList.add(each.getPayload());
+                }
+            }
+        }
+        submit(expiredOrderSnList);
+    }
+
+    /**
+     * 等待最近到期的时间格，到期后推进时间轮并收集同一时刻到期的全部时间格，高层时间格中的任务降级到低层时间轮
+     */
+    private void advance() throws InterruptedException {
+        TimerBucket<String> bucket = delayQueue.poll(200, TimeUnit.MILLISECONDS);
+        if (bucket == null) {
+            return;
+        }
+        List<String> expiredOrderSnList = new ArrayList<>();
+        synchronized (this) {
+            while (bucket != null) {
+                timingWheel.advanceClock(bucket.getExpiration());
+                bucket.flush(each -> {
+                    if (!timingWheel.add(each)) {
+                        expiredOrderSnList.add(each.getPayload());
+                    }
+                });
+                bucket = delayQueue.poll();
+            }
+        }
+        submit(expiredOrderSnList);
+    }
+
+    private void submit(List<String> expiredOrderSnList) {
+        if (CollUtil.isEmpty(expiredOrderSnList)) {
+            return;
+        }
+        ListUtil.split(expiredOrderSnList, FIRE_BATCH_SIZE)
+                .forEach(each -> closeExecutor.execute(() -> close(each)));
+    }
+
+    /**
+     * 节点启动时从到期索引恢复时间轮
+     */
+    private void recover() {
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            try {
+                Set<ZSetOperations.TypedTuple<String>> tuples = stringRedisTemplate.opsForZSet().rangeWithScores(ORDER_DELAY_CLOSE_INDEX + shard, 0, -1);
+                if (CollUtil.isEmpty(tuples)) {
+                    continue;
+                }
+                List<TimerEntry<String>> entries = tuples.stream()
+                        .filter(each -> each.getValue() != null && each.getScore() != null)
+                        .map(each -> timerEntry(each.getValue(), each.getScore().longValue()))
+                        .toList();
+                addTimer(entries);
+                log.info("[延迟关闭订单] 从到期索引分片：{} 恢复时间轮任务：{} 条", shard, entries.size());
+            } catch (Throwable ex) {
+                log.error("[延迟关闭订单] 从到期索引分片：{} 恢复时间轮失败", shard, ex);
+            }
+        }
+    }
+
+    /**
+     * 兜底扫描超期未关闭的订单，覆盖登记节点宕机且尚未重启的场景
+     */
+    private void scanOverdue() {
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            try {
+                Set<String> orderSnSet = stringRedisTemplate.opsForZSet()
+                        .rangeByScore(ORDER_DELAY_CLOSE_INDEX + shard, 0, System.currentTimeMillis() - RETRY_DELAY_MS, 0, FIRE_BATCH_SIZE);
+                if (CollUtil.isNotEmpty(orderSnSet)) {
+                    close(new ArrayList<>(orderSnSet));
+                }
+            } catch (Throwable ex) {
+                log.error("[延迟关闭订单] 扫描到期索引分片：{} 超期订单失败", shard, ex);
+            }
+        }
+    }
+
+    private void close(List<String> orderSnList) {
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        long now = System.currentTimeMillis();
+        long leaseExpirationMs = now + RETRY_DELAY_MS;
+        List<String> claimedOrderSnList = new ArrayList<>(orderSnList.size());
+        List<Object> valueList = new ArrayList<>(orderSnList.size() * 2);
+        orderSnList.stream()
+                .collect(Collectors.groupingBy(DelayCloseOrderScheduler::shard))
+                .forEach((shard, shardOrderSnList) -> {
+                    List<Object> args = new ArrayList<>(shardOrderSnList.size() + 2);
+                    args.add(String.valueOf(now));
+                    args.add(String.valueOf(leaseExpirationMs));
+                    args.addAll(shardOrderSnList);
+                    List<String> shardClaimedOrderSnList = stringRedisTemplate.execute(claimScript, List.of(ORDER_DELAY_CLOSE_INDEX + shard), args.toArray());
+                    if (CollUtil.isEmpty(shardClaimedOrderSnList)) {
+                        return;
+                    }
+                    List<Object> fields = new ArrayList<>(shardClaimedOrderSnList.size() * 2);
+                    shardClaimedOrderSnList.forEach(each -> {
+                        fields.add(each);
+                        fields.add(each + CLOSED_FIELD_SUFFIX);
+                    });
+                    claimedOrderSnList.addAll(shardClaimedOrderSnList);
+                    valueList.addAll(stringRedisTemplate.opsForHash().multiGet(ORDER_DELAY_CLOSE_EVENT + shard, fields));
+                });
+        if (claimedOrderSnList.isEmpty()) {
+            return;
+        }
+        List<DelayCloseOrderEvent> closedEventList = new ArrayList<>(claimedOrderSnList.size());
+        List<String> finishedOrderSnList = new ArrayList<>(claimedOrderSnList.size());
+        List<String> retryOrderSnList = new ArrayList<>();
+        for (int i = 0; i < claimedOrderSnList.size(); i++) {
+            String orderSn = claimedOrderSnList.get(i);
+            Object event = valueList.get(i * 2);
+            if (event == null) {
+                log.warn("[延迟关闭订单] 订单号：{} 延迟关闭事件不存在", orderSn);
+                finishedOrderSnList.add(orderSn);
+                continue;
+            }
+            // 上次已关闭订单但回滚失败时跳过关闭，直接重试回滚
+            if (valueList.get(i * 2 + 1) == null) {
+                Result<Boolean> closedTickOrder;
+                try {
+                    closedTickOrder = ticketOrderRemoteService.closeTickOrder(new CancelTicketOrderReqDTO(orderSn));
+                } catch (Throwable ex) {
+                    log.error("[延迟关闭订单] 订单号：{} 远程调用订单服务失败", orderSn, ex);
+                    retryOrderSnList.add(orderSn);
+                    continue;
+                }
+                if (!closedTickOrder.isSuccess()) {
+                    log.error("[延迟关闭订单] 订单号：{} 关闭订单失败：{}", orderSn, closedTickOrder.getMessage());
+                    retryOrderSnList.add(orderSn);
+                    continue;
+                }
+                if (!closedTickOrder.getData()) {
+                    log.info("[延迟关闭订单] 订单号：{} 用户已支付订单", orderSn);
+                    finishedOrderSnList.add(orderSn);
+                    continue;
+                }
+                stringRedisTemplate.opsForHash().put(eventKey(orderSn), orderSn + CLOSED_FIELD_SUFFIX, "1");
+            }
+            closedEventList.add(JSON.parseObject(event.toString(), DelayCloseOrderEvent.class));
+        }
+        if (!StrUtil.equals(ticketAvailabilityCacheUpdateType, "binlog")) {
+            closedEventList.stream()
+                    .collect(Collectors.groupingBy(DelayCloseOrderEvent::getTrainId))
+                    .forEach((trainId, eventList) -> {
+                        List<String> failedOrderSnList = rollback(trainId, eventList);
+                        eventList.stream()
+                                .map(DelayCloseOrderEvent::getOrderSn)
+                                .forEach(each -> (failedOrderSnList.contains(each) ? retryOrderSnList : finishedOrderSnList).add(each));
+                    });
+        } else {
+            closedEventList.forEach(each -> finishedOrderSnList.add(each.getOrderSn()));
+        }
+        finishedOrderSnList.stream()
+                .collect(Collectors.groupingBy(DelayCloseOrderScheduler::shard))
+                .forEach((shard, shardFinishedOrderSnList) -> {
+                    List<String> finishedFields = new ArrayList<>(shardFinishedOrderSnList.size() * 2);
+                    shardFinishedOrderSnList.forEach(each -> {
+                        finishedFields.add(each);
+                        finishedFields.add(each + CLOSED_FIELD_SUFFIX);
+                    });
+                    stringRedisTemplate.opsForZSet().remove(ORDER_DELAY_CLOSE_INDEX + shard, shardFinishedOrderSnList.toArray());
+                    stringRedisTemplate.opsForHash().delete(ORDER_DELAY_CLOSE_EVENT + shard, finishedFields.toArray());
+                });
+        // 失败的订单保留在到期索引中，租约到期后重试
+        if (!retryOrderSnList.isEmpty()) {
+            addTimer(retryOrderSnList.stream()
+                    .map(each -> timerEntry(each, leaseExpirationMs))
+                    .toList());
+        }
+    }
+
+    private static int shard(String orderSn) {
+        return Math.floorMod(orderSn.hashCode(), SHARD_COUNT);
+    }
+
+    private static String indexKey(String orderSn) {
+        return ORDER_DELAY_CLOSE_INDEX + shard(orderSn);
+    }
+
+    private static String eventKey(String orderSn) {
+        return ORDER_DELAY_CLOSE_EVENT + shard(orderSn);
+    }
+
+    /**
+     * 回滚同一列车已关闭订单的座位状态、余票缓存与令牌桶，余票增量按区段与座位类型聚合后一次管道提交
+     */
+    private List<String> rollback(String trainId, List<DelayCloseOrderEvent> closedEventList) {
+        List<String> failedOrderSnList = new ArrayList<>();
+        Map<String, List<RouteDTO>> routeMap = new HashMap<>();
+        Map<String, Map<Integer, Integer>> remainingIncrementMap = new HashMap<>();
+        for (DelayCloseOrderEvent each : closedEventList) {
+            String orderSn = each.getOrderSn();
+            List<TrainPurchaseTicketRespDTO> trainPurchaseTicketResults = each.getTrainPurchaseTicketResults();
+            try {
+                seatService.unlock(trainId, each.getDeparture(), each.getArrival(), trainPurchaseTicketResults);
+            } catch (Throwable ex) {
+                log.error("[延迟关闭订单] 订单号：{} 回滚列车DB座位状态失败，等待重试", orderSn, ex);
+                failedOrderSnList.add(orderSn);
+                continue;
+            }
+            List<RouteDTO> routeDTOList = routeMap.computeIfAbsent(
+                    each.getDeparture() + "_" + each.getArrival(),
+                    key -> trainStationService.listTakeoutTrainStationRoute(trainId, each.getDeparture(), each.getArrival()));
+            Map<Integer, Long> seatTypeCountMap = trainPurchaseTicketResults.stream()
+                    .collect(Collectors.groupingBy(TrainPurchaseTicketRespDTO::getSeatType, Collectors.counting()));
+            routeDTOList.forEach(route -> {
+                Map<Integer, Integer> incrementMap = remainingIncrementMap.computeIfAbsent(
+                        StrUtil.join("_", trainId, route.getStartStation(), route.getEndStation()), key -> new HashMap<>());
+                seatTypeCountMap.forEach((seatType, count) -> incrementMap.merge(seatType, count.intValue(), Integer::sum));
+            });
+            try {
+                TicketOrderDetailRespDTO ticketOrderDetail = BeanUtil.convert(each, TicketOrderDetailRespDTO.class);
+                ticketOrderDetail.setPassengerDetails(BeanUtil.convert(trainPurchaseTicketResults, TicketOrderPassengerDetailRespDTO.class));
+                ticketAvailabilityTokenBucket.rollbackInBucket(ticketOrderDetail);
+            } catch (Throwable ex) {
+                log.error("[延迟关闭订单] 订单号：{} 回滚令牌桶失败", orderSn, ex);
+            }
+        }
+        if (remainingIncrementMap.isEmpty()) {
+            return failedOrderSnList;
+        }
+        try {
+            StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+            stringRedisTemplate.executePipelined((RedisCallback<Long>) connection -> {
+                remainingIncrementMap.forEach((keySuffix, incrementMap) -> incrementRemaining(connection, keySuffix, incrementMap));
+                return null;
+            });
+        } catch (Throwable ex) {
+            log.error("[延迟关闭订单] 列车：{} 回滚列车Cache余票失败", trainId, ex);
+        }
+        return failedOrderSnList;
+    }
+
+    private void incrementRemaining(RedisConnection connection, String keySuffix, Map<Integer, Integer> incrementMap) {
+        byte[] key = (cacheRedisPrefix + TRAIN_STATION_REMAINING_TICKET + keySuffix).getBytes();
+        incrementMap.forEach((seatType, count) -> {
+            if (!Objects.equals(count, 0)) {
+                connection.hashCommands().hIncrBy(key, String.valueOf(seatType).getBytes(), count);
+            }
+        });
+    }
+
+    private static DefaultRedisScript<List> buildClaimScript() {
+        DefaultRedisScript<List> redisScript = new DefaultRedisScript<>();
+        redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource(LUA_ORDER_DELAY_CLOSE_CLAIM_PATH)));
+        redisScript.setResultType(List.class);
+        return redisScript;
+    }
+}
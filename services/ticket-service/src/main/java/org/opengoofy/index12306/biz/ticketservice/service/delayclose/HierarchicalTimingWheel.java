@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.delayclose;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮
+ * 每层时间轮由 wheelSize 个时间格组成，超出当前层范围的任务放入上层溢出时间轮；
+ * 只有包含任务的时间格才会放入 DelayQueue，驱动线程按时间格而非按任务唤醒，时间格到期后任务降级到下层或到期执行。
+ * 非线程安全，由调用方保证串行访问
+ */
+public final class HierarchicalTimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final TimerBucket<T>[] buckets;
+    private final DelayQueue<TimerBucket<T>> delayQueue;
+    private long currentTime;
+    private HierarchicalTimingWheel<T> overflowWheel;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs, DelayQueue<TimerBucket<T>> delayQueue) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.delayQueue = delayQueue;
+        this.currentTime = startMs - (startMs % tickMs);
+        this.buckets = new TimerBucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new TimerBucket<>();
+        }
+    }
+
+    /**
+     * 添加任务
+     *
+     * @return 任务已到期返回 false，由调用方直接执行
+     */
+    public boolean add(TimerEntry<T> entry) {
+        long expiration = entry.getExpirationMs();
+        if (expiration < currentTime + tickMs) {
+            return false;
+        }
+        if (expiration < currentTime + interval) {
+            long virtualId = expiration / tickMs;
+            TimerBucket<T> bucket = buckets[(int) (virtualId % wheelSize)];
+            bucket.add(entry);
+            if (bucket.setExpiration(virtualId * tickMs)) {
+                delayQueue.offer(bucket);
+            }
+            return true;
+        }
+        if (overflowWheel == null) {
+            overflowWheel = new HierarchicalTimingWheel<>(interval, wheelSize, currentTime, delayQueue);
+        }
+        return overflowWheel.add(entry);
+    }
+
+    /**
+     * 推进时间轮指针，上层时间轮同步推进
+     */
+    public void advanceClock(long timeMs) {
+        if (timeMs >= currentTime + tickMs) {
+            currentTime = timeMs - (timeMs % tickMs);
+            if (overflowWheel != null) {
+                overflowWheel.advanceClock(currentTime);
+            }
+        }
+    }
+
+    /**
+     * 时间轮任务
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class TimerEntry<T> {
+
+        private final T payload;
+
+        /**
+         * 到期时间戳，单位毫秒
+         */
+        private final long expirationMs;
+    }
+
+    /**
+     * 时间格，同一时间格内的任务同时到期
+     */
+    public static final class TimerBucket<T> implements Delayed {
+
+        private final AtomicLong expiration = new AtomicLong(-1L);
+        private final List<TimerEntry<T>> entries = new ArrayList<>();
+
+        public long getExpiration() {
+            return expiration.get();
+        }
+
+        private synchronized void add(TimerEntry<T> entry) {
+            entries.add(entry);
+        }
+
+        /**
+         * 设置时间格到期时间
+         *
+         * @return 到期时间是否发生变化，发生变化说明时间格被复用，需要重新放入延迟队列
+         */
+        private boolean setExpiration(long expirationMs) {
+            return expiration.getAndSet(expirationMs) != expirationMs;
+        }
+
+        /**
+         * 取出时间格内全部任务并重置时间格
+         */
+        public synchronized void flush(Consumer<TimerEntry<T>> consumer) {
+            List<TimerEntry<T>> actual = new ArrayList<>(entries);
+            entries.clear();
+            expiration.set(-1L);
+            actual.forEach(consumer);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Math.max(getExpiration() - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(getExpiration(), ((TimerBucket<?>) o).getExpiration());
+        }
+    }
+}
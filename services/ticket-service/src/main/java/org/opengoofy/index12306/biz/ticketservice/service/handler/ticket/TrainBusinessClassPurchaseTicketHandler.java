@@ -17,29 +17,25 @@
 
 package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket;
 
-import cn.hutool.core.collection.CollUtil;
-import cn.hutool.core.collection.ListUtil;
 import cn.hutool.core.lang.Pair;
 import com.google.common.collect.Lists;
-import lombok.RequiredArgsConstructor;
 import org.opengoofy.index12306.biz.ticketservice.common.enums.VehicleSeatTypeEnum;
 import org.opengoofy.index12306.biz.ticketservice.common.enums.VehicleTypeEnum;
 import org.opengoofy.index12306.biz.ticketservice.dto.domain.PurchaseTicketPassengerDetailDTO;
 import org.opengoofy.index12306.biz.ticketservice.dto.domain.TrainSeatBaseDTO;
-import org.opengoofy.index12306.biz.ticketservice.service.SeatService;
-import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.base.AbstractTrainPurchaseTicketTemplate;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.base.AbstractTrainSeatLayoutPurchaseTicketHandler;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.base.BitMapCheckSeat;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.base.BitMapCheckSeatStatusFactory;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.SelectSeatDTO;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
-import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select.SeatSelection;
-import org.opengoofy.index12306.biz.ticketservice.toolkit.CarriageVacantSeatCalculateUtil;
-import org.opengoofy.index12306.biz.ticketservice.toolkit.SeatNumberUtil;
-import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select.SeatLayout;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select.SeatMatrix;
 import org.springframework.stereotype.Component;
 
-import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.base.BitMapCheckSeatStatusFactory.TRAIN_BUSINESS;
 
@@ -47,25 +43,7 @@ import static org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.
  * 高铁商务座购票组件
  */
 @Component
-@RequiredArgsConstructor
-public class TrainBusinessClassPurchaseTicketHandler extends AbstractTrainPurchaseTicketTemplate {
-
-    private static final Map<Character, Integer> SEAT_Y_INT = Map.of('A', 0, 'C', 1, 'F', 2);
-    private final SeatService seatService;
-
-    public static int[][] mergeArrays(int[][] array1, int[][] array2) {
-        List<int[]> list = new ArrayList<>(Arrays.asList(array1));
-        list.addAll(Arrays.asList(array2));
-        return list.toArray(new int[0][]);
-    }
-
-    public static int[][] deepCopy(int[][] originalArray) {
-        int[][] copy = new int[originalArray.length][originalArray[0].length];
-        for (int i = 0; i < originalArray.length; i++) {
-            System.arraycopy(originalArray[i], 0, copy[i], 0, originalArray[i].length);
-        }
-        return copy;
-    }
+public class TrainBusinessClassPurchaseTicketHandler extends AbstractTrainSeatLayoutPurchaseTicketHandler {
 
     // 高铁-商务座 Bean的mark标识注册
     @Override
@@ -73,60 +51,11 @@ public class TrainBusinessClassPurchaseTicketHandler extends AbstractTrainPurcha
         return VehicleTypeEnum.HIGH_SPEED_RAIN.getName() + VehicleSeatTypeEnum.BUSINESS_CLASS.getName();
     }
 
-    /**
-     * 根据购票请求参数选择合适的座位
-     *
-     * @param requestParam 购票请求参数对象，包含车次信息、乘客座位需求、选座偏好等
-     * @return 购票成功的座位响应信息列表，包含每个乘客的座位分配结果
-     *
-     * 处理流程：
-     * 1. 从请求参数中提取车次、出发/到达站基础信息
-     * 2. 获取当前车次可用的车厢列表及对应余票数量
-     * 3. 进行余票总量校验，当余票总数小于乘客数量时抛出业务异常
-     * 4. 根据乘客数量选择不同的选座策略：
-     *    - 乘客数小于3时：优先执行普通选座逻辑
-     *    - 乘客数3人及以上时：执行复杂选座逻辑（如集中连座分配）
-     * 5. 当存在选座偏好时，统一执行精确匹配选座流程
-     */
     @Override
-    protected List<TrainPurchaseTicketRespDTO> selectSeats(SelectSeatDTO requestParam) {
-        // 基础参数提取
-        String trainId = requestParam.getRequestParam().getTrainId();
-        String departure = requestParam.getRequestParam().getDeparture();
-        String arrival = requestParam.getRequestParam().getArrival();
-        List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails = requestParam.getPassengerSeatDetails();
-
-        // 余票数据查询
-        // 调用seatService 获取当前车次可用车厢列表
-        List<String> trainCarriageList = seatService.listUsableCarriageNumber(trainId, requestParam.getSeatType(), departure, arrival);
-        // 获取当前车次对应余票数量
-        List<Integer> trainStationCarriageRemainingTicket = seatService.listSeatRemainingTicket(trainId, departure, arrival, trainCarriageList);
-
-        // 余票总量检查
-        int remainingTicketSum = trainStationCarriageRemainingTicket.stream().mapToInt(Integer::intValue).sum();
-        if (remainingTicketSum < passengerSeatDetails.size()) {
-            throw new ServiceException("站点余票不足，请尝试更换座位类型或选择其它站点");
-        }
-
-        // 选座策略选择逻辑
-        if (passengerSeatDetails.size() < 3) {
-            // 存在选座偏好时的处理流程
-            if (CollUtil.isNotEmpty(requestParam.getRequestParam().getChooseSeats())) {
-                Pair<List<TrainPurchaseTicketRespDTO>, Boolean> actualSeatPair = findMatchSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket);
-                return actualSeatPair.getKey();
-            }
-            return selectSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket);
-        } else {
-            // 多人购票场景处理（3人及以上）
-            if (CollUtil.isNotEmpty(requestParam.getRequestParam().getChooseSeats())) {
-                Pair<List<TrainPurchaseTicketRespDTO>, Boolean> actualSeatPair = findMatchSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket);
-                return actualSeatPair.getKey();
-            }
-            return selectComplexSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket);
-        }
+    protected SeatLayout seatLayout() {
+        return SeatLayout.TRAIN_BUSINESS_CLASS;
     }
 
-
     /**
      * 查找符合条件的列车座位并分配购票结果
      *
@@ -136,91 +65,42 @@ public class TrainBusinessClassPurchaseTicketHandler extends AbstractTrainPurcha
      * @return Pair<购票结果列表, 是否分配成功>
      * 第一个元素为分配成功的座位信息列表，第二个元素表示是否成功分配所有乘客座位
      */
-    private Pair<List<TrainPurchaseTicketRespDTO>, Boolean> findMatchSeats(SelectSeatDTO requestParam, List<String> trainCarriageList, List<Integer> trainStationCarriageRemainingTicket) {
+    @Override
+    protected Pair<List<TrainPurchaseTicketRespDTO>, Boolean> findMatchSeats(SelectSeatDTO requestParam, List<String> trainCarriageList, List<Integer> trainStationCarriageRemainingTicket) {
         /* 构建基础座位分配数据 */
         TrainSeatBaseDTO trainSeatBaseDTO = buildTrainSeatBaseDTO(requestParam);
-        int chooseSeatSize = trainSeatBaseDTO.getChooseSeatList().size();
-        List<TrainPurchaseTicketRespDTO> actualResult = Lists.newArrayListWithCapacity(trainSeatBaseDTO.getPassengerSeatDetails().size());
+        List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails = trainSeatBaseDTO.getPassengerSeatDetails();
+        List<String> chooseSeatList = trainSeatBaseDTO.getChooseSeatList();
+        List<TrainPurchaseTicketRespDTO> actualResult = Lists.newArrayListWithCapacity(passengerSeatDetails.size());
 
         /* 初始化座位检查工具和车厢座位映射表 */
         BitMapCheckSeat instance = BitMapCheckSeatStatusFactory.getInstance(TRAIN_BUSINESS);
-        HashMap<String, List<Pair<Integer, Integer>>> carriagesSeatMap = new HashMap<>(4);
-        int passengersNumber = trainSeatBaseDTO.getPassengerSeatDetails().size();
+        Map<String, List<Pair<Integer, Integer>>> carriagesSeatMap = new LinkedHashMap<>();
+        int passengersNumber = passengerSeatDetails.size();
 
         /* 遍历所有车厢进行座位匹配 */
         for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
             String carriagesNumber = trainCarriageList.get(i);
-            /* 获取当前车厢可用座位列表 */
-            List<String> listAvailableSeat = seatService.listAvailableSeat(trainSeatBaseDTO.getTrainId(), carriagesNumber, requestParam.getSeatType(), trainSeatBaseDTO.getDeparture(), trainSeatBaseDTO.getArrival());
-
-            /* 构建车厢座位状态矩阵（2排3列布局） */
-            int[][] actualSeats = new int[2][3];
-            for (int j = 1; j < 3; j++) {
-                for (int k = 1; k < 4; k++) {
-                    actualSeats[j - 1][k - 1] = listAvailableSeat.contains("0" + j + SeatNumberUtil.convert(0, k)) ? 0 : 1;
-                }
-            }
-
-            /* 计算当前车厢空余座位 */
-            List<Pair<Integer, Integer>> vacantSeatList = CarriageVacantSeatCalculateUtil.buildCarriageVacantSeatList2(actualSeats, 2, 3);
-            boolean isExists = instance.checkChooseSeat(trainSeatBaseDTO.getChooseSeatList(), actualSeats, SEAT_Y_INT);
-            long vacantSeatCount = vacantSeatList.size();
-
-            /* 尝试分配指定座位 */
-            List<Pair<Integer, Integer>> sureSeatList = new ArrayList<>();
-            List<String> selectSeats = Lists.newArrayListWithCapacity(passengersNumber);
-            boolean flag = false;
-
-            /* 当存在足够空位且满足选座需求时 */
-            if (isExists && vacantSeatCount >= passengersNumber) {
-                /* 处理单个乘客选座逻辑 */
-                Iterator<Pair<Integer, Integer>> pairIterator = vacantSeatList.iterator();
-                for (int i1 = 0; i1 < chooseSeatSize; i1++) {
-                    /* 处理单个座位分配时的容错逻辑（优先同列后排） */
-                    if (chooseSeatSize == 1) {
-                        String chooseSeat = trainSeatBaseDTO.getChooseSeatList().get(i1);
-                        int seatX = Integer.parseInt(chooseSeat.substring(1));
-                        int seatY = SEAT_Y_INT.get(chooseSeat.charAt(0));
-                        if (actualSeats[seatX][seatY] == 0) {
-                            sureSeatList.add(new Pair<>(seatX, seatY));
-                            /* 从可用列表中移除已选座位 */
-                            while (pairIterator.hasNext()) {
-                                Pair<Integer, Integer> pair = pairIterator.next();
-                                if (pair.getKey() == seatX && pair.getValue() == seatY) {
-                                    pairIterator.remove();
-                                    break;
-                                }
-                            }
+            /* 构建车厢座位位图矩阵并计算空余座位 */
+            SeatMatrix seatMatrix = buildSeatMatrix(requestParam, carriagesNumber);
+            List<Pair<Integer, Integer>> vacantSeatList = listVacantSeats(seatMatrix, seatMatrix.availableCount());
+            boolean isExists = instance.checkChooseSeat(chooseSeatList, seatMatrix.toArray(), seatLayout().getColumnIndexMap());
+
+            /* 当存在足够空位且满足选座需求时，尝试分配指定座位 */
+            if (isExists && vacantSeatList.size() >= passengersNumber) {
+                List<Pair<Integer, Integer>> sureSeatList = new ArrayList<>();
+                boolean flag = false;
+                for (String chooseSeat : chooseSeatList) {
+                    int seatX = Integer.parseInt(chooseSeat.substring(1));
+                    int seatY = seatLayout().getColumnIndexMap().get(chooseSeat.charAt(0));
+                    if (seatMatrix.isAvailable(seatX, seatY)) {
+                        sureSeatList.add(new Pair<>(seatX, seatY));
+                    } else if (chooseSeatList.size() == 1) {
+                        /* 单个座位分配时的容错逻辑（优先同列后排） */
+                        if (seatMatrix.isAvailable(1, seatY)) {
+                            sureSeatList.add(new Pair<>(1, seatY));
                         } else {
-                            /* 尝试同列后排座位 */
-                            if (actualSeats[1][seatY] == 0) {
-                                sureSeatList.add(new Pair<>(1, seatY));
-                                while (pairIterator.hasNext()) {
-                                    Pair<Integer, Integer> pair = pairIterator.next();
-                                    if (pair.getKey() == 1 && pair.getValue() == seatY) {
-                                        pairIterator.remove();
-                                        break;
-                                    }
-                                }
-                            } else {
-                                flag = true;
-                            }
-                        }
-                    }
-                    /* 处理多个指定座位分配 */
-                    else {
-                        String chooseSeat = trainSeatBaseDTO.getChooseSeatList().get(i1);
-                        int seatX = Integer.parseInt(chooseSeat.substring(1));
-                        int seatY = SEAT_Y_INT.get(chooseSeat.charAt(0));
-                        if (actualSeats[seatX][seatY] == 0) {
-                            sureSeatList.add(new Pair<>(seatX, seatY));
-                            while (pairIterator.hasNext()) {
-                                Pair<Integer, Integer> pair = pairIterator.next();
-                                if (pair.getKey() == seatX && pair.getValue() == seatY) {
-                                    pairIterator.remove();
-                                    break;
-                                }
-                            }
+                            flag = true;
                         }
                     }
                 }
@@ -231,311 +111,39 @@ public class TrainBusinessClassPurchaseTicketHandler extends AbstractTrainPurcha
                 }
 
                 /* 补充分配剩余需要的座位 */
-                if (sureSeatList.size() != passengersNumber) {
-                    int needSeatSize = passengersNumber - sureSeatList.size();
-                    sureSeatList.addAll(vacantSeatList.subList(0, needSeatSize));
-                }
-
-                /* 构建最终分配结果 */
-                for (Pair<Integer, Integer> each : sureSeatList) {
-                    selectSeats.add("0" + (each.getKey() + 1) + SeatNumberUtil.convert(0, (each.getValue() + 1)));
-                }
-                AtomicInteger countNum = new AtomicInteger(0);
-                for (String selectSeat : selectSeats) {
-                    TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
-                    PurchaseTicketPassengerDetailDTO currentTicketPassenger = trainSeatBaseDTO.getPassengerSeatDetails().get(countNum.getAndIncrement());
-                    result.setSeatNumber(selectSeat);
-                    result.setSeatType(currentTicketPassenger.getSeatType());
-                    result.setCarriageNumber(carriagesNumber);
-                    result.setPassengerId(currentTicketPassenger.getPassengerId());
-                    actualResult.add(result);
+                if (sureSeatList.size() < passengersNumber) {
+                    sureSeatList.forEach(each -> seatMatrix.occupy(each.getKey(), each.getValue()));
+                    sureSeatList.addAll(listVacantSeats(seatMatrix, passengersNumber - sureSeatList.size()));
                 }
+                appendPurchaseTicketResp(passengerSeatDetails, carriagesNumber, sureSeatList, actualResult);
                 return new Pair<>(actualResult, Boolean.TRUE);
             }
-            /* 当前车厢无法满足需求时的处理逻辑 */
-            else {
-                /* 记录当前车厢空位信息 */
-                if (i < trainStationCarriageRemainingTicket.size()) {
-                    if (vacantSeatCount > 0) {
-                        carriagesSeatMap.put(carriagesNumber, vacantSeatList);
-                    }
-
-                    /* 最终尝试跨车厢分配逻辑 */
-                    if (i == trainStationCarriageRemainingTicket.size() - 1) {
-                        /* 查找满足需求的完整车厢 */
-                        Pair<String, List<Pair<Integer, Integer>>> findSureCarriage = null;
-                        for (Map.Entry<String, List<Pair<Integer, Integer>>> entry : carriagesSeatMap.entrySet()) {
-                            if (entry.getValue().size() >= passengersNumber) {
-                                findSureCarriage = new Pair<>(entry.getKey(), entry.getValue().subList(0, passengersNumber));
-                                break;
-                            }
-                        }
 
-                        /* 组合多个车厢的空位进行分配 */
-                        if (null != findSureCarriage) {
-                            /* 单个车厢满足分配需求 */
-                            sureSeatList = findSureCarriage.getValue().subList(0, passengersNumber);
-                            for (Pair<Integer, Integer> each : sureSeatList) {
-                                selectSeats.add("0" + (each.getKey() + 1) + SeatNumberUtil.convert(0, each.getValue() + 1));
-                            }
-                            AtomicInteger countNum = new AtomicInteger(0);
-                            for (String selectSeat : selectSeats) {
-                                TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
-                                PurchaseTicketPassengerDetailDTO currentTicketPassenger = trainSeatBaseDTO.getPassengerSeatDetails().get(countNum.getAndIncrement());
-                                result.setSeatNumber(selectSeat);
-                                result.setSeatType(currentTicketPassenger.getSeatType());
-                                result.setCarriageNumber(findSureCarriage.getKey());
-                                result.setPassengerId(currentTicketPassenger.getPassengerId());
-                                actualResult.add(result);
-                            }
-                        } else {
-                            /* 多车厢组合分配逻辑 */
-                            int sureSeatListSize = 0;
-                            AtomicInteger countNum = new AtomicInteger(0);
-                            for (Map.Entry<String, List<Pair<Integer, Integer>>> entry : carriagesSeatMap.entrySet()) {
-                                /* 累加分配多个车厢的座位 */
-                                if (sureSeatListSize < passengersNumber) {
-                                    if (sureSeatListSize + entry.getValue().size() < passengersNumber) {
-                                        sureSeatListSize = sureSeatListSize + entry.getValue().size();
-                                        List<String> actualSelectSeats = new ArrayList<>();
-                                        for (Pair<Integer, Integer> each : entry.getValue()) {
-                                            actualSelectSeats.add("0" + (each.getKey() + 1) + SeatNumberUtil.convert(0, each.getValue() + 1));
-                                        }
-                                        for (String selectSeat : actualSelectSeats) {
-                                            TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
-                                            PurchaseTicketPassengerDetailDTO currentTicketPassenger = trainSeatBaseDTO.getPassengerSeatDetails().get(countNum.getAndIncrement());
-                                            result.setSeatNumber(selectSeat);
-                                            result.setSeatType(currentTicketPassenger.getSeatType());
-                                            result.setCarriageNumber(entry.getKey());
-                                            result.setPassengerId(currentTicketPassenger.getPassengerId());
-                                            actualResult.add(result);
-                                        }
-                                    } else {
-                                        /* 最后一个满足需求的车厢处理 */
-                                        int needSeatSize = entry.getValue().size() - (sureSeatListSize + entry.getValue().size() - passengersNumber);
-                                        sureSeatListSize = sureSeatListSize + needSeatSize;
-                                        if (sureSeatListSize >= passengersNumber) {
-                                            List<String> actualSelectSeats = new ArrayList<>();
-                                            for (Pair<Integer, Integer> each : entry.getValue().subList(0, needSeatSize)) {
-                                                actualSelectSeats.add("0" + (each.getKey() + 1) + SeatNumberUtil.convert(0, each.getValue() + 1));
-                                            }
-                                            for (String selectSeat : actualSelectSeats) {
-                                                TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
-                                                PurchaseTicketPassengerDetailDTO currentTicketPassenger = trainSeatBaseDTO.getPassengerSeatDetails().get(countNum.getAndIncrement());
-                                                result.setSeatNumber(selectSeat);
-                                                result.setSeatType(currentTicketPassenger.getSeatType());
-                                                result.setCarriageNumber(entry.getKey());
-                                                result.setPassengerId(currentTicketPassenger.getPassengerId());
-                                                actualResult.add(result);
-                                            }
-                                            break;
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                        return new Pair<>(actualResult, Boolean.TRUE);
-                    }
-                }
+            /* 当前车厢无法满足需求时记录当前车厢空位信息 */
+            if (!vacantSeatList.isEmpty()) {
+                carriagesSeatMap.put(carriagesNumber, vacantSeatList);
             }
         }
-        return new Pair<>(null, Boolean.FALSE);
-    }
-
-    private List<TrainPurchaseTicketRespDTO> selectSeats(SelectSeatDTO requestParam, List<String> trainCarriageList, List<Integer> trainStationCarriageRemainingTicket) {
-        String trainId = requestParam.getRequestParam().getTrainId();
-        String departure = requestParam.getRequestParam().getDeparture();
-        String arrival = requestParam.getRequestParam().getArrival();
-        List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails = requestParam.getPassengerSeatDetails();
-        List<TrainPurchaseTicketRespDTO> actualResult = new ArrayList<>();
-        Map<String, Integer> demotionStockNumMap = new LinkedHashMap<>();
-        Map<String, int[][]> actualSeatsMap = new HashMap<>();
-        Map<String, int[][]> carriagesNumberSeatsMap = new HashMap<>();
-        String carriagesNumber;
-        for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
-            carriagesNumber = trainCarriageList.get(i);
-            List<String> listAvailableSeat = seatService.listAvailableSeat(trainId, carriagesNumber, requestParam.getSeatType(), departure, arrival);
-            int[][] actualSeats = new int[2][3];
-            for (int j = 1; j < 3; j++) {
-                for (int k = 1; k < 4; k++) {
-                    // 当前默认按照复兴号商务座排序，后续这里需要按照简单工厂对车类型进行获取 y 轴
-                    actualSeats[j - 1][k - 1] = listAvailableSeat.contains("0" + j + SeatNumberUtil.convert(0, k)) ? 0 : 1;
-                }
-            }
-            int[][] select = SeatSelection.adjacent(passengerSeatDetails.size(), actualSeats);
-            if (select != null) {
-                carriagesNumberSeatsMap.put(carriagesNumber, select);
-                break;
-            }
-            int demotionStockNum = 0;
-            for (int[] actualSeat : actualSeats) {
-                for (int i1 : actualSeat) {
-                    if (i1 == 0) {
-                        demotionStockNum++;
-                    }
-                }
-            }
-            demotionStockNumMap.putIfAbsent(carriagesNumber, demotionStockNum);
-            actualSeatsMap.putIfAbsent(carriagesNumber, actualSeats);
-            if (i < trainStationCarriageRemainingTicket.size() - 1) {
-                continue;
-            }
-            // 如果邻座算法无法匹配，尝试对用户进行降级分配：同车厢不邻座
-            for (Map.Entry<String, Integer> entry : demotionStockNumMap.entrySet()) {
-                String carriagesNumberBack = entry.getKey();
-                int demotionStockNumBack = entry.getValue();
-                if (demotionStockNumBack > passengerSeatDetails.size()) {
-                    int[][] seats = actualSeatsMap.get(carriagesNumberBack);
-                    int[][] nonAdjacentSeats = SeatSelection.nonAdjacent(passengerSeatDetails.size(), seats);
-                    if (Objects.equals(nonAdjacentSeats.length, passengerSeatDetails.size())) {
-                        select = nonAdjacentSeats;
-                        carriagesNumberSeatsMap.put(carriagesNumberBack, select);
-                        break;
-                    }
-                }
-            }
-            // 如果同车厢也已无法匹配，则对用户座位再次降级：不同车厢不邻座
-            if (Objects.isNull(select)) {
-                for (Map.Entry<String, Integer> entry : demotionStockNumMap.entrySet()) {
-                    String carriagesNumberBack = entry.getKey();
-                    int demotionStockNumBack = entry.getValue();
-                    int[][] seats = actualSeatsMap.get(carriagesNumberBack);
-                    int[][] nonAdjacentSeats = SeatSelection.nonAdjacent(demotionStockNumBack, seats);
-                    carriagesNumberSeatsMap.put(entry.getKey(), nonAdjacentSeats);
-                }
-            }
+        if (carriagesSeatMap.isEmpty()) {
+            return new Pair<>(null, Boolean.FALSE);
         }
-        // 乘车人员在单一车厢座位不满足，触发乘车人元分布在不同车厢
-        int count = (int) carriagesNumberSeatsMap.values().stream()
-                .flatMap(Arrays::stream)
-                .count();
-        if (CollUtil.isNotEmpty(carriagesNumberSeatsMap) && passengerSeatDetails.size() == count) {
-            int countNum = 0;
-            for (Map.Entry<String, int[][]> entry : carriagesNumberSeatsMap.entrySet()) {
-                List<String> selectSeats = new ArrayList<>();
-                for (int[] ints : entry.getValue()) {
-                    selectSeats.add("0" + ints[0] + SeatNumberUtil.convert(0, ints[1]));
-                }
-                for (String selectSeat : selectSeats) {
-                    TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
-                    PurchaseTicketPassengerDetailDTO currentTicketPassenger = passengerSeatDetails.get(countNum++);
-                    result.setSeatNumber(selectSeat);
-                    result.setSeatType(currentTicketPassenger.getSeatType());
-                    result.setCarriageNumber(entry.getKey());
-                    result.setPassengerId(currentTicketPassenger.getPassengerId());
-                    actualResult.add(result);
-                }
+
+        /* 查找满足需求的完整车厢 */
+        for (Map.Entry<String, List<Pair<Integer, Integer>>> entry : carriagesSeatMap.entrySet()) {
+            if (entry.getValue().size() >= passengersNumber) {
+                appendPurchaseTicketResp(passengerSeatDetails, entry.getKey(), entry.getValue().subList(0, passengersNumber), actualResult);
+                return new Pair<>(actualResult, Boolean.TRUE);
             }
         }
-        return actualResult;
-    }
 
-    private List<TrainPurchaseTicketRespDTO> selectComplexSeats(SelectSeatDTO requestParam, List<String> trainCarriageList, List<Integer> trainStationCarriageRemainingTicket) {
-        String trainId = requestParam.getRequestParam().getTrainId();
-        String departure = requestParam.getRequestParam().getDeparture();
-        String arrival = requestParam.getRequestParam().getArrival();
-        List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails = requestParam.getPassengerSeatDetails();
-        List<TrainPurchaseTicketRespDTO> actualResult = new ArrayList<>();
-        Map<String, Integer> demotionStockNumMap = new LinkedHashMap<>();
-        Map<String, int[][]> actualSeatsMap = new HashMap<>();
-        Map<String, int[][]> carriagesNumberSeatsMap = new HashMap<>();
-        String carriagesNumber;
-        // 多人分配同一车厢邻座
-        for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
-            carriagesNumber = trainCarriageList.get(i);
-            List<String> listAvailableSeat = seatService.listAvailableSeat(trainId, carriagesNumber, requestParam.getSeatType(), departure, arrival);
-            int[][] actualSeats = new int[2][3];
-            for (int j = 1; j < 3; j++) {
-                for (int k = 1; k < 4; k++) {
-                    // 当前默认按照复兴号商务座排序，后续这里需要按照简单工厂对车类型进行获取 y 轴
-                    actualSeats[j - 1][k - 1] = listAvailableSeat.contains("0" + j + SeatNumberUtil.convert(0, k)) ? 0 : 1;
-                }
-            }
-            int[][] actualSeatsTranscript = deepCopy(actualSeats);
-            List<int[][]> actualSelects = new ArrayList<>();
-            List<List<PurchaseTicketPassengerDetailDTO>> splitPassengerSeatDetails = ListUtil.split(passengerSeatDetails, 2);
-            for (List<PurchaseTicketPassengerDetailDTO> each : splitPassengerSeatDetails) {
-                int[][] select = SeatSelection.adjacent(each.size(), actualSeatsTranscript);
-                if (select != null) {
-                    for (int[] ints : select) {
-                        actualSeatsTranscript[ints[0] - 1][ints[1] - 1] = 1;
-                    }
-                    actualSelects.add(select);
-                }
-            }
-            if (actualSelects.size() == splitPassengerSeatDetails.size()) {
-                int[][] actualSelect = null;
-                for (int j = 0; j < actualSelects.size(); j++) {
-                    if (j == 0) {
-                        actualSelect = mergeArrays(actualSelects.get(j), actualSelects.get(j + 1));
-                    }
-                    if (j != 0 && actualSelects.size() > 2) {
-                        actualSelect = mergeArrays(actualSelect, actualSelects.get(j + 1));
-                    }
-                }
-                carriagesNumberSeatsMap.put(carriagesNumber, actualSelect);
+        /* 多车厢组合分配逻辑 */
+        for (Map.Entry<String, List<Pair<Integer, Integer>>> entry : carriagesSeatMap.entrySet()) {
+            int needSeatSize = Math.min(passengersNumber - actualResult.size(), entry.getValue().size());
+            if (needSeatSize <= 0) {
                 break;
             }
-            int demotionStockNum = 0;
-            for (int[] actualSeat : actualSeats) {
-                for (int i1 : actualSeat) {
-                    if (i1 == 0) {
-                        demotionStockNum++;
-                    }
-                }
-            }
-            demotionStockNumMap.putIfAbsent(carriagesNumber, demotionStockNum);
-            actualSeatsMap.putIfAbsent(carriagesNumber, actualSeats);
-        }
-        // 如果邻座算法无法匹配，尝试对用户进行降级分配：同车厢不邻座
-        if (CollUtil.isEmpty(carriagesNumberSeatsMap)) {
-            for (Map.Entry<String, Integer> entry : demotionStockNumMap.entrySet()) {
-                String carriagesNumberBack = entry.getKey();
-                int demotionStockNumBack = entry.getValue();
-                if (demotionStockNumBack > passengerSeatDetails.size()) {
-                    int[][] seats = actualSeatsMap.get(carriagesNumberBack);
-                    int[][] nonAdjacentSeats = SeatSelection.nonAdjacent(passengerSeatDetails.size(), seats);
-                    if (Objects.equals(nonAdjacentSeats.length, passengerSeatDetails.size())) {
-                        carriagesNumberSeatsMap.put(carriagesNumberBack, nonAdjacentSeats);
-                        break;
-                    }
-                }
-            }
-        }
-        // 如果同车厢也已无法匹配，则对用户座位再次降级：不同车厢不邻座
-        if (CollUtil.isEmpty(carriagesNumberSeatsMap)) {
-            int undistributedPassengerSize = passengerSeatDetails.size();
-            for (Map.Entry<String, Integer> entry : demotionStockNumMap.entrySet()) {
-                String carriagesNumberBack = entry.getKey();
-                int demotionStockNumBack = entry.getValue();
-                int[][] seats = actualSeatsMap.get(carriagesNumberBack);
-                int[][] nonAdjacentSeats = SeatSelection.nonAdjacent(Math.min(undistributedPassengerSize, demotionStockNumBack), seats);
-                undistributedPassengerSize = undistributedPassengerSize - demotionStockNumBack;
-                carriagesNumberSeatsMap.put(entry.getKey(), nonAdjacentSeats);
-            }
-        }
-        // 乘车人员在单一车厢座位不满足，触发乘车人元分布在不同车厢
-        int count = (int) carriagesNumberSeatsMap.values().stream()
-                .flatMap(Arrays::stream)
-                .count();
-        if (CollUtil.isNotEmpty(carriagesNumberSeatsMap) && passengerSeatDetails.size() == count) {
-            int countNum = 0;
-            for (Map.Entry<String, int[][]> entry : carriagesNumberSeatsMap.entrySet()) {
-                List<String> selectSeats = new ArrayList<>();
-                for (int[] ints : entry.getValue()) {
-                    selectSeats.add("0" + ints[0] + SeatNumberUtil.convert(0, ints[1]));
-                }
-                for (String selectSeat : selectSeats) {
-                    TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
-                    PurchaseTicketPassengerDetailDTO currentTicketPassenger = passengerSeatDetails.get(countNum++);
-                    result.setSeatNumber(selectSeat);
-                    result.setSeatType(currentTicketPassenger.getSeatType());
-                    result.setCarriageNumber(entry.getKey());
-                    result.setPassengerId(currentTicketPassenger.getPassengerId());
-                    actualResult.add(result);
-                }
-            }
+            appendPurchaseTicketResp(passengerSeatDetails, entry.getKey(), entry.getValue().subList(0, needSeatSize), actualResult);
         }
-        return actualResult;
+        return new Pair<>(actualResult, Boolean.TRUE);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.base;
+
+import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.springframework.data.redis.connection.BitFieldSubCommands;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * 抽象高铁验证座位
+ * 通过一次 BITFIELD 批量读取整个车厢的座位位图，在本地完成座位统计判断，避免逐位 GETBIT 多次网络往返
+ */
+public abstract class AbstractTrainBitMapCheckSeat implements TrainBitMapCheckSeat {
+
+    /**
+     * 每排座位数量，位图偏移量为 列 + 排 * 每排座位数量
+     */
+    private final int columnSize;
+
+    /**
+     * 车厢座位排数
+     */
+    private final int rowSize;
+
+    /**
+     * 读取整个车厢位图的子命令，实例创建时构建后复用
+     */
+    private final BitFieldSubCommands seatBitFieldSubCommands;
+
+    protected AbstractTrainBitMapCheckSeat(int columnSize, int rowSize) {
+        this.columnSize = columnSize;
+        this.rowSize = rowSize;
+        BitFieldSubCommands subCommands = BitFieldSubCommands.create();
+        for (int offset = 0; offset < columnSize * rowSize; offset++) {
+            subCommands = subCommands.get(BitFieldSubCommands.BitFieldType.unsigned(1)).valueAt(offset);
+        }
+        this.seatBitFieldSubCommands = subCommands;
+    }
+
+    @Override
+    public boolean checkSeat(String key, HashMap<Integer, Integer> convert, DistributedCache distributedCache) {
+        boolean[] seatBits = loadSeatBits(key, distributedCache);
+        int matchCount = 0;
+        for (int i = 0; i < columnSize; i++) {
+            if (convert.containsKey(i)) {
+                int cnt = 0;
+                for (int j = 0; j < rowSize; j++) {
+                    if (seatBits[i + j * columnSize]) {
+                        cnt = cnt + 1;
+                    }
+                    if (cnt == convert.get(i)) {
+                        matchCount++;
+                        break;
+                    }
+                }
+                if (cnt != convert.get(i)) {
+                    break;
+                }
+            }
+            if (matchCount == convert.size()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean[] loadSeatBits(String key, DistributedCache distributedCache) {
+        boolean[] result = new boolean[columnSize * rowSize];
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        List<Long> bitValues = stringRedisTemplate.opsForValue().bitField(key, seatBitFieldSubCommands);
+        if (bitValues == null) {
+            return result;
+        }
+        for (int i = 0; i < result.length && i < bitValues.size(); i++) {
+            Long bit = bitValues.get(i);
+            result[i] = bit != null && bit == 1L;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.base;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.collection.ListUtil;
+import cn.hutool.core.lang.Pair;
+import com.google.common.collect.Lists;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.PurchaseTicketPassengerDetailDTO;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.TrainSeatBaseDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.SeatService;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.SelectSeatDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select.SeatLayout;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select.SeatMatrix;
+import org.opengoofy.index12306.framework.starter.bases.ApplicationContextHolder;
+import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 抽象按车厢座位布局选座的高铁购票组件
+ * 自动分配座位（邻座、同车厢不邻座、不同车厢不邻座）统一基于 {@link SeatMatrix} 位运算完成，指定选座按座位布局计算相对偏移，子类仅需提供座位布局
+ */
+public abstract class AbstractTrainSeatLayoutPurchaseTicketHandler extends AbstractTrainPurchaseTicketTemplate {
+
+    private SeatService seatService;
+
+    /**
+     * 车厢座位布局
+     */
+    protected abstract SeatLayout seatLayout();
+
+    @Override
+    protected List<TrainPurchaseTicketRespDTO> selectSeats(SelectSeatDTO requestParam) {
+        String trainId = requestParam.getRequestParam().getTrainId();
+        String departure = requestParam.getRequestParam().getDeparture();
+        String arrival = requestParam.getRequestParam().getArrival();
+        List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails = requestParam.getPassengerSeatDetails();
+        List<String> trainCarriageList = seatService.listUsableCarriageNumber(trainId, requestParam.getSeatType(), departure, arrival);
+        List<Integer> trainStationCarriageRemainingTicket = seatService.listSeatRemainingTicket(trainId, departure, arrival, trainCarriageList);
+        int remainingTicketSum = trainStationCarriageRemainingTicket.stream().mapToInt(Integer::intValue).sum();
+        if (remainingTicketSum < passengerSeatDetails.size()) {
+            throw new ServiceException("站点余票不足，请尝试更换座位类型或选择其它站点");
+        }
+        if (CollUtil.isNotEmpty(requestParam.getRequestParam().getChooseSeats())) {
+            return findMatchSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket).getKey();
+        }
+        if (passengerSeatDetails.size() < seatLayout().getComplexThreshold()) {
+            return selectSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket);
+        }
+        return selectComplexSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket);
+    }
+
+    /**
+     * 按乘车人指定座位选座，指定座位无法全部满足时降级为同车厢或不同车厢的空余座位
+     *
+     * @param requestParam                        购票请求入参
+     * @param trainCarriageList                   可用车厢号集合
+     * @param trainStationCarriageRemainingTicket 车厢余票集合
+     * @return Pair<购票结果列表, 是否分配成功>
+     */
+    protected Pair<List<TrainPurchaseTicketRespDTO>, Boolean> findMatchSeats(SelectSeatDTO requestParam, List<String> trainCarriageList, List<Integer> trainStationCarriageRemainingTicket) {
+        TrainSeatBaseDTO trainSeatBaseDTO = buildTrainSeatBaseDTO(requestParam);
+        List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails = trainSeatBaseDTO.getPassengerSeatDetails();
+        List<TrainPurchaseTicketRespDTO> actualResult = Lists.newArrayListWithCapacity(passengerSeatDetails.size());
+        Map<String, List<Pair<Integer, Integer>>> carriagesSeatMap = new LinkedHashMap<>();
+        int passengersNumber = passengerSeatDetails.size();
+        for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
+            String carriagesNumber = trainCarriageList.get(i);
+            SeatMatrix seatMatrix = buildSeatMatrix(requestParam, carriagesNumber);
+            List<Pair<Integer, Integer>> carriagesVacantSeat = listVacantSeats(seatMatrix, seatMatrix.availableCount());
+            List<Pair<Integer, Integer>> sureSeatList = calcChooseSeatLevelPairList(seatMatrix, trainSeatBaseDTO.getChooseSeatList());
+            if (CollUtil.isNotEmpty(sureSeatList) && carriagesVacantSeat.size() >= passengersNumber) {
+                if (sureSeatList.size() < passengersNumber) {
+                    sureSeatList.forEach(each -> seatMatrix.occupy(each.getKey(), each.getValue()));
+                    sureSeatList.addAll(listVacantSeats(seatMatrix, passengersNumber - sureSeatList.size()));
+                }
+                appendPurchaseTicketResp(passengerSeatDetails, carriagesNumber, sureSeatList, actualResult);
+                return new Pair<>(actualResult, Boolean.TRUE);
+            }
+            if (CollUtil.isNotEmpty(carriagesVacantSeat)) {
+                carriagesSeatMap.put(carriagesNumber, carriagesVacantSeat);
+            }
+        }
+        if (CollUtil.isEmpty(carriagesSeatMap)) {
+            return new Pair<>(null, Boolean.FALSE);
+        }
+        for (Map.Entry<String, List<Pair<Integer, Integer>>> entry : carriagesSeatMap.entrySet()) {
+            if (entry.getValue().size() >= passengersNumber) {
+                appendPurchaseTicketResp(passengerSeatDetails, entry.getKey(), entry.getValue().subList(0, passengersNumber), actualResult);
+                return new Pair<>(actualResult, Boolean.TRUE);
+            }
+        }
+        for (Map.Entry<String, List<Pair<Integer, Integer>>> entry : carriagesSeatMap.entrySet()) {
+            int needSeatSize = Math.min(passengersNumber - actualResult.size(), entry.getValue().size());
+            if (needSeatSize <= 0) {
+                break;
+            }
+            appendPurchaseTicketResp(passengerSeatDetails, entry.getKey(), entry.getValue().subList(0, needSeatSize), actualResult);
+        }
+        return new Pair<>(actualResult, Boolean.TRUE);
+    }
+
+    /**
+     * 以首个指定座位为基准，按指定座位之间的相对行列偏移在车厢中查找全部可用的座位
+     */
+    private List<Pair<Integer, Integer>> calcChooseSeatLevelPairList(SeatMatrix seatMatrix, List<String> chooseSeatList) {
+        String firstChooseSeat = chooseSeatList.get(0);
+        int firstSeatX = Integer.parseInt(firstChooseSeat.substring(1));
+        int firstSeatY = seatLayout().getColumnIndexMap().get(firstChooseSeat.charAt(0));
+        List<Pair<Integer, Integer>> chooseSeatLevelPairList = new ArrayList<>();
+        chooseSeatLevelPairList.add(new Pair<>(firstSeatX, firstSeatY));
+        int minLevelX = 0;
+        for (int i = 1; i < chooseSeatList.size(); i++) {
+            String chooseSeat = chooseSeatList.get(i);
+            int chooseSeatX = Integer.parseInt(chooseSeat.substring(1));
+            int chooseSeatY = seatLayout().getColumnIndexMap().get(chooseSeat.charAt(0));
+            minLevelX = Math.min(minLevelX, chooseSeatX - firstSeatX);
+            chooseSeatLevelPairList.add(new Pair<>(chooseSeatX - firstSeatX, chooseSeatY - firstSeatY));
+        }
+        int rowSize = seatLayout().getRowSize();
+        for (int i = Math.abs(minLevelX); i < rowSize; i++) {
+            List<Pair<Integer, Integer>> sureSeatList = new ArrayList<>();
+            if (seatMatrix.isAvailable(i, firstSeatY)) {
+                sureSeatList.add(new Pair<>(i, firstSeatY));
+                for (int j = 1; j < chooseSeatList.size(); j++) {
+                    Pair<Integer, Integer> pair = chooseSeatLevelPairList.get(j);
+                    int x = i + pair.getKey();
+                    int y = firstSeatY + pair.getValue();
+                    if (x >= rowSize) {
+                        return Collections.emptyList();
+                    }
+                    if (!seatMatrix.isAvailable(x, y)) {
+                        break;
+                    }
+                    sureSeatList.add(new Pair<>(x, y));
+                }
+            }
+            if (sureSeatList.size() == chooseSeatList.size()) {
+                return sureSeatList;
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * 按排从前到后、每排从左到右列出车厢可售座位
+     *
+     * @param seatMatrix 座位矩阵
+     * @param numSeats   座位数量上限
+     * @return 座位集合 Pair<排, 列>，排列均从 0 开始
+     */
+    protected List<Pair<Integer, Integer>> listVacantSeats(SeatMatrix seatMatrix, int numSeats) {
+        int[][] seats = seatMatrix.nonAdjacent(numSeats);
+        List<Pair<Integer, Integer>> result = new ArrayList<>(seats.length);
+        for (int[] each : seats) {
+            result.add(new Pair<>(each[0] - 1, each[1] - 1));
+        }
+        return result;
+    }
+
+    /**
+     * 按乘车人顺序为同一车厢的座位构建购票结果，追加至结果列表
+     *
+     * @param passengerSeatDetails 乘车人集合
+     * @param carriageNumber       车厢号
+     * @param seats                座位集合 Pair<排, 列>，排列均从 0 开始
+     * @param actualResult         购票结果列表
+     */
+    protected void appendPurchaseTicketResp(List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails, String carriageNumber,
+                                            List<Pair<Integer, Integer>> seats, List<TrainPurchaseTicketRespDTO> actualResult) {
+        for (Pair<Integer, Integer> each : seats) {
+            PurchaseTicketPassengerDetailDTO currentTicketPassenger = passengerSeatDetails.get(actualResult.size());
+            actualResult.add(buildPurchaseTicketResp(currentTicketPassenger, carriageNumber, seatLayout().seatNumber(each.getKey(), each.getValue())));
+        }
+    }
+
+    /**
+     * 构建车厢座位位图矩阵
+     */
+    protected SeatMatrix buildSeatMatrix(SelectSeatDTO requestParam, String carriageNumber) {
+        String trainId = requestParam.getRequestParam().getTrainId();
+        String departure = requestParam.getRequestParam().getDeparture();
+        String arrival = requestParam.getRequestParam().getArrival();
+        List<String> listAvailableSeat = seatService.listAvailableSeat(trainId, carriageNumber, requestParam.getSeatType(), departure, arrival);
+        return SeatMatrix.of(seatLayout(), listAvailableSeat);
+    }
+
+    private List<TrainPurchaseTicketRespDTO> selectSeats(SelectSeatDTO requestParam, List<String> trainCarriageList, List<Integer> trainStationCarriageRemainingTicket) {
+        int passengerSize = requestParam.getPassengerSeatDetails().size();
+        Map<String, SeatMatrix> seatMatrixMap = new LinkedHashMap<>();
+        Map<String, int[][]> carriagesNumberSeatsMap = new LinkedHashMap<>();
+        for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
+            String carriagesNumber = trainCarriageList.get(i);
+            SeatMatrix seatMatrix = buildSeatMatrix(requestParam, carriagesNumber);
+            int[][] select = seatMatrix.adjacent(passengerSize);
+            if (select != null) {
+                carriagesNumberSeatsMap.put(carriagesNumber, select);
+                break;
+            }
+            seatMatrixMap.putIfAbsent(carriagesNumber, seatMatrix);
+        }
+        if (CollUtil.isEmpty(carriagesNumberSeatsMap)) {
+            demotionSelectSeats(passengerSize, seatMatrixMap, carriagesNumberSeatsMap);
+        }
+        return buildPurchaseTicketResp(requestParam, carriagesNumberSeatsMap);
+    }
+
+    private List<TrainPurchaseTicketRespDTO> selectComplexSeats(SelectSeatDTO requestParam, List<String> trainCarriageList, List<Integer> trainStationCarriageRemainingTicket) {
+        List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails = requestParam.getPassengerSeatDetails();
+        List<List<PurchaseTicketPassengerDetailDTO>> splitPassengerSeatDetails = ListUtil.split(passengerSeatDetails, seatLayout().getComplexGroupSize());
+        Map<String, SeatMatrix> seatMatrixMap = new LinkedHashMap<>();
+        Map<String, int[][]> carriagesNumberSeatsMap = new LinkedHashMap<>();
+        // 多人分组分配同一车厢邻座
+        for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
+            String carriagesNumber = trainCarriageList.get(i);
+            SeatMatrix seatMatrix = buildSeatMatrix(requestParam, carriagesNumber);
+            SeatMatrix seatMatrixTranscript = seatMatrix.copy();
+            List<int[]> actualSelect = new ArrayList<>(passengerSeatDetails.size());
+            for (List<PurchaseTicketPassengerDetailDTO> each : splitPassengerSeatDetails) {
+                int[][] select = seatMatrixTranscript.adjacent(each.size());
+                if (select == null) {
+                    break;
+                }
+                seatMatrixTranscript.occupy(select);
+                actualSelect.addAll(List.of(select));
+            }
+            if (actualSelect.size() == passengerSeatDetails.size()) {
+                carriagesNumberSeatsMap.put(carriagesNumber, actualSelect.toArray(new int[0][]));
+                break;
+            }
+            seatMatrixMap.putIfAbsent(carriagesNumber, seatMatrix);
+        }
+        if (CollUtil.isEmpty(carriagesNumberSeatsMap)) {
+            demotionSelectSeats(passengerSeatDetails.size(), seatMatrixMap, carriagesNumberSeatsMap);
+        }
+        return buildPurchaseTicketResp(requestParam, carriagesNumberSeatsMap);
+    }
+
+    /**
+     * 邻座无法匹配时降级分配：优先同车厢不邻座，再降级为不同车厢不邻座
+     */
+    private void demotionSelectSeats(int passengerSize, Map<String, SeatMatrix> seatMatrixMap, Map<String, int[][]> carriagesNumberSeatsMap) {
+        for (Map.Entry<String, SeatMatrix> entry : seatMatrixMap.entrySet()) {
+            if (entry.getValue().availableCount() > passengerSize) {
+                int[][] nonAdjacentSeats = entry.getValue().nonAdjacent(passengerSize);
+                if (Objects.equals(nonAdjacentSeats.length, passengerSize)) {
+                    carriagesNumberSeatsMap.put(entry.getKey(), nonAdjacentSeats);
+                    return;
+                }
+            }
+        }
+        int undistributedPassengerSize = passengerSize;
+        for (Map.Entry<String, SeatMatrix> entry : seatMatrixMap.entrySet()) {
+            if (undistributedPassengerSize <= 0) {
+                break;
+            }
+            int[][] nonAdjacentSeats = entry.getValue().nonAdjacent(undistributedPassengerSize);
+            undistributedPassengerSize -= nonAdjacentSeats.length;
+            carriagesNumberSeatsMap.put(entry.getKey(), nonAdjacentSeats);
+        }
+    }
+
+    private List<TrainPurchaseTicketRespDTO> buildPurchaseTicketResp(SelectSeatDTO requestParam, Map<String, int[][]> carriagesNumberSeatsMap) {
+        List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails = requestParam.getPassengerSeatDetails();
+        List<TrainPurchaseTicketRespDTO> actualResult = new ArrayList<>(passengerSeatDetails.size());
+        // 乘车人员在单一车厢座位不满足，触发乘车人元分布在不同车厢
+        int count = carriagesNumberSeatsMap.values().stream().mapToInt(each -> each.length).sum();
+        if (CollUtil.isEmpty(carriagesNumberSeatsMap) || passengerSeatDetails.size() != count) {
+            return actualResult;
+        }
+        SeatLayout seatLayout = seatLayout();
+        for (Map.Entry<String, int[][]> entry : carriagesNumberSeatsMap.entrySet()) {
+            for (int[] ints : entry.getValue()) {
+                PurchaseTicketPassengerDetailDTO currentTicketPassenger = passengerSeatDetails.get(actualResult.size());
+                actualResult.add(buildPurchaseTicketResp(currentTicketPassenger, entry.getKey(), seatLayout.seatNumber(ints[0] - 1, ints[1] - 1)));
+            }
+        }
+        return actualResult;
+    }
+
+    private TrainPurchaseTicketRespDTO buildPurchaseTicketResp(PurchaseTicketPassengerDetailDTO passenger, String carriageNumber, String seatNumber) {
+        TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
+        result.setSeatNumber(seatNumber);
+        result.setSeatType(passenger.getSeatType());
+        result.setCarriageNumber(carriageNumber);
+        result.setPassengerId(passenger.getPassengerId());
+        return result;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        super.run(args);
+        seatService = ApplicationContextHolder.getBean(SeatService.class);
+    }
+}
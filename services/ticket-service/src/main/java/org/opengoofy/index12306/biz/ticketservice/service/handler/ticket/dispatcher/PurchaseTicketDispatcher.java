@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dispatcher;
+
+import org.opengoofy.index12306.biz.ticketservice.dto.req.PurchaseTicketReqDTO;
+import org.opengoofy.index12306.biz.ticketservice.dto.resp.TicketPurchaseRespDTO;
+
+import java.util.function.Function;
+
+/**
+ * 购票请求调度器，负责同一列车购票请求之间的互斥与排队
+ */
+public interface PurchaseTicketDispatcher {
+
+    /**
+     * 调度购票请求，在满足互斥的前提下执行购票逻辑
+     *
+     * @param requestParam   购票请求参数
+     * @param purchaseAction 实际购票逻辑
+     * @return 购票结果
+     */
+    TicketPurchaseRespDTO dispatch(PurchaseTicketReqDTO requestParam, Function<PurchaseTicketReqDTO, TicketPurchaseRespDTO> purchaseAction);
+}
@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dispatcher;
+
+import com.alibaba.ttl.TransmittableThreadLocal;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.PurchaseTicketPassengerDetailDTO;
+import org.opengoofy.index12306.biz.ticketservice.dto.req.PurchaseTicketReqDTO;
+import org.opengoofy.index12306.biz.ticketservice.dto.resp.TicketPurchaseRespDTO;
+import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.LOCK_PURCHASE_TICKETS_V2;
+
+/**
+ * 单写者购票请求调度器
+ * 列车按 ID 哈希路由到固定分片，每个分片由一个线程独占消费有界队列，批量取出请求后串行执行，
+ * 同一批次中同一列车只加一次分布式锁，避免大量线程在公平锁上排队交接；
+ * 分布式锁被其它节点持有时不阻塞分片线程，该列车请求暂存于分片内稍后重试，同分片其它列车照常处理
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "ticket.purchase.dispatcher.type", havingValue = "sequencer")
+public class SequencerPurchaseTicketDispatcher implements PurchaseTicketDispatcher, InitializingBean, DisposableBean {
+
+    private static final String SHUTDOWN_MESSAGE = "购票服务正在停止，请稍后再试";
+
+    /**
+     * 存在加锁失败暂存的请求时，分片线程重试加锁的间隔
+     */
+    private static final long LOCK_RETRY_INTERVAL_MILLIS = 5L;
+
+    private final RedissonClient redissonClient;
+    private final ConfigurableEnvironment environment;
+
+    /**
+     * 分片数量，即购票单写者线程数量
+     */
+    @Value("${ticket.purchase.dispatcher.shard-size:8}")
+    private Integer shardSize;
+
+    /**
+     * 每个分片排队请求上限，超出直接拒绝
+     */
+    @Value("${ticket.purchase.dispatcher.queue-capacity:1024}")
+    private Integer queueCapacity;
+
+    /**
+     * 单批次最多处理请求数量
+     */
+    @Value("${ticket.purchase.dispatcher.batch-size:64}")
+    private Integer batchSize;
+
+    /**
+     * 请求排队等待执行以及等待执行结果的超时时间
+     */
+    @Value("${ticket.purchase.dispatcher.timeout-millis:10000}")
+    private Long timeoutMillis;
+
+    private PurchaseShard[] shards;
+
+    private volatile boolean running = true;
+
+    @Override
+    public void afterPropertiesSet() {
+        shards = new PurchaseShard[shardSize];
+        for (int i = 0; i < shardSize; i++) {
+            PurchaseShard shard = new PurchaseShard(new ArrayBlockingQueue<>(queueCapacity));
+            Thread thread = new Thread(shard, "purchase-ticket-sequencer_" + i);
+            thread.setDaemon(true);
+            thread.start();
+            shards[i] = shard;
+        }
+    }
+
+    @Override
+    public TicketPurchaseRespDTO dispatch(PurchaseTicketReqDTO requestParam, Function<PurchaseTicketReqDTO, TicketPurchaseRespDTO> purchaseAction) {
+        if (!running) {
+            throw new ServiceException(SHUTDOWN_MESSAGE);
+        }
+        PurchaseTask purchaseTask = new PurchaseTask(requestParam, purchaseAction, TransmittableThreadLocal.Transmitter.capture(), new CompletableFuture<>(), new AtomicBoolean());
+        PurchaseShard shard = shards[(requestParam.getTrainId().hashCode() & Integer.MAX_VALUE) % shards.length];
+        if (!shard.queue.offer(purchaseTask)) {
+            throw new ServiceException("当前购票人数过多，请稍后再试");
+        }
+        if (!running) {
+            // 与停机并发入队时由调用方自行排空，避免请求滞留在已停止的分片中
+            failPendingTasks(shard.queue);
+        }
+        try {
+            return await(purchaseTask);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ServiceException(ex.getCause().getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("购票请求被中断，请稍后再试");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        for (PurchaseShard each : shards) {
+            failPendingTasks(each.queue);
+        }
+    }
+
+    private TicketPurchaseRespDTO await(PurchaseTask purchaseTask) throws ExecutionException, InterruptedException {
+        try {
+            return purchaseTask.future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ignored) {
+        }
+        // 尚未开始执行的请求直接取消，分片线程会跳过已取消的请求
+        if (purchaseTask.started.compareAndSet(false, true)) {
+            purchaseTask.future.completeExceptionally(new ServiceException("当前购票人数过多，请稍后再试"));
+            throw new ServiceException("当前购票人数过多，请稍后再试");
+        }
+        // 已开始执行的请求可能已经扣减座位，不能取消，再等待一个超时周期
+        try {
+            return purchaseTask.future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            log.error("[购票调度] 列车：{} 等待购票结果超时", purchaseTask.requestParam.getTrainId());
+            throw new ServiceException("购票结果确认超时，请稍后在订单列表中查看");
+        }
+    }
+
+    private void failPendingTasks(BlockingQueue<PurchaseTask> queue) {
+        List<PurchaseTask> pendingTasks = new ArrayList<>();
+        queue.drainTo(pendingTasks);
+        pendingTasks.forEach(each -> each.future.completeExceptionally(new ServiceException(SHUTDOWN_MESSAGE)));
+    }
+
+    @RequiredArgsConstructor
+    private final class PurchaseShard implements Runnable {
+
+        private final BlockingQueue<PurchaseTask> queue;
+
+        /**
+         * 加锁失败暂存的列车请求，仅由分片线程访问，Key 为列车 ID
+         */
+        private final Map<String, List<PurchaseTask>> deferredTaskMap = new LinkedHashMap<>();
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    try {
+                        long pollMillis = deferredTaskMap.isEmpty() ? TimeUnit.SECONDS.toMillis(1) : LOCK_RETRY_INTERVAL_MILLIS;
+                        PurchaseTask first = queue.poll(pollMillis, TimeUnit.MILLISECONDS);
+                        List<PurchaseTask> purchaseTasks = new ArrayList<>(batchSize);
+                        if (Objects.nonNull(first)) {
+                            purchaseTasks.add(first);
+                            queue.drainTo(purchaseTasks, batchSize - 1);
+                        }
+                        if (purchaseTasks.isEmpty() && deferredTaskMap.isEmpty()) {
+                            continue;
+                        }
+                        executeBatch(purchaseTasks);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Throwable ex) {
+                        log.error("[购票调度] 分片线程执行异常", ex);
+                    }
+                }
+            } finally {
+                deferredTaskMap.values().forEach(each -> each.forEach(task -> task.future.completeExceptionally(new ServiceException(SHUTDOWN_MESSAGE))));
+                deferredTaskMap.clear();
+            }
+        }
+
+        private void executeBatch(List<PurchaseTask> purchaseTasks) {
+            // 暂存请求先于新请求执行，保证同一列车请求按入队顺序处理
+            Map<String, List<PurchaseTask>> trainPurchaseTaskMap = new LinkedHashMap<>(deferredTaskMap);
+            deferredTaskMap.clear();
+            purchaseTasks.forEach(each -> trainPurchaseTaskMap.computeIfAbsent(each.requestParam.getTrainId(), key -> new ArrayList<>()).add(each));
+            trainPurchaseTaskMap.forEach((trainId, trainPurchaseTasks) -> {
+                // 调用方已超时取消的请求直接丢弃
+                trainPurchaseTasks.removeIf(each -> each.started.get());
+                if (!trainPurchaseTasks.isEmpty()) {
+                    executeTrainBatch(trainId, trainPurchaseTasks);
+                }
+            });
+        }
+
+        private void executeTrainBatch(String trainId, List<PurchaseTask> trainPurchaseTasks) {
+            // 与加锁调度器使用相同锁键，保证多节点以及混合部署时的互斥
+            List<RLock> distributedLockList = trainPurchaseTasks.stream()
+                    .flatMap(each -> each.requestParam.getPassengers().stream())
+                    .map(PurchaseTicketPassengerDetailDTO::getSeatType)
+                    .distinct()
+                    .sorted()
+                    .map(seatType -> redissonClient.getFairLock(environment.resolvePlaceholders(String.format(LOCK_PURCHASE_TICKETS_V2, trainId, seatType))))
+                    .toList();
+            List<RLock> acquiredLockList = new ArrayList<>(distributedLockList.size());
+            try {
+                for (RLock each : distributedLockList) {
+                    if (!each.tryLock()) {
+                        deferredTaskMap.put(trainId, trainPurchaseTasks);
+                        return;
+                    }
+                    acquiredLockList.add(each);
+                }
+                for (PurchaseTask each : trainPurchaseTasks) {
+                    if (!each.started.compareAndSet(false, true)) {
+                        continue;
+                    }
+                    // 回放调用方线程的用户上下文
+                    Object backup = TransmittableThreadLocal.Transmitter.replay(each.capturedContext);
+                    try {
+                        each.future.complete(each.purchaseAction.apply(each.requestParam));
+                    } catch (Throwable ex) {
+                        each.future.completeExceptionally(ex);
+                    } finally {
+                        TransmittableThreadLocal.Transmitter.restore(backup);
+                    }
+                }
+            } catch (Throwable ex) {
+                log.error("[购票调度] 列车：{} 批量购票获取分布式锁失败", trainId, ex);
+                trainPurchaseTasks.forEach(each -> each.future.completeExceptionally(ex));
+            } finally {
+                acquiredLockList.forEach(each -> {
+                    try {
+                        each.unlock();
+                    } catch (Throwable ignored) {
+                    }
+                });
+            }
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class PurchaseTask {
+
+        private final PurchaseTicketReqDTO requestParam;
+        private final Function<PurchaseTicketReqDTO, TicketPurchaseRespDTO> purchaseAction;
+        private final Object capturedContext;
+        private final CompletableFuture<TicketPurchaseRespDTO> future;
+
+        /**
+         * 分片线程开始执行与调用方超时取消互斥
+         */
+        private final AtomicBoolean started;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 车厢座位布局描述
+ * 描述每种车型座位的排数、列号以及多人购票拆分规则，并预先计算每排 N 个相邻座位的位掩码
+ */
+public enum SeatLayout {
+
+    /**
+     * 复兴号-商务座，2 排，每排 A C F
+     */
+    TRAIN_BUSINESS_CLASS(2, "ACF", 3, 2),
+
+    /**
+     * 复兴号-一等座，7 排，每排 A C D F
+     */
+    TRAIN_FIRST_CLASS(7, "ACDF", 5, 2),
+
+    /**
+     * 复兴号-二等座，18 排，每排 A B C D F
+     */
+    TRAIN_SECOND_CLASS(18, "ABCDF", 6, 3);
+
+    /**
+     * 车厢座位排数
+     */
+    @Getter
+    private final int rowSize;
+
+    /**
+     * 每排座位列号，按从左到右顺序排列
+     */
+    private final char[] columns;
+
+    /**
+     * 乘车人数达到该值时按多组邻座拆分分配
+     */
+    @Getter
+    private final int complexThreshold;
+
+    /**
+     * 多人购票拆分时每组乘车人数
+     */
+    @Getter
+    private final int complexGroupSize;
+
+    /**
+     * 座位列号 -> 列下标
+     */
+    @Getter
+    private final Map<Character, Integer> columnIndexMap;
+
+    /**
+     * 整排座位均可售时的位掩码
+     */
+    @Getter
+    private final int fullRowMask;
+
+    /**
+     * 下标为相邻座位数量，值为该数量下从左到右所有可能的相邻座位位掩码
+     */
+    private final int[][] adjacentMasks;
+
+    SeatLayout(int rowSize, String columns, int complexThreshold, int complexGroupSize) {
+        this.rowSize = rowSize;
+        this.columns = columns.toCharArray();
+        this.complexThreshold = complexThreshold;
+        this.complexGroupSize = complexGroupSize;
+        int columnSize = this.columns.length;
+        Map<Character, Integer> actualColumnIndexMap = new HashMap<>(columnSize * 2);
+        for (int i = 0; i < columnSize; i++) {
+            actualColumnIndexMap.put(this.columns[i], i);
+        }
+        this.columnIndexMap = Collections.unmodifiableMap(actualColumnIndexMap);
+        this.fullRowMask = (1 << columnSize) - 1;
+        this.adjacentMasks = new int[columnSize + 1][];
+        for (int size = 1; size <= columnSize; size++) {
+            int[] masks = new int[columnSize - size + 1];
+            for (int start = 0; start + size <= columnSize; start++) {
+                masks[start] = ((1 << size) - 1) << start;
+            }
+            adjacentMasks[size] = masks;
+        }
+    }
+
+    public int getColumnSize() {
+        return columns.length;
+    }
+
+    /**
+     * 获取同一排相邻 size 个座位的全部位掩码，超出每排座位数返回空数组
+     */
+    public int[] adjacentMasks(int size) {
+        if (size <= 0 || size >= adjacentMasks.length) {
+            return new int[0];
+        }
+        return adjacentMasks[size];
+    }
+
+    /**
+     * 根据排号、列下标生成座位号，例如 0 排 0 列为 01A
+     *
+     * @param row    排下标，从 0 开始
+     * @param column 列下标，从 0 开始
+     * @return 座位号
+     */
+    public String seatNumber(int row, int column) {
+        int actualRow = row + 1;
+        return (actualRow <= 9 ? "0" + actualRow : String.valueOf(actualRow)) + columns[column];
+    }
+
+    /**
+     * 解析座位号为 [排下标, 列下标]，座位号不属于当前布局返回 null
+     */
+    public int[] parseSeatNumber(String seatNumber) {
+        if (seatNumber == null || seatNumber.length() < 2) {
+            return null;
+        }
+        Integer column = columnIndexMap.get(seatNumber.charAt(seatNumber.length() - 1));
+        if (column == null) {
+            return null;
+        }
+        int row;
+        try {
+            row = Integer.parseInt(seatNumber.substring(0, seatNumber.length() - 1)) - 1;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+        if (row < 0 || row >= rowSize) {
+            return null;
+        }
+        return new int[]{row, column};
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 车厢座位位图矩阵
+ * 每排座位使用一个 int 表示，第 i 位为 1 代表该排第 i 列座位可售
+ */
+public final class SeatMatrix {
+
+    @Getter
+    private final SeatLayout layout;
+
+    private final int[] rows;
+
+    private SeatMatrix(SeatLayout layout, int[] rows) {
+        this.layout = layout;
+        this.rows = rows;
+    }
+
+    /**
+     * 根据车厢可售座位号构建座位矩阵
+     *
+     * @param layout         车厢座位布局
+     * @param availableSeats 可售座位号集合
+     * @return 座位矩阵
+     */
+    public static SeatMatrix of(SeatLayout layout, List<String> availableSeats) {
+        int[] rows = new int[layout.getRowSize()];
+        for (String each : availableSeats) {
+            int[] seat = layout.parseSeatNumber(each);
+            if (seat != null) {
+                rows[seat[0]] |= 1 << seat[1];
+            }
+        }
+        return new SeatMatrix(layout, rows);
+    }
+
+    public SeatMatrix copy() {
+        return new SeatMatrix(layout, rows.clone());
+    }
+
+    public boolean isAvailable(int row, int column) {
+        return (rows[row] & (1 << column)) != 0;
+    }
+
+    public void occupy(int row, int column) {
+        rows[row] &= ~(1 << column);
+    }
+
+    /**
+     * 标记座位已占用
+     *
+     * @param seats 座位集合，格式与 {@link #adjacent(int)} 返回值一致，排列均从 1 开始
+     */
+    public void occupy(int[][] seats) {
+        for (int[] each : seats) {
+            occupy(each[0] - 1, each[1] - 1);
+        }
+    }
+
+    /**
+     * 可售座位数量
+     */
+    public int availableCount() {
+        int count = 0;
+        for (int each : rows) {
+            count += Integer.bitCount(each);
+        }
+        return count;
+    }
+
+    /**
+     * 按排从前到后、每排从左到右查找同一排相邻的可售座位
+     *
+     * @param numSeats 座位数量
+     * @return 座位集合 [排, 列]，排列均从 1 开始；不存在返回 null
+     */
+    public int[][] adjacent(int numSeats) {
+        int[] masks = layout.adjacentMasks(numSeats);
+        for (int row = 0; row < rows.length; row++) {
+            int available = rows[row];
+            for (int start = 0; start < masks.length; start++) {
+                if ((available & masks[start]) == masks[start]) {
+                    int[][] result = new int[numSeats][2];
+                    for (int i = 0; i < numSeats; i++) {
+                        result[i][0] = row + 1;
+                        result[i][1] = start + i + 1;
+                    }
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按排从前到后、每排从左到右查找可售座位，不要求相邻
+     *
+     * @param numSeats 座位数量
+     * @return 座位集合 [排, 列]，排列均从 1 开始；可售座位不足时返回全部可售座位
+     */
+    public int[][] nonAdjacent(int numSeats) {
+        int[][] result = new int[Math.max(Math.min(numSeats, availableCount()), 0)][2];
+        int index = 0;
+        for (int row = 0; row < rows.length && index < result.length; row++) {
+            int available = rows[row];
+            while (available != 0 && index < result.length) {
+                int column = Integer.numberOfTrailingZeros(available);
+                available &= available - 1;
+                result[index][0] = row + 1;
+                result[index][1] = column + 1;
+                index++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 转换为二维数组，0 代表可售，1 代表不可售
+     */
+    public int[][] toArray() {
+        int columnSize = layout.getColumnSize();
+        int[][] result = new int[rows.length][columnSize];
+        for (int row = 0; row < rows.length; row++) {
+            for (int column = 0; column < columnSize; column++) {
+                result[row][column] = isAvailable(row, column) ? 0 : 1;
+            }
+        }
+        return result;
+    }
+}
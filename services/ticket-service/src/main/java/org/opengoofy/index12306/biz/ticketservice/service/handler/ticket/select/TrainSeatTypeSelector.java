@@ -18,50 +18,94 @@
 package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select;
 
 import cn.hutool.core.collection.CollUtil;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import cn.hutool.core.util.StrUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.opengoofy.index12306.biz.ticketservice.common.enums.VehicleSeatTypeEnum;
 import org.opengoofy.index12306.biz.ticketservice.common.enums.VehicleTypeEnum;
-import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainStationPriceDO;
-import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainStationPriceMapper;
 import org.opengoofy.index12306.biz.ticketservice.dto.domain.PurchaseTicketPassengerDetailDTO;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.RouteDTO;
 import org.opengoofy.index12306.biz.ticketservice.dto.req.PurchaseTicketReqDTO;
-import org.opengoofy.index12306.biz.ticketservice.remote.UserRemoteService;
 import org.opengoofy.index12306.biz.ticketservice.remote.dto.PassengerRespDTO;
 import org.opengoofy.index12306.biz.ticketservice.service.SeatService;
+import org.opengoofy.index12306.biz.ticketservice.service.TrainStationService;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.TrainStationPriceCacheLoader;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.UserPassengerCache;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.SelectSeatDTO;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.opengoofy.index12306.framework.starter.common.threadpool.build.ThreadPoolBuilder;
+import org.opengoofy.index12306.framework.starter.common.threadpool.support.scope.BoundedTaskScope;
 import org.opengoofy.index12306.framework.starter.convention.exception.RemoteException;
 import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
-import org.opengoofy.index12306.framework.starter.convention.result.Result;
 import org.opengoofy.index12306.framework.starter.designpattern.strategy.AbstractStrategyChoose;
 import org.opengoofy.index12306.frameworks.starter.user.core.UserContext;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_STATION_REMAINING_TICKET;
+
 /**
  * 购票时列车座位选择器
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public final class TrainSeatTypeSelector {
+public final class TrainSeatTypeSelector implements InitializingBean, DisposableBean {
 
     private final SeatService seatService;
-    private final UserRemoteService userRemoteService;
-    private final TrainStationPriceMapper trainStationPriceMapper;
+    private final UserPassengerCache userPassengerCache;
+    private final TrainStationPriceCacheLoader trainStationPriceCacheLoader;
     private final AbstractStrategyChoose abstractStrategyChoose;
     private final ThreadPoolExecutor selectSeatThreadPoolExecutor;
+    private final TrainStationService trainStationService;
+    private final DistributedCache distributedCache;
+
+    /**
+     * 座位分配执行器类型，virtual 代表每个座位类型使用一个虚拟线程分配，默认使用 Hippo4j 动态线程池
+     */
+    @Value("${ticket.select-seat.executor.type:}")
+    private String selectSeatExecutorType;
+
+    @Value("${ticket.availability.cache-update.type:}")
+    private String ticketAvailabilityCacheUpdateType;
+
+    private ExecutorService virtualSelectSeatExecutor;
+    private Executor selectSeatExecutor;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (Objects.equals(selectSeatExecutorType, "virtual")) {
+            virtualSelectSeatExecutor = ThreadPoolBuilder.virtualThreadPerTaskExecutor("select-seat_");
+            selectSeatExecutor = virtualSelectSeatExecutor;
+        } else {
+            selectSeatExecutor = selectSeatThreadPoolExecutor;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (virtualSelectSeatExecutor != null) {
+            virtualSelectSeatExecutor.shutdown();
+        }
+    }
 
     public List<TrainPurchaseTicketRespDTO> select(Integer trainType, PurchaseTicketReqDTO requestParam) {
         //初始化信息（）
@@ -71,22 +115,31 @@ public final class TrainSeatTypeSelector {
         List<TrainPurchaseTicketRespDTO> actualResult = new CopyOnWriteArrayList<>(); //创建线程安全的集合
         //启动多线程处理作为分配问题
         if (seatTypeMap.size() > 1) {
-            List<Future<List<TrainPurchaseTicketRespDTO>>> futureResults = new ArrayList<>();
-            seatTypeMap.forEach((seatType, passengerSeatDetails) -> {
-                // 线程池参数如何设置？
-                Future<List<TrainPurchaseTicketRespDTO>> completableFuture = selectSeatThreadPoolExecutor
-                        //lambda表达式处理座位分配
-                        .submit(() -> distributeSeats(trainType, seatType, requestParam, passengerSeatDetails));
-                futureResults.add(completableFuture);
-            });
-            // 并行流极端情况下有坑，
-            futureResults.parallelStream().forEach(completableFuture -> {
+            // 有界结构化并发分配不同座位类型，分配成功时已扣减站点余票缓存，子任务不能中途取消；
+            // 等待全部座位类型分配结束，任一座位类型分配失败时回滚其余座位类型已扣减的余票
+            List<List<TrainPurchaseTicketRespDTO>> succeededResults = new ArrayList<>();
+            boolean failed = false;
+            try (BoundedTaskScope<List<TrainPurchaseTicketRespDTO>> scope = new BoundedTaskScope<>(selectSeatExecutor, seatTypeMap.size())) {
                 try {
-                    actualResult.addAll(completableFuture.get());
-                } catch (Exception e) {
-                    throw new ServiceException("站点余票不足，请尝试更换座位类型或选择其它站点");
+                    for (Map.Entry<Integer, List<PurchaseTicketPassengerDetailDTO>> entry : seatTypeMap.entrySet()) {
+                        scope.fork(() -> distributeSeats(trainType, entry.getKey(), requestParam, entry.getValue()));
+                    }
+                } catch (Exception ex) {
+                    failed = true;
                 }
-            });
+                for (Future<List<TrainPurchaseTicketRespDTO>> each : scope.joinAll()) {
+                    try {
+                        succeededResults.add(each.get());
+                    } catch (InterruptedException | ExecutionException ex) {
+                        failed = true;
+                    }
+                }
+            }
+            if (failed) {
+                succeededResults.forEach(each -> rollbackRemainingTicket(requestParam, each));
+                throw new ServiceException("站点余票不足，请尝试更换座位类型或选择其它站点");
+            }
+            succeededResults.forEach(actualResult::addAll);
         } else {
             //单线程处理
             seatTypeMap.forEach((seatType, passengerSeatDetails) -> {
@@ -102,15 +155,10 @@ public final class TrainSeatTypeSelector {
         List<String> passengerIds = actualResult.stream()
                 .map(TrainPurchaseTicketRespDTO::getPassengerId)
                 .collect(Collectors.toList());
-        //通过远程服务获取乘客详细信息。
-        Result<List<PassengerRespDTO>> passengerRemoteResult;
+        //通过本地乘车人缓存获取乘客详细信息，缓存缺失时远程调用用户服务
         List<PassengerRespDTO> passengerRemoteResultList;
         try {
-            //发起http请求获取乘客列表
-            passengerRemoteResult = userRemoteService.listPassengerQueryByIds(UserContext.getUsername(), passengerIds);
-            if (!passengerRemoteResult.isSuccess() || CollUtil.isEmpty(passengerRemoteResultList = passengerRemoteResult.getData())) {
-                throw new RemoteException("用户服务远程调用查询乘车人相关信息错误");
-            }
+            passengerRemoteResultList = userPassengerCache.listPassengerQueryByIds(UserContext.getUsername(), passengerIds);
         } catch (Throwable ex) {
             if (ex instanceof RemoteException) {
                 log.error("用户服务远程调用查询乘车人相关信息错误，当前用户：{}，请求参数：{}", UserContext.getUsername(), passengerIds);
@@ -120,12 +168,13 @@ public final class TrainSeatTypeSelector {
             }
             throw ex;
         }
-        //填充乘客详细信息与票价查询
+        Map<String, PassengerRespDTO> passengerMap = passengerRemoteResultList.stream()
+                .collect(Collectors.toMap(PassengerRespDTO::getId, Function.identity(), (o1, o2) -> o1));
+        //填充乘客详细信息与票价查询，票价只与列车、区间和席别相关，整单共用一张票价表
+        Map<Integer, Integer> priceTable = trainStationPriceCacheLoader.loadPriceTable(requestParam.getTrainId(), requestParam.getDeparture(), requestParam.getArrival());
         actualResult.forEach(each -> {
             String passengerId = each.getPassengerId();
-            passengerRemoteResultList.stream()
-                    .filter(item -> Objects.equals(item.getId(), passengerId))
-                    .findFirst()
+            Optional.ofNullable(passengerMap.get(passengerId))
                     .ifPresent(passenger -> {
                         each.setIdCard(passenger.getIdCard());
                         each.setPhone(passenger.getPhone());
@@ -133,14 +182,11 @@ public final class TrainSeatTypeSelector {
                         each.setIdType(passenger.getIdType());
                         each.setRealName(passenger.getRealName());
                     });
-            LambdaQueryWrapper<TrainStationPriceDO> lambdaQueryWrapper = Wrappers.lambdaQuery(TrainStationPriceDO.class)
-                    .eq(TrainStationPriceDO::getTrainId, requestParam.getTrainId())
-                    .eq(TrainStationPriceDO::getDeparture, requestParam.getDeparture())
-                    .eq(TrainStationPriceDO::getArrival, requestParam.getArrival())
-                    .eq(TrainStationPriceDO::getSeatType, each.getSeatType())
-                    .select(TrainStationPriceDO::getPrice);
-            TrainStationPriceDO trainStationPriceDO = trainStationPriceMapper.selectOne(lambdaQueryWrapper);
-            each.setAmount(trainStationPriceDO.getPrice());
+            Integer price = priceTable.get(each.getSeatType());
+            if (price == null) {
+                throw new ServiceException("列车席别票价不存在");
+            }
+            each.setAmount(price);
         });
         // 购买列车中间站点余票如何更新
         //锁定已分配的座位，防止超卖。
@@ -148,6 +194,27 @@ public final class TrainSeatTypeSelector {
         return actualResult;
     }
 
+    /**
+     * 回滚单个座位类型分配成功时扣减的站点余票缓存，与 {@code AbstractTrainPurchaseTicketTemplate#executeResp} 的扣减对应
+     */
+    private void rollbackRemainingTicket(PurchaseTicketReqDTO requestParam, List<TrainPurchaseTicketRespDTO> seatTypeResult) {
+        if (CollUtil.isEmpty(seatTypeResult) || StrUtil.equals(ticketAvailabilityCacheUpdateType, "binlog")) {
+            return;
+        }
+        String trainId = requestParam.getTrainId();
+        String seatType = String.valueOf(seatTypeResult.get(0).getSeatType());
+        try {
+            StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+            List<RouteDTO> routeDTOList = trainStationService.listTakeoutTrainStationRoute(trainId, requestParam.getDeparture(), requestParam.getArrival());
+            routeDTOList.forEach(each -> {
+                String keySuffix = StrUtil.join("_", trainId, each.getStartStation(), each.getEndStation());
+                stringRedisTemplate.opsForHash().increment(TRAIN_STATION_REMAINING_TICKET + keySuffix, seatType, seatTypeResult.size());
+            });
+        } catch (Throwable ex) {
+            log.error("[座位分配] 列车：{} 座位类型：{} 回滚站点余票缓存失败", trainId, seatType, ex);
+        }
+    }
+
     /**
      * 根据列车类型、座位类型、购票请求参数以及乘客座位详情，分配座位并返回购票响应信息。
      */
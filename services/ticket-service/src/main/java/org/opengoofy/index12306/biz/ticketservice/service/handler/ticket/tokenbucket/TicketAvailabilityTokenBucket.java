@@ -38,26 +38,35 @@ import org.opengoofy.index12306.biz.ticketservice.service.TrainStationService;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TokenResultDTO;
 import org.opengoofy.index12306.framework.starter.bases.Singleton;
 import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.opengoofy.index12306.framework.starter.common.threadpool.build.ThreadFactoryBuilder;
 import org.opengoofy.index12306.framework.starter.common.toolkit.Assert;
 import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.scripting.support.ResourceScriptSource;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.opengoofy.index12306.biz.ticketservice.common.constant.Index12306Constant.ADVANCE_TICKET_DAY;
 import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.LOCK_TICKET_AVAILABILITY_TOKEN_BUCKET;
 import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TICKET_AVAILABILITY_TOKEN_BUCKET;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TICKET_AVAILABILITY_TOKEN_LEASE_RECLAIM;
 import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_INFO;
 
 /**
@@ -66,7 +75,7 @@ import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKe
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public final class TicketAvailabilityTokenBucket {
+public final class TicketAvailabilityTokenBucket implements InitializingBean, DisposableBean {
 
     private final TrainStationService trainStationService;
     private final DistributedCache distributedCache;
@@ -76,6 +85,38 @@ public final class TicketAvailabilityTokenBucket {
 
     private static final String LUA_TICKET_AVAILABILITY_TOKEN_BUCKET_PATH = "lua/ticket_availability_token_bucket.lua";
     private static final String LUA_TICKET_AVAILABILITY_ROLLBACK_TOKEN_BUCKET_PATH = "lua/ticket_availability_rollback_token_bucket.lua";
+    private static final String LUA_TICKET_AVAILABILITY_LEASE_TOKEN_BUCKET_PATH = "lua/ticket_availability_lease_token_bucket.lua";
+    private static final String LUA_TICKET_AVAILABILITY_RELEASE_LEASE_TOKEN_BUCKET_PATH = "lua/ticket_availability_release_lease_token_bucket.lua";
+    private static final String TOKEN_BUCKET_GENERATION_FIELD = "generation";
+    private static final long TOKEN_LEASE_RECLAIM_SECONDS = 3L;
+
+    /**
+     * 令牌获取方式，lease 代表各节点预先租用一段令牌并在本地扣减，默认每次请求直接扣减 Redis 令牌桶
+     */
+    @Value("${ticket.availability.token-bucket.type:}")
+    private String tokenBucketType;
+
+    /**
+     * 每次从令牌桶额外租用的令牌数量
+     */
+    @Value("${ticket.availability.token-bucket.lease-size:20}")
+    private int tokenLeaseSize;
+
+    /**
+     * 租约空闲多久后归还令牌桶，单位秒
+     */
+    @Value("${ticket.availability.token-bucket.lease-idle-seconds:5}")
+    private long tokenLeaseIdleSeconds;
+
+    /**
+     * 列车ID_出发站_到达站_座位类型 -> 本地令牌租约
+     */
+    private final Map<String, TicketAvailabilityTokenLease> tokenLeaseMap = new ConcurrentHashMap<>();
+
+    /**
+     * 租约归还线程，仅租约模式下创建
+     */
+    private ScheduledExecutorService leaseReleaseExecutor;
 
     /**
      * 获取车站间令牌桶中的令牌访问
@@ -86,40 +127,11 @@ public final class TicketAvailabilityTokenBucket {
      * @return 是否获取列车车票余量令牌桶中的令牌返回结果
      */
     public TokenResultDTO takeTokenFromBucket(PurchaseTicketReqDTO requestParam) {
-        TrainDO trainDO = distributedCache.safeGet(
-                TRAIN_INFO + requestParam.getTrainId(),
-                TrainDO.class,
-                () -> trainMapper.selectById(requestParam.getTrainId()),
-                ADVANCE_TICKET_DAY,
-                TimeUnit.DAYS);
-        List<RouteDTO> routeDTOList = trainStationService
-                .listTrainStationRoute(requestParam.getTrainId(), trainDO.getStartStation(), trainDO.getEndStation());
-        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
-        String tokenBucketHashKey = TICKET_AVAILABILITY_TOKEN_BUCKET + requestParam.getTrainId();
-        Boolean hasKey = distributedCache.hasKey(tokenBucketHashKey);
-        if (!hasKey) {
-            RLock lock = redissonClient.getLock(String.format(LOCK_TICKET_AVAILABILITY_TOKEN_BUCKET, requestParam.getTrainId()));
-            if (!lock.tryLock()) {
-                throw new ServiceException("购票异常，请稍候再试");
-            }
-            try {
-                Boolean hasKeyTwo = distributedCache.hasKey(tokenBucketHashKey);
-                if (!hasKeyTwo) {
-                    List<Integer> seatTypes = VehicleTypeEnum.findSeatTypesByCode(trainDO.getTrainType());
-                    Map<String, String> ticketAvailabilityTokenMap = new HashMap<>();
-                    for (RouteDTO each : routeDTOList) {
-                        List<SeatTypeCountDTO> seatTypeCountDTOList = seatService.listSeatTypeCount(Long.parseLong(requestParam.getTrainId()), each.getStartStation(), each.getEndStation(), seatTypes);
-                        for (SeatTypeCountDTO eachSeatTypeCountDTO : seatTypeCountDTOList) {
-                            String buildCacheKey = StrUtil.join("_", each.getStartStation(), each.getEndStation(), eachSeatTypeCountDTO.getSeatType());
-                            ticketAvailabilityTokenMap.put(buildCacheKey, String.valueOf(eachSeatTypeCountDTO.getSeatCount()));
-                        }
-                    }
-                    stringRedisTemplate.opsForHash().putAll(TICKET_AVAILABILITY_TOKEN_BUCKET + requestParam.getTrainId(), ticketAvailabilityTokenMap);
-                }
-            } finally {
-                lock.unlock();
-            }
+        if (StrUtil.equals(tokenBucketType, "lease")) {
+            return takeTokenFromLease(requestParam);
         }
+        String tokenBucketHashKey = loadTokenBucketIfAbsent(requestParam.getTrainId());
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
         DefaultRedisScript<String> actual = Singleton.get(LUA_TICKET_AVAILABILITY_TOKEN_BUCKET_PATH, () -> {
             DefaultRedisScript<String> redisScript = new DefaultRedisScript<>();
             redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource(LUA_TICKET_AVAILABILITY_TOKEN_BUCKET_PATH)));
@@ -147,6 +159,212 @@ public final class TicketAvailabilityTokenBucket {
                 : result;
     }
 
+    /**
+     * 令牌桶不存在时从数据库加载列车沿途站点余票作为令牌
+     *
+     * @param trainId 列车 ID
+     * @return 令牌桶 Key
+     */
+    private String loadTokenBucketIfAbsent(String trainId) {
+        String tokenBucketHashKey = TICKET_AVAILABILITY_TOKEN_BUCKET + trainId;
+        Boolean hasKey = distributedCache.hasKey(tokenBucketHashKey);
+        if (hasKey) {
+            return tokenBucketHashKey;
+        }
+        RLock lock = redissonClient.getLock(String.format(LOCK_TICKET_AVAILABILITY_TOKEN_BUCKET, trainId));
+        if (!lock.tryLock()) {
+            throw new ServiceException("购票异常，请稍候再试");
+        }
+        try {
+            Boolean hasKeyTwo = distributedCache.hasKey(tokenBucketHashKey);
+            if (!hasKeyTwo) {
+                TrainDO trainDO = distributedCache.safeGet(
+                        TRAIN_INFO + trainId,
+                        TrainDO.class,
+                        () -> trainMapper.selectById(trainId),
+                        ADVANCE_TICKET_DAY,
+                        TimeUnit.DAYS);
+                List<RouteDTO> routeDTOList = trainStationService
+                        .listTrainStationRoute(trainId, trainDO.getStartStation(), trainDO.getEndStation());
+                List<Integer> seatTypes = VehicleTypeEnum.findSeatTypesByCode(trainDO.getTrainType());
+                Map<String, String> ticketAvailabilityTokenMap = new HashMap<>();
+                for (RouteDTO each : routeDTOList) {
+                    List<SeatTypeCountDTO> seatTypeCountDTOList = seatService.listSeatTypeCount(Long.parseLong(trainId), each.getStartStation(), each.getEndStation(), seatTypes);
+                    for (SeatTypeCountDTO eachSeatTypeCountDTO : seatTypeCountDTOList) {
+                        String buildCacheKey = StrUtil.join("_", each.getStartStation(), each.getEndStation(), eachSeatTypeCountDTO.getSeatType());
+                        ticketAvailabilityTokenMap.put(buildCacheKey, String.valueOf(eachSeatTypeCountDTO.getSeatCount()));
+                    }
+                }
+                ticketAvailabilityTokenMap.put(TOKEN_BUCKET_GENERATION_FIELD, String.valueOf(System.currentTimeMillis()));
+                StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+                stringRedisTemplate.opsForHash().putAll(tokenBucketHashKey, ticketAvailabilityTokenMap);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return tokenBucketHashKey;
+    }
+
+    /**
+     * 租约模式获取令牌：优先扣减当前节点本地租约，本地租约不足时再从令牌桶预先扣减一段令牌
+     * 多个座位类型任意一个获取失败时，已获取的令牌放回本地租约，并通知其它节点尽快归还该区间租约
+     * 本地租约的令牌在租用时已扣减全部重叠区间，使用租约等同于直接扣减令牌桶，订单取消或关闭时按重叠区间回滚
+     */
+    private TokenResultDTO takeTokenFromLease(PurchaseTicketReqDTO requestParam) {
+        Map<Integer, Long> seatTypeCountMap = requestParam.getPassengers().stream()
+                .collect(Collectors.groupingBy(PurchaseTicketPassengerDetailDTO::getSeatType, Collectors.counting()));
+        Map<Integer, String> leaseGenerationMap = new HashMap<>();
+        Map<Integer, String> bucketGenerationMap = new HashMap<>();
+        List<String> tokenIsNullSeatTypeCounts = new ArrayList<>();
+        for (Map.Entry<Integer, Long> entry : seatTypeCountMap.entrySet()) {
+            int count = entry.getValue().intValue();
+            String leaseKey = buildLeaseKey(requestParam.getTrainId(), requestParam.getDeparture(), requestParam.getArrival(), entry.getKey());
+            TicketAvailabilityTokenLease lease = tokenLeaseMap.get(leaseKey);
+            if (lease != null && lease.tryAcquire(count)) {
+                leaseGenerationMap.put(entry.getKey(), lease.getGeneration());
+                continue;
+            }
+            String generation = acquireLeaseFromBucket(requestParam, entry.getKey(), count);
+            if (generation != null) {
+                bucketGenerationMap.put(entry.getKey(), generation);
+            } else {
+                tokenIsNullSeatTypeCounts.add(entry.getKey() + "_" + count);
+            }
+        }
+        if (tokenIsNullSeatTypeCounts.isEmpty()) {
+            return TokenResultDTO.builder().tokenIsNull(Boolean.FALSE).build();
+        }
+        leaseGenerationMap.forEach((seatType, generation) -> depositLease(
+                requestParam.getTrainId(),
+                requestParam.getDeparture(),
+                requestParam.getArrival(),
+                seatType,
+                generation,
+                seatTypeCountMap.get(seatType).intValue()));
+        bucketGenerationMap.forEach((seatType, generation) -> releaseLease(
+                new TicketAvailabilityTokenLease(requestParam.getTrainId(), requestParam.getDeparture(), requestParam.getArrival(), seatType, generation),
+                seatTypeCountMap.get(seatType).intValue()));
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        tokenIsNullSeatTypeCounts.forEach(each -> {
+            Integer seatType = Integer.parseInt(each.split("_")[0]);
+            String leaseKey = buildLeaseKey(requestParam.getTrainId(), requestParam.getDeparture(), requestParam.getArrival(), seatType);
+            stringRedisTemplate.opsForValue().set(TICKET_AVAILABILITY_TOKEN_LEASE_RECLAIM + leaseKey, "1", TOKEN_LEASE_RECLAIM_SECONDS, TimeUnit.SECONDS);
+        });
+        return TokenResultDTO.builder()
+                .tokenIsNull(Boolean.TRUE)
+                .tokenIsNullSeatTypeCounts(tokenIsNullSeatTypeCounts)
+                .build();
+    }
+
+    /**
+     * 从令牌桶扣减本次购票的 count 个令牌，另额外扣减不超过租约大小的令牌存入本地租约，所有重叠区间同时扣减；
+     * 额外扣减数量受全部重叠区间余量限制，任一重叠区间余量不足时按该区间实际余量扣减
+     *
+     * @return 令牌桶版本，令牌桶余量小于 count 返回 null
+     */
+    private String acquireLeaseFromBucket(PurchaseTicketReqDTO requestParam, Integer seatType, int count) {
+        String tokenBucketHashKey = loadTokenBucketIfAbsent(requestParam.getTrainId());
+        DefaultRedisScript<String> actual = Singleton.get(LUA_TICKET_AVAILABILITY_LEASE_TOKEN_BUCKET_PATH, () -> {
+            DefaultRedisScript<String> redisScript = new DefaultRedisScript<>();
+            redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource(LUA_TICKET_AVAILABILITY_LEASE_TOKEN_BUCKET_PATH)));
+            redisScript.setResultType(String.class);
+            return redisScript;
+        });
+        Assert.notNull(actual);
+        List<RouteDTO> takeoutRouteDTOList = trainStationService
+                .listTakeoutTrainStationRoute(requestParam.getTrainId(), requestParam.getDeparture(), requestParam.getArrival());
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        String luaScriptKey = StrUtil.join("_", requestParam.getDeparture(), requestParam.getArrival());
+        String resultStr = stringRedisTemplate.execute(
+                actual,
+                Lists.newArrayList(tokenBucketHashKey, luaScriptKey),
+                String.valueOf(seatType),
+                String.valueOf(count),
+                String.valueOf(tokenLeaseSize),
+                JSON.toJSONString(takeoutRouteDTOList));
+        JSONObject result = JSON.parseObject(resultStr);
+        int grantCount = result == null ? 0 : result.getIntValue("grant");
+        if (grantCount < count) {
+            return null;
+        }
+        String generation = result.getString("generation");
+        if (grantCount > count) {
+            depositLease(requestParam.getTrainId(), requestParam.getDeparture(), requestParam.getArrival(), seatType, generation, grantCount - count);
+        }
+        return generation;
+    }
+
+    private void depositLease(String trainId, String departure, String arrival, Integer seatType, String generation, int count) {
+        tokenLeaseMap.compute(buildLeaseKey(trainId, departure, arrival, seatType), (key, lease) -> {
+            if (lease == null || !Objects.equals(lease.getGeneration(), generation)) {
+                lease = new TicketAvailabilityTokenLease(trainId, departure, arrival, seatType, generation);
+            }
+            lease.deposit(count);
+            return lease;
+        });
+    }
+
+    /**
+     * 归还空闲或被其它节点请求回收的租约
+     */
+    private void releaseIdleLeases() {
+        if (tokenLeaseMap.isEmpty()) {
+            return;
+        }
+        List<String> leaseKeys = new ArrayList<>(tokenLeaseMap.keySet());
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        List<String> reclaimFlags = stringRedisTemplate.opsForValue().multiGet(
+                leaseKeys.stream().map(each -> TICKET_AVAILABILITY_TOKEN_LEASE_RECLAIM + each).toList());
+        long expireTime = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(tokenLeaseIdleSeconds);
+        for (int i = 0; i < leaseKeys.size(); i++) {
+            boolean reclaim = reclaimFlags != null && reclaimFlags.get(i) != null;
+            TicketAvailabilityTokenLease[] releasedLease = new TicketAvailabilityTokenLease[1];
+            int[] releasedCount = new int[1];
+            tokenLeaseMap.computeIfPresent(leaseKeys.get(i), (key, lease) -> {
+                if (!reclaim && lease.getLastAccessTime() > expireTime) {
+                    return lease;
+                }
+                releasedLease[0] = lease;
+                releasedCount[0] = lease.drain();
+                return null;
+            });
+            if (releasedCount[0] > 0) {
+                releaseLease(releasedLease[0], releasedCount[0]);
+            }
+        }
+    }
+
+    /**
+     * 归还令牌到令牌桶，租约令牌租用时已扣减全部重叠区间，按重叠区间归还
+     */
+    private void releaseLease(TicketAvailabilityTokenLease lease, int count) {
+        DefaultRedisScript<Long> actual = Singleton.get(LUA_TICKET_AVAILABILITY_RELEASE_LEASE_TOKEN_BUCKET_PATH, () -> {
+            DefaultRedisScript<Long> redisScript = new DefaultRedisScript<>();
+            redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource(LUA_TICKET_AVAILABILITY_RELEASE_LEASE_TOKEN_BUCKET_PATH)));
+            redisScript.setResultType(Long.class);
+            return redisScript;
+        });
+        Assert.notNull(actual);
+        try {
+            List<RouteDTO> routeDTOList = trainStationService.listTakeoutTrainStationRoute(lease.getTrainId(), lease.getDeparture(), lease.getArrival());
+            StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+            stringRedisTemplate.execute(
+                    actual,
+                    Lists.newArrayList(TICKET_AVAILABILITY_TOKEN_BUCKET + lease.getTrainId()),
+                    String.valueOf(lease.getSeatType()),
+                    String.valueOf(count),
+                    lease.getGeneration(),
+                    JSON.toJSONString(routeDTOList));
+        } catch (Throwable ex) {
+            log.error("归还列车余票令牌租约失败，列车ID：{}，出发站：{}，到达站：{}，座位类型：{}，数量：{}",
+                    lease.getTrainId(), lease.getDeparture(), lease.getArrival(), lease.getSeatType(), count, ex);
+        }
+    }
+
+    private static String buildLeaseKey(String trainId, String departure, String arrival, Integer seatType) {
+        return StrUtil.join("_", trainId, departure, arrival, seatType);
+    }
+
     /**
      * 回滚列车余量令牌，一般为订单取消或长时间未支付触发
      *
@@ -191,6 +409,8 @@ public final class TicketAvailabilityTokenBucket {
         StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
         String tokenBucketHashKey = TICKET_AVAILABILITY_TOKEN_BUCKET + requestParam.getTrainId();
         stringRedisTemplate.delete(tokenBucketHashKey);
+        String leaseKeyPrefix = requestParam.getTrainId() + "_";
+        tokenLeaseMap.keySet().removeIf(each -> each.startsWith(leaseKeyPrefix));
     }
 
     public void putTokenInBucket() {
@@ -200,4 +420,39 @@ public final class TicketAvailabilityTokenBucket {
     public void initializeTokens() {
 
     }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (StrUtil.equals(tokenBucketType, "lease")) {
+            leaseReleaseExecutor = Executors.newSingleThreadScheduledExecutor(ThreadFactoryBuilder.builder()
+                    .prefix("ticket-token-lease-release")
+                    .daemon(true)
+                    .build());
+            leaseReleaseExecutor.scheduleWithFixedDelay(() -> {
+                try {
+                    releaseIdleLeases();
+                } catch (Throwable ex) {
+                    log.error("归还列车余票令牌租约异常", ex);
+                }
+            }, 1, 1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (leaseReleaseExecutor == null) {
+            return;
+        }
+        leaseReleaseExecutor.shutdownNow();
+        // 节点下线时归还全部本地租约，避免令牌长时间被占用
+        new ArrayList<>(tokenLeaseMap.keySet()).forEach(each -> {
+            TicketAvailabilityTokenLease lease = tokenLeaseMap.remove(each);
+            if (lease != null) {
+                int count = lease.drain();
+                if (count > 0) {
+                    releaseLease(lease, count);
+                }
+            }
+        });
+    }
 }
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.tokenbucket;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 列车车票余量令牌租约，当前节点从令牌桶中预先扣减的一段令牌
+ */
+@Getter
+public final class TicketAvailabilityTokenLease {
+
+    /**
+     * 列车 ID
+     */
+    private final String trainId;
+
+    /**
+     * 出发站点
+     */
+    private final String departure;
+
+    /**
+     * 到达站点
+     */
+    private final String arrival;
+
+    /**
+     * 座位类型
+     */
+    private final Integer seatType;
+
+    /**
+     * 令牌桶版本，令牌桶重建后旧租约不允许归还
+     */
+    private final String generation;
+
+    /**
+     * 本地剩余令牌数量
+     */
+    private final AtomicInteger remaining = new AtomicInteger();
+
+    /**
+     * 最近一次访问时间
+     */
+    private volatile long lastAccessTime = System.currentTimeMillis();
+
+    public TicketAvailabilityTokenLease(String trainId, String departure, String arrival, Integer seatType, String generation) {
+        this.trainId = trainId;
+        this.departure = departure;
+        this.arrival = arrival;
+        this.seatType = seatType;
+        this.generation = generation;
+    }
+
+    /**
+     * 尝试从本地租约扣减令牌
+     *
+     * @param count 扣减数量
+     * @return 是否扣减成功
+     */
+    public boolean tryAcquire(int count) {
+        lastAccessTime = System.currentTimeMillis();
+        int current;
+        do {
+            current = remaining.get();
+            if (current < count) {
+                return false;
+            }
+        } while (!remaining.compareAndSet(current, current - count));
+        return true;
+    }
+
+    /**
+     * 向本地租约存入令牌
+     */
+    public void deposit(int count) {
+        lastAccessTime = System.currentTimeMillis();
+        remaining.addAndGet(count);
+    }
+
+    /**
+     * 清空本地租约并返回清空前的令牌数量
+     */
+    public int drain() {
+        return remaining.getAndSet(0);
+    }
+}
@@ -20,10 +20,10 @@ package org.opengoofy.index12306.biz.ticketservice.service.impl;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.opengoofy.index12306.biz.ticketservice.common.enums.SeatStatusEnum;
 import org.opengoofy.index12306.biz.ticketservice.dao.entity.SeatDO;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.SeatMapper;
@@ -32,12 +32,26 @@ import org.opengoofy.index12306.biz.ticketservice.dto.domain.SeatTypeCountDTO;
 import org.opengoofy.index12306.biz.ticketservice.service.SeatService;
 import org.opengoofy.index12306.biz.ticketservice.service.TrainStationService;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.inventory.SeatInventoryManager;
+import org.opengoofy.index12306.biz.ticketservice.service.inventory.TrainSeatInventory;
 import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.opengoofy.index12306.framework.starter.common.threadpool.build.ThreadFactoryBuilder;
+import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_STATION_CARRIAGE_REMAINING_TICKET;
@@ -45,16 +59,39 @@ import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKe
 /**
  * 座位接口层实现
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
-public class SeatServiceImpl extends ServiceImpl<SeatMapper, SeatDO> implements SeatService {
+public class SeatServiceImpl extends ServiceImpl<SeatMapper, SeatDO> implements SeatService, InitializingBean, DisposableBean {
+
+    /**
+     * 座位状态写回数据库最大尝试次数，重试在写回线程内同步等待，保证同一座位的锁定与释放不会乱序
+     */
+    private static final int WRITE_BEHIND_MAX_ATTEMPTS = 5;
+
+    private static final long WRITE_BEHIND_INITIAL_BACKOFF_MILLIS = 200L;
+
+    private static final long WRITE_BEHIND_SHUTDOWN_TIMEOUT_SECONDS = 30L;
 
     private final SeatMapper seatMapper;
     private final TrainStationService trainStationService;
     private final DistributedCache distributedCache;
+    private final SeatInventoryManager seatInventoryManager;
+
+    /**
+     * 座位区段位图库存写回数据库线程，单线程保证同一座位的锁定与释放按提交顺序落库，仅位图库存模式创建
+     */
+    private ExecutorService seatInventoryWriteBehindExecutor;
+
+    @Value("${ticket.seat-inventory.type:}")
+    private String seatInventoryType;
 
     @Override
     public List<String> listAvailableSeat(String trainId, String carriageNumber, Integer seatType, String departure, String arrival) {
+        if (isBitmapInventory()) {
+            TrainSeatInventory inventory = seatInventoryManager.getInventory(trainId);
+            return inventory.listAvailableSeat(carriageNumber, seatType, inventory.intervalMask(departure, arrival));
+        }
         LambdaQueryWrapper<SeatDO> queryWrapper = Wrappers.lambdaQuery(SeatDO.class)
                 .eq(SeatDO::getTrainId, trainId)
                 .eq(SeatDO::getCarriageNumber, carriageNumber)
@@ -78,6 +115,10 @@ public class SeatServiceImpl extends ServiceImpl<SeatMapper, SeatDO> implements
      */
     @Override
     public List<Integer> listSeatRemainingTicket(String trainId, String departure, String arrival, List<String> trainCarriageList) {
+        if (isBitmapInventory()) {
+            TrainSeatInventory inventory = seatInventoryManager.getInventory(trainId);
+            return inventory.listCarriageRemainingTicket(trainCarriageList, inventory.intervalMask(departure, arrival));
+        }
         // 构建缓存键后缀：列车ID_出发站_到达站
         String keySuffix = StrUtil.join("_", trainId, departure, arrival);
     
@@ -120,6 +161,10 @@ public class SeatServiceImpl extends ServiceImpl<SeatMapper, SeatDO> implements
      */
     @Override
     public List<String> listUsableCarriageNumber(String trainId, Integer carriageType, String departure, String arrival) {
+        if (isBitmapInventory()) {
+            TrainSeatInventory inventory = seatInventoryManager.getInventory(trainId);
+            return inventory.listUsableCarriageNumber(carriageType, inventory.intervalMask(departure, arrival));
+        }
         // 构建组合查询条件：列车ID+车厢类型+行程区间+可用状态
         LambdaQueryWrapper<SeatDO> queryWrapper = Wrappers.lambdaQuery(SeatDO.class)
                 .eq(SeatDO::getTrainId, trainId)
@@ -137,40 +182,152 @@ public class SeatServiceImpl extends ServiceImpl<SeatMapper, SeatDO> implements
 
     @Override
     public List<SeatTypeCountDTO> listSeatTypeCount(Long trainId, String startStation, String endStation, List<Integer> seatTypes) {
+        if (isBitmapInventory()) {
+            TrainSeatInventory inventory = seatInventoryManager.getInventory(String.valueOf(trainId));
+            long mask = inventory.intervalMask(startStation, endStation);
+            List<SeatTypeCountDTO> result = new ArrayList<>(seatTypes.size());
+            for (Integer each : seatTypes) {
+                int seatCount = inventory.countAvailable(each, mask);
+                // 与数据库 GROUP BY 语义保持一致，没有余票的座位类型不返回
+                if (seatCount > 0) {
+                    result.add(new SeatTypeCountDTO(each, seatCount));
+                }
+            }
+            return result;
+        }
         return seatMapper.listSeatTypeCount(trainId, startStation, endStation, seatTypes);
     }
 
     @Override
     public void lockSeat(String trainId, String departure, String arrival, List<TrainPurchaseTicketRespDTO> trainPurchaseTicketRespList) {
-        List<RouteDTO> routeList = trainStationService.listTakeoutTrainStationRoute(trainId, departure, arrival);
-        trainPurchaseTicketRespList.forEach(each -> routeList.forEach(item -> {
-            LambdaUpdateWrapper<SeatDO> updateWrapper = Wrappers.lambdaUpdate(SeatDO.class)
-                    .eq(SeatDO::getTrainId, trainId)
-                    .eq(SeatDO::getCarriageNumber, each.getCarriageNumber())
-                    .eq(SeatDO::getStartStation, item.getStartStation())
-                    .eq(SeatDO::getEndStation, item.getEndStation())
-                    .eq(SeatDO::getSeatNumber, each.getSeatNumber());
-            SeatDO updateSeatDO = SeatDO.builder()
-                    .seatStatus(SeatStatusEnum.LOCKED.getCode())
-                    .build();
-            seatMapper.update(updateSeatDO, updateWrapper);
-        }));
+        if (isBitmapInventory()) {
+            seatInventoryManager.lock(trainId, departure, arrival, trainPurchaseTicketRespList);
+            afterCompletion(
+                    () -> writeBehind(trainId, departure, arrival, trainPurchaseTicketRespList, SeatStatusEnum.LOCKED),
+                    () -> seatInventoryManager.unlock(trainId, departure, arrival, trainPurchaseTicketRespList)
+            );
+            return;
+        }
+        updateSeatStatus(trainId, departure, arrival, trainPurchaseTicketRespList, SeatStatusEnum.LOCKED);
     }
 
     @Override
     public void unlock(String trainId, String departure, String arrival, List<TrainPurchaseTicketRespDTO> trainPurchaseTicketResults) {
+        if (isBitmapInventory()) {
+            seatInventoryManager.unlock(trainId, departure, arrival, trainPurchaseTicketResults);
+            afterCompletion(
+                    () -> writeBehind(trainId, departure, arrival, trainPurchaseTicketResults, SeatStatusEnum.AVAILABLE),
+                    () -> seatInventoryManager.lock(trainId, departure, arrival, trainPurchaseTicketResults)
+            );
+            return;
+        }
+        updateSeatStatus(trainId, departure, arrival, trainPurchaseTicketResults, SeatStatusEnum.AVAILABLE);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (isBitmapInventory()) {
+            seatInventoryWriteBehindExecutor = Executors.newSingleThreadExecutor(ThreadFactoryBuilder.builder()
+                    .prefix("seat-inventory-write-behind")
+                    .daemon(true)
+                    .build());
+        }
+    }
+
+    /**
+     * 停止接收新的写回任务，等待已提交的座位状态写回数据库
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (seatInventoryWriteBehindExecutor == null) {
+            return;
+        }
+        seatInventoryWriteBehindExecutor.shutdown();
+        if (!seatInventoryWriteBehindExecutor.awaitTermination(WRITE_BEHIND_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            List<Runnable> pendingTasks = seatInventoryWriteBehindExecutor.shutdownNow();
+            log.error("[座位位图库存] 停机等待超时，{} 个座位状态写回任务未执行", pendingTasks.size());
+        }
+    }
+
+    private boolean isBitmapInventory() {
+        return Objects.equals(seatInventoryType, "bitmap");
+    }
+
+    /**
+     * 位图库存已在内存中生效，事务提交后写回数据库，事务回滚时执行补偿
+     */
+    private void afterCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+
+    private void writeBehind(String trainId, String departure, String arrival, List<TrainPurchaseTicketRespDTO> trainPurchaseTicketResults, SeatStatusEnum seatStatus) {
+        seatInventoryWriteBehindExecutor.execute(() -> {
+            long backoffMillis = WRITE_BEHIND_INITIAL_BACKOFF_MILLIS;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    updateSeatStatus(trainId, departure, arrival, trainPurchaseTicketResults, seatStatus);
+                    return;
+                } catch (ServiceException ex) {
+                    // 数据库座位状态与位图库存不一致，重试结果不变
+                    log.error("[座位位图库存] 列车：{} 座位状态写回数据库冲突，出发站：{} 到达站：{} 座位：{}", trainId, departure, arrival, trainPurchaseTicketResults, ex);
+                    return;
+                } catch (Throwable ex) {
+                    if (attempt >= WRITE_BEHIND_MAX_ATTEMPTS) {
+                        log.error("[座位位图库存] 列车：{} 座位状态写回数据库失败，已重试 {} 次，出发站：{} 到达站：{} 座位：{}", trainId, attempt, departure, arrival, trainPurchaseTicketResults, ex);
+                        return;
+                    }
+                    log.warn("[座位位图库存] 列车：{} 座位状态写回数据库失败，{} 毫秒后第 {} 次重试", trainId, backoffMillis, attempt, ex);
+                }
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    log.error("[座位位图库存] 列车：{} 写回线程中断，座位状态未写回数据库，出发站：{} 到达站：{} 座位：{}", trainId, departure, arrival, trainPurchaseTicketResults);
+                    return;
+                }
+                backoffMillis <<= 1;
+            }
+        });
+    }
+
+    /**
+     * 先条件更新购票区间本身检测并发冲突，再单条语句批量更新乘车人座位在全部扣减路线上的状态
+     * 扣减路线中的其它区段可能已被不重叠区间的购票锁定，例如售出 A→B 后再售 B→C 时 A→C、A→D 已处于锁定状态，因此只在购票区间上检测冲突
+     */
+    private void updateSeatStatus(String trainId, String departure, String arrival, List<TrainPurchaseTicketRespDTO> trainPurchaseTicketResults, SeatStatusEnum seatStatus) {
         List<RouteDTO> routeList = trainStationService.listTakeoutTrainStationRoute(trainId, departure, arrival);
-        trainPurchaseTicketResults.forEach(each -> routeList.forEach(item -> {
-            LambdaUpdateWrapper<SeatDO> updateWrapper = Wrappers.lambdaUpdate(SeatDO.class)
-                    .eq(SeatDO::getTrainId, trainId)
-                    .eq(SeatDO::getCarriageNumber, each.getCarriageNumber())
-                    .eq(SeatDO::getStartStation, item.getStartStation())
-                    .eq(SeatDO::getEndStation, item.getEndStation())
-                    .eq(SeatDO::getSeatNumber, each.getSeatNumber());
-            SeatDO updateSeatDO = SeatDO.builder()
-                    .seatStatus(SeatStatusEnum.AVAILABLE.getCode())
-                    .build();
-            seatMapper.update(updateSeatDO, updateWrapper);
-        }));
+        if (CollUtil.isEmpty(trainPurchaseTicketResults) || CollUtil.isEmpty(routeList)) {
+            return;
+        }
+        List<SeatDO> seatList = trainPurchaseTicketResults.stream()
+                .map(each -> SeatDO.builder()
+                        .carriageNumber(each.getCarriageNumber())
+                        .seatNumber(each.getSeatNumber())
+                        .build())
+                .toList();
+        SeatStatusEnum expectSeatStatus = seatStatus == SeatStatusEnum.LOCKED ? SeatStatusEnum.AVAILABLE : SeatStatusEnum.LOCKED;
+        int updated = seatMapper.compareAndUpdateSeatStatus(Long.parseLong(trainId), seatList, departure, arrival, expectSeatStatus.getCode(), seatStatus.getCode());
+        if (updated != seatList.size()) {
+            if (seatStatus == SeatStatusEnum.LOCKED) {
+                // 任意座位的购票区间已被其他请求锁定，整批失败并由外层事务回滚
+                throw new ServiceException("座位已被锁定，请重新选择");
+            }
+            log.warn("[座位状态更新] 列车：{} 释放座位数量不一致，出发站：{} 到达站：{} 期望：{} 实际：{}", trainId, departure, arrival, seatList.size(), updated);
+        }
+        seatMapper.updateSeatStatusBatch(Long.parseLong(trainId), seatList, routeList, seatStatus.getCode());
     }
 }
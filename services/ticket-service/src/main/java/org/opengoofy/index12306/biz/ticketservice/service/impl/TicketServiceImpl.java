@@ -27,13 +27,16 @@ import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.google.common.collect.Lists;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.opengoofy.index12306.biz.ticketservice.common.enums.RefundTypeEnum;
 import org.opengoofy.index12306.biz.ticketservice.common.enums.SourceEnum;
 import org.opengoofy.index12306.biz.ticketservice.common.enums.TicketChainMarkEnum;
+import org.opengoofy.index12306.biz.ticketservice.common.enums.TicketOrderRejectEnum;
 import org.opengoofy.index12306.biz.ticketservice.common.enums.TicketStatusEnum;
 import org.opengoofy.index12306.biz.ticketservice.common.enums.VehicleTypeEnum;
 import org.opengoofy.index12306.biz.ticketservice.dao.entity.StationDO;
@@ -44,9 +47,7 @@ import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainStationRelatio
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.StationMapper;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TicketMapper;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainMapper;
-import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainStationPriceMapper;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainStationRelationMapper;
-import org.opengoofy.index12306.biz.ticketservice.dto.domain.PurchaseTicketPassengerDetailDTO;
 import org.opengoofy.index12306.biz.ticketservice.dto.domain.RouteDTO;
 import org.opengoofy.index12306.biz.ticketservice.dto.domain.SeatClassDTO;
 import org.opengoofy.index12306.biz.ticketservice.dto.domain.SeatTypeCountDTO;
@@ -60,6 +61,7 @@ import org.opengoofy.index12306.biz.ticketservice.dto.resp.RefundTicketRespDTO;
 import org.opengoofy.index12306.biz.ticketservice.dto.resp.TicketOrderDetailRespDTO;
 import org.opengoofy.index12306.biz.ticketservice.dto.resp.TicketPageQueryRespDTO;
 import org.opengoofy.index12306.biz.ticketservice.dto.resp.TicketPurchaseRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.mq.event.DelayCloseOrderEvent;
 import org.opengoofy.index12306.biz.ticketservice.remote.PayRemoteService;
 import org.opengoofy.index12306.biz.ticketservice.remote.TicketOrderRemoteService;
 import org.opengoofy.index12306.biz.ticketservice.remote.dto.PayInfoRespDTO;
@@ -72,13 +74,19 @@ import org.opengoofy.index12306.biz.ticketservice.service.SeatService;
 import org.opengoofy.index12306.biz.ticketservice.service.TicketService;
 import org.opengoofy.index12306.biz.ticketservice.service.TrainStationService;
 import org.opengoofy.index12306.biz.ticketservice.service.cache.SeatMarginCacheLoader;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.TicketQuerySnapshot;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.TrainStationPriceCacheLoader;
+import org.opengoofy.index12306.biz.ticketservice.service.delayclose.DelayCloseOrderScheduler;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dispatcher.PurchaseTicketDispatcher;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TokenResultDTO;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select.TrainSeatTypeSelector;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.tokenbucket.TicketAvailabilityTokenBucket;
+import org.opengoofy.index12306.biz.ticketservice.service.outbox.OrderOutboxRelay;
 import org.opengoofy.index12306.biz.ticketservice.toolkit.DateUtil;
 import org.opengoofy.index12306.biz.ticketservice.toolkit.TimeStringComparator;
 import org.opengoofy.index12306.framework.starter.bases.ApplicationContextHolder;
+import org.opengoofy.index12306.framework.starter.bases.constant.AdmissionConstant;
 import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
 import org.opengoofy.index12306.framework.starter.cache.toolkit.CacheUtil;
 import org.opengoofy.index12306.framework.starter.common.toolkit.BeanUtil;
@@ -95,11 +103,15 @@ import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -111,12 +123,10 @@ import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 import static org.opengoofy.index12306.biz.ticketservice.common.constant.Index12306Constant.ADVANCE_TICKET_DAY;
 import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.LOCK_PURCHASE_TICKETS;
-import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.LOCK_PURCHASE_TICKETS_V2;
 import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.LOCK_REGION_TRAIN_STATION;
 import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.LOCK_REGION_TRAIN_STATION_MAPPING;
 import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.LOCK_TOKEN_BUCKET_ISNULL;
@@ -137,7 +147,6 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
 
     private final TrainMapper trainMapper;
     private final TrainStationRelationMapper trainStationRelationMapper;
-    private final TrainStationPriceMapper trainStationPriceMapper;
     // 分布式缓存
     private final DistributedCache distributedCache;
     private final TicketOrderRemoteService ticketOrderRemoteService;
@@ -147,6 +156,7 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
     private final TrainStationService trainStationService;
     private final TrainSeatTypeSelector trainSeatTypeSelector;
     private final SeatMarginCacheLoader seatMarginCacheLoader;
+    private final TrainStationPriceCacheLoader trainStationPriceCacheLoader;
     private final AbstractChainContext<TicketPageQueryReqDTO> ticketPageQueryAbstractChainContext;
     private final AbstractChainContext<PurchaseTicketReqDTO> purchaseTicketAbstractChainContext;
     private final AbstractChainContext<RefundTicketReqDTO> refundReqDTOAbstractChainContext;
@@ -154,12 +164,26 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
     private final RedissonClient redissonClient;
     private final ConfigurableEnvironment environment;
     private final TicketAvailabilityTokenBucket ticketAvailabilityTokenBucket;
+    private final PurchaseTicketDispatcher purchaseTicketDispatcher;
+    private final OrderOutboxRelay orderOutboxRelay;
+    private final DelayCloseOrderScheduler delayCloseOrderScheduler;
     private TicketService ticketService;
 
+    /**
+     * 车票查询快照，Key 为出发站_到达站
+     */
+    private final LoadingCache<String, TicketQuerySnapshot> ticketQuerySnapshotCache = Caffeine.newBuilder()
+            .refreshAfterWrite(5, TimeUnit.SECONDS)
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .maximumSize(10000)
+            .build(this::loadTicketQuerySnapshot);
+
     @Value("${ticket.availability.cache-update.type:}")
     private String ticketAvailabilityCacheUpdateType;
     @Value("${framework.cache.redis.prefix:}")
     private String cacheRedisPrefix;
+    @Value("${ticket.order.create.type:}")
+    private String ticketOrderCreateType;
 
     /**
      * 分页查询车票信息V1版本
@@ -281,19 +305,7 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
         /* 余票价格计算处理 */
         for (TicketListDTO each : seatResults) {
             // 席别价格信息获取（包含缓存处理）
-            String trainStationPriceStr = distributedCache.safeGet(
-                    String.format(TRAIN_STATION_PRICE, each.getTrainId(), each.getDeparture(), each.getArrival()),
-                    String.class,
-                    () -> {
-                        LambdaQueryWrapper<TrainStationPriceDO> trainStationPriceQueryWrapper = Wrappers.lambdaQuery(TrainStationPriceDO.class)
-                                .eq(TrainStationPriceDO::getDeparture, each.getDeparture())
-                                .eq(TrainStationPriceDO::getArrival, each.getArrival())
-                                .eq(TrainStationPriceDO::getTrainId, each.getTrainId());
-                        return JSON.toJSONString(trainStationPriceMapper.selectList(trainStationPriceQueryWrapper));
-                    },
-                    ADVANCE_TICKET_DAY,
-                    TimeUnit.DAYS
-            );
+            String trainStationPriceStr = trainStationPriceCacheLoader.load(each.getTrainId(), each.getDeparture(), each.getArrival());
 
             /* 余票数量计算逻辑 */
             List<TrainStationPriceDO> trainStationPriceDOList = JSON.parseArray(trainStationPriceStr, TrainStationPriceDO.class);
@@ -415,6 +427,127 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
                 .build();
     }
 
+    /**
+     * 车票分页列表（V3版本）
+     * 地区车站映射与车次列表各一次读取，全部车次的票价与余票在一次管道中批量读取，每个查询固定三次网络往返；
+     * 所有访问的 Key 均由客户端显式给出，Redis Cluster 下按 Key 路由到对应节点；
+     * 车次或地区缓存尚未构建时回退到 V1 版本完成缓存重建，单个车次票价或余票缺失时按 V1 逻辑单独加载
+     *
+     * @param requestParam 车票分页查询请求参数
+     * @return 车票分页查询响应
+     */
+    @Override
+    public TicketPageQueryRespDTO pageListTicketQueryV3(TicketPageQueryReqDTO requestParam) {
+        ticketPageQueryAbstractChainContext.handler(TicketChainMarkEnum.TRAIN_QUERY_FILTER.name(), requestParam);
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        List<Object> stationDetails = stringRedisTemplate.opsForHash()
+                .multiGet(REGION_TRAIN_STATION_MAPPING, Lists.newArrayList(requestParam.getFromStation(), requestParam.getToStation()));
+        if (stationDetails.stream().anyMatch(Objects::isNull)) {
+            return pageListTicketQueryV1(requestParam);
+        }
+        List<Object> regionTrainStations = stringRedisTemplate.opsForHash()
+                .values(String.format(REGION_TRAIN_STATION, stationDetails.get(0), stationDetails.get(1)));
+        if (CollUtil.isEmpty(regionTrainStations)) {
+            return pageListTicketQueryV1(requestParam);
+        }
+        List<TicketListDTO> trains = regionTrainStations.stream()
+                .map(each -> JSON.parseObject(each.toString(), TicketListDTO.class))
+                .toList();
+        List<Object> queryResult = stringRedisTemplate.executePipelined((RedisCallback<String>) connection -> {
+            for (TicketListDTO each : trains) {
+                String trainStationPriceKey = String.format(cacheRedisPrefix + TRAIN_STATION_PRICE, each.getTrainId(), each.getDeparture(), each.getArrival());
+                String trainStationRemainingKey = cacheRedisPrefix + TRAIN_STATION_REMAINING_TICKET + StrUtil.join("_", each.getTrainId(), each.getDeparture(), each.getArrival());
+                connection.stringCommands().get(trainStationPriceKey.getBytes());
+                connection.hashCommands().hGetAll(trainStationRemainingKey.getBytes());
+            }
+            return null;
+        });
+        List<TicketListDTO> seatResults = new ArrayList<>(trains.size());
+        for (int index = 0; index < trains.size(); index++) {
+            TicketListDTO ticketListDTO = trains.get(index);
+            Object trainStationPriceObj = queryResult.get(index * 2);
+            Map<Object, Object> trainStationRemainingMap = Optional.ofNullable((Map<Object, Object>) queryResult.get(index * 2 + 1)).orElse(Collections.emptyMap());
+            String trainStationPriceStr = trainStationPriceObj != null
+                    ? trainStationPriceObj.toString()
+                    : trainStationPriceCacheLoader.load(ticketListDTO.getTrainId(), ticketListDTO.getDeparture(), ticketListDTO.getArrival());
+            List<TrainStationPriceDO> trainStationPriceDOList = JSON.parseArray(trainStationPriceStr, TrainStationPriceDO.class);
+            List<SeatClassDTO> seatClassList = new ArrayList<>(trainStationPriceDOList.size());
+            for (TrainStationPriceDO item : trainStationPriceDOList) {
+                String seatType = String.valueOf(item.getSeatType());
+                int quantity = Optional.ofNullable(trainStationRemainingMap.get(seatType))
+                        .map(Object::toString)
+                        .map(Integer::parseInt)
+                        .orElseGet(() -> {
+                            Map<String, String> seatMarginMap = seatMarginCacheLoader.load(ticketListDTO.getTrainId(), seatType, item.getDeparture(), item.getArrival());
+                            return Optional.ofNullable(seatMarginMap.get(seatType)).map(Integer::parseInt).orElse(0);
+                        });
+                seatClassList.add(new SeatClassDTO(item.getSeatType(), quantity, new BigDecimal(item.getPrice()).divide(new BigDecimal("100"), 1, RoundingMode.HALF_UP), false));
+            }
+            ticketListDTO.setSeatClassList(seatClassList);
+            seatResults.add(ticketListDTO);
+        }
+        seatResults = seatResults.stream().sorted(new TimeStringComparator()).toList();
+        return TicketPageQueryRespDTO.builder()
+                .trainList(seatResults)
+                .departureStationList(buildDepartureStationList(seatResults))
+                .arrivalStationList(buildArrivalStationList(seatResults))
+                .trainBrandList(buildTrainBrandList(seatResults))
+                .seatClassTypeList(buildSeatClassList(seatResults))
+                .build();
+    }
+
+    /**
+     * 车票分页列表（V4版本）
+     * 读取后台预先构建的车票查询快照，车次排序、票价换算等静态部分直接复用，仅通过一次管道批量读取补齐余票数量；
+     * 快照在写入一段时间后由 Caffeine 异步刷新，刷新期间继续返回旧快照
+     *
+     * @param requestParam 车票分页查询请求参数
+     * @return 车票分页查询响应
+     */
+    @Override
+    public TicketPageQueryRespDTO pageListTicketQueryV4(TicketPageQueryReqDTO requestParam) {
+        ticketPageQueryAbstractChainContext.handler(TicketChainMarkEnum.TRAIN_QUERY_FILTER.name(), requestParam);
+        TicketQuerySnapshot snapshot = ticketQuerySnapshotCache.get(CacheUtil.buildKey(requestParam.getFromStation(), requestParam.getToStation()));
+        List<TicketQuerySnapshot.SnapshotTrain> trains = snapshot.getTrains();
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        List<Object> trainStationRemainingObjs = stringRedisTemplate.executePipelined((RedisCallback<String>) connection -> {
+            for (TicketQuerySnapshot.SnapshotTrain each : trains) {
+                byte[][] fields = each.getSeatTypeFields().stream().map(String::getBytes).toArray(byte[][]::new);
+                connection.hashCommands().hMGet(each.getRemainingTicketKey().getBytes(), fields);
+            }
+            return null;
+        });
+        List<int[]> quantities = new ArrayList<>(trains.size());
+        for (int i = 0; i < trains.size(); i++) {
+            TicketQuerySnapshot.SnapshotTrain train = trains.get(i);
+            List<Object> remainingList = (List<Object>) trainStationRemainingObjs.get(i);
+            List<String> seatTypeFields = train.getSeatTypeFields();
+            int[] actual = new int[seatTypeFields.size()];
+            for (int j = 0; j < actual.length; j++) {
+                Object quantityObj = remainingList == null ? null : remainingList.get(j);
+                String seatType = seatTypeFields.get(j);
+                actual[j] = Optional.ofNullable(quantityObj)
+                        .map(Object::toString)
+                        .map(Integer::parseInt)
+                        .orElseGet(() -> {
+                            Map<String, String> seatMarginMap = seatMarginCacheLoader.load(train.getTrainId(), seatType, train.getDeparture(), train.getArrival());
+                            return Optional.ofNullable(seatMarginMap.get(seatType)).map(Integer::parseInt).orElse(0);
+                        });
+            }
+            quantities.add(actual);
+        }
+        return snapshot.toResponse(quantities);
+    }
+
+    private TicketQuerySnapshot loadTicketQuerySnapshot(String snapshotKey) {
+        List<String> stations = StrUtil.split(snapshotKey, "_");
+        TicketPageQueryReqDTO requestParam = new TicketPageQueryReqDTO();
+        requestParam.setFromStation(stations.get(0));
+        requestParam.setToStation(stations.get(1));
+        requestParam.setDepartureDate(new Date());
+        return TicketQuerySnapshot.of(pageListTicketQueryV1(requestParam), cacheRedisPrefix + TRAIN_STATION_REMAINING_TICKET);
+    }
+
     @Override
     public TicketPurchaseRespDTO purchaseTicketsV1(PurchaseTicketReqDTO requestParam) {
         purchaseTicketAbstractChainContext.handler(TicketChainMarkEnum.TRAIN_PURCHASE_TICKET_FILTER.name(), requestParam);
@@ -428,10 +561,6 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
         }
     }
 
-    private final Cache<String, ReentrantLock> localLockMap = Caffeine.newBuilder()
-            .expireAfterWrite(1, TimeUnit.DAYS)
-            .build();
-
     private final Cache<String, Object> tokenTicketsRefreshMap = Caffeine.newBuilder()
             .expireAfterWrite(10, TimeUnit.MINUTES)
             .build();
@@ -460,56 +589,22 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
                     }
                 }
             }
+            // 通知网关短时间内提前拒绝同一车次区间席别的购票请求
+            markTicketSoldOut();
             // 抛出异常，提示列车站点已无余票
             throw new ServiceException("列车站点已无余票");
         }
-        //本地锁列表
-        List<ReentrantLock> localLockList = new ArrayList<>();
-        //分布式锁列表
-        List<RLock> distributedLockList = new ArrayList<>();
-        //按座位类型分组
-        Map<Integer, List<PurchaseTicketPassengerDetailDTO>> seatTypeMap = requestParam.getPassengers().stream()
-                .collect(Collectors.groupingBy(PurchaseTicketPassengerDetailDTO::getSeatType));
-
-        seatTypeMap.forEach((seatType, count) -> {
-            //生成锁键
-            String lockKey = environment.resolvePlaceholders(String.format(LOCK_PURCHASE_TICKETS_V2, requestParam.getTrainId(), seatType));
-            ReentrantLock localLock = localLockMap.getIfPresent(lockKey);
-            if (localLock == null) {
-                synchronized (TicketService.class) {
-                    //获取本地锁
-                    if ((localLock = localLockMap.getIfPresent(lockKey)) == null) {
-                        localLock = new ReentrantLock(true);
-                        localLockMap.put(lockKey, localLock);
-                    }
-                }
-            }
-            localLockList.add(localLock);
-            //获取分布式锁
-            RLock distributedLock = redissonClient.getFairLock(lockKey);
-            distributedLockList.add(distributedLock);
-        });
+        // 由购票调度器保证同一列车购票请求之间互斥，再执行核心购票逻辑
+        return purchaseTicketDispatcher.dispatch(requestParam, each -> ticketService.executePurchaseTickets(each));
+    }
 
-        try {
-            //获取所有本地锁和分布式锁
-            localLockList.forEach(ReentrantLock::lock);
-            distributedLockList.forEach(RLock::lock);
-            //执行核心购票逻辑
-            return ticketService.executePurchaseTickets(requestParam);
-        } finally {
-            //finally 块都会释放所有锁，确保线程安全
-            localLockList.forEach(localLock -> {
-                try {
-                    localLock.unlock();
-                } catch (Throwable ignored) {
-                }
-            });
-            distributedLockList.forEach(distributedLock -> {
-                try {
-                    distributedLock.unlock();
-                } catch (Throwable ignored) {
-                }
-            });
+    private void markTicketSoldOut() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes instanceof ServletRequestAttributes) {
+            HttpServletResponse response = ((ServletRequestAttributes) requestAttributes).getResponse();
+            if (response != null) {
+                response.setHeader(AdmissionConstant.TICKET_SOLD_OUT_KEY, Boolean.TRUE.toString());
+            }
         }
     }
 
@@ -612,28 +707,48 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
                     .trainId(Long.parseLong(requestParam.getTrainId()))
                     // 设置票务订单项列表
                     .ticketOrderItems(orderItemCreateRemoteReqDTOList)
+                    // 设置是否由本地时间轮关闭订单
+                    .localDelayClose(delayCloseOrderScheduler.isEnabled())
                     .build();
+            if (StrUtil.equals(ticketOrderCreateType, "outbox")) {
+                // 订单写入发件箱与车票在同一事务内提交，立即返回预生成的订单号，由发件箱投递器异步创建订单
+                String orderSn = orderOutboxRelay.generateOrderSn(UserContext.getUserId());
+                orderCreateRemoteReqDTO.setOrderSn(orderSn);
+                orderOutboxRelay.save(orderCreateRemoteReqDTO);
+                scheduleDelayCloseOrder(orderSn, requestParam, trainPurchaseTicketResults);
+                return new TicketPurchaseRespDTO(orderSn, ticketOrderDetailResults);
+            }
             // 调用远程订单服务创建订单
             ticketOrderResult = ticketOrderRemoteService.createTicketOrder(orderCreateRemoteReqDTO);
             // 如果订单创建失败，抛出异常
             if (!ticketOrderResult.isSuccess() || StrUtil.isBlank(ticketOrderResult.getData())) {
                 log.error("订单服务调用失败，返回结果：{}", ticketOrderResult.getMessage());
-                throw new ServiceException("订单服务调用失败");
-            }else if (ticketOrderResult.getData().equals("存在重复订单")){
-                log.error("存在重复订单，返回结果：{}", ticketOrderResult.getMessage());
-                throw new ServiceException("已存在该乘车人的相同订单");
-            }else if (ticketOrderResult.getData().equals("列车运行时间与行程冲突")){
-                log.error("存在重复订单，返回结果：{}", ticketOrderResult.getMessage());
-                throw new ServiceException("本次列车运行时间与您的行程冲突");
+                TicketOrderRejectEnum ticketOrderReject = TicketOrderRejectEnum.findByCode(ticketOrderResult.getCode());
+                throw new ServiceException(ticketOrderReject != null ? ticketOrderReject.getMessage() : "订单服务调用失败");
             }
         } catch (Throwable ex) {
             log.error("远程调用订单服务创建错误，请求参数：{}", JSON.toJSONString(requestParam), ex);
             throw ex;
         }
+        scheduleDelayCloseOrder(ticketOrderResult.getData(), requestParam, trainPurchaseTicketResults);
         // 返回结果
         return new TicketPurchaseRespDTO(ticketOrderResult.getData(), ticketOrderDetailResults);
     }
 
+    /**
+     * 登记本地时间轮延迟关闭订单，未开启本地时间轮时由订单服务投递 RocketMQ 延时消息
+     */
+    private void scheduleDelayCloseOrder(String orderSn, PurchaseTicketReqDTO requestParam, List<TrainPurchaseTicketRespDTO> trainPurchaseTicketResults) {
+        DelayCloseOrderEvent delayCloseOrderEvent = DelayCloseOrderEvent.builder()
+                .trainId(requestParam.getTrainId())
+                .departure(requestParam.getDeparture())
+                .arrival(requestParam.getArrival())
+                .orderSn(orderSn)
+                .trainPurchaseTicketResults(trainPurchaseTicketResults)
+                .build();
+        delayCloseOrderScheduler.schedule(delayCloseOrderEvent);
+    }
+
     @Override
     public PayInfoRespDTO getPayInfo(String orderSn) {
         return payRemoteService.getPayInfo(orderSn).getData();
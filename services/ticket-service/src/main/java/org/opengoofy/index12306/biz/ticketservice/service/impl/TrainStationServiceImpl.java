@@ -19,18 +19,20 @@ package org.opengoofy.index12306.biz.ticketservice.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
 import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainStationDO;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainStationMapper;
 import org.opengoofy.index12306.biz.ticketservice.dto.domain.RouteDTO;
 import org.opengoofy.index12306.biz.ticketservice.dto.resp.TrainStationQueryRespDTO;
 import org.opengoofy.index12306.biz.ticketservice.service.TrainStationService;
-import org.opengoofy.index12306.biz.ticketservice.toolkit.StationCalculateUtil;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.TrainStationRouteIndex;
 import org.opengoofy.index12306.framework.starter.common.toolkit.BeanUtil;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 列车站点接口实现层
@@ -41,6 +43,14 @@ public class TrainStationServiceImpl implements TrainStationService {
 
     private final TrainStationMapper trainStationMapper;
 
+    /**
+     * 列车站点路线拓扑索引本地缓存，站点变更时通过 Binlog 广播失效
+     */
+    private final Cache<String, TrainStationRouteIndex> trainStationRouteIndexCache = Caffeine.newBuilder()
+            .expireAfterWrite(1, TimeUnit.DAYS)
+            .maximumSize(10000)
+            .build();
+
     @Override
     public List<TrainStationQueryRespDTO> listTrainStationQuery(String trainId) {
         LambdaQueryWrapper<TrainStationDO> queryWrapper = Wrappers.lambdaQuery(TrainStationDO.class)
@@ -51,21 +61,30 @@ public class TrainStationServiceImpl implements TrainStationService {
 
     @Override
     public List<RouteDTO> listTrainStationRoute(String trainId, String departure, String arrival) {
-        LambdaQueryWrapper<TrainStationDO> queryWrapper = Wrappers.lambdaQuery(TrainStationDO.class)
-                .eq(TrainStationDO::getTrainId, trainId)
-                .select(TrainStationDO::getDeparture);
-        List<TrainStationDO> trainStationDOList = trainStationMapper.selectList(queryWrapper);
-        List<String> trainStationAllList = trainStationDOList.stream().map(TrainStationDO::getDeparture).collect(Collectors.toList());
-        return StationCalculateUtil.throughStation(trainStationAllList, departure, arrival);
+        return getTrainStationRouteIndex(trainId).listThroughRoute(departure, arrival);
     }
 
     @Override
     public List<RouteDTO> listTakeoutTrainStationRoute(String trainId, String departure, String arrival) {
+        return getTrainStationRouteIndex(trainId).listTakeoutRoute(departure, arrival);
+    }
+
+    @Override
+    public TrainStationRouteIndex getTrainStationRouteIndex(String trainId) {
+        return trainStationRouteIndexCache.get(trainId, this::loadTrainStationRouteIndex);
+    }
+
+    @Override
+    public void invalidateTrainStationRouteIndex(String trainId) {
+        trainStationRouteIndexCache.invalidate(trainId);
+    }
+
+    private TrainStationRouteIndex loadTrainStationRouteIndex(String trainId) {
         LambdaQueryWrapper<TrainStationDO> queryWrapper = Wrappers.lambdaQuery(TrainStationDO.class)
                 .eq(TrainStationDO::getTrainId, trainId)
                 .select(TrainStationDO::getDeparture);
         List<TrainStationDO> trainStationDOList = trainStationMapper.selectList(queryWrapper);
-        List<String> trainStationAllList = trainStationDOList.stream().map(TrainStationDO::getDeparture).collect(Collectors.toList());
-        return StationCalculateUtil.takeoutStation(trainStationAllList, departure, arrival);
+        List<String> trainStationAllList = trainStationDOList.stream().map(TrainStationDO::getDeparture).toList();
+        return new TrainStationRouteIndex(trainId, trainStationAllList);
     }
 }
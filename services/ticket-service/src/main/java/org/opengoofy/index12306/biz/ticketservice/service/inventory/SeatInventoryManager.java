@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.inventory;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opengoofy.index12306.biz.ticketservice.common.enums.SeatStatusEnum;
+import org.opengoofy.index12306.biz.ticketservice.dao.entity.SeatDO;
+import org.opengoofy.index12306.biz.ticketservice.dao.mapper.SeatMapper;
+import org.opengoofy.index12306.biz.ticketservice.service.TrainStationService;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.inventory.TrainSeatInventory.SeatSlot;
+import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.Index12306Constant.ADVANCE_TICKET_DAY;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.LOCK_TRAIN_SEAT_INVENTORY_LOAD;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_SEAT_INVENTORY_CHANGE_LOG;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_SEAT_INVENTORY_CHANGE_LOG_OFFSET;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_SEAT_INVENTORY_SNAPSHOT;
+
+/**
+ * 列车座位位图库存管理器
+ * 库存常驻购票服务内存，通过 Redis 快照 + 变更日志持久化，多节点之间通过回放变更日志保持一致；
+ * 持久化快照时裁剪上一份快照之前的变更日志，回放位置落后于裁剪位置的节点丢弃本地库存并重新从快照加载
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SeatInventoryManager {
+
+    private static final String SNAPSHOT_VERSION_FIELD = "version";
+    private static final String LOCK_OPERATION = "L";
+    private static final String UNLOCK_OPERATION = "U";
+    private static final String LUA_SEAT_INVENTORY_CHANGE_LOG_APPEND_PATH = "lua/seat_inventory_change_log_append.lua";
+    private static final String LUA_SEAT_INVENTORY_CHANGE_LOG_RANGE_PATH = "lua/seat_inventory_change_log_range.lua";
+    private static final String LUA_SEAT_INVENTORY_CHANGE_LOG_TRIM_PATH = "lua/seat_inventory_change_log_trim.lua";
+
+    /**
+     * 每追加多少条变更日志持久化一次快照
+     */
+    private static final int SNAPSHOT_INTERVAL = 512;
+
+    private final SeatMapper seatMapper;
+    private final TrainStationService trainStationService;
+    private final DistributedCache distributedCache;
+    private final RedissonClient redissonClient;
+
+    private final Cache<String, TrainSeatInventory> inventoryCache = Caffeine.newBuilder()
+            .expireAfterAccess(1, TimeUnit.DAYS)
+            .build();
+    private final DefaultRedisScript<Long> changeLogAppendScript = buildRedisScript(LUA_SEAT_INVENTORY_CHANGE_LOG_APPEND_PATH, Long.class);
+    private final DefaultRedisScript<List> changeLogRangeScript = buildRedisScript(LUA_SEAT_INVENTORY_CHANGE_LOG_RANGE_PATH, List.class);
+    private final DefaultRedisScript<Long> changeLogTrimScript = buildRedisScript(LUA_SEAT_INVENTORY_CHANGE_LOG_TRIM_PATH, Long.class);
+
+    /**
+     * 获取列车座位位图库存，并回放其它节点追加的变更日志
+     *
+     * @param trainId 列车 ID
+     * @return 列车座位位图库存
+     */
+    public TrainSeatInventory getInventory(String trainId) {
+        TrainSeatInventory inventory = inventoryCache.get(trainId, this::loadInventory);
+        synchronized (inventory) {
+            if (catchUp(inventory)) {
+                return inventory;
+            }
+        }
+        log.info("[座位位图库存] 列车：{} 回放位置：{} 落后于已裁剪的变更日志，重新从快照加载", trainId, inventory.getVersion());
+        inventoryCache.asMap().remove(trainId, inventory);
+        return getInventory(trainId);
+    }
+
+    /**
+     * 锁定乘车人座位在出发站到到达站之间的区段，任一座位冲突则整体失败
+     *
+     * @param trainId   列车 ID
+     * @param departure 出发站
+     * @param arrival   到达站
+     * @param seats     乘车人以及座位信息
+     */
+    public void lock(String trainId, String departure, String arrival, List<TrainPurchaseTicketRespDTO> seats) {
+        TrainSeatInventory inventory = getInventory(trainId);
+        if (CollUtil.isEmpty(seats)) {
+            return;
+        }
+        long mask = checkIntervalMask(inventory, departure, arrival);
+        synchronized (inventory) {
+            List<TrainPurchaseTicketRespDTO> lockedSeats = new ArrayList<>(seats.size());
+            for (TrainPurchaseTicketRespDTO each : seats) {
+                if (!inventory.tryLock(each.getCarriageNumber(), each.getSeatNumber(), mask)) {
+                    lockedSeats.forEach(item -> inventory.unlock(item.getCarriageNumber(), item.getSeatNumber(), mask));
+                    log.warn("[座位位图库存] 列车：{} 车厢：{} 座位：{} 区段已被占用", trainId, each.getCarriageNumber(), each.getSeatNumber());
+                    throw new ServiceException("站点余票不足，请尝试更换座位类型或选择其它站点");
+                }
+                lockedSeats.add(each);
+            }
+            appendChangeLog(inventory, LOCK_OPERATION, seats, mask);
+        }
+    }
+
+    /**
+     * 释放乘车人座位在出发站到到达站之间的区段
+     *
+     * @param trainId   列车 ID
+     * @param departure 出发站
+     * @param arrival   到达站
+     * @param seats     乘车人以及座位信息
+     */
+    public void unlock(String trainId, String departure, String arrival, List<TrainPurchaseTicketRespDTO> seats) {
+        TrainSeatInventory inventory = getInventory(trainId);
+        if (CollUtil.isEmpty(seats)) {
+            return;
+        }
+        long mask = checkIntervalMask(inventory, departure, arrival);
+        synchronized (inventory) {
+            seats.forEach(each -> inventory.unlock(each.getCarriageNumber(), each.getSeatNumber(), mask));
+            appendChangeLog(inventory, UNLOCK_OPERATION, seats, mask);
+        }
+    }
+
+    /**
+     * 出发站或到达站不在列车经停站点中、或到达站不在出发站之后时区段掩码为 0，直接拒绝，避免静默跳过锁定或释放
+     */
+    private long checkIntervalMask(TrainSeatInventory inventory, String departure, String arrival) {
+        long mask = inventory.intervalMask(departure, arrival);
+        if (mask == 0L) {
+            throw new ServiceException(String.format("列车：%s 不存在出发站：%s 到达站：%s 的运行区间", inventory.getTrainId(), departure, arrival));
+        }
+        return mask;
+    }
+
+    /**
+     * 追加变更日志，追加失败时撤销已修改的本地位图后抛出异常，保证本地位图与 Redis 变更日志一致；
+     * 若脚本实际已执行，回放位置未推进，下次回放会重新应用该日志
+     */
+    private void appendChangeLog(TrainSeatInventory inventory, String operation, List<TrainPurchaseTicketRespDTO> seats, long mask) {
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        List<String> args = new ArrayList<>(seats.size() + 1);
+        args.add(String.valueOf(TimeUnit.DAYS.toSeconds(ADVANCE_TICKET_DAY)));
+        seats.forEach(each -> args.add(StrUtil.join(",", operation, each.getCarriageNumber(), each.getSeatNumber(), mask)));
+        Long changeLogVersion;
+        try {
+            changeLogVersion = stringRedisTemplate.execute(changeLogAppendScript, changeLogKeys(inventory.getTrainId()), args.toArray());
+        } catch (RuntimeException ex) {
+            boolean revertToLock = !Objects.equals(operation, LOCK_OPERATION);
+            seats.forEach(each -> inventory.replay(revertToLock, each.getCarriageNumber(), each.getSeatNumber(), mask));
+            throw ex;
+        }
+        // 期间没有其它节点写入日志，直接推进回放位置；否则留给下次回放，重复回放同一条日志结果不变
+        if (changeLogVersion != null && changeLogVersion == inventory.getVersion() + seats.size()) {
+            inventory.setVersion(changeLogVersion);
+            persistSnapshotIfNecessary(inventory);
+        }
+    }
+
+    /**
+     * 回放其它节点追加的变更日志
+     *
+     * @return 回放位置已被裁剪时返回 false，需要重新从快照加载
+     */
+    private boolean catchUp(TrainSeatInventory inventory) {
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        List<String> result = stringRedisTemplate.execute(changeLogRangeScript, changeLogKeys(inventory.getTrainId()), String.valueOf(inventory.getVersion()));
+        long offset = Long.parseLong(result.get(0));
+        if (inventory.getVersion() < offset) {
+            return false;
+        }
+        if (result.size() == 1) {
+            return true;
+        }
+        List<String> entries = result.subList(1, result.size());
+        for (String each : entries) {
+            List<String> parts = StrUtil.split(each, ',');
+            inventory.replay(Objects.equals(parts.get(0), LOCK_OPERATION), parts.get(1), parts.get(2), Long.parseLong(parts.get(3)));
+        }
+        inventory.setVersion(inventory.getVersion() + entries.size());
+        persistSnapshotIfNecessary(inventory);
+        return true;
+    }
+
+    private void persistSnapshotIfNecessary(TrainSeatInventory inventory) {
+        if (inventory.getVersion() - inventory.getSnapshotVersion() >= SNAPSHOT_INTERVAL) {
+            persistSnapshot(inventory);
+        }
+    }
+
+    private void persistSnapshot(TrainSeatInventory inventory) {
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        String snapshotKey = TRAIN_SEAT_INVENTORY_SNAPSHOT + inventory.getTrainId();
+        Map<String, String> snapshot = inventory.snapshot();
+        snapshot.put(SNAPSHOT_VERSION_FIELD, String.valueOf(inventory.getVersion()));
+        stringRedisTemplate.opsForHash().putAll(snapshotKey, snapshot);
+        stringRedisTemplate.expire(snapshotKey, ADVANCE_TICKET_DAY, TimeUnit.DAYS);
+        // 保留上一份快照之后的变更日志，供回放稍有落后的节点追赶；裁剪位置不超过 Redis 中快照的版本，避免其它节点覆盖的旧快照无法回放
+        long previousSnapshotVersion = inventory.getSnapshotVersion();
+        inventory.setSnapshotVersion(inventory.getVersion());
+        if (previousSnapshotVersion > 0L) {
+            List<String> keys = new ArrayList<>(changeLogKeys(inventory.getTrainId()));
+            keys.add(snapshotKey);
+            stringRedisTemplate.execute(changeLogTrimScript, keys, String.valueOf(previousSnapshotVersion), SNAPSHOT_VERSION_FIELD, String.valueOf(TimeUnit.DAYS.toSeconds(ADVANCE_TICKET_DAY)));
+        }
+    }
+
+    private List<String> changeLogKeys(String trainId) {
+        return List.of(TRAIN_SEAT_INVENTORY_CHANGE_LOG + trainId, TRAIN_SEAT_INVENTORY_CHANGE_LOG_OFFSET + trainId);
+    }
+
+    private static <T> DefaultRedisScript<T> buildRedisScript(String path, Class<T> resultType) {
+        DefaultRedisScript<T> redisScript = new DefaultRedisScript<>();
+        redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource(path)));
+        redisScript.setResultType(resultType);
+        return redisScript;
+    }
+
+    private TrainSeatInventory loadInventory(String trainId) {
+        List<String> stations = trainStationService.getTrainStationRouteIndex(trainId).getStations();
+        TrainSeatInventory inventory = loadFromSnapshot(trainId, stations);
+        if (inventory != null) {
+            return inventory;
+        }
+        RLock lock = redissonClient.getLock(String.format(LOCK_TRAIN_SEAT_INVENTORY_LOAD, trainId));
+        lock.lock();
+        try {
+            inventory = loadFromSnapshot(trainId, stations);
+            if (inventory == null) {
+                StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+                Long changeLogSize = stringRedisTemplate.opsForList().size(TRAIN_SEAT_INVENTORY_CHANGE_LOG + trainId);
+                String changeLogOffset = stringRedisTemplate.opsForValue().get(TRAIN_SEAT_INVENTORY_CHANGE_LOG_OFFSET + trainId);
+                inventory = loadFromDatabase(trainId, stations);
+                inventory.setVersion((changeLogSize == null ? 0L : changeLogSize) + (changeLogOffset == null ? 0L : Long.parseLong(changeLogOffset)));
+                persistSnapshot(inventory);
+                log.info("[座位位图库存] 列车：{} 从数据库初始化库存完成", trainId);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return inventory;
+    }
+
+    private TrainSeatInventory loadFromSnapshot(String trainId, List<String> stations) {
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        Map<Object, Object> snapshot = stringRedisTemplate.opsForHash().entries(TRAIN_SEAT_INVENTORY_SNAPSHOT + trainId);
+        if (snapshot.isEmpty() || snapshot.get(SNAPSHOT_VERSION_FIELD) == null) {
+            return null;
+        }
+        List<SeatSlot> seatSlots = new ArrayList<>(snapshot.size());
+        snapshot.forEach((field, value) -> {
+            List<String> parts = StrUtil.split(field.toString(), '_');
+            if (parts.size() == 3) {
+                seatSlots.add(new SeatSlot(parts.get(0), parts.get(1), Integer.parseInt(parts.get(2)), Long.parseLong(value.toString())));
+            }
+        });
+        TrainSeatInventory inventory = TrainSeatInventory.build(trainId, stations, seatSlots);
+        long version = Long.parseLong(snapshot.get(SNAPSHOT_VERSION_FIELD).toString());
+        inventory.setVersion(version);
+        inventory.setSnapshotVersion(version);
+        return inventory;
+    }
+
+    private TrainSeatInventory loadFromDatabase(String trainId, List<String> stations) {
+        Map<String, Integer> stationOrdinalMap = new HashMap<>(stations.size() * 2);
+        for (int i = 0; i < stations.size(); i++) {
+            stationOrdinalMap.putIfAbsent(stations.get(i), i);
+        }
+        LambdaQueryWrapper<SeatDO> queryWrapper = Wrappers.lambdaQuery(SeatDO.class)
+                .eq(SeatDO::getTrainId, trainId)
+                .select(SeatDO::getCarriageNumber, SeatDO::getSeatNumber, SeatDO::getSeatType, SeatDO::getStartStation, SeatDO::getEndStation, SeatDO::getSeatStatus);
+        List<SeatDO> seatDOList = seatMapper.selectList(queryWrapper);
+        Map<String, SeatDO> seatMetaMap = new LinkedHashMap<>();
+        Map<String, Long> seatBitmapMap = new HashMap<>();
+        for (SeatDO each : seatDOList) {
+            Integer start = stationOrdinalMap.get(each.getStartStation());
+            Integer end = stationOrdinalMap.get(each.getEndStation());
+            // 只需相邻站点区段即可还原整条线路的占用情况
+            if (start == null || end == null || end - start != 1) {
+                continue;
+            }
+            String seatKey = TrainSeatInventory.buildSeatKey(each.getCarriageNumber(), each.getSeatNumber());
+            seatMetaMap.putIfAbsent(seatKey, each);
+            long occupied = Objects.equals(each.getSeatStatus(), SeatStatusEnum.AVAILABLE.getCode()) ? 0L : 1L << start;
+            seatBitmapMap.merge(seatKey, occupied, (o1, o2) -> o1 | o2);
+        }
+        List<SeatSlot> seatSlots = new ArrayList<>(seatMetaMap.size());
+        seatMetaMap.forEach((seatKey, each) -> seatSlots.add(new SeatSlot(each.getCarriageNumber(), each.getSeatNumber(), each.getSeatType(), seatBitmapMap.get(seatKey))));
+        return TrainSeatInventory.build(trainId, stations, seatSlots);
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 列车座位区段位图库存
+ * 每个座位使用一个 long 表示沿途区段占用情况，第 i 位代表站点 i 到站点 i + 1 的区段，置 1 代表已锁定或已售出
+ */
+public final class TrainSeatInventory {
+
+    /**
+     * 单个 long 最多可表示 64 个区段
+     */
+    public static final int MAX_STATION_SIZE = Long.SIZE + 1;
+
+    @Getter
+    private final String trainId;
+
+    /**
+     * 站点编码 -> 站点顺序
+     */
+    private final Map<String, Integer> stationOrdinalMap;
+
+    /**
+     * 车厢号_座位号 -> 座位下标
+     */
+    private final Map<String, Integer> seatIndexMap;
+
+    /**
+     * 车厢号 -> 该车厢座位下标区间 [from, to)
+     */
+    private final Map<String, int[]> carriageRangeMap;
+
+    private final String[] carriageNumbers;
+    private final String[] seatNumbers;
+    private final int[] seatTypes;
+    private final AtomicLongArray seatBitmaps;
+
+    /**
+     * 已回放的变更日志位置
+     */
+    @Getter
+    @Setter
+    private volatile long version;
+
+    /**
+     * 最近一次持久化快照对应的变更日志位置
+     */
+    @Getter
+    @Setter
+    private volatile long snapshotVersion;
+
+    private TrainSeatInventory(String trainId, List<String> stations, List<SeatSlot> seatSlots) {
+        this.trainId = trainId;
+        this.stationOrdinalMap = new HashMap<>(stations.size() * 2);
+        for (int i = 0; i < stations.size(); i++) {
+            stationOrdinalMap.putIfAbsent(stations.get(i), i);
+        }
+        int size = seatSlots.size();
+        this.seatIndexMap = new HashMap<>(size * 2);
+        this.carriageRangeMap = new LinkedHashMap<>();
+        this.carriageNumbers = new String[size];
+        this.seatNumbers = new String[size];
+        this.seatTypes = new int[size];
+        this.seatBitmaps = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            SeatSlot seatSlot = seatSlots.get(i);
+            carriageNumbers[i] = seatSlot.getCarriageNumber();
+            seatNumbers[i] = seatSlot.getSeatNumber();
+            seatTypes[i] = seatSlot.getSeatType();
+            seatBitmaps.set(i, seatSlot.getBitmap());
+            seatIndexMap.put(buildSeatKey(seatSlot.getCarriageNumber(), seatSlot.getSeatNumber()), i);
+            int[] range = carriageRangeMap.computeIfAbsent(seatSlot.getCarriageNumber(), each -> new int[]{Integer.MAX_VALUE, 0});
+            range[0] = Math.min(range[0], i);
+            range[1] = Math.max(range[1], i + 1);
+        }
+    }
+
+    /**
+     * 构建列车座位位图库存，座位按车厢号、座位号排序，保证同一车厢座位在位图中连续
+     *
+     * @param trainId   列车 ID
+     * @param stations  列车沿途站点，按行驶顺序排列
+     * @param seatSlots 座位集合
+     * @return 列车座位位图库存
+     */
+    public static TrainSeatInventory build(String trainId, List<String> stations, List<SeatSlot> seatSlots) {
+        if (stations.size() > MAX_STATION_SIZE) {
+            throw new IllegalArgumentException("列车站点数量超过位图库存上限：" + trainId);
+        }
+        List<SeatSlot> sortedSeatSlots = new ArrayList<>(seatSlots);
+        sortedSeatSlots.sort((o1, o2) -> {
+            int compare = o1.getCarriageNumber().compareTo(o2.getCarriageNumber());
+            return compare != 0 ? compare : o1.getSeatNumber().compareTo(o2.getSeatNumber());
+        });
+        return new TrainSeatInventory(trainId, stations, sortedSeatSlots);
+    }
+
+    public static String buildSeatKey(String carriageNumber, String seatNumber) {
+        return carriageNumber + "_" + seatNumber;
+    }
+
+    /**
+     * 计算出发站到到达站所覆盖的区段掩码，站点不存在或方向错误返回 0
+     */
+    public long intervalMask(String departure, String arrival) {
+        Integer start = stationOrdinalMap.get(departure);
+        Integer end = stationOrdinalMap.get(arrival);
+        if (start == null || end == null || start >= end) {
+            return 0L;
+        }
+        int length = end - start;
+        long bits = length == Long.SIZE ? -1L : (1L << length) - 1;
+        return bits << start;
+    }
+
+    /**
+     * 获取车厢中指定区段可用的座位号集合
+     */
+    public List<String> listAvailableSeat(String carriageNumber, Integer seatType, long mask) {
+        int[] range = carriageRangeMap.get(carriageNumber);
+        if (range == null || mask == 0L) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>(range[1] - range[0]);
+        for (int i = range[0]; i < range[1]; i++) {
+            if (seatTypes[i] == seatType && (seatBitmaps.get(i) & mask) == 0L) {
+                result.add(seatNumbers[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取车厢集合中指定区段的余票数量，顺序与入参车厢集合一致
+     */
+    public List<Integer> listCarriageRemainingTicket(List<String> carriageNumbers, long mask) {
+        List<Integer> result = new ArrayList<>(carriageNumbers.size());
+        for (String each : carriageNumbers) {
+            int[] range = carriageRangeMap.get(each);
+            int count = 0;
+            if (range != null && mask != 0L) {
+                for (int i = range[0]; i < range[1]; i++) {
+                    if ((seatBitmaps.get(i) & mask) == 0L) {
+                        count++;
+                    }
+                }
+            }
+            result.add(count);
+        }
+        return result;
+    }
+
+    /**
+     * 查询指定座位类型在区段内仍有余票的车厢号集合
+     */
+    public List<String> listUsableCarriageNumber(Integer seatType, long mask) {
+        List<String> result = new ArrayList<>();
+        if (mask == 0L) {
+            return result;
+        }
+        for (Map.Entry<String, int[]> entry : carriageRangeMap.entrySet()) {
+            int[] range = entry.getValue();
+            for (int i = range[0]; i < range[1]; i++) {
+                if (seatTypes[i] == seatType && (seatBitmaps.get(i) & mask) == 0L) {
+                    result.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 统计指定座位类型在区段内的余票数量
+     */
+    public int countAvailable(Integer seatType, long mask) {
+        if (mask == 0L) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = 0; i < seatTypes.length; i++) {
+            if (seatTypes[i] == seatType && (seatBitmaps.get(i) & mask) == 0L) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 锁定座位区段，区段内任意位已被占用则锁定失败
+     *
+     * @return 是否锁定成功
+     */
+    public boolean tryLock(String carriageNumber, String seatNumber, long mask) {
+        int index = indexOf(carriageNumber, seatNumber);
+        long current;
+        do {
+            current = seatBitmaps.get(index);
+            if ((current & mask) != 0L) {
+                return false;
+            }
+        } while (!seatBitmaps.compareAndSet(index, current, current | mask));
+        return true;
+    }
+
+    /**
+     * 释放座位区段
+     */
+    public void unlock(String carriageNumber, String seatNumber, long mask) {
+        int index = indexOf(carriageNumber, seatNumber);
+        long current;
+        do {
+            current = seatBitmaps.get(index);
+        } while (!seatBitmaps.compareAndSet(index, current, current & ~mask));
+    }
+
+    /**
+     * 无条件回放变更日志，保证与日志顺序一致的最终状态
+     */
+    public void replay(boolean lock, String carriageNumber, String seatNumber, long mask) {
+        Integer index = seatIndexMap.get(buildSeatKey(carriageNumber, seatNumber));
+        if (index == null) {
+            return;
+        }
+        if (lock) {
+            seatBitmaps.getAndUpdate(index, current -> current | mask);
+        } else {
+            seatBitmaps.getAndUpdate(index, current -> current & ~mask);
+        }
+    }
+
+    /**
+     * 导出座位快照，Key 为车厢号_座位号_座位类型，Value 为区段位图
+     */
+    public Map<String, String> snapshot() {
+        Map<String, String> result = new HashMap<>(seatNumbers.length * 2);
+        for (int i = 0; i < seatNumbers.length; i++) {
+            result.put(buildSeatKey(carriageNumbers[i], seatNumbers[i]) + "_" + seatTypes[i], String.valueOf(seatBitmaps.get(i)));
+        }
+        return result;
+    }
+
+    private int indexOf(String carriageNumber, String seatNumber) {
+        Integer index = seatIndexMap.get(buildSeatKey(carriageNumber, seatNumber));
+        if (Objects.isNull(index)) {
+            throw new IllegalArgumentException(String.format("列车 %s 不存在座位 %s 车厢 %s", trainId, seatNumber, carriageNumber));
+        }
+        return index;
+    }
+
+    /**
+     * 座位初始化信息
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class SeatSlot {
+
+        /**
+         * 车厢号
+         */
+        private final String carriageNumber;
+
+        /**
+         * 座位号
+         */
+        private final String seatNumber;
+
+        /**
+         * 座位类型
+         */
+        private final int seatType;
+
+        /**
+         * 区段位图
+         */
+        private final long bitmap;
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.outbox;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.fastjson2.JSON;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opengoofy.index12306.biz.ticketservice.common.enums.OrderOutboxStatusEnum;
+import org.opengoofy.index12306.biz.ticketservice.common.enums.TicketOrderRejectEnum;
+import org.opengoofy.index12306.biz.ticketservice.dao.entity.OrderOutboxDO;
+import org.opengoofy.index12306.biz.ticketservice.dao.entity.TicketDO;
+import org.opengoofy.index12306.biz.ticketservice.dao.mapper.OrderOutboxMapper;
+import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TicketMapper;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.RouteDTO;
+import org.opengoofy.index12306.biz.ticketservice.remote.TicketOrderRemoteService;
+import org.opengoofy.index12306.biz.ticketservice.remote.dto.TicketOrderCreateRemoteReqDTO;
+import org.opengoofy.index12306.biz.ticketservice.remote.dto.TicketOrderDetailRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.remote.dto.TicketOrderItemCreateRemoteReqDTO;
+import org.opengoofy.index12306.biz.ticketservice.remote.dto.TicketOrderPassengerDetailRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.SeatService;
+import org.opengoofy.index12306.biz.ticketservice.service.TrainStationService;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.tokenbucket.TicketAvailabilityTokenBucket;
+import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.opengoofy.index12306.framework.starter.common.threadpool.build.ThreadFactoryBuilder;
+import org.opengoofy.index12306.framework.starter.common.threadpool.build.ThreadPoolBuilder;
+import org.opengoofy.index12306.framework.starter.common.toolkit.BeanUtil;
+import org.opengoofy.index12306.framework.starter.convention.result.Result;
+import org.opengoofy.index12306.framework.starter.distributedid.toolkit.GeneIdUtil;
+import org.opengoofy.index12306.framework.starter.distributedid.toolkit.SnowflakeIdUtil;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.Index12306Constant.ADVANCE_TICKET_DAY;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.ORDER_OUTBOX_RELEASE_STEP;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_STATION_REMAINING_TICKET;
+
+/**
+ * 订单发件箱投递器
+ * 购票事务内写入发件箱记录，事务提交后提交到投递线程池并发投递订单服务；
+ * 进程宕机、投递线程池已满或投递失败的记录由定时扫描按退避时间重试，订单服务按订单号幂等创建；
+ * 订单服务拒绝创建时记录进入释放中状态，座位、车票以及余票令牌全部释放成功后才标记为已拒绝
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderOutboxRelay implements InitializingBean, DisposableBean {
+
+    /**
+     * 投递租约时长，租约内的记录不会被定时扫描重复投递
+     */
+    private static final int DELIVERY_LEASE_SECONDS = 30;
+
+    private static final int SCAN_BATCH_SIZE = 100;
+
+    private static final int DELIVERY_QUEUE_CAPACITY = 4096;
+
+    private static final String RELEASE_STEP_SEAT = "seat";
+    private static final String RELEASE_STEP_TOKEN = "token";
+    private static final String RELEASE_STEP_REMAINING_TICKET = "remaining-ticket";
+
+    private final OrderOutboxMapper orderOutboxMapper;
+    private final TicketMapper ticketMapper;
+    private final TicketOrderRemoteService ticketOrderRemoteService;
+    private final SeatService seatService;
+    private final TrainStationService trainStationService;
+    private final TicketAvailabilityTokenBucket ticketAvailabilityTokenBucket;
+    private final DistributedCache distributedCache;
+
+    @Value("${ticket.availability.cache-update.type:}")
+    private String ticketAvailabilityCacheUpdateType;
+
+    /**
+     * 投递线程数，各记录相互独立，并发调用订单服务
+     */
+    @Value("${ticket.order-outbox.delivery-threads:16}")
+    private int deliveryThreads;
+
+    private ThreadPoolExecutor deliveryExecutor;
+    private final ScheduledExecutorService scanExecutor = Executors.newSingleThreadScheduledExecutor(ThreadFactoryBuilder.builder()
+            .prefix("order-outbox-scan")
+            .daemon(true)
+            .build());
+
+    /**
+     * 生成订单号，与订单服务保持一致通过基因法将用户 ID 融入到订单号
+     *
+     * @param userId 用户 ID
+     * @return 订单号
+     */
+    public String generateOrderSn(String userId) {
+        return GeneIdUtil.appendGene(SnowflakeIdUtil.nextId(), Long.parseLong(userId));
+    }
+
+    /**
+     * 在当前事务中写入发件箱记录，事务提交后异步投递
+     *
+     * @param requestParam 订单创建请求参数，订单号需预先生成
+     */
+    public void save(TicketOrderCreateRemoteReqDTO requestParam) {
+        OrderOutboxDO orderOutboxDO = OrderOutboxDO.builder()
+                .orderSn(requestParam.getOrderSn())
+                .trainId(requestParam.getTrainId())
+                .payload(JSON.toJSONString(requestParam))
+                .status(OrderOutboxStatusEnum.PENDING.getCode())
+                .retryCount(0)
+                .nextRetryTime(DateUtil.offsetSecond(new Date(), DELIVERY_LEASE_SECONDS))
+                .build();
+        orderOutboxMapper.insert(orderOutboxDO);
+        Long outboxId = orderOutboxDO.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(() -> deliver(orderOutboxMapper.selectById(outboxId)));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                submit(() -> deliver(orderOutboxMapper.selectById(outboxId)));
+            }
+        });
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        deliveryExecutor = ThreadPoolBuilder.builder()
+                .corePoolSize(deliveryThreads)
+                .maximumPoolSize(deliveryThreads)
+                .workQueue(new LinkedBlockingQueue<>(DELIVERY_QUEUE_CAPACITY))
+                .threadFactory("order-outbox-delivery", true)
+                .build();
+        scanExecutor.scheduleWithFixedDelay(this::scanPending, DELIVERY_LEASE_SECONDS, 5, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scanExecutor.shutdownNow();
+        deliveryExecutor.shutdown();
+    }
+
+    /**
+     * 提交到投递线程池，线程池已满时放弃本次投递，由定时扫描在投递租约到期后重试
+     */
+    private void submit(Runnable task) {
+        try {
+            deliveryExecutor.execute(() -> {
+                try {
+                    task.run();
+                } catch (Throwable ex) {
+                    log.error("[订单发件箱] 投递线程执行异常", ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            log.warn("[订单发件箱] 投递线程池已满，等待定时扫描重试");
+        }
+    }
+
+    private void scanPending() {
+        try {
+            LambdaQueryWrapper<OrderOutboxDO> queryWrapper = Wrappers.lambdaQuery(OrderOutboxDO.class)
+                    .in(OrderOutboxDO::getStatus, OrderOutboxStatusEnum.PENDING.getCode(), OrderOutboxStatusEnum.RELEASING.getCode())
+                    .le(OrderOutboxDO::getNextRetryTime, new Date())
+                    .last("limit " + SCAN_BATCH_SIZE);
+            List<OrderOutboxDO> orderOutboxDOList = orderOutboxMapper.selectList(queryWrapper);
+            for (OrderOutboxDO each : orderOutboxDOList) {
+                // 抢占投递租约，避免多个节点同时投递同一条记录
+                LambdaUpdateWrapper<OrderOutboxDO> updateWrapper = Wrappers.lambdaUpdate(OrderOutboxDO.class)
+                        .eq(OrderOutboxDO::getId, each.getId())
+                        .eq(OrderOutboxDO::getStatus, each.getStatus())
+                        .eq(OrderOutboxDO::getNextRetryTime, each.getNextRetryTime());
+                OrderOutboxDO updateOrderOutboxDO = OrderOutboxDO.builder()
+                        .nextRetryTime(DateUtil.offsetSecond(new Date(), DELIVERY_LEASE_SECONDS))
+                        .build();
+                if (orderOutboxMapper.update(updateOrderOutboxDO, updateWrapper) > 0) {
+                    submit(Objects.equals(each.getStatus(), OrderOutboxStatusEnum.RELEASING.getCode())
+                            ? () -> release(each)
+                            : () -> deliver(each));
+                }
+            }
+        } catch (Throwable ex) {
+            log.error("[订单发件箱] 扫描待投递记录异常", ex);
+        }
+    }
+
+    private void deliver(OrderOutboxDO orderOutboxDO) {
+        if (orderOutboxDO == null || !Objects.equals(orderOutboxDO.getStatus(), OrderOutboxStatusEnum.PENDING.getCode())) {
+            return;
+        }
+        TicketOrderCreateRemoteReqDTO requestParam = JSON.parseObject(orderOutboxDO.getPayload(), TicketOrderCreateRemoteReqDTO.class);
+        Result<String> ticketOrderResult;
+        try {
+            ticketOrderResult = ticketOrderRemoteService.createTicketOrder(requestParam);
+        } catch (Throwable ex) {
+            log.error("[订单发件箱] 订单号：{} 远程调用订单服务失败", orderOutboxDO.getOrderSn(), ex);
+            retryLater(orderOutboxDO, OrderOutboxStatusEnum.PENDING);
+            return;
+        }
+        if (TicketOrderRejectEnum.findByCode(ticketOrderResult.getCode()) != null) {
+            log.warn("[订单发件箱] 订单号：{} 订单服务拒绝创建：{}", orderOutboxDO.getOrderSn(), ticketOrderResult.getMessage());
+            if (updateStatus(orderOutboxDO, OrderOutboxStatusEnum.PENDING, OrderOutboxStatusEnum.RELEASING)) {
+                orderOutboxDO.setStatus(OrderOutboxStatusEnum.RELEASING.getCode());
+                release(orderOutboxDO);
+            }
+            return;
+        }
+        if (!ticketOrderResult.isSuccess() || StrUtil.isBlank(ticketOrderResult.getData())) {
+            log.error("[订单发件箱] 订单号：{} 订单服务调用失败，返回结果：{}", orderOutboxDO.getOrderSn(), ticketOrderResult.getMessage());
+            retryLater(orderOutboxDO, OrderOutboxStatusEnum.PENDING);
+            return;
+        }
+        updateStatus(orderOutboxDO, OrderOutboxStatusEnum.PENDING, OrderOutboxStatusEnum.DELIVERED);
+    }
+
+    /**
+     * 释放被拒绝订单锁定的资源，全部成功后标记为已拒绝，失败时保持释放中状态按退避时间重试
+     */
+    private void release(OrderOutboxDO orderOutboxDO) {
+        TicketOrderCreateRemoteReqDTO requestParam = JSON.parseObject(orderOutboxDO.getPayload(), TicketOrderCreateRemoteReqDTO.class);
+        try {
+            releaseTickets(requestParam);
+        } catch (Throwable ex) {
+            log.error("[订单发件箱] 订单号：{} 释放座位以及余票失败，稍后重试", orderOutboxDO.getOrderSn(), ex);
+            retryLater(orderOutboxDO, OrderOutboxStatusEnum.RELEASING);
+            return;
+        }
+        updateStatus(orderOutboxDO, OrderOutboxStatusEnum.RELEASING, OrderOutboxStatusEnum.REJECTED);
+    }
+
+    private boolean updateStatus(OrderOutboxDO orderOutboxDO, OrderOutboxStatusEnum expectedStatus, OrderOutboxStatusEnum status) {
+        LambdaUpdateWrapper<OrderOutboxDO> updateWrapper = Wrappers.lambdaUpdate(OrderOutboxDO.class)
+                .eq(OrderOutboxDO::getId, orderOutboxDO.getId())
+                .eq(OrderOutboxDO::getStatus, expectedStatus.getCode());
+        OrderOutboxDO updateOrderOutboxDO = OrderOutboxDO.builder()
+                .status(status.getCode())
+                .build();
+        return orderOutboxMapper.update(updateOrderOutboxDO, updateWrapper) > 0;
+    }
+
+    private void retryLater(OrderOutboxDO orderOutboxDO, OrderOutboxStatusEnum expectedStatus) {
+        int retryCount = orderOutboxDO.getRetryCount() == null ? 0 : orderOutboxDO.getRetryCount();
+        // 指数退避，最长间隔 5 分钟
+        int delaySeconds = Math.min(5 << Math.min(retryCount, 6), 300);
+        LambdaUpdateWrapper<OrderOutboxDO> updateWrapper = Wrappers.lambdaUpdate(OrderOutboxDO.class)
+                .eq(OrderOutboxDO::getId, orderOutboxDO.getId())
+                .eq(OrderOutboxDO::getStatus, expectedStatus.getCode());
+        OrderOutboxDO updateOrderOutboxDO = OrderOutboxDO.builder()
+                .retryCount(retryCount + 1)
+                .nextRetryTime(DateUtil.offsetSecond(new Date(), delaySeconds))
+                .build();
+        orderOutboxMapper.update(updateOrderOutboxDO, updateWrapper);
+    }
+
+    /**
+     * 订单服务拒绝创建订单时释放已锁定的座位、车票以及余票令牌，任一步骤失败时抛出异常由调用方重试；
+     * 座位、余票令牌以及余票缓存的释放不可重复执行，每一步成功后记录到 Redis，重试时跳过已完成的步骤
+     */
+    private void releaseTickets(TicketOrderCreateRemoteReqDTO requestParam) {
+        String trainId = String.valueOf(requestParam.getTrainId());
+        String departure = requestParam.getDeparture();
+        String arrival = requestParam.getArrival();
+        List<TicketOrderItemCreateRemoteReqDTO> ticketOrderItems = requestParam.getTicketOrderItems();
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        String releaseStepKey = ORDER_OUTBOX_RELEASE_STEP + requestParam.getOrderSn();
+        releaseStep(stringRedisTemplate, releaseStepKey, RELEASE_STEP_SEAT,
+                () -> seatService.unlock(trainId, departure, arrival, BeanUtil.convert(ticketOrderItems, TrainPurchaseTicketRespDTO.class)));
+        ticketOrderItems.forEach(each -> {
+            LambdaUpdateWrapper<TicketDO> deleteWrapper = Wrappers.lambdaUpdate(TicketDO.class)
+                    .eq(TicketDO::getUsername, requestParam.getUsername())
+                    .eq(TicketDO::getTrainId, requestParam.getTrainId())
+                    .eq(TicketDO::getCarriageNumber, each.getCarriageNumber())
+                    .eq(TicketDO::getSeatNumber, each.getSeatNumber());
+            ticketMapper.delete(deleteWrapper);
+        });
+        releaseStep(stringRedisTemplate, releaseStepKey, RELEASE_STEP_TOKEN, () -> {
+            TicketOrderDetailRespDTO ticketOrderDetail = BeanUtil.convert(requestParam, TicketOrderDetailRespDTO.class);
+            ticketOrderDetail.setPassengerDetails(BeanUtil.convert(ticketOrderItems, TicketOrderPassengerDetailRespDTO.class));
+            ticketAvailabilityTokenBucket.rollbackInBucket(ticketOrderDetail);
+        });
+        if (!StrUtil.equals(ticketAvailabilityCacheUpdateType, "binlog")) {
+            releaseStep(stringRedisTemplate, releaseStepKey, RELEASE_STEP_REMAINING_TICKET, () -> {
+                Map<Integer, Long> seatTypeCountMap = ticketOrderItems.stream()
+                        .collect(Collectors.groupingBy(TicketOrderItemCreateRemoteReqDTO::getSeatType, Collectors.counting()));
+                List<RouteDTO> routeDTOList = trainStationService.listTakeoutTrainStationRoute(trainId, departure, arrival);
+                if (CollUtil.isNotEmpty(routeDTOList)) {
+                    routeDTOList.forEach(each -> {
+                        String keySuffix = StrUtil.join("_", trainId, each.getStartStation(), each.getEndStation());
+                        seatTypeCountMap.forEach((seatType, count) -> stringRedisTemplate.opsForHash()
+                                .increment(TRAIN_STATION_REMAINING_TICKET + keySuffix, String.valueOf(seatType), count));
+                    });
+                }
+            });
+        }
+    }
+
+    private void releaseStep(StringRedisTemplate stringRedisTemplate, String releaseStepKey, String step, Runnable action) {
+        if (stringRedisTemplate.opsForHash().hasKey(releaseStepKey, step)) {
+            return;
+        }
+        action.run();
+        stringRedisTemplate.opsForHash().put(releaseStepKey, step, String.valueOf(System.currentTimeMillis()));
+        stringRedisTemplate.expire(releaseStepKey, ADVANCE_TICKET_DAY, TimeUnit.DAYS);
+    }
+}
@@ -0,0 +1,9 @@
+local claimed = {}
+for i = 3, #ARGV do
+    local score = redis.call('zscore', KEYS[1], ARGV[i])
+    if score and tonumber(score) <= tonumber(ARGV[1]) then
+        redis.call('zadd', KEYS[1], ARGV[2], ARGV[i])
+        table.insert(claimed, ARGV[i])
+    end
+end
+return claimed
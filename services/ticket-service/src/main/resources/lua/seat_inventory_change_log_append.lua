@@ -0,0 +1,5 @@
+local size = redis.call('rpush', KEYS[1], unpack(ARGV, 2))
+redis.call('expire', KEYS[1], ARGV[1])
+redis.call('expire', KEYS[2], ARGV[1])
+local offset = tonumber(redis.call('get', KEYS[2]) or '0')
+return size + offset
@@ -0,0 +1,11 @@
+local offset = tonumber(redis.call('get', KEYS[2]) or '0')
+local version = tonumber(ARGV[1])
+local result = {tostring(offset)}
+if version < offset then
+    return result
+end
+local entries = redis.call('lrange', KEYS[1], version - offset, -1)
+for i = 1, #entries do
+    table.insert(result, entries[i])
+end
+return result
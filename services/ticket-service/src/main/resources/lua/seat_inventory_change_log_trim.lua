@@ -0,0 +1,9 @@
+local offset = tonumber(redis.call('get', KEYS[2]) or '0')
+local snapshotVersion = tonumber(redis.call('hget', KEYS[3], ARGV[2]) or '0')
+local trimTo = math.min(tonumber(ARGV[1]), snapshotVersion)
+if trimTo <= offset then
+    return offset
+end
+redis.call('ltrim', KEYS[1], trimTo - offset, -1)
+redis.call('set', KEYS[2], trimTo, 'ex', ARGV[3])
+return trimTo
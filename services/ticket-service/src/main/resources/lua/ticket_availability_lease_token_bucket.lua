@@ -0,0 +1,44 @@
+local inputString = KEYS[2]
+local actualKey = inputString
+local colonIndex = string.find(actualKey, ":")
+if colonIndex ~= nil then
+    actualKey = string.sub(actualKey, colonIndex + 1)
+end
+
+local seatType = ARGV[1]
+local needCount = tonumber(ARGV[2])
+local leaseCount = tonumber(ARGV[3])
+
+local result = {}
+result['generation'] = redis.call('hget', KEYS[1], 'generation') or ''
+result['grant'] = 0
+
+local actualInnerKey = actualKey .. "_" .. seatType
+local ticketSeatAvailabilityTokenValue = tonumber(redis.call('hget', KEYS[1], actualInnerKey))
+if ticketSeatAvailabilityTokenValue == nil or ticketSeatAvailabilityTokenValue < needCount then
+    return cjson.encode(result)
+end
+
+local alongJsonArray = cjson.decode(ARGV[4])
+local spareCount = math.min(leaseCount, ticketSeatAvailabilityTokenValue - needCount)
+for index, alongJsonObj in ipairs(alongJsonArray) do
+    local startStation = tostring(alongJsonObj.startStation)
+    local endStation = tostring(alongJsonObj.endStation)
+    local actualInnerHashKey = startStation .. "_" .. endStation .. "_" .. seatType
+    local alongTokenValue = tonumber(redis.call('hget', KEYS[1], tostring(actualInnerHashKey))) or 0
+    spareCount = math.min(spareCount, alongTokenValue - needCount)
+end
+if spareCount < 0 then
+    spareCount = 0
+end
+
+local grantCount = needCount + spareCount
+for index, alongJsonObj in ipairs(alongJsonArray) do
+    local startStation = tostring(alongJsonObj.startStation)
+    local endStation = tostring(alongJsonObj.endStation)
+    local actualInnerHashKey = startStation .. "_" .. endStation .. "_" .. seatType
+    redis.call('hincrby', KEYS[1], tostring(actualInnerHashKey), -grantCount)
+end
+
+result['grant'] = grantCount
+return cjson.encode(result)
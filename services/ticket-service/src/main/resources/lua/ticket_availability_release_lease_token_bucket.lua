@@ -0,0 +1,20 @@
+if redis.call('exists', KEYS[1]) == 0 then
+    return 0
+end
+
+local generation = redis.call('hget', KEYS[1], 'generation') or ''
+if generation ~= ARGV[3] then
+    return 0
+end
+
+local seatType = ARGV[1]
+local count = tonumber(ARGV[2])
+local alongJsonArray = cjson.decode(ARGV[4])
+for index, alongJsonObj in ipairs(alongJsonArray) do
+    local startStation = tostring(alongJsonObj.startStation)
+    local endStation = tostring(alongJsonObj.endStation)
+    local actualInnerHashKey = startStation .. "_" .. endStation .. "_" .. seatType
+    redis.call('hincrby', KEYS[1], tostring(actualInnerHashKey), count)
+end
+
+return 1
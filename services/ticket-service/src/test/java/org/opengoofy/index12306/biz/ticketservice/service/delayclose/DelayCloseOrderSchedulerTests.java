@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.delayclose;
+
+import com.alibaba.fastjson2.JSON;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opengoofy.index12306.biz.ticketservice.mq.event.DelayCloseOrderEvent;
+import org.opengoofy.index12306.biz.ticketservice.remote.TicketOrderRemoteService;
+import org.opengoofy.index12306.biz.ticketservice.service.SeatService;
+import org.opengoofy.index12306.biz.ticketservice.service.TrainStationService;
+import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.opengoofy.index12306.framework.starter.convention.result.Result;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.ORDER_DELAY_CLOSE_EVENT;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.ORDER_DELAY_CLOSE_INDEX;
+
+/**
+ * 延迟关闭订单调度器单元测试，覆盖节点重启从到期索引恢复、关闭成功后移除到期索引以及失败后保留到期索引等待重试
+ */
+class DelayCloseOrderSchedulerTests {
+
+    private static final String ORDER_SN = "1683025552364568576";
+    private static final String INDEX_KEY = ORDER_DELAY_CLOSE_INDEX + Math.floorMod(ORDER_SN.hashCode(), 16);
+    private static final String EVENT_KEY = ORDER_DELAY_CLOSE_EVENT + Math.floorMod(ORDER_SN.hashCode(), 16);
+
+    private TicketOrderRemoteService ticketOrderRemoteService;
+    private SeatService seatService;
+    private StringRedisTemplate stringRedisTemplate;
+    private ZSetOperations<String, String> zSetOperations;
+    private HashOperations<String, Object, Object> hashOperations;
+    private DelayCloseOrderScheduler delayCloseOrderScheduler;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ticketOrderRemoteService = mock(TicketOrderRemoteService.class);
+        seatService = mock(SeatService.class);
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        zSetOperations = mock(ZSetOperations.class);
+        hashOperations = mock(HashOperations.class);
+        DistributedCache distributedCache = mock(DistributedCache.class);
+        when(distributedCache.getInstance()).thenReturn(stringRedisTemplate);
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+        // 到期索引中保留一条早已到期的订单，模拟登记节点宕机后重启
+        when(zSetOperations.rangeWithScores(INDEX_KEY, 0, -1))
+                .thenReturn(Set.of(new DefaultTypedTuple<>(ORDER_SN, (double) (System.currentTimeMillis() - 60000L))));
+        // 抢占脚本返回参数中的全部订单号，前两个参数为抢占截止时间与租约到期时间
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any())).thenAnswer(invocation -> {
+            List<Object> arguments = Arrays.asList(invocation.getArguments());
+            return new ArrayList<>(arguments.subList(4, arguments.size()));
+        });
+        DelayCloseOrderEvent event = DelayCloseOrderEvent.builder()
+                .trainId("1")
+                .departure("北京南")
+                .arrival("济南西")
+                .orderSn(ORDER_SN)
+                .trainPurchaseTicketResults(List.of())
+                .build();
+        when(hashOperations.multiGet(eq(EVENT_KEY), anyList()))
+                .thenReturn(Arrays.asList(JSON.toJSONString(event), null));
+        delayCloseOrderScheduler = new DelayCloseOrderScheduler(
+                ticketOrderRemoteService,
+                seatService,
+                mock(TrainStationService.class),
+                null,
+                distributedCache);
+        ReflectionTestUtils.setField(delayCloseOrderScheduler, "orderDelayCloseType", "local");
+        ReflectionTestUtils.setField(delayCloseOrderScheduler, "delayCloseSeconds", 600L);
+        ReflectionTestUtils.setField(delayCloseOrderScheduler, "ticketAvailabilityCacheUpdateType", "binlog");
+        ReflectionTestUtils.setField(delayCloseOrderScheduler, "cacheRedisPrefix", "");
+    }
+
+    @AfterEach
+    void tearDown() {
+        delayCloseOrderScheduler.destroy();
+    }
+
+    @Test
+    void testRecoverAndCloseOverdueOrder() {
+        when(ticketOrderRemoteService.closeTickOrder(any())).thenReturn(new Result<Boolean>().setCode(Result.SUCCESS_CODE).setData(true));
+        delayCloseOrderScheduler.afterPropertiesSet();
+        verify(ticketOrderRemoteService, timeout(5000)).closeTickOrder(any());
+        verify(hashOperations, timeout(5000)).put(EVENT_KEY, ORDER_SN + ":closed", "1");
+        verify(zSetOperations, timeout(5000)).remove(INDEX_KEY, ORDER_SN);
+        verify(hashOperations, timeout(5000)).delete(EVENT_KEY, ORDER_SN, ORDER_SN + ":closed");
+    }
+
+    @Test
+    void testKeepIndexWhenRemoteCloseFails() {
+        when(ticketOrderRemoteService.closeTickOrder(any())).thenThrow(new RuntimeException("order-service unavailable"));
+        delayCloseOrderScheduler.afterPropertiesSet();
+        verify(ticketOrderRemoteService, timeout(5000)).closeTickOrder(any());
+        verify(zSetOperations, after(500).never()).remove(anyString(), any());
+    }
+
+    @Test
+    void testKeepIndexWhenSeatUnlockFails() {
+        ReflectionTestUtils.setField(delayCloseOrderScheduler, "ticketAvailabilityCacheUpdateType", "");
+        when(ticketOrderRemoteService.closeTickOrder(any())).thenReturn(new Result<Boolean>().setCode(Result.SUCCESS_CODE).setData(true));
+        doThrow(new RuntimeException("db unavailable")).when(seatService).unlock(anyString(), anyString(), anyString(), anyList());
+        delayCloseOrderScheduler.afterPropertiesSet();
+        verify(seatService, timeout(5000)).unlock(anyString(), anyString(), anyString(), anyList());
+        // 订单已关闭的标记保留，重试时跳过关闭直接回滚
+        verify(hashOperations, timeout(5000)).put(EVENT_KEY, ORDER_SN + ":closed", "1");
+        verify(zSetOperations, after(500).never()).remove(anyString(), any());
+        verify(hashOperations, never()).delete(anyString(), any());
+    }
+}
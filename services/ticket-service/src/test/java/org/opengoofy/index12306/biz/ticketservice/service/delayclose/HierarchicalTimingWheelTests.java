@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.delayclose;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.opengoofy.index12306.biz.ticketservice.service.delayclose.HierarchicalTimingWheel.TimerBucket;
+import org.opengoofy.index12306.biz.ticketservice.service.delayclose.HierarchicalTimingWheel.TimerEntry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+
+/**
+ * 分层时间轮单元测试，起始时间早于当前时间，延迟队列中的时间格立即可取出，按时间格到期时间模拟时钟推进
+ */
+class HierarchicalTimingWheelTests {
+
+    private static final long TICK_MS = 1000L;
+    private static final int WHEEL_SIZE = 60;
+    private static final long START_MS = 1_000_000L;
+
+    @Test
+    void testEntriesFireWithinOneTickOfExpiration() {
+        DelayQueue<TimerBucket<String>> delayQueue = new DelayQueue<>();
+        HierarchicalTimingWheel<String> timingWheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, START_MS, delayQueue);
+        Map<String, Long> expirationMap = new HashMap<>();
+        // 覆盖第一层、第二层溢出时间轮与第三层溢出时间轮
+        long[] delays = {1500L, 2000L, 59_999L, 61_000L, 600_000L, 3_599_000L, 3_700_000L};
+        for (int i = 0; i < delays.length; i++) {
+            String payload = "order-" + i;
+            long expirationMs = START_MS + delays[i];
+            expirationMap.put(payload, expirationMs);
+            Assertions.assertTrue(timingWheel.add(new TimerEntry<>(payload, expirationMs)));
+        }
+        Map<String, Long> firedMap = drive(timingWheel, delayQueue);
+        Assertions.assertEquals(expirationMap.keySet(), firedMap.keySet());
+        firedMap.forEach((payload, firedMs) -> {
+            long expirationMs = expirationMap.get(payload);
+            Assertions.assertTrue(firedMs <= expirationMs && firedMs > expirationMs - TICK_MS,
+                    payload + " fired at " + firedMs + " expected " + expirationMs);
+        });
+    }
+
+    @Test
+    void testExpiredEntryIsRejected() {
+        HierarchicalTimingWheel<String> timingWheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, START_MS, new DelayQueue<>());
+        Assertions.assertFalse(timingWheel.add(new TimerEntry<>("expired", START_MS - 1)));
+        Assertions.assertFalse(timingWheel.add(new TimerEntry<>("current-tick", START_MS + TICK_MS - 1)));
+    }
+
+    @Test
+    void testBucketReusedAfterFlush() {
+        DelayQueue<TimerBucket<String>> delayQueue = new DelayQueue<>();
+        HierarchicalTimingWheel<String> timingWheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, START_MS, delayQueue);
+        timingWheel.add(new TimerEntry<>("first", START_MS + 5000L));
+        Map<String, Long> firedMap = drive(timingWheel, delayQueue);
+        Assertions.assertEquals(START_MS + 5000L, firedMap.get("first"));
+        // 同一时间格下标在下一轮被复用
+        timingWheel.add(new TimerEntry<>("second", START_MS + 5000L + TICK_MS * WHEEL_SIZE));
+        firedMap = drive(timingWheel, delayQueue);
+        Assertions.assertEquals(START_MS + 5000L + TICK_MS * WHEEL_SIZE, firedMap.get("second"));
+    }
+
+    private static Map<String, Long> drive(HierarchicalTimingWheel<String> timingWheel, DelayQueue<TimerBucket<String>> delayQueue) {
+        Map<String, Long> firedMap = new HashMap<>();
+        TimerBucket<String> bucket;
+        while ((bucket = delayQueue.poll()) != null) {
+            long bucketExpiration = bucket.getExpiration();
+            timingWheel.advanceClock(bucketExpiration);
+            List<TimerEntry<String>> expired = new ArrayList<>();
+            bucket.flush(each -> {
+                if (!timingWheel.add(each)) {
+                    expired.add(each);
+                }
+            });
+            expired.forEach(each -> firedMap.put(each.getPayload(), bucketExpiration));
+        }
+        return firedMap;
+    }
+}
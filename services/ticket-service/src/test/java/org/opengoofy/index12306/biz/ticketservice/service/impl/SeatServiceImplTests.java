@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opengoofy.index12306.biz.ticketservice.common.enums.SeatStatusEnum;
+import org.opengoofy.index12306.biz.ticketservice.dao.entity.SeatDO;
+import org.opengoofy.index12306.biz.ticketservice.dao.mapper.SeatMapper;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.RouteDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.TrainStationService;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.TrainStationRouteIndex;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.inventory.SeatInventoryManager;
+import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 座位区段锁定单元测试，使用内存座位表模拟 t_seat 批量更新语义
+ */
+class SeatServiceImplTests {
+
+    private static final String TRAIN_ID = "1";
+    private static final List<String> STATIONS = List.of("A", "B", "C", "D");
+
+    /**
+     * 车厢号_座位号_出发站_到达站 -> 座位状态
+     */
+    private final Map<String, Integer> seatTable = new HashMap<>();
+
+    private final AtomicInteger compareAndUpdateFailures = new AtomicInteger();
+
+    private SeatMapper seatMapper;
+
+    private TrainStationService trainStationService;
+
+    private SeatServiceImpl seatService;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < STATIONS.size(); i++) {
+            for (int j = i + 1; j < STATIONS.size(); j++) {
+                seatTable.put(seatKey("01", "01A", STATIONS.get(i), STATIONS.get(j)), SeatStatusEnum.AVAILABLE.getCode());
+            }
+        }
+        TrainStationRouteIndex routeIndex = new TrainStationRouteIndex(TRAIN_ID, STATIONS);
+        trainStationService = mock(TrainStationService.class);
+        when(trainStationService.listTakeoutTrainStationRoute(anyString(), anyString(), anyString()))
+                .thenAnswer(invocation -> routeIndex.listTakeoutRoute(invocation.getArgument(1), invocation.getArgument(2)));
+        seatMapper = mock(SeatMapper.class);
+        when(seatMapper.compareAndUpdateSeatStatus(anyLong(), anyList(), anyString(), anyString(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> {
+                    if (compareAndUpdateFailures.getAndDecrement() > 0) {
+                        throw new QueryTimeoutException("seat table timeout");
+                    }
+                    List<SeatDO> seatList = invocation.getArgument(1);
+                    int updated = 0;
+                    for (SeatDO each : seatList) {
+                        String key = seatKey(each.getCarriageNumber(), each.getSeatNumber(), invocation.getArgument(2), invocation.getArgument(3));
+                        if (seatTable.get(key).equals(invocation.getArgument(4))) {
+                            seatTable.put(key, invocation.getArgument(5));
+                            updated++;
+                        }
+                    }
+                    return updated;
+                });
+        when(seatMapper.updateSeatStatusBatch(anyLong(), anyList(), anyList(), anyInt()))
+                .thenAnswer(invocation -> {
+                    List<SeatDO> seatList = invocation.getArgument(1);
+                    List<RouteDTO> routeList = invocation.getArgument(2);
+                    int updated = 0;
+                    for (SeatDO each : seatList) {
+                        for (RouteDTO route : routeList) {
+                            seatTable.put(seatKey(each.getCarriageNumber(), each.getSeatNumber(), route.getStartStation(), route.getEndStation()), invocation.getArgument(3));
+                            updated++;
+                        }
+                    }
+                    return updated;
+                });
+        seatService = new SeatServiceImpl(seatMapper, trainStationService, null, null);
+    }
+
+    @Test
+    void testLockNonOverlappingSegmentsOnSameSeat() {
+        seatService.lockSeat(TRAIN_ID, "A", "B", List.of(purchaseResult()));
+        Assertions.assertEquals(SeatStatusEnum.LOCKED.getCode(), seatTable.get(seatKey("01", "01A", "A", "C")));
+        Assertions.assertEquals(SeatStatusEnum.LOCKED.getCode(), seatTable.get(seatKey("01", "01A", "A", "D")));
+        Assertions.assertEquals(SeatStatusEnum.AVAILABLE.getCode(), seatTable.get(seatKey("01", "01A", "B", "C")));
+
+        Assertions.assertDoesNotThrow(() -> seatService.lockSeat(TRAIN_ID, "B", "C", List.of(purchaseResult())));
+        Assertions.assertEquals(SeatStatusEnum.LOCKED.getCode(), seatTable.get(seatKey("01", "01A", "B", "C")));
+        Assertions.assertEquals(SeatStatusEnum.LOCKED.getCode(), seatTable.get(seatKey("01", "01A", "B", "D")));
+        Assertions.assertEquals(SeatStatusEnum.AVAILABLE.getCode(), seatTable.get(seatKey("01", "01A", "C", "D")));
+    }
+
+    @Test
+    void testLockOverlappingSegmentOnSameSeatFails() {
+        seatService.lockSeat(TRAIN_ID, "A", "C", List.of(purchaseResult()));
+        Assertions.assertThrows(ServiceException.class, () -> seatService.lockSeat(TRAIN_ID, "B", "D", List.of(purchaseResult())));
+        Assertions.assertEquals(SeatStatusEnum.AVAILABLE.getCode(), seatTable.get(seatKey("01", "01A", "C", "D")));
+    }
+
+    @Test
+    void testBitmapWriteBehindRetriesInOrder() throws Exception {
+        SeatInventoryManager seatInventoryManager = mock(SeatInventoryManager.class);
+        SeatServiceImpl bitmapSeatService = new SeatServiceImpl(seatMapper, trainStationService, null, seatInventoryManager);
+        ReflectionTestUtils.setField(bitmapSeatService, "seatInventoryType", "bitmap");
+        bitmapSeatService.afterPropertiesSet();
+        compareAndUpdateFailures.set(2);
+        bitmapSeatService.lockSeat(TRAIN_ID, "A", "C", List.of(purchaseResult()));
+        bitmapSeatService.unlock(TRAIN_ID, "A", "C", List.of(purchaseResult()));
+        bitmapSeatService.lockSeat(TRAIN_ID, "B", "D", List.of(purchaseResult()));
+        bitmapSeatService.destroy();
+        verify(seatInventoryManager).lock(TRAIN_ID, "A", "C", List.of(purchaseResult()));
+        // 首次写回失败两次后重试成功，后续释放与锁定按提交顺序落库
+        Assertions.assertEquals(SeatStatusEnum.AVAILABLE.getCode(), seatTable.get(seatKey("01", "01A", "A", "B")));
+        Assertions.assertEquals(SeatStatusEnum.LOCKED.getCode(), seatTable.get(seatKey("01", "01A", "B", "C")));
+        Assertions.assertEquals(SeatStatusEnum.LOCKED.getCode(), seatTable.get(seatKey("01", "01A", "C", "D")));
+    }
+
+    @Test
+    void testWriteBehindExecutorOnlyCreatedInBitmapMode() throws Exception {
+        seatService.afterPropertiesSet();
+        Assertions.assertNull(ReflectionTestUtils.getField(seatService, "seatInventoryWriteBehindExecutor"));
+        seatService.destroy();
+    }
+
+    private static TrainPurchaseTicketRespDTO purchaseResult() {
+        TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
+        result.setCarriageNumber("01");
+        result.setSeatNumber("01A");
+        return result;
+    }
+
+    private static String seatKey(String carriageNumber, String seatNumber, String startStation, String endStation) {
+        return String.join("_", carriageNumber, seatNumber, startStation, endStation);
+    }
+}
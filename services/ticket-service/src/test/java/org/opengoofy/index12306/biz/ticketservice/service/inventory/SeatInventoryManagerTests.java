@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.inventory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opengoofy.index12306.biz.ticketservice.dao.mapper.SeatMapper;
+import org.opengoofy.index12306.biz.ticketservice.service.TrainStationService;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.redisson.api.RedissonClient;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 座位位图库存单元测试，变更日志追加失败时本地位图需与 Redis 保持一致
+ */
+class SeatInventoryManagerTests {
+
+    private static final String TRAIN_ID = "1";
+    private static final List<String> STATIONS = List.of("A", "B", "C", "D");
+
+    private StringRedisTemplate stringRedisTemplate;
+
+    private SeatInventoryManager seatInventoryManager;
+
+    private TrainSeatInventory inventory;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        DistributedCache distributedCache = mock(DistributedCache.class);
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        when(distributedCache.getInstance()).thenReturn(stringRedisTemplate);
+        seatInventoryManager = new SeatInventoryManager(mock(SeatMapper.class), mock(TrainStationService.class), distributedCache, mock(RedissonClient.class));
+        inventory = TrainSeatInventory.build(TRAIN_ID, STATIONS, List.of(
+                new TrainSeatInventory.SeatSlot("01", "01A", 0, 0L),
+                new TrainSeatInventory.SeatSlot("01", "01B", 0, 0L)));
+        Cache<String, TrainSeatInventory> inventoryCache = (Cache<String, TrainSeatInventory>) ReflectionTestUtils.getField(seatInventoryManager, "inventoryCache");
+        inventoryCache.put(TRAIN_ID, inventory);
+        Object appendScript = ReflectionTestUtils.getField(seatInventoryManager, "changeLogAppendScript");
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any())).thenAnswer(invocation -> {
+            if (invocation.getArgument(0) != appendScript) {
+                return List.of("0");
+            }
+            throw new QueryTimeoutException("redis timeout");
+        });
+    }
+
+    @Test
+    void testLockRevertsLocalBitmapWhenChangeLogAppendFails() {
+        long mask = inventory.intervalMask("A", "C");
+        Assertions.assertThrows(QueryTimeoutException.class, () -> seatInventoryManager.lock(TRAIN_ID, "A", "C", List.of(seat("01A"), seat("01B"))));
+        Assertions.assertEquals(2, inventory.countAvailable(0, mask));
+    }
+
+    @Test
+    void testUnlockRevertsLocalBitmapWhenChangeLogAppendFails() {
+        long mask = inventory.intervalMask("A", "C");
+        Assertions.assertTrue(inventory.tryLock("01", "01A", mask));
+        Assertions.assertThrows(QueryTimeoutException.class, () -> seatInventoryManager.unlock(TRAIN_ID, "A", "C", List.of(seat("01A"))));
+        Assertions.assertEquals(1, inventory.countAvailable(0, mask));
+        Assertions.assertFalse(inventory.tryLock("01", "01A", mask));
+    }
+
+    private static TrainPurchaseTicketRespDTO seat(String seatNumber) {
+        TrainPurchaseTicketRespDTO seat = new TrainPurchaseTicketRespDTO();
+        seat.setCarriageNumber("01");
+        seat.setSeatNumber(seatNumber);
+        return seat;
+    }
+}
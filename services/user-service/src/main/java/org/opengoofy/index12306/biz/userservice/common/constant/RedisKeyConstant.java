@@ -41,4 +41,39 @@ public final class RedisKeyConstant {
      * 用户乘车人列表，Key Prefix + 用户名
      */
     public static final String USER_PASSENGER_LIST = "index12306-user-service:user-passenger-list:";
+
+    /**
+     * 用户乘车人 Hash，Key Prefix + {用户名}，Field 为乘车人 ID，Value 为空字符串时表示乘车人不存在
+     */
+    public static final String USER_PASSENGER_HASH = "index12306-user-service:user-passenger-hash:";
+
+    /**
+     * 用户乘车人版本号，Key Prefix + {用户名}，乘车人变更时自增，重建乘车人 Hash 时校验
+     */
+    public static final String USER_PASSENGER_VERSION = "index12306-user-service:user-passenger-version:";
+
+    /**
+     * 用户乘车人变更通知 Channel，消息内容为用户名
+     */
+    public static final String USER_PASSENGER_CHANGE_TOPIC = "index12306-user-service:user-passenger-change";
+
+    /**
+     * 用户登录标识索引，Key Prefix + 邮箱或手机号，Value 为用户名
+     */
+    public static final String USER_LOGIN_IDENTIFIER = "index12306-user-service:login-identifier:";
+
+    /**
+     * 用户登录凭证，Key Prefix + 用户名
+     */
+    public static final String USER_LOGIN_CREDENTIAL = "index12306-user-service:login-credential-hmac:";
+
+    /**
+     * 用户登录标识布隆过滤器预热完成标记
+     */
+    public static final String USER_LOGIN_BLOOM_FILTER_READY = "index12306-user-service:login-bloom-filter-ready";
+
+    /**
+     * 用户登录标识布隆过滤器预热锁
+     */
+    public static final String LOCK_USER_LOGIN_BLOOM_FILTER_WARM_UP = "index12306-user-service:lock:login-bloom-filter-warm-up";
 }
@@ -27,7 +27,7 @@ import org.springframework.context.annotation.Configuration;
  * 布隆过滤器配置
  */
 @Configuration
-@EnableConfigurationProperties(UserRegisterBloomFilterProperties.class)
+@EnableConfigurationProperties({UserRegisterBloomFilterProperties.class, UserLoginBloomFilterProperties.class})
 public class RBloomFilterConfiguration {
 
     /**
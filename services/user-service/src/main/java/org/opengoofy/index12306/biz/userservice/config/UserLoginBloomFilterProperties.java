@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.userservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 用户登录标识布隆过滤器属性配置
+ */
+@Data
+@ConfigurationProperties(prefix = UserLoginBloomFilterProperties.PREFIX)
+public final class UserLoginBloomFilterProperties {
+
+    public static final String PREFIX = "framework.cache.redis.bloom-filter.user-login";
+
+    /**
+     * 用户登录标识布隆过滤器实例名称
+     */
+    private String name = "user_login_identifier_bloom_filter";
+
+    /**
+     * 预期插入量，每个用户插入用户名、手机号、邮箱三个元素
+     */
+    private Long expectedInsertions = 30000000L;
+
+    /**
+     * 预期错误概率
+     */
+    private Double falseProbability = 0.001D;
+}
@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.userservice.service.cache;
+
+import cn.hutool.core.util.RandomUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import cn.hutool.crypto.digest.HmacAlgorithm;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opengoofy.index12306.biz.userservice.config.UserLoginBloomFilterProperties;
+import org.opengoofy.index12306.biz.userservice.dao.entity.UserDO;
+import org.opengoofy.index12306.biz.userservice.dao.entity.UserMailDO;
+import org.opengoofy.index12306.biz.userservice.dao.entity.UserPhoneDO;
+import org.opengoofy.index12306.biz.userservice.dao.mapper.UserMailMapper;
+import org.opengoofy.index12306.biz.userservice.dao.mapper.UserMapper;
+import org.opengoofy.index12306.biz.userservice.dao.mapper.UserPhoneMapper;
+import org.opengoofy.index12306.biz.userservice.dto.domain.UserLoginCredentialDTO;
+import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.opengoofy.index12306.biz.userservice.common.constant.RedisKeyConstant.LOCK_USER_LOGIN_BLOOM_FILTER_WARM_UP;
+import static org.opengoofy.index12306.biz.userservice.common.constant.RedisKeyConstant.USER_LOGIN_BLOOM_FILTER_READY;
+import static org.opengoofy.index12306.biz.userservice.common.constant.RedisKeyConstant.USER_LOGIN_CREDENTIAL;
+import static org.opengoofy.index12306.biz.userservice.common.constant.RedisKeyConstant.USER_LOGIN_IDENTIFIER;
+
+/**
+ * 用户登录标识读穿透索引
+ * 缓存 邮箱/手机号 -> 用户名 与 用户名 -> 登录凭证，登录时不再查询分片的 t_user_mail、t_user_phone、t_user 表；
+ * 用户名、手机号、邮箱按类型加前缀后写入布隆过滤器，布隆过滤器预热完成后不存在的登录标识直接返回，不访问缓存与数据库；
+ * 缓存的登录凭证只保存密码加盐后的 HMAC 摘要，摘要密钥仅存在于服务配置中，缓存泄露时无法离线还原密码
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserLoginIdentifierIndex implements InitializingBean, CommandLineRunner {
+
+    private static final long INDEX_TIMEOUT_HOURS = 24L;
+    private static final int WARM_UP_BATCH_SIZE = 1000;
+    private static final int PASSWORD_SALT_LENGTH = 16;
+
+    /**
+     * 登录凭证密码摘要密钥最小长度，与 HMAC-SHA256 输出长度一致
+     */
+    private static final int MIN_CREDENTIAL_DIGEST_SECRET_LENGTH = 32;
+
+    /**
+     * 布隆过滤器元素前缀，区分登录标识类型，避免用户名命中手机号过滤
+     */
+    private static final String USERNAME_BLOOM_PREFIX = "username:";
+    private static final String PHONE_BLOOM_PREFIX = "phone:";
+    private static final String MAIL_BLOOM_PREFIX = "mail:";
+
+    private final UserMapper userMapper;
+    private final UserMailMapper userMailMapper;
+    private final UserPhoneMapper userPhoneMapper;
+    private final DistributedCache distributedCache;
+    private final RedissonClient redissonClient;
+    private final UserLoginBloomFilterProperties userLoginBloomFilterProperties;
+
+    /**
+     * 登录凭证密码摘要密钥，各实例需配置相同密钥，不提供默认值，避免使用仓库中公开的密钥
+     */
+    @Value("${user.login.credential-digest-secret}")
+    private String credentialDigestSecret;
+
+    private RBloomFilter<String> userLoginBloomFilter;
+
+    /**
+     * 布隆过滤器是否已包含全部存量登录标识，预热完成前不能据此判定登录标识不存在
+     */
+    private volatile boolean bloomFilterReady;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (StrUtil.length(StrUtil.trim(credentialDigestSecret)) < MIN_CREDENTIAL_DIGEST_SECRET_LENGTH) {
+            throw new IllegalStateException(String.format("user.login.credential-digest-secret must be configured with at least %d characters, set USER_LOGIN_CREDENTIAL_DIGEST_SECRET.", MIN_CREDENTIAL_DIGEST_SECRET_LENGTH));
+        }
+        userLoginBloomFilter = redissonClient.getBloomFilter(userLoginBloomFilterProperties.getName());
+        userLoginBloomFilter.tryInit(userLoginBloomFilterProperties.getExpectedInsertions(), userLoginBloomFilterProperties.getFalseProbability());
+    }
+
+    @Override
+    public void run(String... args) {
+        if (isBloomFilterReady()) {
+            return;
+        }
+        CompletableFuture.runAsync(this::warmUpBloomFilter)
+                .exceptionally(ex -> {
+                    log.error("用户登录标识布隆过滤器预热失败", ex);
+                    return null;
+                });
+    }
+
+    /**
+     * 根据邮箱或手机号查询用户名
+     *
+     * @param identifier 邮箱或手机号
+     * @param mailFlag   是否为邮箱
+     * @return 用户名，不存在返回 null
+     */
+    public String resolveUsername(String identifier, boolean mailFlag) {
+        if (mightNotExist((mailFlag ? MAIL_BLOOM_PREFIX : PHONE_BLOOM_PREFIX) + identifier)) {
+            return null;
+        }
+        return distributedCache.safeGet(
+                USER_LOGIN_IDENTIFIER + identifier,
+                String.class,
+                () -> mailFlag ? loadUsernameByMail(identifier) : loadUsernameByPhone(identifier),
+                INDEX_TIMEOUT_HOURS,
+                TimeUnit.HOURS
+        );
+    }
+
+    /**
+     * 根据用户名查询登录凭证
+     *
+     * @param username 用户名
+     * @return 登录凭证，不存在返回 null
+     */
+    public UserLoginCredentialDTO getCredential(String username) {
+        if (mightNotExist(USERNAME_BLOOM_PREFIX + username)) {
+            return null;
+        }
+        return distributedCache.safeGet(
+                USER_LOGIN_CREDENTIAL + username,
+                UserLoginCredentialDTO.class,
+                () -> loadCredential(username),
+                INDEX_TIMEOUT_HOURS,
+                TimeUnit.HOURS
+        );
+    }
+
+    /**
+     * 校验密码与登录凭证是否匹配
+     */
+    public boolean matchesPassword(UserLoginCredentialDTO credential, String password) {
+        if (credential == null || credential.getPasswordSalt() == null || credential.getPasswordDigest() == null || password == null) {
+            return false;
+        }
+        byte[] expected = credential.getPasswordDigest().getBytes(StandardCharsets.UTF_8);
+        byte[] actual = digestPassword(credential.getPasswordSalt(), password).getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    /**
+     * 用户注册或变更登录标识后写入布隆过滤器，并删除可能存在的旧索引
+     *
+     * @param username 用户名
+     * @param phone    手机号，未变更传 null
+     * @param mail     邮箱，未变更传 null
+     */
+    public void register(String username, String phone, String mail) {
+        userLoginBloomFilter.add(USERNAME_BLOOM_PREFIX + username);
+        if (StrUtil.isNotBlank(phone)) {
+            userLoginBloomFilter.add(PHONE_BLOOM_PREFIX + phone);
+        }
+        if (StrUtil.isNotBlank(mail)) {
+            userLoginBloomFilter.add(MAIL_BLOOM_PREFIX + mail);
+        }
+        invalidate(username, phone, mail);
+    }
+
+    /**
+     * 用户注销或登录标识失效后删除索引，布隆过滤器不支持删除，误判的登录标识由数据库兜底
+     * 处于事务中时事务提交后再删除一次，避免提交前并发登录将旧数据重新写入缓存
+     */
+    public void invalidate(String username, String... identifiers) {
+        List<String> keys = new ArrayList<>();
+        keys.add(USER_LOGIN_CREDENTIAL + username);
+        Arrays.stream(identifiers)
+                .filter(StrUtil::isNotBlank)
+                .forEach(each -> keys.add(USER_LOGIN_IDENTIFIER + each));
+        distributedCache.delete(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    distributedCache.delete(keys);
+                }
+            });
+        }
+    }
+
+    private boolean mightNotExist(String identifier) {
+        return isBloomFilterReady() && !userLoginBloomFilter.contains(identifier);
+    }
+
+    private boolean isBloomFilterReady() {
+        if (!bloomFilterReady) {
+            bloomFilterReady = Boolean.TRUE.equals(distributedCache.hasKey(USER_LOGIN_BLOOM_FILTER_READY));
+        }
+        return bloomFilterReady;
+    }
+
+    private String loadUsernameByMail(String mail) {
+        LambdaQueryWrapper<UserMailDO> queryWrapper = Wrappers.lambdaQuery(UserMailDO.class)
+                .eq(UserMailDO::getMail, mail);
+        return Optional.ofNullable(userMailMapper.selectOne(queryWrapper))
+                .map(UserMailDO::getUsername)
+                .orElse(null);
+    }
+
+    private String loadUsernameByPhone(String phone) {
+        LambdaQueryWrapper<UserPhoneDO> queryWrapper = Wrappers.lambdaQuery(UserPhoneDO.class)
+                .eq(UserPhoneDO::getPhone, phone);
+        return Optional.ofNullable(userPhoneMapper.selectOne(queryWrapper))
+                .map(UserPhoneDO::getUsername)
+                .orElse(null);
+    }
+
+    private UserLoginCredentialDTO loadCredential(String username) {
+        LambdaQueryWrapper<UserDO> queryWrapper = Wrappers.lambdaQuery(UserDO.class)
+                .eq(UserDO::getUsername, username)
+                .select(UserDO::getId, UserDO::getUsername, UserDO::getRealName, UserDO::getPassword);
+        UserDO userDO = userMapper.selectOne(queryWrapper);
+        if (userDO == null || userDO.getPassword() == null) {
+            return null;
+        }
+        String passwordSalt = RandomUtil.randomString(PASSWORD_SALT_LENGTH);
+        return new UserLoginCredentialDTO(userDO.getId(), userDO.getUsername(), userDO.getRealName(), passwordSalt, digestPassword(passwordSalt, userDO.getPassword()));
+    }
+
+    private String digestPassword(String passwordSalt, String password) {
+        return DigestUtil.hmac(HmacAlgorithm.HmacSHA256, credentialDigestSecret.getBytes(StandardCharsets.UTF_8))
+                .digestHex(passwordSalt + password);
+    }
+
+    /**
+     * 按主键分批扫描用户表，将存量用户名、手机号、邮箱写入布隆过滤器，多实例通过分布式锁保证只有一个实例执行预热
+     */
+    private void warmUpBloomFilter() {
+        RLock lock = redissonClient.getLock(LOCK_USER_LOGIN_BLOOM_FILTER_WARM_UP);
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            if (isBloomFilterReady()) {
+                return;
+            }
+            long lastId = 0L;
+            long count = 0L;
+            List<UserDO> userDOList;
+            do {
+                LambdaQueryWrapper<UserDO> queryWrapper = Wrappers.lambdaQuery(UserDO.class)
+                        .gt(UserDO::getId, lastId)
+                        .orderByAsc(UserDO::getId)
+                        .select(UserDO::getId, UserDO::getUsername, UserDO::getPhone, UserDO::getMail)
+                        .last("limit " + WARM_UP_BATCH_SIZE);
+                userDOList = userMapper.selectList(queryWrapper);
+                for (UserDO each : userDOList) {
+                    Optional.ofNullable(each.getUsername()).ifPresent(username -> userLoginBloomFilter.add(USERNAME_BLOOM_PREFIX + username));
+                    Optional.ofNullable(each.getPhone()).filter(StrUtil::isNotBlank).ifPresent(phone -> userLoginBloomFilter.add(PHONE_BLOOM_PREFIX + phone));
+                    Optional.ofNullable(each.getMail()).filter(StrUtil::isNotBlank).ifPresent(mail -> userLoginBloomFilter.add(MAIL_BLOOM_PREFIX + mail));
+                    lastId = Math.max(lastId, Objects.requireNonNull(each.getId()));
+                }
+                count += userDOList.size();
+            } while (userDOList.size() == WARM_UP_BATCH_SIZE);
+            StringRedisTemplate instance = (StringRedisTemplate) distributedCache.getInstance();
+            instance.opsForValue().set(USER_LOGIN_BLOOM_FILTER_READY, Boolean.TRUE.toString());
+            bloomFilterReady = true;
+            log.info("用户登录标识布隆过滤器预热完成，用户数：{}", count);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
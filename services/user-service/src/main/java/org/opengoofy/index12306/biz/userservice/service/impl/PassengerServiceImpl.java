@@ -20,7 +20,6 @@ package org.opengoofy.index12306.biz.userservice.service.impl;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.IdcardUtil;
 import cn.hutool.core.util.PhoneUtil;
-import cn.hutool.core.util.StrUtil;
 import com.alibaba.fastjson2.JSON;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
@@ -36,21 +35,31 @@ import org.opengoofy.index12306.biz.userservice.dto.req.PassengerReqDTO;
 import org.opengoofy.index12306.biz.userservice.dto.resp.PassengerActualRespDTO;
 import org.opengoofy.index12306.biz.userservice.dto.resp.PassengerRespDTO;
 import org.opengoofy.index12306.biz.userservice.service.PassengerService;
+import org.opengoofy.index12306.framework.starter.bases.Singleton;
 import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
 import org.opengoofy.index12306.framework.starter.common.toolkit.BeanUtil;
 import org.opengoofy.index12306.framework.starter.convention.exception.ClientException;
 import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
 import org.opengoofy.index12306.frameworks.starter.user.core.UserContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import static org.opengoofy.index12306.biz.userservice.common.constant.RedisKeyConstant.USER_PASSENGER_CHANGE_TOPIC;
+import static org.opengoofy.index12306.biz.userservice.common.constant.RedisKeyConstant.USER_PASSENGER_HASH;
 import static org.opengoofy.index12306.biz.userservice.common.constant.RedisKeyConstant.USER_PASSENGER_LIST;
+import static org.opengoofy.index12306.biz.userservice.common.constant.RedisKeyConstant.USER_PASSENGER_VERSION;
 
 /**
  * 乘车人接口实现层
@@ -60,6 +69,13 @@ import static org.opengoofy.index12306.biz.userservice.common.constant.RedisKeyC
 @RequiredArgsConstructor
 public class PassengerServiceImpl implements PassengerService {
 
+    private static final String LUA_USER_PASSENGER_HASH_REBUILD_PATH = "lua/user_passenger_hash_rebuild.lua";
+
+    /**
+     * 乘车人 Hash 中表示乘车人不存在的占位值
+     */
+    private static final String ABSENT_PASSENGER = "";
+
     private final PassengerMapper passengerMapper;
     private final DistributedCache distributedCache;
 
@@ -114,16 +130,66 @@ public class PassengerServiceImpl implements PassengerService {
         );
     }
 
+    /**
+     * 根据乘车人 ID 集合查询乘车人
+     * 乘车人按用户维护为 Redis Hash，通过 HMGET 只读取需要的乘车人；Hash 不存在或缺失时查询数据库重建，
+     * 重建后仍不存在的乘车人以占位值缓存，避免反复重建
+     */
     @Override
     public List<PassengerActualRespDTO> listPassengerQueryByIds(String username, List<Long> ids) {
-        String actualUserPassengerListStr = getActualUserPassengerListStr(username);
-        if (StrUtil.isEmpty(actualUserPassengerListStr)) {
+        if (CollUtil.isEmpty(ids)) {
             return null;
         }
-        return JSON.parseArray(actualUserPassengerListStr, PassengerDO.class)
-                .stream().filter(passengerDO -> ids.contains(passengerDO.getId()))
-                .map(each -> BeanUtil.convert(each, PassengerActualRespDTO.class))
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        List<Object> passengerIds = ids.stream().map(String::valueOf).collect(Collectors.toList());
+        List<Object> passengerJsonList = stringRedisTemplate.opsForHash().multiGet(userPassengerHashKey(username), passengerIds);
+        if (passengerJsonList.stream().anyMatch(Objects::isNull)) {
+            Map<String, String> passengerHash = loadUserPassengerHash(username, passengerIds);
+            passengerJsonList = passengerIds.stream().map(passengerHash::get).collect(Collectors.toList());
+        }
+        List<PassengerActualRespDTO> result = passengerJsonList.stream()
+                .filter(each -> each != null && !ABSENT_PASSENGER.equals(each))
+                .map(each -> BeanUtil.convert(JSON.parseObject(each.toString(), PassengerDO.class), PassengerActualRespDTO.class))
                 .collect(Collectors.toList());
+        return result.isEmpty() ? null : result;
+    }
+
+    /**
+     * 查询数据库重建乘车人 Hash，重建前读取版本号，Lua 脚本内校验版本号未变化时才删除旧 Hash 并写入，
+     * 避免重建期间乘车人变更后被旧数据覆盖
+     */
+    private Map<String, String> loadUserPassengerHash(String username, List<Object> passengerIds) {
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        String versionKey = userPassengerVersionKey(username);
+        String version = Optional.ofNullable(stringRedisTemplate.opsForValue().get(versionKey)).orElse("");
+        LambdaQueryWrapper<PassengerDO> queryWrapper = Wrappers.lambdaQuery(PassengerDO.class)
+                .eq(PassengerDO::getUsername, username);
+        Map<String, String> passengerHash = passengerMapper.selectList(queryWrapper).stream()
+                .collect(Collectors.toMap(each -> String.valueOf(each.getId()), JSON::toJSONString, (o1, o2) -> o2));
+        passengerIds.forEach(each -> passengerHash.putIfAbsent(each.toString(), ABSENT_PASSENGER));
+        DefaultRedisScript<Long> actual = Singleton.get(LUA_USER_PASSENGER_HASH_REBUILD_PATH, () -> {
+            DefaultRedisScript<Long> redisScript = new DefaultRedisScript<>();
+            redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource(LUA_USER_PASSENGER_HASH_REBUILD_PATH)));
+            redisScript.setResultType(Long.class);
+            return redisScript;
+        });
+        List<Object> args = new ArrayList<>(passengerHash.size() * 2 + 2);
+        args.add(version);
+        args.add(String.valueOf(TimeUnit.DAYS.toSeconds(1)));
+        passengerHash.forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        stringRedisTemplate.execute(actual, List.of(versionKey, userPassengerHashKey(username)), args.toArray());
+        return passengerHash;
+    }
+
+    private String userPassengerHashKey(String username) {
+        return USER_PASSENGER_HASH + "{" + username + "}";
+    }
+
+    private String userPassengerVersionKey(String username) {
+        return USER_PASSENGER_VERSION + "{" + username + "}";
     }
 
     @Override
@@ -225,7 +291,13 @@ public void updatePassenger(PassengerReqDTO requestParam) {
     }
 
     private void delUserPassengerCache(String username) {
-        distributedCache.delete(USER_PASSENGER_LIST + username);
+        // 先递增版本号再删除缓存，删除前已开始的乘车人 Hash 重建因版本号不一致放弃写入
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        stringRedisTemplate.opsForValue().increment(userPassengerVersionKey(username));
+        stringRedisTemplate.expire(userPassengerVersionKey(username), 1, TimeUnit.DAYS);
+        distributedCache.delete(List.of(USER_PASSENGER_LIST + username, userPassengerHashKey(username)));
+        // 通知购票等服务失效本地乘车人缓存
+        ((StringRedisTemplate) distributedCache.getInstance()).convertAndSend(USER_PASSENGER_CHANGE_TOPIC, username);
     }
 
     private void verifyPassenger(PassengerReqDTO requestParam) {
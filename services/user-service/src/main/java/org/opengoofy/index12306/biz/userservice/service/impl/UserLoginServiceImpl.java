@@ -19,7 +19,6 @@ package org.opengoofy.index12306.biz.userservice.service.impl;
 
 import cn.hutool.core.util.StrUtil;
 import com.alibaba.fastjson2.JSON;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -34,6 +33,7 @@ import org.opengoofy.index12306.biz.userservice.dao.mapper.UserMailMapper;
 import org.opengoofy.index12306.biz.userservice.dao.mapper.UserMapper;
 import org.opengoofy.index12306.biz.userservice.dao.mapper.UserPhoneMapper;
 import org.opengoofy.index12306.biz.userservice.dao.mapper.UserReuseMapper;
+import org.opengoofy.index12306.biz.userservice.dto.domain.UserLoginCredentialDTO;
 import org.opengoofy.index12306.biz.userservice.dto.req.UserDeletionReqDTO;
 import org.opengoofy.index12306.biz.userservice.dto.req.UserLoginReqDTO;
 import org.opengoofy.index12306.biz.userservice.dto.req.UserRegisterReqDTO;
@@ -42,6 +42,7 @@ import org.opengoofy.index12306.biz.userservice.dto.resp.UserQueryRespDTO;
 import org.opengoofy.index12306.biz.userservice.dto.resp.UserRegisterRespDTO;
 import org.opengoofy.index12306.biz.userservice.service.UserLoginService;
 import org.opengoofy.index12306.biz.userservice.service.UserService;
+import org.opengoofy.index12306.biz.userservice.service.cache.UserLoginIdentifierIndex;
 import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
 import org.opengoofy.index12306.framework.starter.common.toolkit.BeanUtil;
 import org.opengoofy.index12306.framework.starter.convention.exception.ClientException;
@@ -89,6 +90,7 @@ public class UserLoginServiceImpl implements UserLoginService {
     private final DistributedCache distributedCache;
     private final AbstractChainContext<UserRegisterReqDTO> abstractChainContext;
     private final RBloomFilter<String> userRegisterCachePenetrationBloomFilter;
+    private final UserLoginIdentifierIndex userLoginIdentifierIndex;
 
     @Override
     public UserLoginRespDTO login(UserLoginReqDTO requestParam) {
@@ -103,32 +105,21 @@ public class UserLoginServiceImpl implements UserLoginService {
         }
         String username;
         if (mailFlag) {
-            LambdaQueryWrapper<UserMailDO> queryWrapper = Wrappers.lambdaQuery(UserMailDO.class)
-                    .eq(UserMailDO::getMail, usernameOrMailOrPhone);
-            username = Optional.ofNullable(userMailMapper.selectOne(queryWrapper))
-                    .map(UserMailDO::getUsername)
+            username = Optional.ofNullable(userLoginIdentifierIndex.resolveUsername(usernameOrMailOrPhone, true))
                     .orElseThrow(() -> new ClientException("用户名/手机号/邮箱不存在"));
         } else {
-            LambdaQueryWrapper<UserPhoneDO> queryWrapper = Wrappers.lambdaQuery(UserPhoneDO.class)
-                    .eq(UserPhoneDO::getPhone, usernameOrMailOrPhone);
-            username = Optional.ofNullable(userPhoneMapper.selectOne(queryWrapper))
-                    .map(UserPhoneDO::getUsername)
-                    .orElse(null);
+            username = userLoginIdentifierIndex.resolveUsername(usernameOrMailOrPhone, false);
         }
         username = Optional.ofNullable(username).orElse(requestParam.getUsernameOrMailOrPhone());
-        LambdaQueryWrapper<UserDO> queryWrapper = Wrappers.lambdaQuery(UserDO.class)
-                .eq(UserDO::getUsername, username)
-                .eq(UserDO::getPassword, requestParam.getPassword())
-                .select(UserDO::getId, UserDO::getUsername, UserDO::getRealName);
-        UserDO userDO = userMapper.selectOne(queryWrapper);
-        if (userDO != null) {
+        UserLoginCredentialDTO credential = userLoginIdentifierIndex.getCredential(username);
+        if (userLoginIdentifierIndex.matchesPassword(credential, requestParam.getPassword())) {
             UserInfoDTO userInfo = UserInfoDTO.builder()
-                    .userId(String.valueOf(userDO.getId()))
-                    .username(userDO.getUsername())
-                    .realName(userDO.getRealName())
+                    .userId(String.valueOf(credential.getId()))
+                    .username(credential.getUsername())
+                    .realName(credential.getRealName())
                     .build();
             String accessToken = JWTUtil.generateAccessToken(userInfo);
-            UserLoginRespDTO actual = new UserLoginRespDTO(userInfo.getUserId(), requestParam.getUsernameOrMailOrPhone(), userDO.getRealName(), accessToken);
+            UserLoginRespDTO actual = new UserLoginRespDTO(userInfo.getUserId(), requestParam.getUsernameOrMailOrPhone(), credential.getRealName(), accessToken);
             distributedCache.put(accessToken, JSON.toJSONString(actual), 30, TimeUnit.MINUTES);
             return actual;
         }
@@ -204,6 +195,7 @@ public class UserLoginServiceImpl implements UserLoginService {
             instance.opsForSet().remove(USER_REGISTER_REUSE_SHARDING + hashShardingIdx(username), username);
             // 布隆过滤器设计问题：设置多大、碰撞率以及初始容量不够了怎么办？详情查看： 
             userRegisterCachePenetrationBloomFilter.add(username);
+            userLoginIdentifierIndex.register(username, requestParam.getPhone(), requestParam.getMail());
         } finally {
             lock.unlock();
         }
@@ -246,6 +238,7 @@ public class UserLoginServiceImpl implements UserLoginService {
                 userMailMapper.deletionUser(userMailDO);
             }
             distributedCache.delete(UserContext.getToken());
+            userLoginIdentifierIndex.invalidate(username, userQueryRespDTO.getPhone(), userQueryRespDTO.getMail());
             userReuseMapper.insert(new UserReuseDO(username));
             StringRedisTemplate instance = (StringRedisTemplate) distributedCache.getInstance();
             instance.opsForSet().add(USER_REGISTER_REUSE_SHARDING + hashShardingIdx(username), username);
@@ -34,6 +34,7 @@ import org.opengoofy.index12306.biz.userservice.dto.req.UsersQueryReqDTO;
 import org.opengoofy.index12306.biz.userservice.dto.resp.UserQueryActualRespDTO;
 import org.opengoofy.index12306.biz.userservice.dto.resp.UserQueryRespDTO;
 import org.opengoofy.index12306.biz.userservice.service.UserService;
+import org.opengoofy.index12306.biz.userservice.service.cache.UserLoginIdentifierIndex;
 import org.opengoofy.index12306.framework.starter.common.toolkit.BeanUtil;
 import org.opengoofy.index12306.framework.starter.convention.exception.ClientException;
 import org.springframework.stereotype.Service;
@@ -52,6 +53,7 @@ public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final UserDeletionMapper userDeletionMapper;
     private final UserMailMapper userMailMapper;
+    private final UserLoginIdentifierIndex userLoginIdentifierIndex;
 
     @Override
     public UserQueryRespDTO queryUserByUserId(String userId) {
@@ -122,6 +124,8 @@ public class UserServiceImpl implements UserService {
                     .username(requestParam.getUsername())
                     .build();
             userMailMapper.insert(userMailDO);
+            userLoginIdentifierIndex.invalidate(requestParam.getUsername(), userQueryRespDTO.getMail());
+            userLoginIdentifierIndex.register(requestParam.getUsername(), null, requestParam.getMail());
         }
     }
 }
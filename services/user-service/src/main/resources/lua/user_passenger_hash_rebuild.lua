@@ -0,0 +1,10 @@
+local version = redis.call('get', KEYS[1]) or ''
+if version ~= ARGV[1] then
+    return 0
+end
+redis.call('del', KEYS[2])
+if #ARGV > 2 then
+    redis.call('hset', KEYS[2], unpack(ARGV, 3))
+end
+redis.call('expire', KEYS[2], ARGV[2])
+return 1